@@ -1,14 +1,21 @@
 package cn.fxbin.bubble.data.duckdb;
 
+import cn.fxbin.bubble.data.duckdb.core.ColumnBatch;
+import cn.fxbin.bubble.data.duckdb.core.DuckDbFileImporter;
 import cn.fxbin.bubble.data.duckdb.core.DuckDbIngester;
+import cn.fxbin.bubble.data.duckdb.core.DuckDbInstanceStats;
 import cn.fxbin.bubble.data.duckdb.core.DuckDbManager;
 import cn.fxbin.bubble.data.duckdb.core.DuckDbTemplate;
+import cn.fxbin.bubble.data.duckdb.core.FileImportResult;
+import cn.fxbin.bubble.data.duckdb.core.IngestResult;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.Assert;
 
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * DuckDB 统一客户端入口
@@ -89,6 +96,30 @@ public class DuckDbOperations {
         }
     }
 
+    /**
+     * 在默认数据库上以流的方式执行查询，结果不会被完整加载到内存。
+     *
+     * @param sql  SQL 查询语句。
+     * @param type 结果类型。
+     * @param <T>  泛型类型。
+     * @return 结果流，持有数据库连接，使用完毕后必须关闭。
+     */
+    public <T> Stream<T> stream(String sql, Class<T> type) {
+        return defaultTemplate.queryForStream(sql, type);
+    }
+
+    /**
+     * 在默认数据库上按列式批次分块读取查询结果。
+     *
+     * @param sql       SQL 查询语句。
+     * @param chunkSize 每个批次的最大行数。
+     * @param consumer  批次消费者，批次对象在各次回调间复用。
+     * @return 读取的总行数。
+     */
+    public long queryForColumnBatches(String sql, int chunkSize, Consumer<ColumnBatch> consumer) {
+        return defaultTemplate.queryForColumnBatches(sql, chunkSize, consumer);
+    }
+
     /**
      * 获取表行数统计。
      *
@@ -124,6 +155,29 @@ public class DuckDbOperations {
         defaultIngester.ingest(tableName, dataIterator);
     }
 
+    /**
+     * 向默认数据库并行追加多个数据分区。
+     *
+     * @param tableName  表名。
+     * @param partitions 数据分区列表。
+     * @return 摄取结果。
+     */
+    public IngestResult ingestParallel(String tableName, List<? extends Iterator<Object[]>> partitions) {
+        return defaultIngester.ingestParallel(tableName, partitions);
+    }
+
+    /**
+     * 将单个数据源按批次切分后并行追加到默认数据库。
+     *
+     * @param tableName    表名。
+     * @param dataIterator 数据迭代器。
+     * @param batchSize    每个批次的行数。
+     * @return 摄取结果。
+     */
+    public IngestResult ingestParallel(String tableName, Iterator<Object[]> dataIterator, int batchSize) {
+        return defaultIngester.ingestParallel(tableName, dataIterator, batchSize);
+    }
+
     /**
      * 向默认数据库追加数据（列表方式）。
      *
@@ -134,6 +188,17 @@ public class DuckDbOperations {
         defaultTemplate.append(tableName, rows);
     }
 
+    /**
+     * 向默认数据库追加列式批次（原生类型数组，无逐行装箱）。
+     *
+     * @param tableName 表名。
+     * @param batch     列式批次。
+     * @return 追加的行数。
+     */
+    public long appendColumns(String tableName, ColumnBatch batch) {
+        return defaultTemplate.appendColumns(tableName, batch);
+    }
+
     /**
      * 将 Parquet 文件导入到表中。
      *
@@ -144,6 +209,18 @@ public class DuckDbOperations {
         defaultTemplate.importParquet(tableName, parquetPath);
     }
 
+    /**
+     * 增量导入匹配通配符的 Parquet / CSV 文件到默认数据库。
+     *
+     * @param tableName   目标表名。
+     * @param pathPattern 文件通配符。
+     * @param format      文件格式。
+     * @return 导入结果。
+     */
+    public FileImportResult importFiles(String tableName, String pathPattern, DuckDbFileImporter.Format format) {
+        return defaultTemplate.importFiles(tableName, pathPattern, format);
+    }
+
     /**
      * 将表（或查询结果）导出为 Parquet 文件。
      *
@@ -189,6 +266,15 @@ public class DuckDbOperations {
         manager.close(filePath, true); // 尝试关闭只读连接
     }
 
+    /**
+     * 获取动态实例的统计信息。
+     *
+     * @return 统计信息列表。
+     */
+    public List<DuckDbInstanceStats> statistics() {
+        return manager.getStatistics();
+    }
+
     /**
      * 获取底层的 DuckDbManager。
      *
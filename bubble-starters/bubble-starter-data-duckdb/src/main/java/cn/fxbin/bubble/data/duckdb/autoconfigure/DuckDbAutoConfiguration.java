@@ -1,9 +1,11 @@
 package cn.fxbin.bubble.data.duckdb.autoconfigure;
 
 import cn.fxbin.bubble.data.duckdb.DuckDbOperations;
+import cn.fxbin.bubble.data.duckdb.core.DuckDbArrowReader;
 import cn.fxbin.bubble.data.duckdb.core.DuckDbConnectionFactory;
 import cn.fxbin.bubble.data.duckdb.core.DuckDbIngester;
 import cn.fxbin.bubble.data.duckdb.core.DuckDbManager;
+import cn.fxbin.bubble.data.duckdb.core.DuckDbSharedDataSource;
 import cn.fxbin.bubble.data.duckdb.core.DuckDbTemplate;
 import com.zaxxer.hikari.HikariDataSource;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +19,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 
 import javax.sql.DataSource;
 
@@ -55,6 +58,12 @@ public class DuckDbAutoConfiguration {
                     "确保没有其他进程正在访问 '{}'。DuckDB 强制执行单一写入者策略。", properties.getFilePath());
         }
 
+        if (properties.getConnectionMode() == DuckDbProperties.ConnectionMode.SHARED) {
+            DuckDbSharedDataSource dataSource = connectionFactory.createDefaultSharedDataSource();
+            log.info("DuckDB 共享实例数据源已初始化: {}", dataSource.getJdbcUrl());
+            return dataSource;
+        }
+
         HikariDataSource dataSource = connectionFactory.createDefaultDataSource();
         log.info("DuckDB 数据源已初始化: {}", dataSource.getJdbcUrl());
         return dataSource;
@@ -74,8 +83,8 @@ public class DuckDbAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public DuckDbIngester duckDbIngester(@Qualifier("duckDbDataSource") DataSource dataSource) {
-        return new DuckDbIngester(dataSource);
+    public DuckDbIngester duckDbIngester(@Qualifier("duckDbDataSource") DataSource dataSource, DuckDbProperties properties) {
+        return new DuckDbIngester(dataSource, properties);
     }
 
     @Bean
@@ -84,4 +93,19 @@ public class DuckDbAutoConfiguration {
         return new DuckDbOperations(duckDbTemplate, duckDbManager, duckDbIngester);
     }
 
-}
\ No newline at end of file
+    /**
+     * Arrow 导出仅在类路径中存在 Arrow C Data 接口时启用。
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.apache.arrow.c.ArrowArrayStream")
+    static class DuckDbArrowConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public DuckDbArrowReader duckDbArrowReader(@Qualifier("duckDbDataSource") DataSource dataSource) {
+            return new DuckDbArrowReader(dataSource);
+        }
+
+    }
+
+}
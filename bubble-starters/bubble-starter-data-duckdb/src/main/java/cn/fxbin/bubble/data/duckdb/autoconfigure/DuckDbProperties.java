@@ -3,6 +3,7 @@ package cn.fxbin.bubble.data.duckdb.autoconfigure;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -112,6 +113,32 @@ public class DuckDbProperties {
      */
     private String threads = String.valueOf(Runtime.getRuntime().availableProcessors());
 
+    /**
+     * 是否以流式方式获取查询结果 (jdbc_stream_results)
+     * 开启后驱动按数据块逐步拉取结果，而不是在执行时物化整个结果集，
+     * 大结果集的流式读取（queryForStream、列式分块读取）依赖此配置。
+     */
+    private boolean streamResults = true;
+
+    /**
+     * 连接模式：连接池模式或共享实例模式。
+     * 共享实例模式下每个数据库只打开一个原生连接，其余连接通过 duplicate() 派生，
+     * 同一数据库的所有连接共享缓冲区与缓存，memory_limit 不会随连接池成倍占用。
+     */
+    private ConnectionMode connectionMode = ConnectionMode.POOLED;
+
+    /**
+     * 动态打开（connect(filePath)）的数据库实例的最大数量。
+     * 超出时按最近最少使用（LRU）关闭空闲实例；为空表示不限制。
+     */
+    private Integer maxOpenInstances;
+
+    /**
+     * 动态打开的数据库实例的空闲超时时间。
+     * 超过该时间未被访问且没有活跃连接的实例将被关闭，释放内存与文件锁；为空表示不按空闲时间回收。
+     */
+    private Duration idleTimeout;
+
     public enum Mode {
         /**
          * 内存数据库。进程退出时数据将丢失。
@@ -124,4 +151,16 @@ public class DuckDbProperties {
         FILE
     }
 
+    public enum ConnectionMode {
+        /**
+         * 每个数据库一个 HikariCP 连接池。
+         */
+        POOLED,
+
+        /**
+         * 每个数据库一个共享实例，连接通过 duplicate() 派生。
+         */
+        SHARED
+    }
+
 }
\ No newline at end of file
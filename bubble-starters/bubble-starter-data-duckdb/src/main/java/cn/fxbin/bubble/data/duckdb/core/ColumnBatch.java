@@ -0,0 +1,374 @@
+package cn.fxbin.bubble.data.duckdb.core;
+
+import java.lang.reflect.Array;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 列式数据批次
+ *
+ * <p>
+ * 以原生类型数组按列保存数据，写入时直接调用 Appender 的原生类型重载，
+ * 避免按行构造 {@code Object[]} 以及逐个单元格的装箱与类型判断。
+ * 批次可通过 {@link #clear()} 重复使用，列数组在整个生命周期内只分配一次。
+ * </p>
+ *
+ * <pre>{@code
+ * ColumnBatch batch = ColumnBatch.withCapacity(4096)
+ *         .longColumn()
+ *         .doubleColumn()
+ *         .stringColumn();
+ * long[] ids = batch.longs(0);
+ * double[] values = batch.doubles(1);
+ * String[] tags = batch.strings(2);
+ * // 填充数组 ...
+ * batch.setSize(n);
+ * duckDbTemplate.appendColumns("metrics", batch);
+ * batch.clear();
+ * }</pre>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/23 09:40
+ */
+public class ColumnBatch {
+
+    static final byte LONG = 0;
+    static final byte INT = 1;
+    static final byte DOUBLE = 2;
+    static final byte FLOAT = 3;
+    static final byte BOOLEAN = 4;
+    static final byte STRING = 5;
+    static final byte TIMESTAMP = 6;
+
+    private final int capacity;
+
+    private final List<Object> columns = new ArrayList<>();
+
+    private final List<boolean[]> nulls = new ArrayList<>();
+
+    private final List<String> names = new ArrayList<>();
+
+    private byte[] kinds = new byte[0];
+
+    private int size;
+
+    private ColumnBatch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity 必须大于 0");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * 创建指定容量的空批次。
+     *
+     * @param capacity 每列可容纳的最大行数。
+     * @return 列式批次。
+     */
+    public static ColumnBatch withCapacity(int capacity) {
+        return new ColumnBatch(capacity);
+    }
+
+    /**
+     * 包装已有的列数组，行数取各列长度（必须一致）。
+     *
+     * <p>
+     * 支持 {@code long[]}、{@code int[]}、{@code double[]}、{@code float[]}、{@code boolean[]}、
+     * {@code String[]} 与 {@code LocalDateTime[]}；{@code LocalDateTime[]} 会被转换为 UTC 微秒时间戳列，
+     * 其中的 null 元素以及 {@code String[]} 中的 null 元素写入为 NULL。
+     * </p>
+     *
+     * @param columns 按表列顺序排列的列数组。
+     * @return 列式批次。
+     */
+    public static ColumnBatch wrap(Object... columns) {
+        if (columns == null || columns.length == 0) {
+            throw new IllegalArgumentException("columns 不能为空");
+        }
+        int rows = -1;
+        for (Object column : columns) {
+            if (column == null || !column.getClass().isArray()) {
+                throw new IllegalArgumentException("列必须是非空数组");
+            }
+            int length = Array.getLength(column);
+            if (rows >= 0 && length != rows) {
+                throw new IllegalArgumentException("各列长度必须一致");
+            }
+            rows = length;
+        }
+        ColumnBatch batch = new ColumnBatch(Math.max(rows, 1));
+        for (Object column : columns) {
+            switch (column) {
+                case long[] values -> batch.addColumn(LONG, values);
+                case int[] values -> batch.addColumn(INT, values);
+                case double[] values -> batch.addColumn(DOUBLE, values);
+                case float[] values -> batch.addColumn(FLOAT, values);
+                case boolean[] values -> batch.addColumn(BOOLEAN, values);
+                case String[] values -> batch.addColumn(STRING, values);
+                case LocalDateTime[] values -> {
+                    long[] micros = new long[values.length];
+                    boolean[] nullFlags = new boolean[values.length];
+                    for (int i = 0; i < values.length; i++) {
+                        if (values[i] == null) {
+                            nullFlags[i] = true;
+                        } else {
+                            micros[i] = toEpochMicros(values[i]);
+                        }
+                    }
+                    batch.addColumn(TIMESTAMP, micros);
+                    System.arraycopy(nullFlags, 0, batch.nulls(batch.getColumnCount() - 1), 0, nullFlags.length);
+                }
+                default -> throw new IllegalArgumentException("不支持的列数组类型：" + column.getClass().getSimpleName());
+            }
+        }
+        batch.setSize(rows);
+        return batch;
+    }
+
+    /**
+     * 追加 BIGINT 列。
+     *
+     * @return 当前批次。
+     */
+    public ColumnBatch longColumn() {
+        return addColumn(LONG, new long[capacity]);
+    }
+
+    /**
+     * 追加 INTEGER 列。
+     *
+     * @return 当前批次。
+     */
+    public ColumnBatch intColumn() {
+        return addColumn(INT, new int[capacity]);
+    }
+
+    /**
+     * 追加 DOUBLE 列。
+     *
+     * @return 当前批次。
+     */
+    public ColumnBatch doubleColumn() {
+        return addColumn(DOUBLE, new double[capacity]);
+    }
+
+    /**
+     * 追加 FLOAT 列。
+     *
+     * @return 当前批次。
+     */
+    public ColumnBatch floatColumn() {
+        return addColumn(FLOAT, new float[capacity]);
+    }
+
+    /**
+     * 追加 BOOLEAN 列。
+     *
+     * @return 当前批次。
+     */
+    public ColumnBatch booleanColumn() {
+        return addColumn(BOOLEAN, new boolean[capacity]);
+    }
+
+    /**
+     * 追加 VARCHAR 列，数组中的 null 元素写入为 NULL。
+     *
+     * @return 当前批次。
+     */
+    public ColumnBatch stringColumn() {
+        return addColumn(STRING, new String[capacity]);
+    }
+
+    /**
+     * 追加 TIMESTAMP 列，值为 UTC 纪元微秒数。
+     *
+     * @return 当前批次。
+     */
+    public ColumnBatch timestampColumn() {
+        return addColumn(TIMESTAMP, new long[capacity]);
+    }
+
+    /**
+     * 获取 BIGINT 或 TIMESTAMP 列的数据数组。
+     *
+     * @param column 列序号（从 0 开始）。
+     * @return 数据数组。
+     */
+    public long[] longs(int column) {
+        return (long[]) column(column, LONG, TIMESTAMP);
+    }
+
+    /**
+     * 获取 INTEGER 列的数据数组。
+     *
+     * @param column 列序号（从 0 开始）。
+     * @return 数据数组。
+     */
+    public int[] ints(int column) {
+        return (int[]) column(column, INT, INT);
+    }
+
+    /**
+     * 获取 DOUBLE 列的数据数组。
+     *
+     * @param column 列序号（从 0 开始）。
+     * @return 数据数组。
+     */
+    public double[] doubles(int column) {
+        return (double[]) column(column, DOUBLE, DOUBLE);
+    }
+
+    /**
+     * 获取 FLOAT 列的数据数组。
+     *
+     * @param column 列序号（从 0 开始）。
+     * @return 数据数组。
+     */
+    public float[] floats(int column) {
+        return (float[]) column(column, FLOAT, FLOAT);
+    }
+
+    /**
+     * 获取 BOOLEAN 列的数据数组。
+     *
+     * @param column 列序号（从 0 开始）。
+     * @return 数据数组。
+     */
+    public boolean[] booleans(int column) {
+        return (boolean[]) column(column, BOOLEAN, BOOLEAN);
+    }
+
+    /**
+     * 获取 VARCHAR 列的数据数组。
+     *
+     * @param column 列序号（从 0 开始）。
+     * @return 数据数组。
+     */
+    public String[] strings(int column) {
+        return (String[]) column(column, STRING, STRING);
+    }
+
+    /**
+     * 获取列的空值标记数组，标记为 true 的行写入为 NULL。
+     *
+     * @param column 列序号（从 0 开始）。
+     * @return 空值标记数组。
+     */
+    public boolean[] nulls(int column) {
+        checkColumn(column);
+        boolean[] flags = nulls.get(column);
+        if (flags == null) {
+            flags = new boolean[capacity];
+            nulls.set(column, flags);
+        }
+        return flags;
+    }
+
+    /**
+     * 设置列名（按列顺序），读取查询结果时由读取器填充。
+     *
+     * @param columnNames 列名。
+     * @return 当前批次。
+     */
+    public ColumnBatch setColumnNames(String... columnNames) {
+        if (columnNames.length != columns.size()) {
+            throw new IllegalArgumentException("列名数量与列数不一致");
+        }
+        names.clear();
+        names.addAll(Arrays.asList(columnNames));
+        return this;
+    }
+
+    /**
+     * 获取列名，未设置时返回 null。
+     *
+     * @param column 列序号（从 0 开始）。
+     * @return 列名。
+     */
+    public String getColumnName(int column) {
+        checkColumn(column);
+        return names.isEmpty() ? null : names.get(column);
+    }
+
+    /**
+     * 设置批次中的有效行数。
+     *
+     * @param size 有效行数，不能超过容量。
+     * @return 当前批次。
+     */
+    public ColumnBatch setSize(int size) {
+        if (size < 0 || size > capacity) {
+            throw new IllegalArgumentException("size 必须在 0 到 " + capacity + " 之间");
+        }
+        this.size = size;
+        return this;
+    }
+
+    /**
+     * 清空批次以便复用，列数组保留，空值标记被重置。
+     */
+    public void clear() {
+        size = 0;
+        for (boolean[] flags : nulls) {
+            if (flags != null) {
+                Arrays.fill(flags, false);
+            }
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    byte kind(int column) {
+        return kinds[column];
+    }
+
+    Object data(int column) {
+        return columns.get(column);
+    }
+
+    boolean[] nullsOrNull(int column) {
+        return nulls.get(column);
+    }
+
+    static long toEpochMicros(LocalDateTime value) {
+        return ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), value);
+    }
+
+    private ColumnBatch addColumn(byte kind, Object data) {
+        columns.add(data);
+        nulls.add(null);
+        kinds = Arrays.copyOf(kinds, kinds.length + 1);
+        kinds[kinds.length - 1] = kind;
+        return this;
+    }
+
+    private Object column(int column, byte kind, byte alternative) {
+        checkColumn(column);
+        if (kinds[column] != kind && kinds[column] != alternative) {
+            throw new IllegalArgumentException("第 " + column + " 列的类型不匹配");
+        }
+        return columns.get(column);
+    }
+
+    private void checkColumn(int column) {
+        if (column < 0 || column >= columns.size()) {
+            throw new IndexOutOfBoundsException("列序号越界：" + column);
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+package cn.fxbin.bubble.data.duckdb.core;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowReader;
+import org.duckdb.DuckDBResultSet;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Consumer;
+
+/**
+ * DuckDB Arrow 读取器
+ *
+ * <p>
+ * 通过 DuckDB 的 Arrow C Data 接口将查询结果按批次导出为 {@link VectorSchemaRoot}，
+ * 数据以列式缓冲区的形式直接交给调用方（例如写入 Parquet、HTTP 响应或 Excel），不经过 JDBC 的逐行转换。
+ * 需要在类路径中提供 {@code arrow-c-data} 与一个 Arrow 内存实现（如 {@code arrow-memory-unsafe}），
+ * 并以 {@code --add-opens=java.base/java.nio=ALL-UNNAMED} 启动 JVM。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/24 10:15
+ */
+@Slf4j
+public class DuckDbArrowReader {
+
+    private final DataSource dataSource;
+
+    public DuckDbArrowReader(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * 执行查询，并按批次回调 Arrow 结果。
+     *
+     * <p>
+     * 回调中的 {@link VectorSchemaRoot} 在各批次间复用，回调返回后其内容即被下一批次覆盖；
+     * 需要保留数据时应在回调内完成转换或拷贝。回调同步执行，处理较慢时导出自然被阻塞。
+     * </p>
+     *
+     * @param sql       SQL 查询语句。
+     * @param allocator Arrow 内存分配器，由调用方负责关闭。
+     * @param batchSize 每个批次的最大行数。
+     * @param consumer  批次消费者。
+     * @return 导出的总行数。
+     */
+    public long query(String sql, BufferAllocator allocator, long batchSize, Consumer<VectorSchemaRoot> consumer) {
+        if (allocator == null) {
+            throw new IllegalArgumentException("allocator 不能为空");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize 必须大于 0");
+        }
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql);
+             ArrowReader reader = (ArrowReader) rs.unwrap(DuckDBResultSet.class).arrowExportStream(allocator, batchSize)) {
+            long count = 0;
+            while (reader.loadNextBatch()) {
+                VectorSchemaRoot root = reader.getVectorSchemaRoot();
+                count += root.getRowCount();
+                consumer.accept(root);
+            }
+            log.debug("Arrow 导出完成。总行数：{}", count);
+            return count;
+        } catch (SQLException | IOException e) {
+            throw new RuntimeException("以 Arrow 格式读取 DuckDB 查询结果失败", e);
+        }
+    }
+
+}
@@ -11,12 +11,13 @@ import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Properties;
 
 /**
  * DuckDB 连接工厂
  *
  * <p>
- * 用于为 DuckDB 创建 HikariDataSource 实例的工厂。
+ * 用于为 DuckDB 创建 HikariDataSource（连接池模式）或 DuckDbSharedDataSource（共享实例模式）实例的工厂。
  * </p>
  *
  * @author fxbin
@@ -38,27 +39,8 @@ public class DuckDbConnectionFactory {
      * @return 配置好的 HikariDataSource。
      */
     public HikariDataSource createDefaultDataSource() {
-        String jdbcUrl;
-        if (StringUtils.hasText(defaultProperties.getUrl())) {
-            jdbcUrl = defaultProperties.getUrl();
-        } else {
-            StringBuilder urlBuilder = new StringBuilder("jdbc:duckdb:");
-            
-            if (defaultProperties.getMode() == DuckDbProperties.Mode.FILE) {
-                if (!StringUtils.hasText(defaultProperties.getFilePath())) {
-                    throw new IllegalArgumentException("在 FILE 模式下必须提供 DuckDB filePath。");
-                }
-                urlBuilder.append(defaultProperties.getFilePath());
-            }
-            
-            // 添加只读标志
-            if (defaultProperties.isReadOnly()) {
-                urlBuilder.append("?duckdb.read_only=true");
-            }
-            
-            jdbcUrl = urlBuilder.toString();
-        }
-        
+        String jdbcUrl = buildDefaultJdbcUrl();
+
         HikariDataSource dataSource = createBaseDataSource(jdbcUrl);
         dataSource.setPoolName("DuckDB-HikariPool");
         
@@ -81,15 +63,7 @@ public class DuckDbConnectionFactory {
      * @return 配置好的 HikariDataSource。
      */
     public HikariDataSource createDataSource(String filePath, boolean readOnly) {
-        StringBuilder urlBuilder = new StringBuilder("jdbc:duckdb:");
-        urlBuilder.append(filePath);
-        
-        // 添加只读标志
-        if (readOnly) {
-            urlBuilder.append("?duckdb.read_only=true");
-        }
-        
-        HikariDataSource dataSource = createBaseDataSource(urlBuilder.toString());
+        HikariDataSource dataSource = createBaseDataSource(buildJdbcUrl(filePath, readOnly));
         
         // 动态实例通常不需要大的连接池。
         // 如果用户没有为动态池指定全局默认值，则使用 1 或 2。
@@ -104,45 +78,121 @@ public class DuckDbConnectionFactory {
         return dataSource;
     }
 
+    /**
+     * 根据默认属性创建共享实例模式的主数据源。
+     *
+     * @return 配置好的 DuckDbSharedDataSource。
+     */
+    public DuckDbSharedDataSource createDefaultSharedDataSource() {
+        return createSharedDataSource(buildDefaultJdbcUrl());
+    }
+
+    /**
+     * 为给定路径和模式创建共享实例模式的数据源。
+     *
+     * @param filePath DuckDB 文件的路径。
+     * @param readOnly 是否以只读模式打开。
+     * @return 配置好的 DuckDbSharedDataSource。
+     */
+    public DuckDbSharedDataSource createSharedDataSource(String filePath, boolean readOnly) {
+        return createSharedDataSource(buildJdbcUrl(filePath, readOnly));
+    }
+
+    private DuckDbSharedDataSource createSharedDataSource(String jdbcUrl) {
+        DuckDbSharedDataSource dataSource = new DuckDbSharedDataSource(jdbcUrl, buildConnectionProperties());
+        try {
+            // 扩展在实例级别加载，派生连接无需再执行 LOAD
+            initializeExtensions(dataSource);
+        } catch (RuntimeException e) {
+            dataSource.close();
+            throw e;
+        }
+        return dataSource;
+    }
+
+    private String buildDefaultJdbcUrl() {
+        if (StringUtils.hasText(defaultProperties.getUrl())) {
+            return defaultProperties.getUrl();
+        }
+        StringBuilder urlBuilder = new StringBuilder("jdbc:duckdb:");
+
+        if (defaultProperties.getMode() == DuckDbProperties.Mode.FILE) {
+            if (!StringUtils.hasText(defaultProperties.getFilePath())) {
+                throw new IllegalArgumentException("在 FILE 模式下必须提供 DuckDB filePath。");
+            }
+            urlBuilder.append(defaultProperties.getFilePath());
+        }
+
+        // 添加只读标志
+        if (defaultProperties.isReadOnly()) {
+            urlBuilder.append("?duckdb.read_only=true");
+        }
+        return urlBuilder.toString();
+    }
+
+    private static String buildJdbcUrl(String filePath, boolean readOnly) {
+        StringBuilder urlBuilder = new StringBuilder("jdbc:duckdb:");
+        urlBuilder.append(filePath);
+
+        // 添加只读标志
+        if (readOnly) {
+            urlBuilder.append("?duckdb.read_only=true");
+        }
+        return urlBuilder.toString();
+    }
+
     private HikariDataSource createBaseDataSource(String jdbcUrl) {
         HikariDataSource dataSource = new HikariDataSource();
         dataSource.setDriverClassName(DuckDBDriver.class.getName());
         dataSource.setJdbcUrl(jdbcUrl);
+        // 通过 DataSource 属性传递给驱动，确保对所有连接生效
+        buildConnectionProperties().forEach((key, value) -> dataSource.addDataSourceProperty((String) key, value));
+
+        dataSource.setConnectionTestQuery("SELECT 1");
+
+        String initSql = buildConnectionInitSql();
+        if (StringUtils.hasText(initSql)) {
+            dataSource.setConnectionInitSql(initSql);
+        }
+        return dataSource;
+    }
+
+    private Properties buildConnectionProperties() {
+        Properties properties = new Properties();
 
-        // 1. 应用核心性能配置 (通过 DataSource 属性传递给驱动，确保对所有连接生效)
+        // 1. 应用核心性能配置
         if (StringUtils.hasText(defaultProperties.getTempDirectory())) {
-            dataSource.addDataSourceProperty("temp_directory", defaultProperties.getTempDirectory());
+            properties.setProperty("temp_directory", defaultProperties.getTempDirectory());
         }
         if (StringUtils.hasText(defaultProperties.getMemoryLimit())) {
-            dataSource.addDataSourceProperty("memory_limit", defaultProperties.getMemoryLimit());
+            properties.setProperty("memory_limit", defaultProperties.getMemoryLimit());
         }
         if (StringUtils.hasText(defaultProperties.getThreads())) {
-            dataSource.addDataSourceProperty("threads", defaultProperties.getThreads());
+            properties.setProperty("threads", defaultProperties.getThreads());
         }
 
         // 默认禁用插入顺序保留，以减少内存压力 (针对大数据量导入/查询)
-        dataSource.addDataSourceProperty("preserve_insertion_order", "false");
+        properties.setProperty("preserve_insertion_order", "false");
+
+        // 流式获取结果，避免大结果集在驱动侧被完整物化
+        if (defaultProperties.isStreamResults()) {
+            properties.setProperty(DuckDBDriver.JDBC_STREAM_RESULTS, "true");
+        }
 
         // 2. 应用扩展相关配置
         if (defaultProperties.isAllowUnsignedExtensions()) {
-            dataSource.addDataSourceProperty("allow_unsigned_extensions", "true");
+            properties.setProperty("allow_unsigned_extensions", "true");
         }
         if (StringUtils.hasText(defaultProperties.getCustomExtensionRepository())) {
-            dataSource.addDataSourceProperty("custom_extension_repository", defaultProperties.getCustomExtensionRepository());
+            properties.setProperty("custom_extension_repository", defaultProperties.getCustomExtensionRepository());
         }
 
         // 3. 应用自定义配置
         if (defaultProperties.getConfig() != null) {
-            defaultProperties.getConfig().forEach(dataSource::addDataSourceProperty);
+            defaultProperties.getConfig().forEach(properties::setProperty);
         }
 
-        dataSource.setConnectionTestQuery("SELECT 1");
-
-        String initSql = buildConnectionInitSql();
-        if (StringUtils.hasText(initSql)) {
-            dataSource.setConnectionInitSql(initSql);
-        }
-        return dataSource;
+        return properties;
     }
 
     private String buildConnectionInitSql() {
@@ -0,0 +1,453 @@
+package cn.fxbin.bubble.data.duckdb.core;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * DuckDB 增量文件导入器
+ *
+ * <p>
+ * 扫描匹配通配符的本地 Parquet / CSV 文件，只导入清单表（manifest）中尚未记录的文件。
+ * 每个批次的 {@code INSERT ... SELECT FROM read_parquet([...])} 与对应的清单记录在同一事务中提交，
+ * 因此进程在任意时刻中断后重新扫描，文件既不会丢失也不会被重复导入。
+ * </p>
+ *
+ * <p>
+ * 清单以 (目标表, 文件路径) 作为主键，已导入的文件被视为不可变；同一路径的文件被改写后不会再次导入，只记录警告。
+ * 目标表不存在时按第一批文件的结构创建。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/26 10:20
+ */
+@Slf4j
+public class DuckDbFileImporter {
+
+    /**
+     * 默认清单表名。
+     */
+    public static final String DEFAULT_MANIFEST_TABLE = "duckdb_ingest_manifest";
+
+    /**
+     * 默认每个批次（事务）导入的文件数。
+     */
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    private static final AtomicInteger THREAD_SEQ = new AtomicInteger();
+
+    private final DataSource dataSource;
+
+    private final String manifestTable;
+
+    private final Map<String, ReentrantLock> tableLocks = new ConcurrentHashMap<>();
+
+    private volatile boolean manifestReady;
+
+    public DuckDbFileImporter(DataSource dataSource) {
+        this(dataSource, DEFAULT_MANIFEST_TABLE);
+    }
+
+    public DuckDbFileImporter(DataSource dataSource, String manifestTable) {
+        this.dataSource = dataSource;
+        this.manifestTable = DuckDbTemplate.validateTableName(manifestTable);
+    }
+
+    /**
+     * 增量导入匹配通配符的文件，单线程、每批 {@value #DEFAULT_BATCH_SIZE} 个文件。
+     *
+     * @param tableName   目标表名。
+     * @param pathPattern 文件通配符，例如 {@code /data/drops/*.parquet} 或 {@code /data/drops/**}{@code /*.csv}。
+     * @param format      文件格式。
+     * @return 导入结果。
+     */
+    public FileImportResult importFiles(String tableName, String pathPattern, Format format) {
+        return importFiles(tableName, pathPattern, format, DEFAULT_BATCH_SIZE, 1);
+    }
+
+    /**
+     * 增量导入匹配通配符的文件。
+     *
+     * <p>
+     * DuckDB 在单条语句内已并行扫描文件，通常无需设置 parallelism；
+     * 文件很多且单个文件较小时，多个批次并行执行可以进一步提高吞吐。
+     * </p>
+     *
+     * @param tableName   目标表名。
+     * @param pathPattern 文件通配符。
+     * @param format      文件格式。
+     * @param batchSize   每个批次（事务）导入的文件数。
+     * @param parallelism 同时执行的批次数。
+     * @return 导入结果。
+     */
+    public FileImportResult importFiles(String tableName, String pathPattern, Format format, int batchSize, int parallelism) {
+        DuckDbTemplate.validateTableName(tableName);
+        if (format == null) {
+            throw new IllegalArgumentException("format 不能为空");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize 必须大于 0");
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism 必须大于 0");
+        }
+
+        ReentrantLock lock = tableLocks.computeIfAbsent(tableName, k -> new ReentrantLock());
+        lock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            ensureManifestTable();
+
+            List<FileEntry> scanned = scan(pathPattern);
+            List<FileEntry> pending = filterIngested(tableName, scanned);
+            if (pending.isEmpty()) {
+                return new FileImportResult(0, scanned.size(), 0, System.currentTimeMillis() - start);
+            }
+
+            List<List<FileEntry>> batches = new ArrayList<>();
+            for (int i = 0; i < pending.size(); i += batchSize) {
+                batches.add(pending.subList(i, Math.min(i + batchSize, pending.size())));
+            }
+
+            // 第一批串行执行，确保目标表在并行批次开始前已被创建
+            long rows = importBatch(tableName, format, batches.get(0));
+            rows += importRemaining(tableName, format, batches.subList(1, batches.size()), parallelism);
+
+            FileImportResult result = new FileImportResult(pending.size(), scanned.size() - pending.size(), rows,
+                    System.currentTimeMillis() - start);
+            log.info("DuckDB 增量导入完成。表：{}，{}", tableName, result);
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 按固定间隔重复执行增量导入。
+     *
+     * @param tableName   目标表名。
+     * @param pathPattern 文件通配符。
+     * @param format      文件格式。
+     * @param interval    扫描间隔。
+     * @return 关闭后停止扫描的句柄。
+     */
+    public Closeable watch(String tableName, String pathPattern, Format format, Duration interval) {
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("interval 必须大于 0");
+        }
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "duckdb-import-watch-" + THREAD_SEQ.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                importFiles(tableName, pathPattern, format);
+            } catch (RuntimeException e) {
+                log.error("DuckDB 增量导入失败，将在下个周期重试。表：{}，路径：{}", tableName, pathPattern, e);
+            }
+        }, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        return scheduler::shutdownNow;
+    }
+
+    /**
+     * 获取已导入到指定表的文件路径。
+     *
+     * @param tableName 目标表名。
+     * @return 已导入的文件路径集合。
+     */
+    public Set<String> getIngestedFiles(String tableName) {
+        ensureManifestTable();
+        Set<String> files = new HashSet<>();
+        String sql = "SELECT file_path FROM " + manifestTable + " WHERE table_name = ?";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, tableName);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    files.add(rs.getString(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("读取导入清单失败", e);
+        }
+        return files;
+    }
+
+    private void ensureManifestTable() {
+        if (manifestReady) {
+            return;
+        }
+        String sql = "CREATE TABLE IF NOT EXISTS " + manifestTable + " ("
+                + "table_name VARCHAR NOT NULL, "
+                + "file_path VARCHAR NOT NULL, "
+                + "file_size BIGINT, "
+                + "modified_time TIMESTAMP, "
+                + "row_count BIGINT, "
+                + "ingested_at TIMESTAMP DEFAULT current_timestamp, "
+                + "PRIMARY KEY (table_name, file_path))";
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+            manifestReady = true;
+        } catch (SQLException e) {
+            throw new RuntimeException("创建导入清单表失败：" + manifestTable, e);
+        }
+    }
+
+    private List<FileEntry> filterIngested(String tableName, List<FileEntry> scanned) {
+        Map<String, FileEntry> ingested = new HashMap<>();
+        String sql = "SELECT file_path, file_size, modified_time FROM " + manifestTable + " WHERE table_name = ?";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, tableName);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp modified = rs.getTimestamp(3);
+                    ingested.put(rs.getString(1), new FileEntry(rs.getString(1), rs.getLong(2),
+                            modified == null ? 0 : modified.getTime()));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("读取导入清单失败", e);
+        }
+
+        List<FileEntry> pending = new ArrayList<>();
+        for (FileEntry file : scanned) {
+            FileEntry previous = ingested.get(file.path);
+            if (previous == null) {
+                pending.add(file);
+            } else if (previous.size != file.size || previous.modifiedMillis != file.modifiedMillis) {
+                log.warn("文件在导入后被修改，已忽略：{}", file.path);
+            }
+        }
+        return pending;
+    }
+
+    private long importRemaining(String tableName, Format format, List<List<FileEntry>> batches, int parallelism) {
+        if (batches.isEmpty()) {
+            return 0;
+        }
+        if (parallelism == 1 || batches.size() == 1) {
+            long rows = 0;
+            for (List<FileEntry> batch : batches) {
+                rows += importBatch(tableName, format, batch);
+            }
+            return rows;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, batches.size()), r -> {
+            Thread thread = new Thread(r, "duckdb-import-" + THREAD_SEQ.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Long>> futures = new ArrayList<>(batches.size());
+            for (List<FileEntry> batch : batches) {
+                futures.add(executor.submit(() -> importBatch(tableName, format, batch)));
+            }
+            long rows = 0;
+            RuntimeException failure = null;
+            for (Future<Long> future : futures) {
+                try {
+                    rows += future.get();
+                } catch (ExecutionException e) {
+                    // 失败批次已回滚，其余批次照常提交，下次扫描时重试失败的文件
+                    if (failure == null) {
+                        failure = new RuntimeException("DuckDB 增量导入失败", e.getCause());
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return rows;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("DuckDB 增量导入被中断", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 在单个事务中导入一批文件并写入清单。
+     */
+    private long importBatch(String tableName, Format format, List<FileEntry> batch) {
+        String source = format.source(batch);
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Map<String, Long> fileRows = new HashMap<>();
+                long rows;
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("CREATE TABLE IF NOT EXISTS " + tableName + " AS SELECT * FROM " + source + " LIMIT 0");
+                    try (ResultSet rs = stmt.executeQuery("SELECT filename, count(*) FROM "
+                            + format.source(batch, "filename = true") + " GROUP BY filename")) {
+                        while (rs.next()) {
+                            fileRows.put(rs.getString(1), rs.getLong(2));
+                        }
+                    }
+                    rows = stmt.executeUpdate("INSERT INTO " + tableName + " BY NAME SELECT * FROM " + source);
+                }
+                try (PreparedStatement ps = conn.prepareStatement("INSERT INTO " + manifestTable
+                        + " (table_name, file_path, file_size, modified_time, row_count) VALUES (?, ?, ?, ?, ?)")) {
+                    for (FileEntry file : batch) {
+                        ps.setString(1, tableName);
+                        ps.setString(2, file.path);
+                        ps.setLong(3, file.size);
+                        ps.setTimestamp(4, new Timestamp(file.modifiedMillis));
+                        ps.setLong(5, fileRows.getOrDefault(file.path, 0L));
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                conn.commit();
+                log.debug("已导入 {} 个文件到表 {}，行数：{}", batch.size(), tableName, rows);
+                return rows;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("导入文件到表 " + tableName + " 失败", e);
+        }
+    }
+
+    /**
+     * 按通配符扫描本地文件，结果按路径排序以保证导入顺序稳定。
+     */
+    static List<FileEntry> scan(String pathPattern) {
+        if (pathPattern == null || pathPattern.isBlank()) {
+            throw new IllegalArgumentException("pathPattern 不能为空");
+        }
+        String normalized = pathPattern.replace('\\', '/');
+        int wildcard = indexOfWildcard(normalized);
+        if (wildcard < 0) {
+            Path file = Paths.get(pathPattern);
+            return Files.isRegularFile(file) ? List.of(toEntry(file)) : List.of();
+        }
+
+        int slash = normalized.lastIndexOf('/', wildcard);
+        Path root = slash < 0 ? Paths.get("") : Paths.get(normalized.substring(0, slash + 1));
+        if (!Files.isDirectory(root)) {
+            return List.of();
+        }
+        String glob = normalized.substring(slash + 1);
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(path -> matcher.matches(root.relativize(path)))
+                    .map(DuckDbFileImporter::toEntry)
+                    .sorted(Comparator.comparing(entry -> entry.path))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("扫描文件失败：" + pathPattern, e);
+        }
+    }
+
+    private static int indexOfWildcard(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == '{') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static FileEntry toEntry(Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new FileEntry(path.toAbsolutePath().normalize().toString(), attributes.size(),
+                    attributes.lastModifiedTime().toMillis());
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取文件属性失败：" + path, e);
+        }
+    }
+
+    private static String escapeSingleQuotes(String value) {
+        return value.replace("'", "''");
+    }
+
+    private record FileEntry(String path, long size, long modifiedMillis) {
+    }
+
+    /**
+     * 支持的文件格式。
+     */
+    public enum Format {
+
+        /**
+         * Parquet 文件。
+         */
+        PARQUET("read_parquet"),
+
+        /**
+         * CSV 文件（自动探测分隔符与列类型）。
+         */
+        CSV("read_csv");
+
+        private final String function;
+
+        Format(String function) {
+            this.function = function;
+        }
+
+        private String source(List<FileEntry> files) {
+            return source(files, null);
+        }
+
+        private String source(List<FileEntry> files, String option) {
+            StringBuilder sql = new StringBuilder(function).append("([");
+            for (int i = 0; i < files.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append('\'').append(escapeSingleQuotes(files.get(i).path)).append('\'');
+            }
+            sql.append("], union_by_name = true");
+            if (option != null) {
+                sql.append(", ").append(option);
+            }
+            return sql.append(')').toString();
+        }
+    }
+
+}
@@ -1,16 +1,23 @@
 package cn.fxbin.bubble.data.duckdb.core;
 
+import cn.fxbin.bubble.data.duckdb.autoconfigure.DuckDbProperties;
 import cn.fxbin.bubble.data.duckdb.core.handler.TypeHandler;
 import cn.fxbin.bubble.data.duckdb.core.handler.TypeHandlerFactory;
+import com.zaxxer.hikari.HikariDataSource;
 import lombok.extern.slf4j.Slf4j;
 import org.duckdb.DuckDBAppender;
 import org.duckdb.DuckDBConnection;
+import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
 import java.sql.*;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntFunction;
 
 /**
  * DuckDB 数据摄取器
@@ -20,6 +27,13 @@ import java.util.Map;
  * 适用于将大型数据集（例如从 IoTDB）传输到 DuckDB。
  * </p>
  *
+ * <p>
+ * 并行模式下，每个工作线程持有独立的池化连接和 Appender。
+ * Appender 不参与 JDBC 事务，因此默认先写入与目标表同结构的暂存表，
+ * 全部分区成功后以单条 INSERT 合并到目标表，任一分区失败则丢弃暂存表。
+ * 关闭暂存模式时直接追加到目标表，失败时已刷新的数据会保留。
+ * </p>
+ *
  * @author fxbin
  * @version v1.0
  * @since 2025/12/08 15:05
@@ -27,10 +41,31 @@ import java.util.Map;
 @Slf4j
 public class DuckDbIngester {
 
+    private static final List<Object[]> END_OF_DATA = new ArrayList<>(0);
+
+    private static final AtomicInteger THREAD_SEQ = new AtomicInteger();
+
     private final DataSource dataSource;
 
+    /**
+     * 并行摄取的最大工作线程数。
+     */
+    private final int parallelism;
+
     public DuckDbIngester(DataSource dataSource) {
+        this(dataSource, Runtime.getRuntime().availableProcessors());
+    }
+
+    public DuckDbIngester(DataSource dataSource, DuckDbProperties properties) {
+        this(dataSource, resolveParallelism(properties.getThreads()));
+    }
+
+    public DuckDbIngester(DataSource dataSource, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism 必须大于 0");
+        }
         this.dataSource = dataSource;
+        this.parallelism = parallelism;
     }
 
     /**
@@ -100,11 +135,7 @@ public class DuckDbIngester {
         try (Connection conn = dataSource.getConnection()) {
             
             // 1. 获取列元数据并预计算 TypeHandlers
-            int[] columnTypes = getColumnTypes(conn, tableName);
-            TypeHandler[] handlers = new TypeHandler[columnTypes.length];
-            for (int i = 0; i < columnTypes.length; i++) {
-                handlers[i] = TypeHandlerFactory.getHandler(columnTypes[i]);
-            }
+            TypeHandler[] handlers = resolveHandlers(conn, tableName);
             
             // 2. 解包以获取原生的 DuckDBConnection
             DuckDBConnection duckDBConn = conn.unwrap(DuckDBConnection.class);
@@ -112,18 +143,7 @@ public class DuckDbIngester {
             try (DuckDBAppender appender = duckDBConn.createAppender(DuckDBConnection.DEFAULT_SCHEMA, tableName)) {
                 long count = 0;
                 while (dataIterator.hasNext()) {
-                    Object[] row = dataIterator.next();
-                    appender.beginRow();
-                    
-                    if (row.length != handlers.length) {
-                         throw new SQLException("数据行长度 (" + row.length + ") 与表列数 (" + handlers.length + ") 不匹配");
-                    }
-
-                    for (int i = 0; i < row.length; i++) {
-                        // 使用策略模式：循环中不再进行 instanceof 检查
-                        handlers[i].append(appender, row[i]);
-                    }
-                    appender.endRow();
+                    appendRow(appender, handlers, dataIterator.next());
                     
                     count++;
                     if (count % logInterval == 0) {
@@ -137,6 +157,379 @@ public class DuckDbIngester {
         }
     }
 
+    /**
+     * 将列式批次追加到指定的 DuckDB 表中。
+     *
+     * <p>
+     * 按列类型直接调用 Appender 的原生类型重载，不经过 {@link TypeHandler}，
+     * 列的类型由调用方通过 {@link ColumnBatch} 声明，列数必须与表一致。
+     * </p>
+     *
+     * @param tableName 目标表名。
+     * @param batch     列式批次。
+     * @return 追加的行数。
+     */
+    public long appendColumns(String tableName, ColumnBatch batch) {
+        DuckDbTemplate.validateTableName(tableName);
+        if (batch == null || batch.getColumnCount() == 0) {
+            throw new IllegalArgumentException("batch 不能为空");
+        }
+        try (Connection conn = dataSource.getConnection()) {
+            int columnCount = getColumnTypes(conn, tableName).length;
+            if (columnCount != batch.getColumnCount()) {
+                throw new SQLException("批次列数 (" + batch.getColumnCount() + ") 与表列数 (" + columnCount + ") 不匹配");
+            }
+            DuckDBConnection duckDBConn = conn.unwrap(DuckDBConnection.class);
+            try (DuckDBAppender appender = duckDBConn.createAppender(DuckDBConnection.DEFAULT_SCHEMA, tableName)) {
+                appendBatch(appender, batch);
+            }
+            return batch.getSize();
+        } catch (SQLException e) {
+            throw new RuntimeException("列式追加数据到 DuckDB 失败", e);
+        }
+    }
+
+    /**
+     * 并行摄取多个数据分区（经由暂存表合并）。
+     *
+     * @param tableName  目标表名。
+     * @param partitions 数据分区列表，每个分区是一个独立的数据行迭代器。
+     * @return 摄取结果。
+     */
+    public IngestResult ingestParallel(String tableName, List<? extends Iterator<Object[]>> partitions) {
+        return ingestParallel(tableName, partitions, true, 10000, null);
+    }
+
+    /**
+     * 并行摄取多个数据分区，并记录进度。
+     *
+     * <p>
+     * 工作线程数取 {@code parallelism}、分区数与连接池大小三者的最小值，
+     * 分区数多于工作线程时，空闲线程会依次领取剩余分区。
+     * </p>
+     *
+     * @param tableName   目标表名。
+     * @param partitions  数据分区列表，每个分区是一个独立的数据行迭代器。
+     * @param staging     是否先写入暂存表再合并到目标表。
+     * @param logInterval 每个分区每隔 N 行记录一次进度。
+     * @param listener    进度监听器，可为 null。
+     * @return 摄取结果。
+     */
+    public IngestResult ingestParallel(String tableName, List<? extends Iterator<Object[]>> partitions,
+                                       boolean staging, int logInterval, IngestProgressListener listener) {
+        DuckDbTemplate.validateTableName(tableName);
+        if (partitions == null || partitions.isEmpty()) {
+            throw new IllegalArgumentException("partitions 不能为空");
+        }
+        if (logInterval <= 0) {
+            throw new IllegalArgumentException("logInterval 必须大于 0");
+        }
+        int workers = resolveWorkers(partitions.size());
+        return runParallel(tableName, staging, workers, partitions.size(), partitions::get, null,
+                logInterval, listener, new AtomicBoolean(false));
+    }
+
+    /**
+     * 将单个数据源按批次切分，并行摄取（经由暂存表合并）。
+     *
+     * @param tableName    目标表名。
+     * @param dataIterator 数据行迭代器。
+     * @param batchSize    每个批次的行数。
+     * @return 摄取结果。
+     */
+    public IngestResult ingestParallel(String tableName, Iterator<Object[]> dataIterator, int batchSize) {
+        return ingestParallel(tableName, dataIterator, batchSize, true, 10000, null);
+    }
+
+    /**
+     * 将单个数据源按批次切分，并行摄取，并记录进度。
+     *
+     * <p>
+     * 调用线程负责读取数据源并按 {@code batchSize} 分批投递到有界队列，
+     * 每个工作线程作为一个分区消费批次并写入各自的 Appender。
+     * 队列容量为工作线程数的两倍，数据源读取速度超过写入速度时调用线程会被阻塞。
+     * </p>
+     *
+     * @param tableName    目标表名。
+     * @param dataIterator 数据行迭代器。
+     * @param batchSize    每个批次的行数。
+     * @param staging      是否先写入暂存表再合并到目标表。
+     * @param logInterval  每个分区每隔 N 行记录一次进度。
+     * @param listener     进度监听器，可为 null。
+     * @return 摄取结果。
+     */
+    public IngestResult ingestParallel(String tableName, Iterator<Object[]> dataIterator, int batchSize,
+                                       boolean staging, int logInterval, IngestProgressListener listener) {
+        DuckDbTemplate.validateTableName(tableName);
+        if (dataIterator == null) {
+            throw new IllegalArgumentException("dataIterator 不能为空");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize 必须大于 0");
+        }
+        if (logInterval <= 0) {
+            throw new IllegalArgumentException("logInterval 必须大于 0");
+        }
+        int workers = resolveWorkers(Integer.MAX_VALUE);
+        BlockingQueue<List<Object[]>> queue = new ArrayBlockingQueue<>(workers * 2);
+        AtomicBoolean failed = new AtomicBoolean(false);
+
+        Callable<Void> feeder = () -> {
+            List<Object[]> batch = new ArrayList<>(batchSize);
+            while (dataIterator.hasNext() && !failed.get()) {
+                batch.add(dataIterator.next());
+                if (batch.size() == batchSize) {
+                    offer(queue, batch, failed);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                offer(queue, batch, failed);
+            }
+            for (int i = 0; i < workers; i++) {
+                offer(queue, END_OF_DATA, failed);
+            }
+            return null;
+        };
+        return runParallel(tableName, staging, workers, workers, partition -> new QueueIterator(queue), feeder,
+                logInterval, listener, failed);
+    }
+
+    private IngestResult runParallel(String tableName, boolean staging, int workers, int partitionCount,
+                                     IntFunction<? extends Iterator<Object[]>> partitionSource,
+                                     Callable<Void> feeder, int logInterval, IngestProgressListener listener,
+                                     AtomicBoolean failed) {
+        long start = System.currentTimeMillis();
+
+        // 1. 预解析 TypeHandlers，所有工作线程共享（处理器无状态）；按需创建与目标表同结构的暂存表
+        String targetTable = staging ? tableName + "_staging_" + Long.toHexString(System.nanoTime()) : tableName;
+        TypeHandler[] handlers;
+        try (Connection conn = dataSource.getConnection()) {
+            handlers = resolveHandlers(conn, tableName);
+            if (staging) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("CREATE TABLE " + targetTable + " AS SELECT * FROM " + tableName + " LIMIT 0");
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("摄取数据到 DuckDB 失败", e);
+        }
+
+        log.info("开始并行摄取到 {}：工作线程={}，分区={}，暂存表={}", tableName, workers, partitionCount,
+                staging ? targetTable : "无");
+
+        AtomicInteger nextPartition = new AtomicInteger();
+        AtomicLongArray partitionRows = new AtomicLongArray(partitionCount);
+        AtomicLong totalRows = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "duckdb-ingest-" + THREAD_SEQ.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<?>> futures = new ArrayList<>(workers);
+        Throwable failure = null;
+        try {
+            // 2. 每个工作线程独占一个连接与 Appender
+            for (int w = 0; w < workers; w++) {
+                futures.add(executor.submit(() -> {
+                    try (Connection conn = dataSource.getConnection()) {
+                        DuckDBConnection duckDBConn = conn.unwrap(DuckDBConnection.class);
+                        try (DuckDBAppender appender = duckDBConn.createAppender(DuckDBConnection.DEFAULT_SCHEMA, targetTable)) {
+                            int partition;
+                            while (!failed.get() && (partition = nextPartition.getAndIncrement()) < partitionCount) {
+                                Iterator<Object[]> rows = partitionSource.apply(partition);
+                                long count = 0;
+                                while (!failed.get() && rows.hasNext()) {
+                                    appendRow(appender, handlers, rows.next());
+                                    count++;
+                                    // 计数按 logInterval 批量汇总，避免每行争用共享计数器
+                                    if (count % logInterval == 0) {
+                                        partitionRows.set(partition, count);
+                                        long total = totalRows.addAndGet(logInterval);
+                                        log.info("分区 {} 已摄取 {} 行到 {}（总计 {} 行）", partition, count, tableName, total);
+                                        if (listener != null) {
+                                            listener.onProgress(partition, count, total);
+                                        }
+                                    }
+                                }
+                                partitionRows.set(partition, count);
+                                totalRows.addAndGet(count % logInterval);
+                            }
+                        }
+                    } catch (Exception e) {
+                        failed.set(true);
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+
+            // 3. 如有数据源投递任务，在调用线程中执行
+            if (feeder != null) {
+                try {
+                    feeder.call();
+                } catch (Exception e) {
+                    failed.set(true);
+                    failure = e;
+                }
+                // 投递中止后，工作线程可能阻塞在队列上，需中断以便尽快退出
+                if (failed.get()) {
+                    executor.shutdownNow();
+                }
+            }
+
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    failed.set(true);
+                    executor.shutdownNow();
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed.set(true);
+            failure = e;
+        } finally {
+            if (failed.get()) {
+                executor.shutdownNow();
+            } else {
+                executor.shutdown();
+            }
+        }
+
+        // 4. 暂存模式下，全部分区成功后以单条语句合并到目标表，随后删除暂存表
+        if (staging) {
+            failure = mergeStagingTable(tableName, targetTable, failure == null, failure);
+        }
+        if (failure != null) {
+            throw new RuntimeException("并行摄取数据到 DuckDB 失败", failure);
+        }
+
+        long[] rows = new long[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            rows[i] = partitionRows.get(i);
+        }
+        IngestResult result = new IngestResult(rows, System.currentTimeMillis() - start);
+        log.info("并行摄取完成。总行数：{}，耗时：{} ms，吞吐量：{} rows/sec",
+                result.getTotalRows(), result.getElapsedMillis(), (long) result.getRowsPerSecond());
+        return result;
+    }
+
+    private Throwable mergeStagingTable(String tableName, String stagingTable, boolean merge, Throwable failure) {
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement()) {
+            try {
+                if (merge) {
+                    stmt.execute("INSERT INTO " + tableName + " SELECT * FROM " + stagingTable);
+                }
+            } finally {
+                stmt.execute("DROP TABLE IF EXISTS " + stagingTable);
+            }
+        } catch (SQLException e) {
+            log.error("合并 DuckDB 暂存表 {} 失败", stagingTable, e);
+            return failure != null ? failure : e;
+        }
+        return failure;
+    }
+
+    private static void offer(BlockingQueue<List<Object[]>> queue, List<Object[]> batch, AtomicBoolean failed)
+            throws InterruptedException {
+        while (!queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+            if (failed.get()) {
+                return;
+            }
+        }
+    }
+
+    private int resolveWorkers(int partitionCount) {
+        int workers = Math.min(parallelism, partitionCount);
+        // 每个工作线程独占一个连接，不超过连接池上限，避免获取连接超时
+        if (dataSource instanceof HikariDataSource hikari) {
+            workers = Math.min(workers, hikari.getMaximumPoolSize());
+        }
+        return Math.max(workers, 1);
+    }
+
+    private static int resolveParallelism(String threads) {
+        if (StringUtils.hasText(threads)) {
+            try {
+                int value = Integer.parseInt(threads.trim());
+                if (value > 0) {
+                    return value;
+                }
+            } catch (NumberFormatException ignored) {
+                // ignore
+            }
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    private TypeHandler[] resolveHandlers(Connection conn, String tableName) throws SQLException {
+        int[] columnTypes = getColumnTypes(conn, tableName);
+        TypeHandler[] handlers = new TypeHandler[columnTypes.length];
+        for (int i = 0; i < columnTypes.length; i++) {
+            handlers[i] = TypeHandlerFactory.getHandler(columnTypes[i]);
+        }
+        return handlers;
+    }
+
+    private static void appendBatch(DuckDBAppender appender, ColumnBatch batch) throws SQLException {
+        int columnCount = batch.getColumnCount();
+        byte[] kinds = new byte[columnCount];
+        Object[] data = new Object[columnCount];
+        boolean[][] nulls = new boolean[columnCount][];
+        for (int c = 0; c < columnCount; c++) {
+            kinds[c] = batch.kind(c);
+            data[c] = batch.data(c);
+            nulls[c] = batch.nullsOrNull(c);
+        }
+        int size = batch.getSize();
+        for (int r = 0; r < size; r++) {
+            appender.beginRow();
+            for (int c = 0; c < columnCount; c++) {
+                if (nulls[c] != null && nulls[c][r]) {
+                    appender.appendNull();
+                    continue;
+                }
+                switch (kinds[c]) {
+                    case ColumnBatch.LONG -> appender.append(((long[]) data[c])[r]);
+                    case ColumnBatch.INT -> appender.append(((int[]) data[c])[r]);
+                    case ColumnBatch.DOUBLE -> appender.append(((double[]) data[c])[r]);
+                    case ColumnBatch.FLOAT -> appender.append(((float[]) data[c])[r]);
+                    case ColumnBatch.BOOLEAN -> appender.append(((boolean[]) data[c])[r]);
+                    case ColumnBatch.STRING -> {
+                        String value = ((String[]) data[c])[r];
+                        if (value == null) {
+                            appender.appendNull();
+                        } else {
+                            appender.append(value);
+                        }
+                    }
+                    case ColumnBatch.TIMESTAMP -> appender.appendEpochMicros(((long[]) data[c])[r]);
+                    default -> throw new SQLException("未知的列类型：" + kinds[c]);
+                }
+            }
+            appender.endRow();
+        }
+    }
+
+    private static void appendRow(DuckDBAppender appender, TypeHandler[] handlers, Object[] row) throws SQLException {
+        if (row.length != handlers.length) {
+            throw new SQLException("数据行长度 (" + row.length + ") 与表列数 (" + handlers.length + ") 不匹配");
+        }
+        appender.beginRow();
+        for (int i = 0; i < row.length; i++) {
+            // 使用策略模式：循环中不再进行 instanceof 检查
+            handlers[i].append(appender, row[i]);
+        }
+        appender.endRow();
+    }
+
     private int[] getColumnTypes(Connection conn, String tableName) throws SQLException {
         DuckDbTemplate.validateTableName(tableName);
         try (Statement stmt = conn.createStatement();
@@ -150,4 +543,48 @@ public class DuckDbIngester {
             return types;
         }
     }
+
+    /**
+     * 从批次队列中读取数据行的迭代器，遇到结束标记后终止。
+     */
+    private static final class QueueIterator implements Iterator<Object[]> {
+
+        private final BlockingQueue<List<Object[]>> queue;
+        private Iterator<Object[]> current = Collections.emptyIterator();
+        private boolean finished;
+
+        private QueueIterator(BlockingQueue<List<Object[]>> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (finished) {
+                    return false;
+                }
+                List<Object[]> batch;
+                try {
+                    batch = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("等待摄取数据时被中断", e);
+                }
+                if (batch == END_OF_DATA) {
+                    finished = true;
+                    return false;
+                }
+                current = batch.iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public Object[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+    }
 }
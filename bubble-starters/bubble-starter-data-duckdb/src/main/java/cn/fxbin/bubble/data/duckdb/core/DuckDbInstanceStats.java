@@ -0,0 +1,73 @@
+package cn.fxbin.bubble.data.duckdb.core;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 动态 DuckDB 实例统计信息
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/25 15:30
+ */
+@Getter
+@Builder
+@ToString
+public class DuckDbInstanceStats {
+
+    /**
+     * 数据库文件路径。
+     */
+    private final String filePath;
+
+    /**
+     * 是否以只读模式打开。
+     */
+    private final boolean readOnly;
+
+    /**
+     * 底层数据库实例当前是否处于打开状态（被回收后为 false，下次访问时重新打开）。
+     */
+    private final boolean open;
+
+    /**
+     * 当前活跃（已借出未归还）的连接数。
+     */
+    private final int activeConnections;
+
+    /**
+     * 累计获取连接次数。
+     */
+    private final long acquireCount;
+
+    /**
+     * 累计获取连接等待时间（纳秒）。
+     */
+    private final long acquireNanos;
+
+    /**
+     * 单次获取连接的最大等待时间（纳秒）。
+     */
+    private final long maxAcquireNanos;
+
+    /**
+     * 数据库实例的内存占用（字节），实例未打开时为 0，无法获取时为 -1。
+     */
+    private final long memoryUsageBytes;
+
+    /**
+     * 最近一次访问时间（毫秒时间戳）。
+     */
+    private final long lastAccessTime;
+
+    /**
+     * 获取平均连接等待时间。
+     *
+     * @return 平均等待时间（纳秒）。
+     */
+    public long getAverageAcquireNanos() {
+        return acquireCount == 0 ? 0 : acquireNanos / acquireCount;
+    }
+
+}
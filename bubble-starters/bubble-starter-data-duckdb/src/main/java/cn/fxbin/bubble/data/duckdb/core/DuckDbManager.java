@@ -2,12 +2,27 @@ package cn.fxbin.bubble.data.duckdb.core;
 
 import cn.fxbin.bubble.data.duckdb.autoconfigure.DuckDbProperties;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
 import org.springframework.util.StringUtils;
 
+import javax.sql.DataSource;
 import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * DuckDB 管理器
@@ -17,6 +32,12 @@ import java.util.concurrent.ConcurrentHashMap;
  * 允许在运行时为特定文件创建和访问 DuckDB 实例。
  * </p>
  *
+ * <p>
+ * 底层数据库实例按需打开：配置 {@code maxOpenInstances} 时按最近最少使用（LRU）关闭多余的空闲实例，
+ * 配置 {@code idleTimeout} 时后台定期关闭长时间未访问的实例。被回收的实例在下次访问时自动重新打开，
+ * 已获取的 {@link DuckDbTemplate} 始终可用；存在活跃连接的实例不会被回收。
+ * </p>
+ *
  * @author fxbin
  * @version v1.0
  * @since 2025/12/08 14:15
@@ -24,20 +45,23 @@ import java.util.concurrent.ConcurrentHashMap;
 @Slf4j
 public class DuckDbManager implements Closeable {
 
+    private static final long MIN_EVICTION_INTERVAL_MILLIS = 1000;
+
     private final DuckDbConnectionFactory connectionFactory;
-    
-    /**
-     * 数据源缓存：键是文件路径（或 ID），值是数据源。
-     */
-    private final Map<String, HikariDataSource> dataSourceCache = new ConcurrentHashMap<>();
-    
+
+    private final DuckDbProperties properties;
+
     /**
-     * 模板缓存：键是文件路径（或 ID），值是 DuckDbTemplate。
+     * 实例缓存：键是文件路径与模式，值是按需打开的数据库实例及其模板。
      */
-    private final Map<String, DuckDbTemplate> templateCache = new ConcurrentHashMap<>();
+    private final Map<String, ManagedInstance> instanceCache = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService evictor;
 
     public DuckDbManager(DuckDbProperties properties) {
+        this.properties = properties;
         this.connectionFactory = new DuckDbConnectionFactory(properties);
+        this.evictor = createEvictor(properties.getIdleTimeout());
     }
 
 
@@ -60,37 +84,22 @@ public class DuckDbManager implements Closeable {
      * @return DuckDbTemplate 实例。
      */
     public DuckDbTemplate getTemplate(String filePath, boolean readOnly) {
-        if (!StringUtils.hasText(filePath)) {
-            throw new IllegalArgumentException("文件路径不能为空");
-        }
-        
-        // 如果我们想支持以不同模式打开同一文件，是否应该使用复合键？
-        // 通常，HikariCP 池绑定到一个 URL。
-        // 读写模式 URL：jdbc:duckdb:/path
-        // 只读模式 URL：jdbc:duckdb:/path?duckdb.read_only=true
-        // 所以键应该包含模式。
-        String cacheKey = buildCacheKey(filePath, readOnly);
-
-        return templateCache.computeIfAbsent(cacheKey, k -> {
-            HikariDataSource dataSource = getDataSource(filePath, readOnly);
-            return new DuckDbTemplate(dataSource);
-        });
+        return getInstance(filePath, readOnly).template;
     }
 
     /**
      * 获取或为指定文件路径创建一个数据源。
      *
+     * <p>
+     * 返回的数据源在底层实例被回收后仍然可用，下次获取连接时重新打开实例。
+     * </p>
+     *
      * @param filePath DuckDB 文件的路径。
      * @param readOnly 是否以只读模式打开。
-     * @return HikariDataSource 实例。
+     * @return 数据源。
      */
-    public HikariDataSource getDataSource(String filePath, boolean readOnly) {
-        String cacheKey = buildCacheKey(filePath, readOnly);
-        
-        return dataSourceCache.computeIfAbsent(cacheKey, k -> {
-            log.info("为路径创建动态 DuckDB 数据源：{} (只读：{})", filePath, readOnly);
-            return createDataSource(filePath, readOnly);
-        });
+    public DataSource getDataSource(String filePath, boolean readOnly) {
+        return getInstance(filePath, readOnly);
     }
 
     /**
@@ -101,33 +110,318 @@ public class DuckDbManager implements Closeable {
      * @param readOnly 要关闭的模式。
      */
     public void close(String filePath, boolean readOnly) {
-        String cacheKey = buildCacheKey(filePath, readOnly);
-        
-        templateCache.remove(cacheKey);
-        HikariDataSource ds = dataSourceCache.remove(cacheKey);
-        
-        if (ds != null) {
+        ManagedInstance instance = instanceCache.remove(buildCacheKey(filePath, readOnly));
+
+        if (instance != null) {
             log.info("关闭路径的动态 DuckDB 数据源：{}", filePath);
-            ds.close();
+            instance.remove();
         }
     }
 
+    /**
+     * 关闭所有空闲时间超过 {@code idleTimeout} 且没有活跃连接的实例。
+     *
+     * @return 本次关闭的实例数。
+     */
+    public int evictIdleInstances() {
+        Duration idleTimeout = properties.getIdleTimeout();
+        if (idleTimeout == null) {
+            return 0;
+        }
+        long deadline = System.currentTimeMillis() - idleTimeout.toMillis();
+        int evicted = 0;
+        for (ManagedInstance instance : instanceCache.values()) {
+            if (instance.lastAccessTime <= deadline && instance.evict()) {
+                log.info("回收空闲的动态 DuckDB 实例：{}", instance.filePath);
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * 获取当前处于打开状态的数据库实例数。
+     *
+     * @return 打开的实例数。
+     */
+    public int getOpenInstanceCount() {
+        int count = 0;
+        for (ManagedInstance instance : instanceCache.values()) {
+            if (instance.isOpen()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 获取所有动态实例的统计信息（打开状态、活跃连接、连接等待时间与内存占用）。
+     *
+     * @return 统计信息列表。
+     */
+    public List<DuckDbInstanceStats> getStatistics() {
+        List<DuckDbInstanceStats> statistics = new ArrayList<>(instanceCache.size());
+        for (ManagedInstance instance : instanceCache.values()) {
+            statistics.add(instance.statistics());
+        }
+        return statistics;
+    }
+
     /**
      * 关闭所有动态数据源。
      */
     @Override
     public void close() {
         log.info("关闭所有动态 DuckDB 数据源...");
-        dataSourceCache.forEach((k, ds) -> ds.close());
-        dataSourceCache.clear();
-        templateCache.clear();
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        instanceCache.forEach((k, instance) -> instance.remove());
+        instanceCache.clear();
+    }
+
+    private ManagedInstance getInstance(String filePath, boolean readOnly) {
+        if (!StringUtils.hasText(filePath)) {
+            throw new IllegalArgumentException("文件路径不能为空");
+        }
+
+        // 读写模式 URL：jdbc:duckdb:/path
+        // 只读模式 URL：jdbc:duckdb:/path?duckdb.read_only=true
+        // 所以键应该包含模式。
+        String cacheKey = buildCacheKey(filePath, readOnly);
+        return instanceCache.computeIfAbsent(cacheKey, k -> new ManagedInstance(filePath, readOnly));
     }
 
     private String buildCacheKey(String filePath, boolean readOnly) {
         return filePath + "::" + (readOnly ? "RO" : "RW");
     }
 
-    private HikariDataSource createDataSource(String filePath, boolean readOnly) {
+    private DataSource createDataSource(String filePath, boolean readOnly) {
+        log.info("为路径创建动态 DuckDB 数据源：{} (只读：{}，连接模式：{})", filePath, readOnly, properties.getConnectionMode());
+        if (properties.getConnectionMode() == DuckDbProperties.ConnectionMode.SHARED) {
+            return connectionFactory.createSharedDataSource(filePath, readOnly);
+        }
         return connectionFactory.createDataSource(filePath, readOnly);
     }
-}
\ No newline at end of file
+
+    /**
+     * 超出 maxOpenInstances 时，按最近访问时间从旧到新关闭空闲实例。
+     */
+    private void evictLeastRecentlyUsed(ManagedInstance current) {
+        Integer maxOpenInstances = properties.getMaxOpenInstances();
+        if (maxOpenInstances == null) {
+            return;
+        }
+        List<ManagedInstance> candidates = new ArrayList<>();
+        for (ManagedInstance instance : instanceCache.values()) {
+            if (instance != current && instance.isOpen()) {
+                candidates.add(instance);
+            }
+        }
+        int excess = candidates.size() + 1 - maxOpenInstances;
+        if (excess <= 0) {
+            return;
+        }
+        candidates.sort(Comparator.comparingLong(instance -> instance.lastAccessTime));
+        for (ManagedInstance instance : candidates) {
+            if (excess == 0) {
+                break;
+            }
+            if (instance.evict()) {
+                log.info("打开的 DuckDB 实例数超过 {}，回收最近最少使用的实例：{}", maxOpenInstances, instance.filePath);
+                excess--;
+            }
+        }
+    }
+
+    private ScheduledExecutorService createEvictor(Duration idleTimeout) {
+        if (idleTimeout == null) {
+            return null;
+        }
+        if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("idleTimeout 必须大于 0");
+        }
+        long interval = Math.max(idleTimeout.toMillis() / 2, MIN_EVICTION_INTERVAL_MILLIS);
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "duckdb-instance-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                evictIdleInstances();
+            } catch (RuntimeException e) {
+                log.warn("回收空闲 DuckDB 实例失败：{}", e.getMessage());
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+        return executor;
+    }
+
+    /**
+     * 按需打开的数据库实例。
+     *
+     * <p>
+     * 获取连接时持有读锁，打开与回收实例时持有写锁，保证实例不会在借出连接的过程中被关闭。
+     * </p>
+     */
+    private final class ManagedInstance extends AbstractDataSource {
+
+        private final String filePath;
+
+        private final boolean readOnly;
+
+        private final DuckDbTemplate template;
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private final LongAdder acquireCount = new LongAdder();
+
+        private final LongAdder acquireNanos = new LongAdder();
+
+        private final AtomicLong maxAcquireNanos = new AtomicLong();
+
+        private volatile DataSource delegate;
+
+        private volatile boolean removed;
+
+        private volatile long lastAccessTime = System.currentTimeMillis();
+
+        private ManagedInstance(String filePath, boolean readOnly) {
+            this.filePath = filePath;
+            this.readOnly = readOnly;
+            this.template = new DuckDbTemplate(this);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            lastAccessTime = System.currentTimeMillis();
+            long start = System.nanoTime();
+            boolean opened = false;
+            Connection connection = null;
+
+            while (connection == null) {
+                lock.readLock().lock();
+                try {
+                    DataSource dataSource = delegate;
+                    if (dataSource != null) {
+                        connection = dataSource.getConnection();
+                    }
+                } finally {
+                    lock.readLock().unlock();
+                }
+                if (connection == null) {
+                    lock.writeLock().lock();
+                    try {
+                        opened |= open();
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                }
+            }
+
+            long elapsed = System.nanoTime() - start;
+            acquireCount.increment();
+            acquireNanos.add(elapsed);
+            maxAcquireNanos.accumulateAndGet(elapsed, Math::max);
+
+            if (opened) {
+                evictLeastRecentlyUsed(this);
+            }
+            return connection;
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+
+        private boolean open() throws SQLException {
+            if (removed) {
+                throw new SQLException("DuckDB 数据源已关闭：" + filePath);
+            }
+            if (delegate != null) {
+                return false;
+            }
+            delegate = createDataSource(filePath, readOnly);
+            return true;
+        }
+
+        private boolean isOpen() {
+            return delegate != null;
+        }
+
+        /**
+         * 关闭没有活跃连接的底层实例，实例保留在缓存中，下次访问时重新打开。
+         */
+        private boolean evict() {
+            if (!lock.writeLock().tryLock()) {
+                return false;
+            }
+            try {
+                if (delegate == null || activeConnections() > 0) {
+                    return false;
+                }
+                closeDelegate();
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void remove() {
+            lock.writeLock().lock();
+            try {
+                removed = true;
+                closeDelegate();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void closeDelegate() {
+            DataSource dataSource = delegate;
+            delegate = null;
+            if (dataSource instanceof HikariDataSource hikari) {
+                hikari.close();
+            } else if (dataSource instanceof DuckDbSharedDataSource shared) {
+                shared.close();
+            }
+        }
+
+        private int activeConnections() {
+            DataSource dataSource = delegate;
+            if (dataSource instanceof HikariDataSource hikari) {
+                HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+                return pool == null ? 0 : pool.getActiveConnections();
+            }
+            if (dataSource instanceof DuckDbSharedDataSource shared) {
+                return shared.getActiveConnections();
+            }
+            return 0;
+        }
+
+        private DuckDbInstanceStats statistics() {
+            long memoryUsage = 0;
+            lock.readLock().lock();
+            try {
+                DataSource dataSource = delegate;
+                if (dataSource != null) {
+                    memoryUsage = DuckDbSharedDataSource.queryMemoryUsage(dataSource);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            return DuckDbInstanceStats.builder()
+                    .filePath(filePath)
+                    .readOnly(readOnly)
+                    .open(isOpen())
+                    .activeConnections(activeConnections())
+                    .acquireCount(acquireCount.sum())
+                    .acquireNanos(acquireNanos.sum())
+                    .maxAcquireNanos(maxAcquireNanos.get())
+                    .memoryUsageBytes(memoryUsage)
+                    .lastAccessTime(lastAccessTime)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package cn.fxbin.bubble.data.duckdb.core;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.duckdb.DuckDBConnection;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DuckDB 共享实例数据源
+ *
+ * <p>
+ * 每个数据库只打开一个原生 {@link DuckDBConnection}，{@link #getConnection()} 通过
+ * {@link DuckDBConnection#duplicate()} 派生轻量连接。所有连接共享同一个数据库实例，
+ * 因此缓冲区（memory_limit）与缓存只存在一份，获取连接也无需经过连接池排队。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/25 14:10
+ */
+@Slf4j
+public class DuckDbSharedDataSource extends AbstractDataSource implements Closeable {
+
+    @Getter
+    private final String jdbcUrl;
+
+    private final DuckDBConnection root;
+
+    private final AtomicInteger activeConnections = new AtomicInteger();
+
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    public DuckDbSharedDataSource(String jdbcUrl, Properties properties) {
+        this.jdbcUrl = jdbcUrl;
+        try {
+            this.root = DriverManager.getConnection(jdbcUrl, properties).unwrap(DuckDBConnection.class);
+        } catch (SQLException e) {
+            throw new RuntimeException("打开 DuckDB 数据库实例失败：" + jdbcUrl, e);
+        }
+        log.info("DuckDB 共享实例已打开：{}", jdbcUrl);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed.get()) {
+            throw new SQLException("DuckDB 共享实例已关闭：" + jdbcUrl);
+        }
+        DuckDBConnection connection = root.duplicate();
+        activeConnections.incrementAndGet();
+        return trackClose(connection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    /**
+     * 获取当前已派生且未关闭的连接数。
+     *
+     * @return 活跃连接数。
+     */
+    public int getActiveConnections() {
+        return activeConnections.get();
+    }
+
+    /**
+     * 查询数据库实例当前占用的内存（字节）。
+     *
+     * @return 内存占用，查询失败时返回 -1。
+     */
+    public long getMemoryUsage() {
+        if (closed.get()) {
+            return 0;
+        }
+        return queryMemoryUsage(this);
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * 关闭根连接。已派生的连接关闭后，数据库实例随之释放。
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            try {
+                root.close();
+                log.info("DuckDB 共享实例已关闭：{}", jdbcUrl);
+            } catch (SQLException e) {
+                log.warn("关闭 DuckDB 共享实例失败：{}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return super.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || super.isWrapperFor(iface);
+    }
+
+    static long queryMemoryUsage(DataSource dataSource) {
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT coalesce(sum(memory_usage_bytes), 0) FROM duckdb_memory()")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            log.debug("查询 DuckDB 内存占用失败：{}", e.getMessage());
+            return -1;
+        }
+    }
+
+    private Connection trackClose(DuckDBConnection connection) {
+        AtomicBoolean released = new AtomicBoolean(false);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        activeConnections.decrementAndGet();
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+}
@@ -1,11 +1,24 @@
 package cn.fxbin.bubble.data.duckdb.core;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.jdbc.core.DataClassRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SingleColumnRowMapper;
 
 import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * DuckDB 模板
@@ -21,11 +34,24 @@ import java.util.Map;
 @Slf4j
 public class DuckDbTemplate extends JdbcTemplate {
 
+    /**
+     * 默认的流式读取批次大小，与 DuckDB 的向量大小一致。
+     */
+    public static final int DEFAULT_FETCH_SIZE = 2048;
+
     private final DuckDbIngester ingester;
 
+    private final DuckDbFileImporter fileImporter;
+
+    /**
+     * 行映射器缓存：键是结果类型，值是对应的 RowMapper（映射器本身线程安全）。
+     */
+    private final Map<Class<?>, RowMapper<?>> rowMapperCache = new ConcurrentHashMap<>();
+
     public DuckDbTemplate(DataSource dataSource) {
         super(dataSource);
         this.ingester = new DuckDbIngester(dataSource);
+        this.fileImporter = new DuckDbFileImporter(dataSource);
     }
 
     /**
@@ -59,6 +85,171 @@ public class DuckDbTemplate extends JdbcTemplate {
         ingester.appendMaps(tableName, rows, columns);
     }
 
+    /**
+     * 将列式批次追加到指定的 DuckDB 表中（无逐行装箱）。
+     *
+     * @param tableName 目标表名。
+     * @param batch     列式批次。
+     * @return 追加的行数。
+     */
+    public long appendColumns(String tableName, ColumnBatch batch) {
+        return ingester.appendColumns(tableName, batch);
+    }
+
+    /**
+     * 将按表列顺序排列的原生类型列数组追加到指定的 DuckDB 表中。
+     *
+     * @param tableName 目标表名。
+     * @param columns   列数组，支持 long[]、int[]、double[]、float[]、boolean[]、String[]、LocalDateTime[]。
+     * @return 追加的行数。
+     * @see ColumnBatch#wrap(Object...)
+     */
+    public long appendColumns(String tableName, Object... columns) {
+        return ingester.appendColumns(tableName, ColumnBatch.wrap(columns));
+    }
+
+    /**
+     * 以流的方式执行查询，结果逐行映射为指定类型，不在内存中物化完整结果集。
+     *
+     * <p>
+     * 返回的 Stream 持有数据库连接，必须在使用完毕后关闭（推荐 try-with-resources）。
+     * 简单类型使用单列映射，其他类型按列名映射到 Bean 属性或构造参数，映射器按类型缓存复用。
+     * </p>
+     *
+     * @param sql       SQL 查询语句。
+     * @param type      结果类型。
+     * @param fetchSize 每次从驱动拉取的行数。
+     * @param <T>       泛型类型。
+     * @return 结果流。
+     */
+    public <T> Stream<T> queryForStream(String sql, Class<T> type, int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("fetchSize 必须大于 0");
+        }
+        return queryForStream(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, getRowMapper(type));
+    }
+
+    /**
+     * 以流的方式执行查询，使用默认批次大小。
+     *
+     * @param sql  SQL 查询语句。
+     * @param type 结果类型。
+     * @param <T>  泛型类型。
+     * @return 结果流，使用完毕后必须关闭。
+     * @see #queryForStream(String, Class, int)
+     */
+    public <T> Stream<T> queryForStream(String sql, Class<T> type) {
+        return queryForStream(sql, type, DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * 按列式批次分块读取查询结果。
+     *
+     * <p>
+     * 数值、布尔与时间戳列读取到原生类型数组中，其余类型读取为字符串。
+     * 同一个 {@link ColumnBatch} 在各批次间复用，消费者不能在回调之外持有其数组；
+     * 回调同步执行，消费者处理较慢时读取自然被阻塞。
+     * </p>
+     *
+     * @param sql       SQL 查询语句。
+     * @param chunkSize 每个批次的最大行数。
+     * @param consumer  批次消费者。
+     * @return 读取的总行数。
+     */
+    public long queryForColumnBatches(String sql, int chunkSize, Consumer<ColumnBatch> consumer) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize 必须大于 0");
+        }
+        Long total = query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(chunkSize);
+            return ps;
+        }, rs -> {
+            ResultSetMetaData meta = rs.getMetaData();
+            int columnCount = meta.getColumnCount();
+            ColumnBatch batch = ColumnBatch.withCapacity(chunkSize);
+            byte[] kinds = new byte[columnCount];
+            String[] names = new String[columnCount];
+            for (int c = 0; c < columnCount; c++) {
+                kinds[c] = addResultColumn(batch, meta.getColumnType(c + 1));
+                names[c] = meta.getColumnLabel(c + 1);
+            }
+            batch.setColumnNames(names);
+
+            // 预取列数组与空值标记，循环内不再做列类型校验
+            Object[] arrays = new Object[columnCount];
+            boolean[][] nulls = new boolean[columnCount][];
+            for (int c = 0; c < columnCount; c++) {
+                arrays[c] = batch.data(c);
+                nulls[c] = batch.nulls(c);
+            }
+
+            long count = 0;
+            int row = 0;
+            while (rs.next()) {
+                for (int c = 0; c < columnCount; c++) {
+                    readCell(rs, c + 1, kinds[c], arrays[c], nulls[c], row);
+                }
+                row++;
+                count++;
+                if (row == chunkSize) {
+                    consumer.accept(batch.setSize(row));
+                    batch.clear();
+                    row = 0;
+                }
+            }
+            if (row > 0) {
+                consumer.accept(batch.setSize(row));
+                batch.clear();
+            }
+            return count;
+        });
+        return total == null ? 0 : total;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> RowMapper<T> getRowMapper(Class<T> type) {
+        return (RowMapper<T>) rowMapperCache.computeIfAbsent(type, t -> BeanUtils.isSimpleProperty(t)
+                ? SingleColumnRowMapper.newInstance(t)
+                : DataClassRowMapper.newInstance(t));
+    }
+
+    private static byte addResultColumn(ColumnBatch batch, int sqlType) {
+        switch (sqlType) {
+            case Types.BIGINT -> batch.longColumn();
+            case Types.INTEGER, Types.SMALLINT, Types.TINYINT -> batch.intColumn();
+            case Types.DOUBLE -> batch.doubleColumn();
+            case Types.FLOAT, Types.REAL -> batch.floatColumn();
+            case Types.BOOLEAN, Types.BIT -> batch.booleanColumn();
+            case Types.TIMESTAMP -> batch.timestampColumn();
+            default -> batch.stringColumn();
+        }
+        return batch.kind(batch.getColumnCount() - 1);
+    }
+
+    private static void readCell(ResultSet rs, int index, byte kind, Object array, boolean[] nulls, int row)
+            throws SQLException {
+        switch (kind) {
+            case ColumnBatch.LONG -> ((long[]) array)[row] = rs.getLong(index);
+            case ColumnBatch.INT -> ((int[]) array)[row] = rs.getInt(index);
+            case ColumnBatch.DOUBLE -> ((double[]) array)[row] = rs.getDouble(index);
+            case ColumnBatch.FLOAT -> ((float[]) array)[row] = rs.getFloat(index);
+            case ColumnBatch.BOOLEAN -> ((boolean[]) array)[row] = rs.getBoolean(index);
+            case ColumnBatch.TIMESTAMP -> {
+                LocalDateTime value = rs.getObject(index, LocalDateTime.class);
+                if (value != null) {
+                    ((long[]) array)[row] = ColumnBatch.toEpochMicros(value);
+                }
+            }
+            default -> ((String[]) array)[row] = rs.getString(index);
+        }
+        nulls[row] = rs.wasNull();
+    }
+
     /**
      * 将 Parquet 文件导入到表中。
      *
@@ -75,6 +266,42 @@ public class DuckDbTemplate extends JdbcTemplate {
         execute(sql);
     }
 
+    /**
+     * 增量导入匹配通配符的 Parquet / CSV 文件，已导入的文件记录在清单表中，不会被重复导入。
+     *
+     * @param tableName   目标表名（不存在时自动创建）。
+     * @param pathPattern 文件通配符，例如 {@code /data/drops/*.parquet}。
+     * @param format      文件格式。
+     * @return 导入结果。
+     */
+    public FileImportResult importFiles(String tableName, String pathPattern, DuckDbFileImporter.Format format) {
+        return fileImporter.importFiles(tableName, pathPattern, format);
+    }
+
+    /**
+     * 增量导入匹配通配符的 Parquet / CSV 文件。
+     *
+     * @param tableName   目标表名（不存在时自动创建）。
+     * @param pathPattern 文件通配符。
+     * @param format      文件格式。
+     * @param batchSize   每个批次（事务）导入的文件数。
+     * @param parallelism 同时执行的批次数。
+     * @return 导入结果。
+     */
+    public FileImportResult importFiles(String tableName, String pathPattern, DuckDbFileImporter.Format format,
+                                        int batchSize, int parallelism) {
+        return fileImporter.importFiles(tableName, pathPattern, format, batchSize, parallelism);
+    }
+
+    /**
+     * 获取增量文件导入器，可用于定时扫描目录。
+     *
+     * @return 文件导入器。
+     */
+    public DuckDbFileImporter getFileImporter() {
+        return fileImporter;
+    }
+
     /**
      * 将表（或查询结果）导出为 Parquet 文件。
      *
@@ -0,0 +1,44 @@
+package cn.fxbin.bubble.data.duckdb.core;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 增量文件导入结果
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/26 10:20
+ */
+@Getter
+@ToString
+public class FileImportResult {
+
+    /**
+     * 本次导入的文件数。
+     */
+    private final int importedFiles;
+
+    /**
+     * 已在清单中而被跳过的文件数。
+     */
+    private final int skippedFiles;
+
+    /**
+     * 本次导入的行数。
+     */
+    private final long rows;
+
+    /**
+     * 总耗时（毫秒）。
+     */
+    private final long elapsedMillis;
+
+    public FileImportResult(int importedFiles, int skippedFiles, long rows, long elapsedMillis) {
+        this.importedFiles = importedFiles;
+        this.skippedFiles = skippedFiles;
+        this.rows = rows;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+}
@@ -0,0 +1,26 @@
+package cn.fxbin.bubble.data.duckdb.core;
+
+/**
+ * 并行摄取进度监听器
+ *
+ * <p>
+ * 由各分区的工作线程回调，实现必须是线程安全的。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/22 10:20
+ */
+@FunctionalInterface
+public interface IngestProgressListener {
+
+    /**
+     * 分区进度回调。
+     *
+     * @param partition     分区序号（从 0 开始）。
+     * @param partitionRows 该分区已摄取的行数。
+     * @param totalRows     所有分区已摄取的总行数。
+     */
+    void onProgress(int partition, long partitionRows, long totalRows);
+
+}
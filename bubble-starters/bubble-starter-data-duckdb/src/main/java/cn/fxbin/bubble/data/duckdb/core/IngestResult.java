@@ -0,0 +1,60 @@
+package cn.fxbin.bubble.data.duckdb.core;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 并行摄取结果
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/22 10:25
+ */
+@Getter
+@ToString(callSuper = false)
+public class IngestResult {
+
+    /**
+     * 各分区摄取的行数。
+     */
+    private final long[] partitionRows;
+
+    /**
+     * 摄取的总行数。
+     */
+    private final long totalRows;
+
+    /**
+     * 总耗时（毫秒）。
+     */
+    private final long elapsedMillis;
+
+    public IngestResult(long[] partitionRows, long elapsedMillis) {
+        this.partitionRows = partitionRows;
+        this.elapsedMillis = elapsedMillis;
+        long total = 0;
+        for (long rows : partitionRows) {
+            total += rows;
+        }
+        this.totalRows = total;
+    }
+
+    /**
+     * 获取分区数量。
+     *
+     * @return 分区数量。
+     */
+    public int getPartitions() {
+        return partitionRows.length;
+    }
+
+    /**
+     * 获取总吞吐量。
+     *
+     * @return 每秒摄取行数。
+     */
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? totalRows : (double) totalRows / elapsedMillis * 1000;
+    }
+
+}
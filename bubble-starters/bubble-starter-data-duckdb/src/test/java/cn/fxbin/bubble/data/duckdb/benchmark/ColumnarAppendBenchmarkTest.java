@@ -0,0 +1,112 @@
+package cn.fxbin.bubble.data.duckdb.benchmark;
+
+import cn.fxbin.bubble.data.duckdb.autoconfigure.DuckDbProperties;
+import cn.fxbin.bubble.data.duckdb.core.ColumnBatch;
+import cn.fxbin.bubble.data.duckdb.core.DuckDbConnectionFactory;
+import cn.fxbin.bubble.data.duckdb.core.DuckDbTemplate;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.StopWatch;
+
+import java.nio.file.Path;
+import java.util.Iterator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * DuckDB 列式追加与逐行追加性能对比
+ *
+ * @author fxbin
+ * @since 2025/12/23
+ */
+@Slf4j
+public class ColumnarAppendBenchmarkTest {
+
+    private HikariDataSource dataSource;
+    private DuckDbTemplate template;
+
+    // 配置参数
+    private static final int ROW_COUNT = 1_000_000;
+    private static final int BATCH_SIZE = 8192;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) {
+        DuckDbProperties properties = new DuckDbProperties();
+        properties.setMode(DuckDbProperties.Mode.FILE);
+        properties.setFilePath(tempDir.resolve("columnar.duckdb").toString());
+        properties.setThreads("4");
+
+        DuckDbConnectionFactory factory = new DuckDbConnectionFactory(properties);
+        dataSource = factory.createDefaultDataSource();
+        template = new DuckDbTemplate(dataSource);
+        template.execute("CREATE TABLE telemetry_row (id BIGINT, device INTEGER, val DOUBLE, ratio FLOAT)");
+        template.execute("CREATE TABLE telemetry_col (id BIGINT, device INTEGER, val DOUBLE, ratio FLOAT)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    void benchmarkColumnarVersusRowAppend() {
+        log.info("开始列式追加性能对比：行数={}", ROW_COUNT);
+        StopWatch stopWatch = new StopWatch("DuckDB Columnar Append");
+
+        // 1. 逐行路径：每行一个 Object[]，每个单元格装箱
+        stopWatch.start("Row append (Object[])");
+        template.append("telemetry_row", new Iterator<>() {
+            private int row;
+
+            @Override
+            public boolean hasNext() {
+                return row < ROW_COUNT;
+            }
+
+            @Override
+            public Object[] next() {
+                int i = row++;
+                return new Object[]{(long) i, i % 1000, i * 0.5, (float) (i % 100) / 100};
+            }
+        });
+        stopWatch.stop();
+        long rowMillis = stopWatch.getLastTaskTimeMillis();
+
+        // 2. 列式路径：复用同一个批次的原生类型数组
+        stopWatch.start("Columnar append (ColumnBatch)");
+        ColumnBatch batch = ColumnBatch.withCapacity(BATCH_SIZE).longColumn().intColumn().doubleColumn().floatColumn();
+        long[] ids = batch.longs(0);
+        int[] devices = batch.ints(1);
+        double[] values = batch.doubles(2);
+        float[] ratios = batch.floats(3);
+        for (int offset = 0; offset < ROW_COUNT; offset += BATCH_SIZE) {
+            int size = Math.min(BATCH_SIZE, ROW_COUNT - offset);
+            for (int j = 0; j < size; j++) {
+                int i = offset + j;
+                ids[j] = i;
+                devices[j] = i % 1000;
+                values[j] = i * 0.5;
+                ratios[j] = (float) (i % 100) / 100;
+            }
+            batch.setSize(size);
+            template.appendColumns("telemetry_col", batch);
+            batch.clear();
+        }
+        stopWatch.stop();
+        long columnMillis = stopWatch.getLastTaskTimeMillis();
+
+        log.info("逐行追加：{} ms（{} rows/sec）", rowMillis, (double) ROW_COUNT / Math.max(rowMillis, 1) * 1000);
+        log.info("列式追加：{} ms（{} rows/sec）", columnMillis, (double) ROW_COUNT / Math.max(columnMillis, 1) * 1000);
+        log.info(stopWatch.prettyPrint());
+
+        assertThat(template.queryForObject("SELECT count(*) FROM telemetry_col", Long.class)).isEqualTo(ROW_COUNT);
+        assertThat(template.queryForObject("SELECT sum(val) FROM telemetry_col", Double.class))
+                .isEqualTo(template.queryForObject("SELECT sum(val) FROM telemetry_row", Double.class));
+    }
+}
@@ -0,0 +1,45 @@
+package cn.fxbin.bubble.data.duckdb.core;
+
+import cn.fxbin.bubble.data.duckdb.autoconfigure.DuckDbProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DuckDbArrowReaderTest {
+
+    private HikariDataSource dataSource;
+
+    @AfterEach
+    void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    void shouldExportQueryAsArrowBatches() {
+        DuckDbProperties properties = new DuckDbProperties();
+        properties.setMode(DuckDbProperties.Mode.MEMORY);
+        properties.setMaximumPoolSize(1);
+        dataSource = new DuckDbConnectionFactory(properties).createDefaultDataSource();
+
+        AtomicLong sum = new AtomicLong();
+        try (BufferAllocator allocator = new RootAllocator()) {
+            long rows = new DuckDbArrowReader(dataSource).query("SELECT range AS id FROM range(5000)", allocator, 1024, root -> {
+                BigIntVector ids = (BigIntVector) root.getVector("id");
+                for (int i = 0; i < root.getRowCount(); i++) {
+                    sum.addAndGet(ids.get(i));
+                }
+            });
+            assertThat(rows).isEqualTo(5000L);
+        }
+        assertThat(sum.get()).isEqualTo(12497500L);
+    }
+}
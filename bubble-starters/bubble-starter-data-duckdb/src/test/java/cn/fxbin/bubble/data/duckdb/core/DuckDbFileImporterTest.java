@@ -0,0 +1,79 @@
+package cn.fxbin.bubble.data.duckdb.core;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DuckDbFileImporterTest {
+
+    private HikariDataSource dataSource;
+
+    @AfterEach
+    void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    void shouldImportOnlyNewParquetFiles(@TempDir Path tempDir) throws Exception {
+        dataSource = createFileDataSource(tempDir);
+        DuckDbTemplate template = new DuckDbTemplate(dataSource);
+        Path drops = Files.createDirectories(tempDir.resolve("drops"));
+
+        template.exportParquet("SELECT range AS id, 'a' AS tag FROM range(100)", drops.resolve("p1.parquet").toString());
+        template.exportParquet("SELECT range AS id, 'b' AS tag FROM range(50)", drops.resolve("p2.parquet").toString());
+
+        String pattern = drops.toString() + "/*.parquet";
+        FileImportResult first = template.importFiles("events", pattern, DuckDbFileImporter.Format.PARQUET);
+        assertThat(first.getImportedFiles()).isEqualTo(2);
+        assertThat(first.getRows()).isEqualTo(150);
+
+        FileImportResult second = template.importFiles("events", pattern, DuckDbFileImporter.Format.PARQUET);
+        assertThat(second.getImportedFiles()).isZero();
+        assertThat(second.getSkippedFiles()).isEqualTo(2);
+
+        template.exportParquet("SELECT range AS id, 'c' AS tag FROM range(25)", drops.resolve("p3.parquet").toString());
+        FileImportResult third = template.importFiles("events", pattern, DuckDbFileImporter.Format.PARQUET);
+        assertThat(third.getImportedFiles()).isEqualTo(1);
+        assertThat(third.getRows()).isEqualTo(25);
+
+        assertThat(template.queryForObject("SELECT count(*) FROM events", Long.class)).isEqualTo(175L);
+        assertThat(template.queryForObject("SELECT sum(row_count) FROM " + DuckDbFileImporter.DEFAULT_MANIFEST_TABLE
+                + " WHERE table_name = 'events'", Long.class)).isEqualTo(175L);
+    }
+
+    @Test
+    void shouldImportCsvBatchesInParallelAcrossRestarts(@TempDir Path tempDir) throws Exception {
+        dataSource = createFileDataSource(tempDir);
+        Path drops = Files.createDirectories(tempDir.resolve("csv"));
+        for (int i = 0; i < 10; i++) {
+            Files.writeString(drops.resolve("f" + i + ".csv"), "id,name\n" + i + ",n" + i + "\n" + (i + 100) + ",m" + i + "\n");
+        }
+        String pattern = drops.toString() + "/*.csv";
+
+        FileImportResult result = new DuckDbFileImporter(dataSource)
+                .importFiles("people", pattern, DuckDbFileImporter.Format.CSV, 3, 2);
+        assertThat(result.getImportedFiles()).isEqualTo(10);
+        assertThat(result.getRows()).isEqualTo(20);
+
+        // 新的导入器实例模拟进程重启，清单表保证不会重复导入
+        DuckDbFileImporter restarted = new DuckDbFileImporter(dataSource);
+        assertThat(restarted.importFiles("people", pattern, DuckDbFileImporter.Format.CSV).getImportedFiles()).isZero();
+        assertThat(restarted.getIngestedFiles("people")).hasSize(10);
+        assertThat(new DuckDbTemplate(dataSource).queryForObject("SELECT count(*) FROM people", Long.class)).isEqualTo(20L);
+    }
+
+    private static HikariDataSource createFileDataSource(Path tempDir) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:duckdb:" + tempDir.resolve("import.duckdb"));
+        dataSource.setMaximumPoolSize(4);
+        return dataSource;
+    }
+}
@@ -8,7 +8,10 @@ import org.junit.jupiter.api.io.TempDir;
 
 import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -81,4 +84,96 @@ class DuckDbIngesterTest {
 
         assertThat(output).exists();
     }
+
+    @Test
+    void shouldIngestPartitionsInParallel(@TempDir Path tempDir) {
+        dataSource = createFileDataSource(tempDir);
+
+        DuckDbTemplate template = new DuckDbTemplate(dataSource);
+        template.execute("CREATE TABLE metrics (id BIGINT, val DOUBLE)");
+
+        AtomicLong reported = new AtomicLong();
+        DuckDbIngester ingester = new DuckDbIngester(dataSource, 4);
+        IngestResult result = ingester.ingestParallel("metrics", List.of(rows(0, 3000), rows(3000, 5000), rows(5000, 5500)),
+                true, 1000, (partition, partitionRows, totalRows) -> reported.accumulateAndGet(totalRows, Math::max));
+
+        assertThat(result.getPartitions()).isEqualTo(3);
+        assertThat(result.getPartitionRows()).containsExactly(3000L, 2000L, 500L);
+        assertThat(result.getTotalRows()).isEqualTo(5500L);
+        assertThat(reported.get()).isPositive();
+        assertThat(template.queryForObject("SELECT count(DISTINCT id) FROM metrics", Long.class)).isEqualTo(5500L);
+    }
+
+    @Test
+    void shouldSplitSingleSourceIntoParallelBatches(@TempDir Path tempDir) {
+        dataSource = createFileDataSource(tempDir);
+
+        DuckDbTemplate template = new DuckDbTemplate(dataSource);
+        template.execute("CREATE TABLE metrics (id BIGINT, val DOUBLE)");
+
+        DuckDbIngester ingester = new DuckDbIngester(dataSource, 3);
+        IngestResult result = ingester.ingestParallel("metrics", rows(0, 10_000), 512);
+
+        assertThat(result.getTotalRows()).isEqualTo(10_000L);
+        assertThat(template.queryForObject("SELECT sum(id) FROM metrics", Long.class))
+                .isEqualTo(LongStream.range(0, 10_000).sum());
+    }
+
+    @Test
+    void shouldRollbackAllPartitionsWhenOneFails(@TempDir Path tempDir) {
+        dataSource = createFileDataSource(tempDir);
+
+        DuckDbTemplate template = new DuckDbTemplate(dataSource);
+        template.execute("CREATE TABLE metrics (id BIGINT, val DOUBLE)");
+
+        DuckDbIngester ingester = new DuckDbIngester(dataSource, 2);
+        Iterator<Object[]> broken = List.<Object[]>of(new Object[]{1L}).iterator();
+        assertThatThrownBy(() -> ingester.ingestParallel("metrics", List.of(rows(0, 1000), broken)))
+                .isInstanceOf(RuntimeException.class);
+
+        assertThat(template.queryForObject("SELECT count(*) FROM metrics", Long.class)).isZero();
+    }
+
+    @Test
+    void shouldAppendColumnBatchWithNulls() {
+        DuckDbProperties properties = new DuckDbProperties();
+        properties.setMode(DuckDbProperties.Mode.MEMORY);
+        properties.setMaximumPoolSize(1);
+        dataSource = new DuckDbConnectionFactory(properties).createDefaultDataSource();
+
+        DuckDbTemplate template = new DuckDbTemplate(dataSource);
+        template.execute("CREATE TABLE telemetry (id BIGINT, val DOUBLE, tag VARCHAR, ts TIMESTAMP)");
+
+        ColumnBatch batch = ColumnBatch.withCapacity(8).longColumn().doubleColumn().stringColumn().timestampColumn();
+        LocalDateTime base = LocalDateTime.of(2025, 12, 23, 8, 0, 0);
+        for (int i = 0; i < 3; i++) {
+            batch.longs(0)[i] = i;
+            batch.doubles(1)[i] = i * 1.5;
+            batch.strings(2)[i] = i == 1 ? null : "t" + i;
+            batch.longs(3)[i] = ColumnBatch.toEpochMicros(base.plusMinutes(i));
+        }
+        batch.nulls(1)[2] = true;
+        batch.setSize(3);
+
+        assertThat(template.appendColumns("telemetry", batch)).isEqualTo(3L);
+        assertThat(template.queryForObject("SELECT count(*) FROM telemetry WHERE tag IS NULL", Long.class)).isEqualTo(1L);
+        assertThat(template.queryForObject("SELECT count(*) FROM telemetry WHERE val IS NULL", Long.class)).isEqualTo(1L);
+        assertThat(template.queryForObject("SELECT max(ts) FROM telemetry", LocalDateTime.class)).isEqualTo(base.plusMinutes(2));
+
+        batch.clear();
+        template.appendColumns("telemetry", new long[]{10L}, new double[]{2.0}, new String[]{"x"}, new LocalDateTime[]{null});
+        assertThat(template.queryForObject("SELECT count(*) FROM telemetry", Long.class)).isEqualTo(4L);
+    }
+
+    private HikariDataSource createFileDataSource(Path tempDir) {
+        DuckDbProperties properties = new DuckDbProperties();
+        properties.setMode(DuckDbProperties.Mode.FILE);
+        properties.setFilePath(tempDir.resolve("ingest.duckdb").toString());
+        properties.setMaximumPoolSize(4);
+        return new DuckDbConnectionFactory(properties).createDefaultDataSource();
+    }
+
+    private static Iterator<Object[]> rows(long from, long to) {
+        return LongStream.range(from, to).mapToObj(i -> new Object[]{i, i * 0.5}).iterator();
+    }
 }
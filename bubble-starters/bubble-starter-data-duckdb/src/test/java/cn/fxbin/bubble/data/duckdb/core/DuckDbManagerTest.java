@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -40,5 +42,67 @@ class DuckDbManagerTest {
         Long count = rw1.queryForObject("SELECT count(*) FROM t", Long.class);
         assertThat(count).isEqualTo(0L);
     }
-}
 
+    @Test
+    void shouldShareInstanceAcrossDuplicatedConnections(@TempDir Path tempDir) {
+        DuckDbProperties properties = new DuckDbProperties();
+        properties.setConnectionMode(DuckDbProperties.ConnectionMode.SHARED);
+
+        manager = new DuckDbManager(properties);
+
+        DuckDbTemplate template = manager.getTemplate(tempDir.resolve("shared.duckdb").toString());
+        template.execute("CREATE TEMP TABLE t AS SELECT 1 AS id");
+        template.execute("CREATE TABLE p AS SELECT range AS id FROM range(10)");
+
+        assertThat(template.queryForObject("SELECT count(*) FROM p", Long.class)).isEqualTo(10L);
+
+        List<DuckDbInstanceStats> statistics = manager.getStatistics();
+        assertThat(statistics).hasSize(1);
+        assertThat(statistics.get(0).isOpen()).isTrue();
+        assertThat(statistics.get(0).getActiveConnections()).isZero();
+        assertThat(statistics.get(0).getAcquireCount()).isEqualTo(3);
+        assertThat(statistics.get(0).getMemoryUsageBytes()).isGreaterThanOrEqualTo(0);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedInstance(@TempDir Path tempDir) {
+        DuckDbProperties properties = new DuckDbProperties();
+        properties.setConnectionMode(DuckDbProperties.ConnectionMode.SHARED);
+        properties.setMaxOpenInstances(2);
+
+        manager = new DuckDbManager(properties);
+
+        DuckDbTemplate a = manager.getTemplate(tempDir.resolve("a.duckdb").toString());
+        DuckDbTemplate b = manager.getTemplate(tempDir.resolve("b.duckdb").toString());
+        DuckDbTemplate c = manager.getTemplate(tempDir.resolve("c.duckdb").toString());
+
+        a.execute("CREATE TABLE t AS SELECT 1 AS id");
+        b.execute("CREATE TABLE t AS SELECT 2 AS id");
+        assertThat(manager.getOpenInstanceCount()).isEqualTo(2);
+
+        c.execute("CREATE TABLE t AS SELECT 3 AS id");
+        assertThat(manager.getOpenInstanceCount()).isEqualTo(2);
+
+        // 被回收的实例在下次访问时重新打开，数据仍在文件中
+        assertThat(a.queryForObject("SELECT id FROM t", Integer.class)).isEqualTo(1);
+        assertThat(manager.getOpenInstanceCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEvictIdleInstances(@TempDir Path tempDir) throws InterruptedException {
+        DuckDbProperties properties = new DuckDbProperties();
+        properties.setIdleTimeout(Duration.ofMillis(50));
+
+        manager = new DuckDbManager(properties);
+
+        DuckDbTemplate template = manager.getTemplate(tempDir.resolve("idle.duckdb").toString());
+        template.execute("CREATE TABLE t AS SELECT 1 AS id");
+        assertThat(manager.getOpenInstanceCount()).isEqualTo(1);
+
+        Thread.sleep(100);
+        assertThat(manager.evictIdleInstances()).isEqualTo(1);
+        assertThat(manager.getOpenInstanceCount()).isZero();
+
+        assertThat(template.queryForObject("SELECT count(*) FROM t", Long.class)).isEqualTo(1L);
+    }
+}
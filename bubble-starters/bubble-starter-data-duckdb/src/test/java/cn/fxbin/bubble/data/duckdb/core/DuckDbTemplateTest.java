@@ -0,0 +1,93 @@
+package cn.fxbin.bubble.data.duckdb.core;
+
+import cn.fxbin.bubble.data.duckdb.autoconfigure.DuckDbProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DuckDbTemplateTest {
+
+    private HikariDataSource dataSource;
+    private DuckDbTemplate template;
+
+    @BeforeEach
+    void setUp() {
+        DuckDbProperties properties = new DuckDbProperties();
+        properties.setMode(DuckDbProperties.Mode.MEMORY);
+        properties.setMaximumPoolSize(1);
+        dataSource = new DuckDbConnectionFactory(properties).createDefaultDataSource();
+        template = new DuckDbTemplate(dataSource);
+        template.execute("CREATE TABLE events AS SELECT range AS id, 'e' || range AS name, " +
+                "CASE WHEN range % 10 = 0 THEN NULL ELSE range * 0.5 END AS val FROM range(10000)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    void shouldStreamRowsMappedToBean() {
+        try (Stream<Event> stream = template.queryForStream("SELECT id, name FROM events ORDER BY id", Event.class, 500)) {
+            assertThat(stream.filter(e -> e.getName().equals("e" + e.getId())).count()).isEqualTo(10000L);
+        }
+        try (Stream<Long> ids = template.queryForStream("SELECT id FROM events", Long.class)) {
+            assertThat(ids.mapToLong(Long::longValue).sum()).isEqualTo(49995000L);
+        }
+    }
+
+    @Test
+    void shouldReadResultInColumnBatches() {
+        AtomicInteger batches = new AtomicInteger();
+        AtomicLong nullCount = new AtomicLong();
+        AtomicLong idSum = new AtomicLong();
+        long total = template.queryForColumnBatches("SELECT id, val, name FROM events", 4096, batch -> {
+            batches.incrementAndGet();
+            assertThat(batch.getColumnName(1)).isEqualTo("val");
+            long[] ids = batch.longs(0);
+            boolean[] nulls = batch.nulls(1);
+            for (int i = 0; i < batch.getSize(); i++) {
+                idSum.addAndGet(ids[i]);
+                if (nulls[i]) {
+                    nullCount.incrementAndGet();
+                }
+            }
+        });
+
+        assertThat(total).isEqualTo(10000L);
+        assertThat(batches.get()).isEqualTo(3);
+        assertThat(idSum.get()).isEqualTo(49995000L);
+        assertThat(nullCount.get()).isEqualTo(1000L);
+    }
+
+    public static class Event {
+
+        private Long id;
+        private String name;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -14,7 +14,7 @@ import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
@@ -106,13 +106,9 @@ public class RStreamOperations {
         if (CUSTOM_CONVERSIONS.isSimpleType(valueClass)) {
             return streamOperations.add(record);
         }
-        // 3. 自定义类型处理
-        Map<String, Object> payload = new HashMap<>();
-
-        // 自定义 pojo 类型 key
-        payload.put(OBJECT_PAYLOAD_KEY, recordValue);
-        MapRecord<String, String, Object> mapRecord = MapRecord.create(stream, payload);
-        return streamOperations.add(mapRecord);
+        // 3. 自定义类型处理，使用 RedisTemplate 的值序列化器编码，与 RStreamListenerDetector 的解码保持一致
+        byte[] payload = redisTemplate.getValueSerializer().serialize(recordValue);
+        return this.send(stream, OBJECT_PAYLOAD_KEY, payload);
     }
 
     /**
@@ -178,10 +174,23 @@ public class RStreamOperations {
      * @return {@link RecordId}
      */
     public RecordId send(String name, String key, byte[] data, RedisStreamCommands.XAddOptions options) {
+        return this.sendBytes(name, Collections.singletonMap(key, data), options);
+    }
+
+    /**
+     * 发布多字段的原始 bytes 消息
+     *
+     * @param name    名称
+     * @param data    字段 -&gt; 数据
+     * @param options {@link RedisStreamCommands.XAddOptions}
+     * @return {@link RecordId}
+     */
+    public RecordId sendBytes(String name, Map<String, byte[]> data, RedisStreamCommands.XAddOptions options) {
         RedisSerializer<String> stringSerializer = StringRedisSerializer.UTF_8;
         byte[] nameBytes = Objects.requireNonNull(stringSerializer.serialize(name), "redis stream name is null.");
-        byte[] keyBytes = Objects.requireNonNull(stringSerializer.serialize(key), "redis stream key is null.");
-        Map<byte[], byte[]> mapDate = Collections.singletonMap(keyBytes, data);
+        Map<byte[], byte[]> mapDate = new LinkedHashMap<>(data.size());
+        data.forEach((key, value) -> mapDate.put(
+                Objects.requireNonNull(stringSerializer.serialize(key), "redis stream key is null."), value));
         return (RecordId) redisTemplate.execute((RedisCallback<RecordId>) redis -> {
             RedisStreamCommands streamCommands = redis.streamCommands();
             return streamCommands.xAdd(MapRecord.create(nameBytes, mapDate), options);
@@ -13,7 +13,11 @@ import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * RedisOperatorTools
@@ -30,6 +34,20 @@ public class RedisOperations {
 
     private final StringRedisTemplate stringRedisTemplate;
 
+    /**
+     * 异步操作的执行器，默认每个任务一个虚拟线程
+     */
+    private Executor asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * setAsyncExecutor 设置异步操作的执行器
+     *
+     * @param asyncExecutor 执行器
+     */
+    public void setAsyncExecutor(@NonNull Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
     /**
      * keys
      *
@@ -803,4 +821,115 @@ public class RedisOperations {
             return 0;
         }
     }
+
+
+    /**
+     * pipeline 管道批量操作
+     *
+     * <p>
+     *     回调中记录的命令在回调结束后一次性发送，整批命令约消耗一次网络往返；
+     *     同一键的 SET 与其后的 EXPIRE 合并为一条带过期时间的 SET。
+     *     任一命令失败时整批操作抛出异常。
+     * </p>
+     *
+     * @param action 记录命令的回调
+     * @return {@link java.util.List} 按记录顺序排列的命令结果
+     */
+    public List<Object> pipeline(@NonNull Consumer<RedisPipeline> action) {
+        RedisPipeline pipeline = new RedisPipeline(redisTemplate);
+        action.accept(pipeline);
+        return pipeline.size() == 0 ? Lists.newArrayList() : pipeline.execute(redisTemplate);
+    }
+
+    /**
+     * pipelineAsync 异步执行管道批量操作
+     *
+     * @param action 记录命令的回调
+     * @return {@link CompletableFuture} 按记录顺序排列的命令结果
+     */
+    public CompletableFuture<List<Object>> pipelineAsync(@NonNull Consumer<RedisPipeline> action) {
+        RedisPipeline pipeline = new RedisPipeline(redisTemplate);
+        action.accept(pipeline);
+        return CompletableFuture.supplyAsync(() -> pipeline.execute(redisTemplate), asyncExecutor);
+    }
+
+    /**
+     * getAsync 异步获取value值
+     *
+     * @param key 键
+     * @return {@link CompletableFuture} 值
+     */
+    public CompletableFuture<Object> getAsync(String key) {
+        return CompletableFuture.supplyAsync(() -> get(key), asyncExecutor);
+    }
+
+    /**
+     * setAsync 异步设置值 并设置过期时间
+     *
+     * @param key 键
+     * @param value 值
+     * @param time 时间(秒) time &gt; 0, 则设置time, 否则无限期
+     * @return {@link CompletableFuture} 成功/失败
+     */
+    public CompletableFuture<Boolean> setAsync(String key, Object value, long time) {
+        return CompletableFuture.supplyAsync(() -> set(key, value, time), asyncExecutor);
+    }
+
+    /**
+     * deleteAsync 异步删除键
+     *
+     * @param key 键
+     * @return {@link CompletableFuture} 删除成功/失败
+     */
+    public CompletableFuture<Boolean> deleteAsync(@NonNull Object key) {
+        return CompletableFuture.supplyAsync(() -> delete(key), asyncExecutor);
+    }
+
+    /**
+     * expireAsync 异步指定缓存失效时间
+     *
+     * @param key 键
+     * @param time 时间(秒)
+     * @return {@link CompletableFuture} 成功/失败
+     */
+    public CompletableFuture<Boolean> expireAsync(String key, long time) {
+        return CompletableFuture.supplyAsync(() -> expire(key, time), asyncExecutor);
+    }
+
+    /**
+     * incrAsync 异步递增
+     *
+     * @param key 键
+     * @param delta 递增因子
+     * @return {@link CompletableFuture} 递增之后的值
+     */
+    public CompletableFuture<Long> incrAsync(String key, long delta) {
+        return CompletableFuture.supplyAsync(() -> incr(key, delta), asyncExecutor);
+    }
+
+    /**
+     * hgetAsync 异步获取 hash 中的项
+     *
+     * @param key 键
+     * @param item 项
+     * @return {@link CompletableFuture} 值
+     */
+    public CompletableFuture<Object> hgetAsync(@NonNull String key, @NonNull String item) {
+        return CompletableFuture.supplyAsync(() -> hget(key, item), asyncExecutor);
+    }
+
+    /**
+     * hmsetAsync 异步向 hash 中放入多个键值 并设置时间
+     *
+     * @param key 键
+     * @param map 对应多个键值
+     * @param time 时间(秒)
+     * @return {@link CompletableFuture} 成功/失败
+     */
+    public CompletableFuture<Boolean> hmsetAsync(String key, Map<?, ?> map, long time) {
+        return pipelineAsync(ops -> {
+            ops.hmset(key, map);
+            ops.expire(key, time);
+        }).thenApply(results -> Boolean.TRUE);
+    }
 }
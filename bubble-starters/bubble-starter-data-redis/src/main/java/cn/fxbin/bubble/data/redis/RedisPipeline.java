@@ -0,0 +1,495 @@
+package cn.fxbin.bubble.data.redis;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * RedisPipeline 批量操作
+ *
+ * <p>
+ *     在 {@link RedisOperations#pipeline(java.util.function.Consumer)} 回调中记录命令，回调结束后
+ *     通过 {@link RedisTemplate#executePipelined(RedisCallback, RedisSerializer)} 一次性发送，
+ *     整批命令只消耗约一次网络往返。每个命令返回一个 {@link Response}，在执行完成后可读取其类型化结果。
+ *     紧随 SET 之后针对同一键的 EXPIRE 会被合并为一条 {@code SET key value PX ttl}。
+ * </p>
+ *
+ * <pre>{@code
+ * List<Object> results = redisOperations.pipeline(ops -> {
+ *     for (User user : users) {
+ *         ops.set("user:" + user.getId(), user);
+ *         ops.expire("user:" + user.getId(), 600);
+ *     }
+ * });
+ * }</pre>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/26 15:20
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class RedisPipeline {
+
+    private final RedisSerializer keySerializer;
+
+    private final RedisSerializer valueSerializer;
+
+    private final RedisSerializer hashKeySerializer;
+
+    private final RedisSerializer hashValueSerializer;
+
+    private final List<Command<?>> commands = new ArrayList<>();
+
+    RedisPipeline(RedisTemplate redisTemplate) {
+        this.keySerializer = redisTemplate.getKeySerializer();
+        this.valueSerializer = redisTemplate.getValueSerializer();
+        this.hashKeySerializer = redisTemplate.getHashKeySerializer();
+        this.hashValueSerializer = redisTemplate.getHashValueSerializer();
+    }
+
+    /**
+     * get 获取value值
+     *
+     * @param key 键
+     * @return {@link Response} 值
+     */
+    public Response<Object> get(String key) {
+        return add(Type.GET, key, null, raw -> deserialize(valueSerializer, raw));
+    }
+
+    /**
+     * set 设置值
+     *
+     * @param key 键
+     * @param value 值
+     * @return {@link Response} 成功/失败
+     */
+    public Response<Boolean> set(String key, Object value) {
+        return add(Type.SET, key, new Object[]{serialize(valueSerializer, value)}, RedisPipeline::toBoolean);
+    }
+
+    /**
+     * set 设置值 并设置过期时间
+     *
+     * @param key 键
+     * @param value 值
+     * @param time 时间(秒) time &gt; 0, 则设置time, 否则无限期
+     * @return {@link Response} 成功/失败
+     */
+    public Response<Boolean> set(String key, Object value, long time) {
+        return set(key, value, time, TimeUnit.SECONDS);
+    }
+
+    /**
+     * set 设置值 并设置过期时间
+     *
+     * @param key 键
+     * @param value 值
+     * @param time 时间 time &gt; 0, 则设置time, 否则无限期
+     * @param timeUnit timeUnit
+     * @return {@link Response} 成功/失败
+     */
+    public Response<Boolean> set(String key, Object value, long time, TimeUnit timeUnit) {
+        Command<Boolean> command = (Command<Boolean>) set(key, value).command;
+        command.ttlMillis = time > 0 ? timeUnit.toMillis(time) : 0;
+        return command.response;
+    }
+
+    /**
+     * setNX 并设置过期时间
+     *
+     * @param key 键
+     * @param value 值
+     * @param time 时间(秒) time &gt; 0, 则设置time, 否则无限期
+     * @return {@link Response} 是否设置成功
+     */
+    public Response<Boolean> setIfAbsent(String key, Object value, long time) {
+        Command<Boolean> command = (Command<Boolean>) add(Type.SET_NX, key,
+                new Object[]{serialize(valueSerializer, value)}, RedisPipeline::toBoolean).command;
+        command.ttlMillis = time > 0 ? TimeUnit.SECONDS.toMillis(time) : 0;
+        return command.response;
+    }
+
+    /**
+     * expire 指定缓存失效时间
+     *
+     * @param key 键
+     * @param time 时间(秒)，time &lt;= 0 时不做任何操作
+     * @return {@link Response} 成功/失败
+     */
+    public Response<Boolean> expire(String key, long time) {
+        Response<Boolean> response = add(Type.EXPIRE, key, null, RedisPipeline::toBoolean);
+        response.command.ttlMillis = TimeUnit.SECONDS.toMillis(time);
+        return response;
+    }
+
+    /**
+     * delete 删除键
+     *
+     * @param key 键
+     * @return {@link Response} 是否删除了键
+     */
+    public Response<Boolean> delete(String key) {
+        return add(Type.DEL, key, null, raw -> raw != null && (Long) raw > 0);
+    }
+
+    /**
+     * hasKey 判断key是否存在
+     *
+     * @param key 键
+     * @return {@link Response} 存在/不存在
+     */
+    public Response<Boolean> hasKey(String key) {
+        return add(Type.EXISTS, key, null, RedisPipeline::toBoolean);
+    }
+
+    /**
+     * incr 递增(1)
+     *
+     * @param key 键
+     * @return {@link Response} 递增之后的值
+     */
+    public Response<Long> incr(String key) {
+        return incr(key, 1);
+    }
+
+    /**
+     * incr 递增
+     *
+     * @param key 键
+     * @param delta 递增因子，必须大于 0
+     * @return {@link Response} 递增之后的值
+     */
+    public Response<Long> incr(String key, long delta) {
+        if (delta < 0) {
+            throw new IllegalArgumentException("递增因子必须大于0");
+        }
+        return add(Type.INCR_BY, key, new Object[]{delta}, raw -> (Long) raw);
+    }
+
+    /**
+     * decr 递减
+     *
+     * @param key 键
+     * @param delta 递减因子，必须大于 0
+     * @return {@link Response} 递减之后的值
+     */
+    public Response<Long> decr(String key, long delta) {
+        if (delta < 0) {
+            throw new IllegalArgumentException("递减因子必须大于0");
+        }
+        return add(Type.DECR_BY, key, new Object[]{delta}, raw -> (Long) raw);
+    }
+
+    /**
+     * hget 获取 hash 中的项
+     *
+     * @param key 键
+     * @param item 项
+     * @return {@link Response} 值
+     */
+    public Response<Object> hget(String key, String item) {
+        return add(Type.HGET, key, new Object[]{serialize(hashKeySerializer, item)},
+                raw -> deserialize(hashValueSerializer, raw));
+    }
+
+    /**
+     * hset 向 hash 中放入数据
+     *
+     * @param key 键
+     * @param item 项
+     * @param value 值
+     * @return {@link Response} 成功/失败
+     */
+    public Response<Boolean> hset(String key, String item, Object value) {
+        return add(Type.HSET, key, new Object[]{serialize(hashKeySerializer, item), serialize(hashValueSerializer, value)},
+                raw -> Boolean.TRUE);
+    }
+
+    /**
+     * hmset 向 hash 中放入多个键值
+     *
+     * @param key 键
+     * @param map 对应多个键值
+     * @return {@link Response} 成功/失败
+     */
+    public Response<Boolean> hmset(String key, Map<?, ?> map) {
+        Map<byte[], byte[]> hashes = new LinkedHashMap<>(map.size());
+        map.forEach((k, v) -> hashes.put(serialize(hashKeySerializer, k), serialize(hashValueSerializer, v)));
+        return add(Type.HMSET, key, new Object[]{hashes}, raw -> Boolean.TRUE);
+    }
+
+    /**
+     * hmget 获取 hash 的所有键值
+     *
+     * @param key 键
+     * @return {@link Response} 键值
+     */
+    public Response<Map<Object, Object>> hmget(String key) {
+        return add(Type.HGETALL, key, null, raw -> {
+            Map<Object, Object> entries = new LinkedHashMap<>();
+            if (raw != null) {
+                ((Map<byte[], byte[]>) raw).forEach((k, v) ->
+                        entries.put(deserialize(hashKeySerializer, k), deserialize(hashValueSerializer, v)));
+            }
+            return entries;
+        });
+    }
+
+    /**
+     * hdel 删除 hash 中的项
+     *
+     * @param key 键
+     * @param items 项
+     * @return {@link Response} 删除的项数
+     */
+    public Response<Long> hdel(String key, Object... items) {
+        byte[][] fields = new byte[items.length][];
+        for (int i = 0; i < items.length; i++) {
+            fields[i] = serialize(hashKeySerializer, items[i]);
+        }
+        return add(Type.HDEL, key, new Object[]{fields}, raw -> (Long) raw);
+    }
+
+    /**
+     * sSet 向 set 中添加值
+     *
+     * @param key 键
+     * @param values 值(可以多个)
+     * @return {@link Response} 新增的个数
+     */
+    public Response<Long> sSet(String key, Object... values) {
+        return add(Type.SADD, key, new Object[]{serializeAll(values)}, raw -> (Long) raw);
+    }
+
+    /**
+     * lPush 将值存入 list 尾部
+     *
+     * @param key 键
+     * @param value 值
+     * @return {@link Response} 成功/失败
+     */
+    public Response<Boolean> lPush(String key, Object value) {
+        return add(Type.RPUSH, key, new Object[]{serializeAll(value)}, raw -> Boolean.TRUE);
+    }
+
+    /**
+     * 当前记录的命令数。
+     *
+     * @return 命令数
+     */
+    public int size() {
+        return commands.size();
+    }
+
+    /**
+     * 执行记录的命令，并按记录顺序返回每个命令的结果。
+     */
+    List<Object> execute(RedisTemplate redisTemplate) {
+        List<Command<?>> issued = merge();
+        if (!issued.isEmpty()) {
+            // 不传结果序列化器，原始结果由各命令按自身的序列化器转换
+            List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Command<?> command : issued) {
+                    command.issue(connection);
+                }
+                return null;
+            }, null);
+
+            int index = 0;
+            for (Command<?> command : issued) {
+                // hMSet 等无返回值（状态回复）的命令不出现在管道结果中
+                command.complete(command.type.hasReply ? replies.get(index++) : null);
+            }
+        }
+
+        List<Object> results = new ArrayList<>(commands.size());
+        for (Command<?> command : commands) {
+            results.add(command.response.value);
+        }
+        return results;
+    }
+
+    /**
+     * 将 SET 之后同一键的 EXPIRE 合并到 SET 中，并移除无效的 EXPIRE。
+     */
+    private List<Command<?>> merge() {
+        List<Command<?>> issued = new ArrayList<>(commands.size());
+        Map<String, Command<?>> lastByKey = new HashMap<>();
+        for (Command<?> command : commands) {
+            if (command.type == Type.EXPIRE) {
+                Command<?> previous = lastByKey.get(command.key);
+                if (command.ttlMillis <= 0) {
+                    ((Command<Boolean>) command).response.complete(Boolean.TRUE);
+                    continue;
+                }
+                if (previous != null && previous.type == Type.SET && previous.ttlMillis <= 0) {
+                    previous.ttlMillis = command.ttlMillis;
+                    ((Command<Boolean>) command).response.complete(Boolean.TRUE);
+                    continue;
+                }
+            }
+            lastByKey.put(command.key, command);
+            issued.add(command);
+        }
+        return issued;
+    }
+
+    private <T> Response<T> add(Type type, String key, Object[] args, Function<Object, T> converter) {
+        Command<T> command = new Command<>(type, key, serialize(keySerializer, key), args, converter);
+        commands.add(command);
+        return command.response;
+    }
+
+    private byte[][] serializeAll(Object... values) {
+        byte[][] raw = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            raw[i] = serialize(valueSerializer, values[i]);
+        }
+        return raw;
+    }
+
+    private static byte[] serialize(RedisSerializer serializer, Object value) {
+        return serializer == null ? (byte[]) value : serializer.serialize(value);
+    }
+
+    private static Object deserialize(RedisSerializer serializer, Object raw) {
+        if (raw == null || serializer == null) {
+            return raw;
+        }
+        return serializer.deserialize((byte[]) raw);
+    }
+
+    private static Boolean toBoolean(Object raw) {
+        return raw instanceof Boolean b ? b : raw != null;
+    }
+
+    private enum Type {
+        GET(true), SET(true), SET_NX(true), EXPIRE(true), DEL(true), EXISTS(true),
+        INCR_BY(true), DECR_BY(true), HGET(true), HSET(true), HMSET(false), HGETALL(true), HDEL(true),
+        SADD(true), RPUSH(true);
+
+        private final boolean hasReply;
+
+        Type(boolean hasReply) {
+            this.hasReply = hasReply;
+        }
+    }
+
+    private static final class Command<T> {
+
+        private final Type type;
+
+        private final String key;
+
+        private final byte[] rawKey;
+
+        private final Object[] args;
+
+        private final Function<Object, T> converter;
+
+        private final Response<T> response;
+
+        private long ttlMillis;
+
+        private Command(Type type, String key, byte[] rawKey, Object[] args, Function<Object, T> converter) {
+            this.type = type;
+            this.key = key;
+            this.rawKey = rawKey;
+            this.args = args;
+            this.converter = converter;
+            this.response = new Response<>(this);
+        }
+
+        private void issue(RedisConnection connection) {
+            switch (type) {
+                case GET -> connection.stringCommands().get(rawKey);
+                case SET -> {
+                    if (ttlMillis > 0) {
+                        connection.stringCommands().set(rawKey, (byte[]) args[0],
+                                Expiration.milliseconds(ttlMillis), RedisStringCommands.SetOption.upsert());
+                    } else {
+                        connection.stringCommands().set(rawKey, (byte[]) args[0]);
+                    }
+                }
+                case SET_NX -> connection.stringCommands().set(rawKey, (byte[]) args[0],
+                        ttlMillis > 0 ? Expiration.milliseconds(ttlMillis) : Expiration.persistent(),
+                        RedisStringCommands.SetOption.ifAbsent());
+                case EXPIRE -> connection.keyCommands().pExpire(rawKey, ttlMillis);
+                case DEL -> connection.keyCommands().del(rawKey);
+                case EXISTS -> connection.keyCommands().exists(rawKey);
+                case INCR_BY -> connection.stringCommands().incrBy(rawKey, (Long) args[0]);
+                case DECR_BY -> connection.stringCommands().decrBy(rawKey, (Long) args[0]);
+                case HGET -> connection.hashCommands().hGet(rawKey, (byte[]) args[0]);
+                case HSET -> connection.hashCommands().hSet(rawKey, (byte[]) args[0], (byte[]) args[1]);
+                case HMSET -> connection.hashCommands().hMSet(rawKey, (Map<byte[], byte[]>) args[0]);
+                case HGETALL -> connection.hashCommands().hGetAll(rawKey);
+                case HDEL -> connection.hashCommands().hDel(rawKey, (byte[][]) args[0]);
+                case SADD -> connection.setCommands().sAdd(rawKey, (byte[][]) args[0]);
+                case RPUSH -> connection.listCommands().rPush(rawKey, (byte[][]) args[0]);
+                default -> throw new IllegalStateException("不支持的命令：" + type);
+            }
+        }
+
+        private void complete(Object raw) {
+            response.complete(converter.apply(raw));
+        }
+    }
+
+    /**
+     * 管道命令的结果，在管道执行完成后可用。
+     *
+     * @param <T> 结果类型
+     */
+    public static final class Response<T> {
+
+        private final Command<T> command;
+
+        private volatile boolean done;
+
+        private volatile T value;
+
+        private Response(Command<T> command) {
+            this.command = command;
+        }
+
+        private void complete(T value) {
+            this.value = value;
+            this.done = true;
+        }
+
+        /**
+         * 获取命令结果。
+         *
+         * @return 结果
+         * @throws IllegalStateException 管道尚未执行
+         */
+        public T get() {
+            if (!done) {
+                throw new IllegalStateException("管道尚未执行，结果不可用");
+            }
+            return value;
+        }
+
+        /**
+         * 管道是否已执行完成。
+         *
+         * @return 是否完成
+         */
+        public boolean isDone() {
+            return done;
+        }
+    }
+
+}
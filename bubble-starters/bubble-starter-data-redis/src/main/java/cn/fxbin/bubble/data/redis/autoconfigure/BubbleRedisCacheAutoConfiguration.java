@@ -2,6 +2,10 @@ package cn.fxbin.bubble.data.redis.autoconfigure;
 
 import cn.fxbin.bubble.core.constant.CharPool;
 import cn.fxbin.bubble.core.constant.StringPool;
+import cn.fxbin.bubble.data.redis.cache.JitteredTtlFunction;
+import cn.fxbin.bubble.data.redis.cache.MultiLevelCacheManager;
+import cn.fxbin.bubble.data.redis.cache.ProtectionSettings;
+import cn.fxbin.bubble.data.redis.cache.StampedeProtectionCacheManager;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
@@ -41,7 +45,7 @@ import java.util.Objects;
 )
 @ConditionalOnClass({CacheManager.class, RedisConnectionFactory.class})
 @AutoConfigureAfter({RedisTemplateAutoConfiguration.class, CacheAutoConfiguration.class})
-@EnableConfigurationProperties(CacheProperties.class)
+@EnableConfigurationProperties({CacheProperties.class, BubbleRedisProperties.class})
 public class BubbleRedisCacheAutoConfiguration {
 
     @Primary
@@ -50,12 +54,18 @@ public class BubbleRedisCacheAutoConfiguration {
     public CacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
                                           RedisSerializer<Object> redisSerializer,
                                           CacheProperties cacheProperties,
+                                          BubbleRedisProperties bubbleRedisProperties,
                                           ObjectProvider<CacheManagerCustomizer<RedisCacheManager>> customizers,
                                           @Nullable ObjectProvider<RedisCacheConfiguration> redisCacheConfigurationProvider) {
         Objects.requireNonNull(connectionFactory, "Bean RedisConnectionFactory is null.");
         RedisCacheWriter redisCacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory);
-        RedisCacheConfiguration cacheConfiguration = this.determineConfiguration(
+        RedisCacheConfiguration baseConfiguration = this.determineConfiguration(
                 redisSerializer, cacheProperties, redisCacheConfigurationProvider.getIfAvailable());
+        BubbleRedisProperties.Cache bubbleCacheProperties = bubbleRedisProperties.getCache();
+        boolean stampedeProtection = bubbleCacheProperties.isStampedeProtection();
+        RedisCacheConfiguration cacheConfiguration = stampedeProtection
+                ? this.jitter(baseConfiguration, ProtectionSettings.of(bubbleCacheProperties, null))
+                : baseConfiguration;
         List<String> cacheNames = cacheProperties.getCacheNames();
         Map<String, RedisCacheConfiguration> initialCaches = new LinkedHashMap<>();
         if (!cacheNames.isEmpty()) {
@@ -63,6 +73,11 @@ public class BubbleRedisCacheAutoConfiguration {
             cacheNames.forEach(it -> cacheConfigMap.put(it, cacheConfiguration));
             initialCaches.putAll(cacheConfigMap);
         }
+        // 按缓存名称覆盖的 TTL 抖动
+        if (stampedeProtection) {
+            bubbleCacheProperties.getProtections().keySet().forEach(name -> initialCaches.put(name,
+                    this.jitter(baseConfiguration, ProtectionSettings.of(bubbleCacheProperties, name))));
+        }
         boolean allowInFlightCacheCreation = true;
         boolean enableTransactions = false;
         RedisCacheManager cacheManager = new RedisCacheManager(
@@ -72,8 +87,34 @@ public class BubbleRedisCacheAutoConfiguration {
         
         // 应用所有的 CacheManagerCustomizer
         customizers.orderedStream().forEach(customizer -> customizer.customize(cacheManager));
-        
-        return cacheManager;
+
+        // 二级缓存：Caffeine 本地缓存 + Redis
+        CacheManager targetCacheManager = cacheManager;
+        if (bubbleCacheProperties.isMultiLevel()) {
+            cacheManager.afterPropertiesSet();
+            targetCacheManager = new MultiLevelCacheManager(cacheManager, connectionFactory, bubbleCacheProperties);
+        }
+
+        // 缓存击穿保护：单飞加载、分布式锁与提前刷新
+        if (stampedeProtection) {
+            return new StampedeProtectionCacheManager(targetCacheManager, cacheManager, connectionFactory, bubbleCacheProperties);
+        }
+
+        return targetCacheManager;
+    }
+
+    /**
+     * 为缓存配置的 TTL 增加随机抖动
+     *
+     * @param configuration 缓存配置
+     * @param settings 击穿保护配置
+     * @return {@link RedisCacheConfiguration}
+     */
+    private RedisCacheConfiguration jitter(RedisCacheConfiguration configuration, ProtectionSettings settings) {
+        if (settings.ttlJitter() <= 0) {
+            return configuration;
+        }
+        return configuration.entryTtl(new JitteredTtlFunction(configuration.getTtlFunction(), settings.ttlJitter()));
     }
 
     /**
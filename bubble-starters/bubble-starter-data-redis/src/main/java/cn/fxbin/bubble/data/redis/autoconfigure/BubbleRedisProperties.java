@@ -1,10 +1,15 @@
 package cn.fxbin.bubble.data.redis.autoconfigure;
 
+import cn.fxbin.bubble.data.redis.serializer.Compression;
+import cn.fxbin.bubble.data.redis.stream.RStreamBatchProducer;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
+import org.springframework.util.unit.DataSize;
 
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static cn.fxbin.bubble.data.redis.autoconfigure.BubbleRedisProperties.PREFIX;
 
@@ -32,6 +37,16 @@ public class BubbleRedisProperties {
      */
     private Redisson redisson = new Redisson();
 
+    /**
+     * cache
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * serializer
+     */
+    private Serializer serializer = new Serializer();
+
 
     @Data
     public static class Stream {
@@ -61,6 +76,94 @@ public class BubbleRedisProperties {
          * poll 超时时间
          */
         Duration pollTimeout;
+
+        /**
+         * 批量消费的工作线程数，未设置时使用虚拟线程
+         */
+        Integer workerThreads;
+
+        /**
+         * 待处理消息回收
+         */
+        Reclaim reclaim = new Reclaim();
+
+        /**
+         * 批量生产者
+         */
+        Producer producer = new Producer();
+    }
+
+    @Data
+    public static class Producer {
+
+        /**
+         * 单批最大消息数，默认：500
+         */
+        int batchSize = 500;
+
+        /**
+         * 消息在缓冲中的最长等待时间，默认：10 毫秒
+         */
+        Duration linger = Duration.ofMillis(10);
+
+        /**
+         * 缓冲的最大消息数，默认：100000
+         */
+        int bufferLimit = 100000;
+
+        /**
+         * 写入时按 MAXLEN ~ 修剪的近似最大长度，小于等于 0 表示不修剪，默认：0
+         */
+        long maxLen = 0;
+
+        /**
+         * 缓冲已满时的处理策略，默认：BLOCK
+         */
+        RStreamBatchProducer.OverflowPolicy overflowPolicy = RStreamBatchProducer.OverflowPolicy.BLOCK;
+
+        /**
+         * BLOCK 策略的最长等待时间，默认：5 秒
+         */
+        Duration blockTimeout = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Reclaim {
+
+        /**
+         * 是否开启待处理消息回收（集群模式的 @RStreamListener）
+         */
+        boolean enabled = false;
+
+        /**
+         * 扫描间隔，默认：30 秒
+         */
+        Duration interval = Duration.ofSeconds(30);
+
+        /**
+         * 消息空闲超过该时间才会被认领，应大于正常处理耗时，默认：1 分钟
+         */
+        Duration minIdle = Duration.ofMinutes(1);
+
+        /**
+         * 最大投递次数，达到后转入死信 stream，默认：5
+         */
+        long maxDeliveries = 5;
+
+        /**
+         * 单次扫描的最大消息数，默认：100
+         */
+        int batchSize = 100;
+
+        /**
+         * 死信 stream 名称后缀，默认：":dlq"
+         */
+        String deadLetterSuffix = ":dlq";
+
+        /**
+         * 死信 stream 近似最大长度，小于等于 0 表示不限制，默认：10000
+         */
+        long deadLetterMaxLen = 10000;
     }
 
     @Data
@@ -132,4 +235,120 @@ public class BubbleRedisProperties {
          */
         Integer nettyThreads;
     }
+
+    @Data
+    public static class Cache {
+        public static final String PREFIX = BubbleRedisProperties.PREFIX + ".cache";
+
+        /**
+         * 是否启用二级缓存（Caffeine 本地缓存 + Redis），需要引入 caffeine 依赖
+         */
+        boolean multiLevel = false;
+
+        /**
+         * 本地缓存失效广播的 Redis 频道
+         */
+        String invalidationChannel = "bubble:cache:invalidation";
+
+        /**
+         * 本地缓存默认配置
+         */
+        Local local = new Local();
+
+        /**
+         * 按缓存名称覆盖的本地缓存配置，未设置的项使用默认配置
+         */
+        Map<String, Local> caches = new LinkedHashMap<>();
+
+        /**
+         * 是否启用缓存击穿保护（单飞加载、分布式锁、提前刷新与 TTL 抖动）
+         */
+        boolean stampedeProtection = false;
+
+        /**
+         * 击穿保护默认配置
+         */
+        Protection protection = new Protection();
+
+        /**
+         * 按缓存名称覆盖的击穿保护配置，未设置的项使用默认配置
+         */
+        Map<String, Protection> protections = new LinkedHashMap<>();
+    }
+
+    @Data
+    public static class Local {
+
+        /**
+         * 本地缓存最大条目数，默认：10000
+         */
+        Long maximumSize;
+
+        /**
+         * 本地缓存写入后过期时间，应不大于 Redis 缓存的 TTL，默认：5 分钟
+         */
+        Duration expireAfterWrite;
+    }
+
+    @Data
+    public static class Protection {
+
+        /**
+         * 同一 JVM 内同一键只由一个线程加载，其余线程等待其结果，默认：true
+         */
+        Boolean singleFlight;
+
+        /**
+         * 是否通过 Redis 短锁在集群范围内只由一个节点加载，默认：false
+         */
+        Boolean distributedLock;
+
+        /**
+         * 分布式锁的持有时间，也是未获得锁的节点等待结果的最长时间，默认：3 秒
+         */
+        Duration lockTimeout;
+
+        /**
+         * 提前刷新系数（XFetch beta），大于 0 时在条目临近过期前按概率异步刷新，通常取 1.0，默认：0（关闭）
+         */
+        Double refreshAheadBeta;
+
+        /**
+         * TTL 抖动比例，例如 0.1 表示在 TTL 基础上随机增加 0 ~ 10%，默认：0（关闭）
+         */
+        Double ttlJitter;
+    }
+
+    @Data
+    public static class Serializer {
+        public static final String PREFIX = BubbleRedisProperties.PREFIX + ".serializer";
+
+        /**
+         * 值序列化方式，作用于 RedisTemplate、缓存与 Stream，默认：JSON
+         */
+        Type type = Type.JSON;
+
+        /**
+         * 压缩算法，仅 BINARY 生效，默认：NONE
+         */
+        Compression compression = Compression.NONE;
+
+        /**
+         * 压缩阈值，编码结果不小于该值时压缩，默认：1KB
+         */
+        DataSize compressionThreshold = DataSize.ofKilobytes(1);
+
+        public enum Type {
+
+            /**
+             * 带类型信息的 JSON
+             */
+            JSON,
+
+            /**
+             * 带版本头部的 Smile 二进制编码，兼容读取已有 JSON 数据
+             */
+            BINARY
+        }
+    }
 }
@@ -3,6 +3,7 @@ package cn.fxbin.bubble.data.redis.autoconfigure;
 import cn.fxbin.bubble.core.constant.SpringEnvConst;
 import cn.fxbin.bubble.core.util.StringUtils;
 import cn.fxbin.bubble.data.redis.RStreamOperations;
+import cn.fxbin.bubble.data.redis.stream.RStreamBatchProducer;
 import cn.fxbin.bubble.data.redis.stream.RStreamListenerDetector;
 import cn.hutool.core.net.NetUtil;
 import cn.hutool.core.text.CharPool;
@@ -21,9 +22,12 @@ import org.springframework.data.redis.connection.stream.MapRecord;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.util.ErrorHandler;
 
 import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * RedisStreamAutoConfiguration
@@ -40,6 +44,8 @@ import java.time.Duration;
 @AutoConfigureAfter(RedisTemplateAutoConfiguration.class)
 public class RedisStreamAutoConfiguration {
 
+    public static final String WORKER_EXECUTOR_BEAN_NAME = "rStreamWorkerExecutor";
+
     @Bean
     @ConditionalOnMissingBean
     public StreamMessageListenerContainer.StreamMessageListenerContainerOptions<String, MapRecord<String, String, byte[]>> streamMessageListenerContainerOptions(BubbleRedisProperties properties,
@@ -62,7 +68,10 @@ public class RedisStreamAutoConfiguration {
         }
         // errorHandler
         errorHandlerObjectProvider.ifAvailable((builder::errorHandler));
-        // TODO L.cm executor
+        // 每个订阅长期占用一个拉取任务，使用虚拟线程避免占满平台线程
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("redis-stream-");
+        executor.setVirtualThreads(true);
+        builder.executor(executor);
         return builder.build();
     }
 
@@ -74,10 +83,28 @@ public class RedisStreamAutoConfiguration {
         return StreamMessageListenerContainer.create(redisConnectionFactory, streamMessageListenerContainerOptions);
     }
 
+    /**
+     * 批量消费工作线程池，未配置线程数时使用虚拟线程
+     *
+     * @param properties {@link BubbleRedisProperties}
+     * @return {@link ExecutorService}
+     */
+    @Bean(WORKER_EXECUTOR_BEAN_NAME)
+    @ConditionalOnMissingBean(name = WORKER_EXECUTOR_BEAN_NAME)
+    public ExecutorService rStreamWorkerExecutor(BubbleRedisProperties properties) {
+        Integer workerThreads = properties.getStream().getWorkerThreads();
+        if (workerThreads != null && workerThreads > 0) {
+            return Executors.newFixedThreadPool(workerThreads, Thread.ofPlatform().name("rstream-worker-", 0).factory());
+        }
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("rstream-worker-", 0).factory());
+    }
+
     @Bean
     @ConditionalOnMissingBean
     public RStreamListenerDetector streamListenerDetector(StreamMessageListenerContainer<String, MapRecord<String, String, byte[]>> streamMessageListenerContainer,
                                                           RedisTemplate<String, Object> redisTemplate,
+                                                          @Qualifier(WORKER_EXECUTOR_BEAN_NAME) ExecutorService workerExecutor,
+                                                          RStreamOperations streamOperations,
                                                           ObjectProvider<ServerProperties> serverPropertiesObjectProvider,
                                                           BubbleRedisProperties properties,
                                                           Environment environment) {
@@ -98,7 +125,18 @@ public class RedisStreamAutoConfiguration {
             });
             consumerName = consumerNameBuilder.toString();
         }
-        return new RStreamListenerDetector(streamMessageListenerContainer, redisTemplate, consumerGroup, consumerName);
+        return new RStreamListenerDetector(streamMessageListenerContainer, redisTemplate, consumerGroup, consumerName,
+                workerExecutor, streamProperties.getPollBatchSize(), streamProperties.getPollTimeout(),
+                streamProperties.getReclaim(), streamOperations);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RStreamBatchProducer streamBatchProducer(@Qualifier("bfRedisTemplate") RedisTemplate<String, Object> redisTemplate,
+                                                    BubbleRedisProperties properties) {
+        BubbleRedisProperties.Producer producer = properties.getStream().getProducer();
+        return new RStreamBatchProducer(redisTemplate, producer.getBatchSize(), producer.getLinger(),
+                producer.getBufferLimit(), producer.getMaxLen(), producer.getOverflowPolicy(), producer.getBlockTimeout());
     }
 
     @Bean
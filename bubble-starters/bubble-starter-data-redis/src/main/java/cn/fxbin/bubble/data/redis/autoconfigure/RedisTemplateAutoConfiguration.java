@@ -2,6 +2,7 @@ package cn.fxbin.bubble.data.redis.autoconfigure;
 
 import cn.fxbin.bubble.core.util.ArrayUtils;
 import cn.fxbin.bubble.data.redis.RedisOperations;
+import cn.fxbin.bubble.data.redis.serializer.BinaryRedisSerializer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.aop.framework.adapter.MethodBeforeAdviceInterceptor;
@@ -10,6 +11,7 @@ import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnSingleCandidate;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
@@ -36,6 +38,7 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 )
 @ConditionalOnClass(RedisOperations.class)
 @AutoConfigureAfter(org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration.class)
+@EnableConfigurationProperties(BubbleRedisProperties.class)
 public class RedisTemplateAutoConfiguration {
 
     /**
@@ -45,7 +48,14 @@ public class RedisTemplateAutoConfiguration {
      */
     @Bean
     @ConditionalOnMissingBean(RedisSerializer.class)
-    public RedisSerializer<Object> redisSerializer() {
+    public RedisSerializer<Object> redisSerializer(BubbleRedisProperties properties) {
+        BubbleRedisProperties.Serializer serializerProperties = properties.getSerializer();
+        if (serializerProperties.getType() == BubbleRedisProperties.Serializer.Type.BINARY) {
+            log.info("Use binary redis serializer, compression: {}, threshold: {}",
+                    serializerProperties.getCompression(), serializerProperties.getCompressionThreshold());
+            return new BinaryRedisSerializer(serializerProperties.getCompression(),
+                    (int) serializerProperties.getCompressionThreshold().toBytes());
+        }
         return new GenericJackson2JsonRedisSerializer();
     }
 
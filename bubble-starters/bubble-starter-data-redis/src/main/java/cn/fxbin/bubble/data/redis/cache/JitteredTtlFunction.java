@@ -0,0 +1,56 @@
+package cn.fxbin.bubble.data.redis.cache;
+
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * JitteredTtlFunction 带随机抖动的 TTL
+ *
+ * <p>
+ *     在原 TTL 的基础上随机增加 0 ~ ratio 倍，使同一时刻写入的条目错开过期，避免各节点在同一时刻集中回源。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/27 15:20
+ */
+public class JitteredTtlFunction implements RedisCacheWriter.TtlFunction {
+
+    private final RedisCacheWriter.TtlFunction delegate;
+
+    private final double ratio;
+
+    public JitteredTtlFunction(RedisCacheWriter.TtlFunction delegate, double ratio) {
+        if (ratio < 0) {
+            throw new IllegalArgumentException("ttl jitter ratio must not be negative");
+        }
+        this.delegate = delegate;
+        this.ratio = ratio;
+    }
+
+    @Override
+    @NonNull
+    public Duration getTimeToLive(@NonNull Object key, @Nullable Object value) {
+        Duration ttl = delegate.getTimeToLive(key, value);
+        long millis = ttl.toMillis();
+        if (millis <= 0 || ratio == 0) {
+            return ttl;
+        }
+        long bound = (long) (millis * ratio);
+        return bound <= 0 ? ttl : ttl.plusMillis(ThreadLocalRandom.current().nextLong(bound + 1));
+    }
+
+    /**
+     * 获取未加抖动的原 TTL 函数
+     *
+     * @return {@link RedisCacheWriter.TtlFunction}
+     */
+    public RedisCacheWriter.TtlFunction getDelegate() {
+        return delegate;
+    }
+
+}
@@ -0,0 +1,213 @@
+package cn.fxbin.bubble.data.redis.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * MultiLevelCache 二级缓存
+ *
+ * <p>
+ *     L1 为进程内 Caffeine 缓存，L2 为 Redis 缓存。读取时依次查询 L1、L2，L2 命中后回填 L1；
+ *     写入与删除同时作用于两级缓存，并通过广播使其他节点的 L1 失效。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/27 10:15
+ */
+@Slf4j
+public class MultiLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+
+    private final Cache<String, Object> localCache;
+
+    private final org.springframework.cache.Cache redisCache;
+
+    /**
+     * 失效广播：参数为缓存名称与键，键为 null 表示清空
+     */
+    private final BiConsumer<String, String> invalidationPublisher;
+
+    private final LongAdder localHits = new LongAdder();
+
+    private final LongAdder remoteHits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder loads = new LongAdder();
+
+    private final LongAdder loadNanos = new LongAdder();
+
+    private final AtomicLong maxLoadNanos = new AtomicLong();
+
+    public MultiLevelCache(String name, Cache<String, Object> localCache, org.springframework.cache.Cache redisCache,
+                           boolean allowNullValues, BiConsumer<String, String> invalidationPublisher) {
+        super(allowNullValues);
+        this.name = name;
+        this.localCache = localCache;
+        this.redisCache = redisCache;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    @NonNull
+    public Object getNativeCache() {
+        return redisCache.getNativeCache();
+    }
+
+    @Override
+    @Nullable
+    protected Object lookup(@NonNull Object key) {
+        String localKey = toLocalKey(key);
+        Object value = localCache.getIfPresent(localKey);
+        if (value != null) {
+            localHits.increment();
+            return value;
+        }
+        ValueWrapper wrapper = redisCache.get(key);
+        if (wrapper != null) {
+            remoteHits.increment();
+            value = toStoreValue(wrapper.get());
+            localCache.put(localKey, value);
+            return value;
+        }
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        T value = load(key, valueLoader);
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(@NonNull Object key, @Nullable Object value) {
+        redisCache.put(key, value);
+        localCache.put(toLocalKey(key), toStoreValue(value));
+        publish(key);
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper putIfAbsent(@NonNull Object key, @Nullable Object value) {
+        ValueWrapper existing = redisCache.putIfAbsent(key, value);
+        Object storeValue = existing != null ? toStoreValue(existing.get()) : toStoreValue(value);
+        localCache.put(toLocalKey(key), storeValue);
+        if (existing == null) {
+            publish(key);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        redisCache.evict(key);
+        localCache.invalidate(toLocalKey(key));
+        publish(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(@NonNull Object key) {
+        boolean evicted = redisCache.evictIfPresent(key);
+        localCache.invalidate(toLocalKey(key));
+        publish(key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        redisCache.clear();
+        localCache.invalidateAll();
+        invalidationPublisher.accept(name, null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = redisCache.invalidate();
+        localCache.invalidateAll();
+        invalidationPublisher.accept(name, null);
+        return invalidated;
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return {@link MultiLevelCacheStats}
+     */
+    public MultiLevelCacheStats getStats() {
+        return MultiLevelCacheStats.builder()
+                .cacheName(name)
+                .localSize(localCache.estimatedSize())
+                .localHits(localHits.sum())
+                .remoteHits(remoteHits.sum())
+                .misses(misses.sum())
+                .loads(loads.sum())
+                .loadNanos(loadNanos.sum())
+                .maxLoadNanos(maxLoadNanos.get())
+                .build();
+    }
+
+    /**
+     * 仅使本地缓存中的键失效（收到其他节点的广播时调用）
+     *
+     * @param localKey 本地缓存键
+     */
+    void evictLocal(String localKey) {
+        localCache.invalidate(localKey);
+    }
+
+    /**
+     * 仅清空本地缓存（收到其他节点的广播时调用）
+     */
+    void clearLocal() {
+        localCache.invalidateAll();
+    }
+
+    /**
+     * 执行加载并记录加载耗时
+     */
+    <T> T load(Object key, Callable<T> valueLoader) {
+        long start = System.nanoTime();
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            loads.increment();
+            loadNanos.add(elapsed);
+            maxLoadNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    static String toLocalKey(Object key) {
+        return key instanceof String s ? s : key.toString();
+    }
+
+    private void publish(Object key) {
+        invalidationPublisher.accept(name, toLocalKey(key));
+    }
+
+}
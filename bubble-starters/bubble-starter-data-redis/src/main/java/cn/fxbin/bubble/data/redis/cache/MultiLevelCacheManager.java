@@ -0,0 +1,172 @@
+package cn.fxbin.bubble.data.redis.cache;
+
+import cn.fxbin.bubble.data.redis.autoconfigure.BubbleRedisProperties;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * MultiLevelCacheManager 二级缓存管理器
+ *
+ * <p>
+ *     在 {@link RedisCacheManager} 之前放置有界的 Caffeine 本地缓存，命中本地缓存时无需网络往返与反序列化。
+ *     本节点的写入与删除通过 Redis pub/sub 广播，其他节点收到后使对应的本地缓存失效。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/27 10:30
+ */
+@Slf4j
+public class MultiLevelCacheManager implements CacheManager, MessageListener, InitializingBean, DisposableBean {
+
+    private static final long DEFAULT_MAXIMUM_SIZE = 10000L;
+
+    private static final Duration DEFAULT_EXPIRE_AFTER_WRITE = Duration.ofMinutes(5);
+
+    private static final char SEPARATOR = '\n';
+
+    private final RedisCacheManager redisCacheManager;
+
+    private final BubbleRedisProperties.Cache properties;
+
+    private final StringRedisTemplate messageTemplate;
+
+    private final RedisMessageListenerContainer listenerContainer;
+
+    /**
+     * 节点标识，用于忽略本节点发出的广播
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ConcurrentMap<String, MultiLevelCache> cacheMap = new ConcurrentHashMap<>();
+
+    public MultiLevelCacheManager(RedisCacheManager redisCacheManager, RedisConnectionFactory connectionFactory,
+                                  BubbleRedisProperties.Cache properties) {
+        this.redisCacheManager = redisCacheManager;
+        this.properties = properties;
+        this.messageTemplate = new StringRedisTemplate(connectionFactory);
+        this.listenerContainer = new RedisMessageListenerContainer();
+        this.listenerContainer.setConnectionFactory(connectionFactory);
+        this.listenerContainer.addMessageListener(this, new ChannelTopic(properties.getInvalidationChannel()));
+    }
+
+    @Override
+    @Nullable
+    public Cache getCache(@NonNull String name) {
+        MultiLevelCache cache = cacheMap.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache redisCache = redisCacheManager.getCache(name);
+        if (redisCache == null) {
+            return null;
+        }
+        return cacheMap.computeIfAbsent(name, key -> createCache(key, redisCache));
+    }
+
+    @Override
+    @NonNull
+    public Collection<String> getCacheNames() {
+        return redisCacheManager.getCacheNames();
+    }
+
+    /**
+     * 获取所有已创建缓存的统计信息
+     *
+     * @return 缓存名称 -&gt; 统计信息
+     */
+    public Map<String, MultiLevelCacheStats> getStatistics() {
+        Map<String, MultiLevelCacheStats> statistics = new LinkedHashMap<>();
+        cacheMap.forEach((name, cache) -> statistics.put(name, cache.getStats()));
+        return statistics;
+    }
+
+    @Override
+    public void onMessage(@NonNull Message message, @Nullable byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int first = body.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : body.indexOf(SEPARATOR, first + 1);
+        if (second < 0) {
+            log.warn("Ignore malformed cache invalidation message: {}", body);
+            return;
+        }
+        if (nodeId.equals(body.substring(0, first))) {
+            return;
+        }
+        MultiLevelCache cache = cacheMap.get(body.substring(first + 1, second));
+        if (cache == null) {
+            return;
+        }
+        // 键为空表示清空整个缓存
+        String key = body.substring(second + 1);
+        if (key.isEmpty()) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(key);
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        listenerContainer.destroy();
+    }
+
+    private MultiLevelCache createCache(String name, Cache redisCache) {
+        BubbleRedisProperties.Local local = properties.getCaches().get(name);
+        BubbleRedisProperties.Local defaults = properties.getLocal();
+        long maximumSize = resolve(local == null ? null : local.getMaximumSize(), defaults.getMaximumSize(), DEFAULT_MAXIMUM_SIZE);
+        Duration expireAfterWrite = resolve(local == null ? null : local.getExpireAfterWrite(),
+                defaults.getExpireAfterWrite(), DEFAULT_EXPIRE_AFTER_WRITE);
+
+        boolean allowNullValues = !(redisCache instanceof AbstractValueAdaptingCache adaptingCache)
+                || adaptingCache.isAllowNullValues();
+        log.info("Create multi-level cache: {}, local maximumSize: {}, expireAfterWrite: {}", name, maximumSize, expireAfterWrite);
+        return new MultiLevelCache(name,
+                Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(expireAfterWrite).build(),
+                redisCache, allowNullValues, this::publish);
+    }
+
+    private void publish(String cacheName, @Nullable String key) {
+        String message = nodeId + SEPARATOR + cacheName + SEPARATOR + (key == null ? "" : key);
+        try {
+            messageTemplate.convertAndSend(properties.getInvalidationChannel(), message);
+        } catch (Exception e) {
+            // 广播失败时其他节点的本地缓存将在 expireAfterWrite 后过期
+            log.warn("Publish cache invalidation failed, cache: {}, key: {}", cacheName, key, e);
+        }
+    }
+
+    private static <T> T resolve(@Nullable T value, @Nullable T defaultValue, T fallback) {
+        return value != null ? value : defaultValue != null ? defaultValue : fallback;
+    }
+
+}
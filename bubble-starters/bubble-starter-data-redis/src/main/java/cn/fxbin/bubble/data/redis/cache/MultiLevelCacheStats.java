@@ -0,0 +1,97 @@
+package cn.fxbin.bubble.data.redis.cache;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * MultiLevelCacheStats 二级缓存统计信息
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/27 10:20
+ */
+@Getter
+@Builder
+@ToString
+public class MultiLevelCacheStats {
+
+    /**
+     * 缓存名称
+     */
+    private final String cacheName;
+
+    /**
+     * 本地缓存当前条目数（估算）
+     */
+    private final long localSize;
+
+    /**
+     * 本地缓存（L1）命中次数
+     */
+    private final long localHits;
+
+    /**
+     * Redis 缓存（L2）命中次数
+     */
+    private final long remoteHits;
+
+    /**
+     * 两级均未命中次数
+     */
+    private final long misses;
+
+    /**
+     * 加载次数
+     */
+    private final long loads;
+
+    /**
+     * 累计加载耗时（纳秒）
+     */
+    private final long loadNanos;
+
+    /**
+     * 单次加载最大耗时（纳秒）
+     */
+    private final long maxLoadNanos;
+
+    /**
+     * 请求总数
+     *
+     * @return long
+     */
+    public long getRequests() {
+        return localHits + remoteHits + misses;
+    }
+
+    /**
+     * L1 命中率
+     *
+     * @return double
+     */
+    public double getLocalHitRatio() {
+        long requests = getRequests();
+        return requests == 0 ? 0 : (double) localHits / requests;
+    }
+
+    /**
+     * L2 命中率（以 L1 未命中的请求为基数）
+     *
+     * @return double
+     */
+    public double getRemoteHitRatio() {
+        long remoteRequests = remoteHits + misses;
+        return remoteRequests == 0 ? 0 : (double) remoteHits / remoteRequests;
+    }
+
+    /**
+     * 平均加载耗时（纳秒）
+     *
+     * @return long
+     */
+    public long getAverageLoadNanos() {
+        return loads == 0 ? 0 : loadNanos / loads;
+    }
+
+}
@@ -0,0 +1,56 @@
+package cn.fxbin.bubble.data.redis.cache;
+
+import cn.fxbin.bubble.data.redis.autoconfigure.BubbleRedisProperties;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+
+/**
+ * ProtectionSettings 合并后的缓存击穿保护配置
+ *
+ * @param singleFlight     JVM 内单飞加载
+ * @param distributedLock  分布式单飞加载
+ * @param lockTimeout      分布式锁持有与等待时间
+ * @param refreshAheadBeta 提前刷新系数，0 表示关闭
+ * @param ttlJitter        TTL 抖动比例，0 表示关闭
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/27 15:10
+ */
+public record ProtectionSettings(boolean singleFlight, boolean distributedLock, Duration lockTimeout,
+                                 double refreshAheadBeta, double ttlJitter) {
+
+    private static final Duration DEFAULT_LOCK_TIMEOUT = Duration.ofSeconds(3);
+
+    /**
+     * 按 缓存名称配置 -&gt; 默认配置 -&gt; 内置默认值 的顺序合并配置
+     *
+     * @param properties 缓存配置
+     * @param cacheName  缓存名称，为 null 时只合并默认配置
+     * @return {@link ProtectionSettings}
+     */
+    public static ProtectionSettings of(BubbleRedisProperties.Cache properties, @Nullable String cacheName) {
+        BubbleRedisProperties.Protection named = cacheName == null ? null : properties.getProtections().get(cacheName);
+        BubbleRedisProperties.Protection defaults = properties.getProtection();
+        return new ProtectionSettings(
+                resolve(named == null ? null : named.getSingleFlight(), defaults.getSingleFlight(), Boolean.TRUE),
+                resolve(named == null ? null : named.getDistributedLock(), defaults.getDistributedLock(), Boolean.FALSE),
+                resolve(named == null ? null : named.getLockTimeout(), defaults.getLockTimeout(), DEFAULT_LOCK_TIMEOUT),
+                resolve(named == null ? null : named.getRefreshAheadBeta(), defaults.getRefreshAheadBeta(), 0D),
+                resolve(named == null ? null : named.getTtlJitter(), defaults.getTtlJitter(), 0D));
+    }
+
+    /**
+     * 是否需要对缓存进行包装
+     *
+     * @return boolean
+     */
+    public boolean isEnabled() {
+        return singleFlight || distributedLock || refreshAheadBeta > 0;
+    }
+
+    private static <T> T resolve(@Nullable T value, @Nullable T defaultValue, T fallback) {
+        return value != null ? value : defaultValue != null ? defaultValue : fallback;
+    }
+
+}
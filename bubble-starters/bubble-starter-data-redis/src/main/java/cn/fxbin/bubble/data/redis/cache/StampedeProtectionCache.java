@@ -0,0 +1,387 @@
+package cn.fxbin.bubble.data.redis.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * StampedeProtectionCache 缓存击穿保护
+ *
+ * <p>
+ *     包装任意 {@link Cache}，仅作用于带加载器的 {@link #get(Object, Callable)}（即 {@code @Cacheable(sync = true)}）：
+ *     <ul>
+ *         <li>单飞加载：同一 JVM 内同一键只有一个线程执行加载，其余线程等待其结果；</li>
+ *         <li>分布式锁：通过 {@code SET NX PX} 短锁使集群内只有一个节点加载，其他节点轮询缓存直到结果写入或锁超时；</li>
+ *         <li>提前刷新：按 XFetch 算法在条目临近过期时以递增的概率异步刷新，刷新期间读请求仍返回旧值。</li>
+ *     </ul>
+ *     提前刷新依赖本节点加载时记录的过期时间，仅对本节点加载过的键生效。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/27 15:40
+ */
+@Slf4j
+public class StampedeProtectionCache implements Cache {
+
+    /**
+     * 记录过期时间的最大条目数，超出后不再记录新条目
+     */
+    private static final int MAX_TRACKED_ENTRIES = 10000;
+
+    private static final long LOCK_POLL_MILLIS = 50L;
+
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final Cache delegate;
+
+    private final ProtectionSettings settings;
+
+    @Nullable
+    private final StringRedisTemplate lockTemplate;
+
+    private final Executor refreshExecutor;
+
+    /**
+     * 根据键与值计算条目 TTL，为 null 时不进行提前刷新
+     */
+    @Nullable
+    private final BiFunction<Object, Object, Duration> ttlResolver;
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Object, Expiry> expiries = new ConcurrentHashMap<>();
+
+    /**
+     * 正在提前刷新的键，与 inFlight 分开，避免未命中的读请求等待一个可能放弃的刷新
+     */
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder loads = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LongAdder lockWaits = new LongAdder();
+
+    private final LongAdder lockTimeouts = new LongAdder();
+
+    private final LongAdder refreshes = new LongAdder();
+
+    public StampedeProtectionCache(Cache delegate, ProtectionSettings settings, @Nullable StringRedisTemplate lockTemplate,
+                                   Executor refreshExecutor, @Nullable BiFunction<Object, Object, Duration> ttlResolver) {
+        this.delegate = delegate;
+        this.settings = settings;
+        this.lockTemplate = lockTemplate;
+        this.refreshExecutor = refreshExecutor;
+        this.ttlResolver = ttlResolver;
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    @NonNull
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper get(@NonNull Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    @Nullable
+    public <T> T get(@NonNull Object key, @Nullable Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        ValueWrapper cached = delegate.get(key);
+        if (cached != null) {
+            maybeRefresh(key, valueLoader);
+            return (T) cached.get();
+        }
+        if (!settings.singleFlight()) {
+            return (T) loadAndPut(key, valueLoader, false);
+        }
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalesced.increment();
+            return (T) join(existing);
+        }
+        try {
+            // 获得加载权后再次检查，避免在上一轮加载刚结束时重复加载
+            cached = delegate.get(key);
+            Object value = cached != null ? cached.get() : loadAndPut(key, valueLoader, false);
+            future.complete(value);
+            return (T) value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    @Override
+    @Nullable
+    public CompletableFuture<?> retrieve(@NonNull Object key) {
+        return delegate.retrieve(key);
+    }
+
+    @Override
+    @NonNull
+    public <T> CompletableFuture<T> retrieve(@NonNull Object key, @NonNull Supplier<CompletableFuture<T>> valueLoader) {
+        return delegate.retrieve(key, valueLoader);
+    }
+
+    @Override
+    public void put(@NonNull Object key, @Nullable Object value) {
+        delegate.put(key, value);
+        expiries.remove(key);
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper putIfAbsent(@NonNull Object key, @Nullable Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        delegate.evict(key);
+        expiries.remove(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(@NonNull Object key) {
+        expiries.remove(key);
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        expiries.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        expiries.clear();
+        return delegate.invalidate();
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return {@link StampedeProtectionStats}
+     */
+    public StampedeProtectionStats getStats() {
+        return StampedeProtectionStats.builder()
+                .cacheName(getName())
+                .loads(loads.sum())
+                .coalesced(coalesced.sum())
+                .lockWaits(lockWaits.sum())
+                .lockTimeouts(lockTimeouts.sum())
+                .refreshes(refreshes.sum())
+                .trackedEntries(expiries.size())
+                .build();
+    }
+
+    /**
+     * XFetch：now - delta * beta * ln(rand) &gt;= expiry 时触发刷新，越接近过期、加载越慢，触发概率越高
+     */
+    private void maybeRefresh(Object key, Callable<?> valueLoader) {
+        if (settings.refreshAheadBeta() <= 0) {
+            return;
+        }
+        Expiry expiry = expiries.get(key);
+        if (expiry == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (now - expiry.expiresAt() >= 0) {
+            expiries.remove(key, expiry);
+            return;
+        }
+        double gap = -expiry.loadNanos() * settings.refreshAheadBeta() * Math.log(1D - ThreadLocalRandom.current().nextDouble());
+        if (gap < expiry.expiresAt() - now) {
+            return;
+        }
+        if (!refreshing.add(key)) {
+            return;
+        }
+        refreshes.increment();
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    loadAndPut(key, valueLoader, true);
+                } catch (Throwable e) {
+                    log.warn("Refresh cache entry ahead of expiry failed, cache: {}, key: {}", getName(), key, e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+        }
+    }
+
+    /**
+     * 加载并写入缓存；启用分布式锁时只有获得锁的节点执行加载
+     *
+     * @param refresh 是否为提前刷新，刷新时未获得锁直接放弃
+     */
+    @Nullable
+    private Object loadAndPut(Object key, Callable<?> valueLoader, boolean refresh) {
+        if (!settings.distributedLock() || lockTemplate == null) {
+            return doLoad(key, valueLoader);
+        }
+        String lockKey = getName() + ":lock:" + key;
+        String token = UUID.randomUUID().toString();
+        Boolean acquired;
+        try {
+            acquired = lockTemplate.opsForValue().setIfAbsent(lockKey, token, settings.lockTimeout());
+        } catch (Exception e) {
+            // 锁不可用时退化为本地单飞加载
+            log.warn("Acquire cache load lock failed, cache: {}, key: {}", getName(), key, e);
+            return doLoad(key, valueLoader);
+        }
+        if (Boolean.TRUE.equals(acquired)) {
+            try {
+                return doLoad(key, valueLoader);
+            } finally {
+                unlock(lockKey, token);
+            }
+        }
+        if (refresh) {
+            return null;
+        }
+        return awaitRemoteLoad(key, valueLoader);
+    }
+
+    /**
+     * 等待持有锁的节点写入结果，超时后本地加载
+     */
+    @Nullable
+    private Object awaitRemoteLoad(Object key, Callable<?> valueLoader) {
+        lockWaits.increment();
+        long deadline = System.nanoTime() + settings.lockTimeout().toNanos();
+        while (System.nanoTime() - deadline < 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(LOCK_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            ValueWrapper cached = delegate.get(key);
+            if (cached != null) {
+                return cached.get();
+            }
+        }
+        lockTimeouts.increment();
+        return doLoad(key, valueLoader);
+    }
+
+    @Nullable
+    private Object doLoad(Object key, Callable<?> valueLoader) {
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            loads.increment();
+        }
+        long elapsed = System.nanoTime() - start;
+        delegate.put(key, value);
+        track(key, value, elapsed);
+        return value;
+    }
+
+    private void track(Object key, @Nullable Object value, long loadNanos) {
+        if (settings.refreshAheadBeta() <= 0 || ttlResolver == null) {
+            return;
+        }
+        Duration ttl = ttlResolver.apply(key, value);
+        if (ttl == null || ttl.isZero() || ttl.isNegative()) {
+            expiries.remove(key);
+            return;
+        }
+        long now = System.nanoTime();
+        if (expiries.size() >= MAX_TRACKED_ENTRIES) {
+            expiries.values().removeIf(expiry -> now - expiry.expiresAt() >= 0);
+            if (expiries.size() >= MAX_TRACKED_ENTRIES && !expiries.containsKey(key)) {
+                return;
+            }
+        }
+        expiries.put(key, new Expiry(now + ttl.toNanos(), loadNanos));
+    }
+
+    private void unlock(String lockKey, String token) {
+        try {
+            lockTemplate.execute(UNLOCK_SCRIPT, Collections.singletonList(lockKey), token);
+        } catch (Exception e) {
+            // 释放失败时锁将在 lockTimeout 后自动过期
+            log.warn("Release cache load lock failed: {}", lockKey, e);
+        }
+    }
+
+    @Nullable
+    private static Object join(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 条目过期时间与加载耗时
+     *
+     * @param expiresAt 过期时间（{@link System#nanoTime()}）
+     * @param loadNanos 加载耗时（纳秒）
+     */
+    private record Expiry(long expiresAt, long loadNanos) {
+    }
+
+}
@@ -0,0 +1,142 @@
+package cn.fxbin.bubble.data.redis.cache;
+
+import cn.fxbin.bubble.data.redis.autoconfigure.BubbleRedisProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+
+/**
+ * StampedeProtectionCacheManager 缓存击穿保护管理器
+ *
+ * <p>
+ *     包装 {@link RedisCacheManager} 或 {@link MultiLevelCacheManager}，按缓存名称合并击穿保护配置，
+ *     并将启用保护的缓存包装为 {@link StampedeProtectionCache}。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/27 16:00
+ */
+@Slf4j
+public class StampedeProtectionCacheManager implements CacheManager, InitializingBean, DisposableBean {
+
+    private final CacheManager delegate;
+
+    /**
+     * 用于读取各缓存 TTL 的 Redis 缓存管理器
+     */
+    private final RedisCacheManager redisCacheManager;
+
+    private final BubbleRedisProperties.Cache properties;
+
+    private final StringRedisTemplate lockTemplate;
+
+    private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final ConcurrentMap<String, StampedeProtectionCache> cacheMap = new ConcurrentHashMap<>();
+
+    public StampedeProtectionCacheManager(CacheManager delegate, RedisCacheManager redisCacheManager,
+                                          RedisConnectionFactory connectionFactory, BubbleRedisProperties.Cache properties) {
+        this.delegate = delegate;
+        this.redisCacheManager = redisCacheManager;
+        this.properties = properties;
+        this.lockTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @Override
+    @Nullable
+    public Cache getCache(@NonNull String name) {
+        StampedeProtectionCache cache = cacheMap.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        ProtectionSettings settings = ProtectionSettings.of(properties, name);
+        if (!settings.isEnabled()) {
+            return target;
+        }
+        return cacheMap.computeIfAbsent(name, key -> {
+            log.info("Create stampede protection cache: {}, settings: {}", key, settings);
+            return new StampedeProtectionCache(target, settings, settings.distributedLock() ? lockTemplate : null,
+                    refreshExecutor, ttlResolver(key));
+        });
+    }
+
+    @Override
+    @NonNull
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    /**
+     * 获取所有已创建缓存的统计信息
+     *
+     * @return 缓存名称 -&gt; 统计信息
+     */
+    public Map<String, StampedeProtectionStats> getStatistics() {
+        Map<String, StampedeProtectionStats> statistics = new LinkedHashMap<>();
+        cacheMap.forEach((name, cache) -> statistics.put(name, cache.getStats()));
+        return statistics;
+    }
+
+    /**
+     * 获取被包装的缓存管理器
+     *
+     * @return {@link CacheManager}
+     */
+    public CacheManager getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (delegate instanceof InitializingBean initializingBean) {
+            initializingBean.afterPropertiesSet();
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        refreshExecutor.shutdownNow();
+        if (delegate instanceof DisposableBean disposableBean) {
+            disposableBean.destroy();
+        }
+    }
+
+    /**
+     * 使用未加抖动的 TTL 记录过期时间，使提前刷新略早于实际过期
+     */
+    @Nullable
+    private BiFunction<Object, Object, Duration> ttlResolver(String name) {
+        if (!(redisCacheManager.getCache(name) instanceof RedisCache redisCache)) {
+            return null;
+        }
+        RedisCacheWriter.TtlFunction ttlFunction = redisCache.getCacheConfiguration().getTtlFunction();
+        RedisCacheWriter.TtlFunction baseTtlFunction = ttlFunction instanceof JitteredTtlFunction jittered
+                ? jittered.getDelegate() : ttlFunction;
+        return baseTtlFunction::getTimeToLive;
+    }
+
+}
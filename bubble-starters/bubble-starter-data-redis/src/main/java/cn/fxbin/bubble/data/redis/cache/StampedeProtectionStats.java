@@ -0,0 +1,54 @@
+package cn.fxbin.bubble.data.redis.cache;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * StampedeProtectionStats 缓存击穿保护统计信息
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/27 15:30
+ */
+@Getter
+@Builder
+@ToString
+public class StampedeProtectionStats {
+
+    /**
+     * 缓存名称
+     */
+    private final String cacheName;
+
+    /**
+     * 实际执行加载的次数
+     */
+    private final long loads;
+
+    /**
+     * 因单飞加载而复用他人加载结果的次数
+     */
+    private final long coalesced;
+
+    /**
+     * 未获得分布式锁而等待其他节点加载的次数
+     */
+    private final long lockWaits;
+
+    /**
+     * 等待其他节点加载超时、转为本地加载的次数
+     */
+    private final long lockTimeouts;
+
+    /**
+     * 提前刷新次数
+     */
+    private final long refreshes;
+
+    /**
+     * 当前记录过期时间的条目数
+     */
+    private final long trackedEntries;
+
+}
@@ -0,0 +1,179 @@
+package cn.fxbin.bubble.data.redis.serializer;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * BinaryRedisSerializer 二进制序列化
+ *
+ * <p>
+ *     使用 Jackson Smile（二进制 JSON）编码，类型信息与 {@link GenericJackson2JsonRedisSerializer} 一致，
+ *     超过阈值的内容按配置的算法压缩。每个值带有版本化头部：
+ *     <pre>
+ *     | magic(1) | version(1) | compression(1) | [原始长度(4)，仅压缩时] | body |
+ *     </pre>
+ *     magic 字节不是合法的 UTF-8 首字节，不会与 JSON 内容冲突；读取到不带头部的值时交给 fallback（默认 JSON）反序列化，
+ *     因此可以在已有 JSON 数据的情况下灰度切换。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/28 10:30
+ */
+public class BinaryRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xB5;
+
+    static final byte VERSION = 1;
+
+    private static final int HEADER_LENGTH = 3;
+
+    private static final int LENGTH_FIELD = 4;
+
+    /**
+     * 原始长度上限，与 Redis 单个字符串值的最大长度（512MB）一致，防止损坏的长度字段导致超大内存分配
+     */
+    static final int MAX_ORIGINAL_LENGTH = 512 * 1024 * 1024;
+
+    private final RedisSerializer<Object> codec;
+
+    private final Compression compression;
+
+    private final int compressionThreshold;
+
+    private final RedisSerializer<Object> fallback;
+
+    public BinaryRedisSerializer() {
+        this(Compression.NONE, Integer.MAX_VALUE);
+    }
+
+    public BinaryRedisSerializer(Compression compression, int compressionThreshold) {
+        this(new GenericJackson2JsonRedisSerializer(createSmileMapper()), compression, compressionThreshold,
+                new GenericJackson2JsonRedisSerializer());
+    }
+
+    /**
+     * @param codec                编码器，输出写入 body
+     * @param compression          压缩算法
+     * @param compressionThreshold 压缩阈值（字节），编码结果不小于该值时压缩
+     * @param fallback             读取不带头部的旧数据时使用的序列化器
+     */
+    public BinaryRedisSerializer(RedisSerializer<Object> codec, Compression compression, int compressionThreshold,
+                                 RedisSerializer<Object> fallback) {
+        Assert.notNull(codec, "codec must not be null");
+        Assert.notNull(compression, "compression must not be null");
+        Assert.notNull(fallback, "fallback must not be null");
+        Assert.isTrue(compression.isAvailable(), () -> "Compression " + compression + " requires its codec library on the classpath");
+        this.codec = codec;
+        this.compression = compression;
+        this.compressionThreshold = compressionThreshold;
+        this.fallback = fallback;
+    }
+
+    /**
+     * 创建 Smile ObjectMapper，类型信息配置与默认 JSON 序列化器一致
+     *
+     * @return {@link ObjectMapper}
+     */
+    public static ObjectMapper createSmileMapper() {
+        ObjectMapper mapper = new ObjectMapper(new SmileFactory());
+        GenericJackson2JsonRedisSerializer.registerNullValueSerializer(mapper, null);
+        mapper.activateDefaultTyping(mapper.getPolymorphicTypeValidator(), ObjectMapper.DefaultTyping.NON_FINAL,
+                JsonTypeInfo.As.PROPERTY);
+        return mapper;
+    }
+
+    /**
+     * 是否带有二进制头部
+     *
+     * @param bytes 序列化后的内容，可为 null
+     * @return boolean
+     */
+    public static boolean isBinary(@Nullable byte[] bytes) {
+        return bytes != null && bytes.length > 0 && bytes[0] == MAGIC;
+    }
+
+    @Override
+    public byte[] serialize(@Nullable Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] body = codec.serialize(value);
+        if (body == null) {
+            return new byte[0];
+        }
+        Compression used = Compression.NONE;
+        byte[] payload = body;
+        if (compression != Compression.NONE && body.length >= compressionThreshold) {
+            byte[] compressed = compression.compress(body);
+            // 压缩无收益时保持原样，避免读取时多一次解压
+            if (compressed.length < body.length) {
+                used = compression;
+                payload = compressed;
+            }
+        }
+        boolean compressed = used != Compression.NONE;
+        byte[] result = new byte[HEADER_LENGTH + (compressed ? LENGTH_FIELD : 0) + payload.length];
+        result[0] = MAGIC;
+        result[1] = VERSION;
+        result[2] = (byte) used.getId();
+        int offset = HEADER_LENGTH;
+        if (compressed) {
+            writeInt(result, offset, body.length);
+            offset += LENGTH_FIELD;
+        }
+        System.arraycopy(payload, 0, result, offset, payload.length);
+        return result;
+    }
+
+    @Override
+    @Nullable
+    public Object deserialize(@Nullable byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (!isBinary(bytes)) {
+            return fallback.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_LENGTH) {
+            throw new SerializationException("Could not read redis payload: truncated header");
+        }
+        if (bytes[1] != VERSION) {
+            throw new SerializationException("Unsupported redis payload version: " + bytes[1]);
+        }
+        Compression used = Compression.of(bytes[2]);
+        byte[] body;
+        if (used == Compression.NONE) {
+            body = Compression.NONE.decompress(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+        } else {
+            if (bytes.length < HEADER_LENGTH + LENGTH_FIELD) {
+                throw new SerializationException("Could not read redis payload: truncated header");
+            }
+            int originalLength = readInt(bytes, HEADER_LENGTH);
+            if (originalLength < 0 || originalLength > MAX_ORIGINAL_LENGTH) {
+                throw new SerializationException("Could not read redis payload: invalid original length " + originalLength);
+            }
+            body = used.decompress(bytes, HEADER_LENGTH + LENGTH_FIELD, originalLength);
+        }
+        return codec.deserialize(body);
+    }
+
+    private static void writeInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] source, int offset) {
+        return ((source[offset] & 0xFF) << 24) | ((source[offset + 1] & 0xFF) << 16)
+                | ((source[offset + 2] & 0xFF) << 8) | (source[offset + 3] & 0xFF);
+    }
+
+}
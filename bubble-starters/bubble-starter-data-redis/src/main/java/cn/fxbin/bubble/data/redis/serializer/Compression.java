@@ -0,0 +1,175 @@
+package cn.fxbin.bubble.data.redis.serializer;
+
+import com.github.luben.zstd.Zstd;
+import net.jpountz.lz4.LZ4Factory;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.util.ClassUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compression 序列化压缩算法
+ *
+ * <p>
+ *     LZ4 与 Zstd 依赖可选的 {@code org.lz4:lz4-java} 与 {@code com.github.luben:zstd-jni}，
+ *     DEFLATE 使用 JDK 自带实现，无需额外依赖。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/28 10:10
+ */
+public enum Compression {
+
+    /**
+     * 不压缩
+     */
+    NONE(0, null) {
+        @Override
+        byte[] compress(byte[] source) {
+            return source;
+        }
+
+        @Override
+        byte[] decompress(byte[] source, int offset, int originalLength) {
+            byte[] result = new byte[originalLength];
+            System.arraycopy(source, offset, result, 0, originalLength);
+            return result;
+        }
+    },
+
+    /**
+     * LZ4，压缩率一般，速度最快
+     */
+    LZ4(1, "net.jpountz.lz4.LZ4Factory") {
+        @Override
+        byte[] compress(byte[] source) {
+            return LZ4Factory.fastestInstance().fastCompressor().compress(source);
+        }
+
+        @Override
+        byte[] decompress(byte[] source, int offset, int originalLength) {
+            byte[] result = new byte[originalLength];
+            LZ4Factory.fastestInstance().fastDecompressor().decompress(source, offset, result, 0, originalLength);
+            return result;
+        }
+    },
+
+    /**
+     * Zstd，压缩率高，速度较快
+     */
+    ZSTD(2, "com.github.luben.zstd.Zstd") {
+        @Override
+        byte[] compress(byte[] source) {
+            return Zstd.compress(source);
+        }
+
+        @Override
+        byte[] decompress(byte[] source, int offset, int originalLength) {
+            byte[] result = new byte[originalLength];
+            long size = Zstd.decompressByteArray(result, 0, originalLength, source, offset, source.length - offset);
+            if (Zstd.isError(size)) {
+                throw new SerializationException("Could not decompress zstd payload: " + Zstd.getErrorName(size));
+            }
+            return result;
+        }
+    },
+
+    /**
+     * JDK Deflate
+     */
+    DEFLATE(3, null) {
+        @Override
+        byte[] compress(byte[] source) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(source);
+                deflater.finish();
+                ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, source.length / 2));
+                byte[] buffer = new byte[4096];
+                while (!deflater.finished()) {
+                    out.write(buffer, 0, deflater.deflate(buffer));
+                }
+                return out.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        }
+
+        @Override
+        byte[] decompress(byte[] source, int offset, int originalLength) {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(source, offset, source.length - offset);
+                byte[] result = new byte[originalLength];
+                int length = 0;
+                while (length < originalLength && !inflater.finished()) {
+                    int inflated = inflater.inflate(result, length, originalLength - length);
+                    if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    length += inflated;
+                }
+                if (length != originalLength) {
+                    throw new SerializationException("Could not decompress deflate payload: truncated data");
+                }
+                return result;
+            } catch (DataFormatException e) {
+                throw new SerializationException("Could not decompress deflate payload: " + e.getMessage(), e);
+            } finally {
+                inflater.end();
+            }
+        }
+    };
+
+    /**
+     * 写入头部的算法标识，不可修改
+     */
+    private final int id;
+
+    /**
+     * 判断依赖是否存在的类名，为 null 表示无需额外依赖
+     */
+    private final String requiredClass;
+
+    Compression(int id, String requiredClass) {
+        this.id = id;
+        this.requiredClass = requiredClass;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * 依赖是否存在
+     *
+     * @return boolean
+     */
+    public boolean isAvailable() {
+        return requiredClass == null || ClassUtils.isPresent(requiredClass, Compression.class.getClassLoader());
+    }
+
+    /**
+     * 按头部标识查找压缩算法
+     *
+     * @param id 算法标识
+     * @return {@link Compression}
+     */
+    public static Compression of(int id) {
+        for (Compression compression : values()) {
+            if (compression.id == id) {
+                return compression;
+            }
+        }
+        throw new SerializationException("Unknown redis payload compression: " + id);
+    }
+
+    abstract byte[] compress(byte[] source);
+
+    abstract byte[] decompress(byte[] source, int offset, int originalLength);
+
+}
@@ -0,0 +1,361 @@
+package cn.fxbin.bubble.data.redis.stream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RStreamBatchConsumer 批量消费者
+ *
+ * <p>
+ *     以消费组方式批量拉取（XREADGROUP COUNT n BLOCK t），按分区键将一批消息分配到 concurrency 个通道，
+ *     各通道在工作线程池中并行处理、通道内保持顺序，全部处理完成后对成功的消息执行一次批量 XACK。
+ *     处理失败的消息不会被确认，保留在 PEL 中等待重新投递；同一通道内与之分区键相同的后续消息本批不再处理、也不确认，
+ *     随失败消息一起按 ID 顺序重新投递，保证同一分区键的消息不会越过失败的消息。
+ * </p>
+ * <p>
+ *     设置分区字段时顺序跨批次保证：失败消息的分区键被阻塞，之后拉取到的同一分区键消息同样不处理、不确认，
+ *     直到失败及被扣留的消息全部离开当前消费者的 PEL（被确认，或由回收任务重新投递）后才解除阻塞。
+ *     扣留的消息只能经待处理消息回收重新投递，因此设置分区字段时需要开启回收。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/28 14:00
+ */
+@Slf4j
+public class RStreamBatchConsumer implements Runnable {
+
+    private static final long ERROR_BACKOFF_MILLIS = 1000L;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final String stream;
+
+    private final Consumer consumer;
+
+    private final int batchSize;
+
+    private final Duration pollTimeout;
+
+    private final int concurrency;
+
+    /**
+     * 分区字段，为空时使用消息 key（字段名）分区
+     */
+    private final String partitionField;
+
+    private final boolean autoAcknowledge;
+
+    private final Executor workerExecutor;
+
+    private final BatchHandler handler;
+
+    /**
+     * 阻塞中的分区键 -> 未确认的消息 ID（失败的消息及其后被扣留的消息），仅由拉取线程访问
+     */
+    private final Map<Object, Set<RecordId>> blockedKeys = new HashMap<>();
+
+    private volatile boolean running;
+
+    private volatile Thread pollThread;
+
+    public RStreamBatchConsumer(RedisTemplate<String, Object> redisTemplate, String stream, Consumer consumer,
+                                int batchSize, Duration pollTimeout, int concurrency, String partitionField,
+                                boolean autoAcknowledge, Executor workerExecutor, BatchHandler handler) {
+        this.redisTemplate = redisTemplate;
+        this.stream = stream;
+        this.consumer = consumer;
+        this.batchSize = batchSize;
+        this.pollTimeout = pollTimeout;
+        this.concurrency = Math.max(1, concurrency);
+        this.partitionField = partitionField;
+        this.autoAcknowledge = autoAcknowledge;
+        this.workerExecutor = workerExecutor;
+        this.handler = handler;
+    }
+
+    /**
+     * 启动拉取线程
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        pollThread = Thread.ofVirtual().name("rstream-consumer-" + stream).start(this);
+        log.info("Start redis stream batch consumer, stream: {}, group: {}, batchSize: {}, concurrency: {}",
+                stream, consumer.getGroup(), batchSize, concurrency);
+    }
+
+    /**
+     * 停止拉取，当前批次处理完成后退出
+     */
+    public synchronized void stop() {
+        running = false;
+        Thread thread = pollThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void run() {
+        byte[] streamKey = stream.getBytes(StandardCharsets.UTF_8);
+        StreamReadOptions readOptions = StreamReadOptions.empty().count(batchSize).block(pollTimeout);
+        StreamReadOptions options = autoAcknowledge ? readOptions.autoAcknowledge() : readOptions;
+        StreamOffset<byte[]> offset = StreamOffset.create(streamKey, ReadOffset.lastConsumed());
+        while (running) {
+            try {
+                if (!blockedKeys.isEmpty()) {
+                    releaseBlockedKeys();
+                }
+                List<ByteRecord> records = redisTemplate.execute((RedisCallback<List<ByteRecord>>) connection ->
+                        connection.streamCommands().xReadGroup(consumer, options, offset));
+                if (records == null || records.isEmpty()) {
+                    continue;
+                }
+                List<MapRecord<String, String, byte[]>> batch = new ArrayList<>(records.size());
+                for (ByteRecord record : records) {
+                    batch.add(record.deserialize(StringRedisSerializer.UTF_8, StringRedisSerializer.UTF_8, RedisSerializer.byteArray()));
+                }
+                List<MapRecord<String, String, byte[]>> runnable = holdBlocked(batch);
+                List<RecordId> processed = runnable.isEmpty() ? Collections.emptyList() : dispatch(runnable);
+                if (!autoAcknowledge && !processed.isEmpty()) {
+                    redisTemplate.opsForStream().acknowledge(stream, consumer.getGroup(), processed.toArray(new RecordId[0]));
+                }
+                blockFailed(runnable, processed);
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                log.error("Redis stream batch consume failed, stream: {}, group: {}", stream, consumer.getGroup(), e);
+                backoff();
+            }
+        }
+        log.info("Stop redis stream batch consumer, stream: {}, group: {}", stream, consumer.getGroup());
+    }
+
+    /**
+     * 分配到各通道并行处理，返回处理成功的消息 ID
+     */
+    private List<RecordId> dispatch(List<MapRecord<String, String, byte[]>> batch) {
+        if (concurrency == 1) {
+            return handler.handle(batch);
+        }
+        List<List<MapRecord<String, String, byte[]>>> lanes = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        for (MapRecord<String, String, byte[]> record : batch) {
+            lanes.get(Math.floorMod(partitionHash(record), concurrency)).add(record);
+        }
+        List<CompletableFuture<List<RecordId>>> futures = new ArrayList<>(concurrency);
+        for (List<MapRecord<String, String, byte[]>> lane : lanes) {
+            if (!lane.isEmpty()) {
+                futures.add(CompletableFuture.supplyAsync(() -> handler.handle(lane), workerExecutor)
+                        .exceptionally(e -> {
+                            log.error("Redis stream lane handle failed, stream: {}", stream, e);
+                            return Collections.emptyList();
+                        }));
+            }
+        }
+        List<RecordId> processed = new ArrayList<>(batch.size());
+        for (CompletableFuture<List<RecordId>> future : futures) {
+            processed.addAll(future.join());
+        }
+        return processed;
+    }
+
+    /**
+     * 是否跨批次阻塞失败消息的分区键，仅在设置分区字段且手动确认时生效
+     */
+    private boolean blocking() {
+        return !partitionField.isEmpty() && !autoAcknowledge;
+    }
+
+    /**
+     * 扣留分区键被阻塞的消息，返回可以处理的消息
+     */
+    List<MapRecord<String, String, byte[]>> holdBlocked(List<MapRecord<String, String, byte[]>> batch) {
+        if (blockedKeys.isEmpty()) {
+            return batch;
+        }
+        List<MapRecord<String, String, byte[]>> runnable = new ArrayList<>(batch.size());
+        for (MapRecord<String, String, byte[]> record : batch) {
+            Set<RecordId> held = blockedKeys.get(partitionKey(record, partitionField));
+            if (held != null) {
+                held.add(record.getId());
+            } else {
+                runnable.add(record);
+            }
+        }
+        if (runnable.size() < batch.size()) {
+            log.debug("Hold redis stream records behind failed ones, stream: {}, held: {}, blockedKeys: {}",
+                    stream, batch.size() - runnable.size(), blockedKeys.size());
+        }
+        return runnable;
+    }
+
+    /**
+     * 阻塞处理失败（未确认）消息的分区键
+     */
+    void blockFailed(List<MapRecord<String, String, byte[]>> records, Collection<RecordId> processed) {
+        if (!blocking() || processed.size() == records.size()) {
+            return;
+        }
+        Set<RecordId> succeeded = new HashSet<>(processed);
+        for (MapRecord<String, String, byte[]> record : records) {
+            if (!succeeded.contains(record.getId())) {
+                blockedKeys.computeIfAbsent(partitionKey(record, partitionField), key -> new LinkedHashSet<>())
+                        .add(record.getId());
+            }
+        }
+    }
+
+    /**
+     * 移除已不在 pendingIds 中的消息，分区键的消息全部移除后解除阻塞
+     *
+     * @param pendingIds 当前消费者 PEL 中的消息 ID
+     */
+    void releaseBlocked(Set<RecordId> pendingIds) {
+        Iterator<Set<RecordId>> iterator = blockedKeys.values().iterator();
+        while (iterator.hasNext()) {
+            Set<RecordId> held = iterator.next();
+            held.retainAll(pendingIds);
+            if (held.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    int blockedKeyCount() {
+        return blockedKeys.size();
+    }
+
+    /**
+     * 查询当前消费者 PEL 中阻塞范围内的消息，解除已确认或已被其他消费者认领的消息的阻塞
+     */
+    private void releaseBlockedKeys() {
+        RecordId lower = null;
+        RecordId upper = null;
+        int size = 0;
+        for (Set<RecordId> held : blockedKeys.values()) {
+            for (RecordId id : held) {
+                lower = lower == null || compare(id, lower) < 0 ? id : lower;
+                upper = upper == null || compare(id, upper) > 0 ? id : upper;
+                size++;
+            }
+        }
+        Set<RecordId> pendingIds = new HashSet<>(size);
+        // 分页读取，PEL 中可能还有回收任务正在处理的其他消息
+        String upperId = upper.getValue();
+        Range<String> range = Range.closed(lower.getValue(), upperId);
+        while (true) {
+            PendingMessages pending = redisTemplate.opsForStream().pending(stream, consumer, range, size);
+            String last = null;
+            for (PendingMessage message : pending) {
+                pendingIds.add(message.getId());
+                last = message.getIdAsString();
+            }
+            if (last == null || pending.size() < size) {
+                break;
+            }
+            range = Range.leftOpen(last, upperId);
+        }
+        int before = blockedKeys.size();
+        releaseBlocked(pendingIds);
+        if (blockedKeys.size() < before) {
+            log.info("Release blocked redis stream partition keys, stream: {}, released: {}, blocked: {}",
+                    stream, before - blockedKeys.size(), blockedKeys.size());
+        }
+    }
+
+    /**
+     * 按 ID 顺序比较两个消息 ID（毫秒时间戳-序号）
+     */
+    private static int compare(RecordId left, RecordId right) {
+        int result = Long.compare(left.getTimestamp(), right.getTimestamp());
+        return result != 0 ? result : Long.compare(left.getSequence(), right.getSequence());
+    }
+
+    private int partitionHash(MapRecord<String, String, byte[]> record) {
+        return partitionKey(record, partitionField).hashCode();
+    }
+
+    /**
+     * 消息的分区键，分区字段存在时为字段值，否则为消息 key（字段名）
+     *
+     * @param record         消息
+     * @param partitionField 分区字段，可为空
+     * @return 分区键，可用于 equals / hashCode 比较
+     */
+    static Object partitionKey(MapRecord<String, String, byte[]> record, String partitionField) {
+        Map<String, byte[]> value = record.getValue();
+        if (!partitionField.isEmpty()) {
+            byte[] fieldValue = value.get(partitionField);
+            if (fieldValue != null) {
+                return ByteBuffer.wrap(fieldValue);
+            }
+        }
+        return value.isEmpty() ? "" : value.keySet().iterator().next();
+    }
+
+    private void backoff() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(ERROR_BACKOFF_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 批量处理器
+     */
+    @FunctionalInterface
+    public interface BatchHandler {
+
+        /**
+         * 处理一批消息（同一通道内按消息顺序）
+         *
+         * @param records 消息
+         * @return 处理成功、需要确认的消息 ID
+         */
+        List<RecordId> handle(List<MapRecord<String, String, byte[]>> records);
+
+    }
+
+}
@@ -0,0 +1,402 @@
+package cn.fxbin.bubble.data.redis.stream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.util.Assert;
+
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * RStreamBatchProducer 批量生产者
+ *
+ * <p>
+ *     按 stream 缓冲消息，达到 batchSize 或超过 linger 时间后通过 pipeline 批量执行 {@code XADD ... MAXLEN ~}，
+ *     每条消息返回 {@link RecordId} 的 future。同一 stream 的批次按提交顺序写入。
+ *     缓冲的消息总数不超过 bufferLimit，缓冲已满时按 {@link OverflowPolicy} 处理。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/29 10:00
+ */
+@Slf4j
+public class RStreamBatchProducer implements Closeable {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final int batchSize;
+
+    private final RedisStreamCommands.XAddOptions addOptions;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final Duration blockTimeout;
+
+    private final Semaphore permits;
+
+    private final int bufferLimit;
+
+    private final ConcurrentMap<String, StreamBuffer> buffers = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService lingerScheduler;
+
+    private final ExecutorService flushExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("rstream-producer-", 0).factory());
+
+    private final LongAdder sent = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * 写入缓冲持有读锁，关闭持有写锁，保证关闭后的最终 flush 能看到所有已接受的消息
+     */
+    private final ReentrantReadWriteLock closeLock = new ReentrantReadWriteLock();
+
+    private volatile boolean closed;
+
+    /**
+     * @param redisTemplate  redisTemplate
+     * @param batchSize      单批最大消息数
+     * @param linger         消息最长等待时间
+     * @param bufferLimit    缓冲的最大消息数
+     * @param maxLen         stream 近似最大长度，小于等于 0 表示不修剪
+     * @param overflowPolicy 缓冲已满时的处理策略
+     * @param blockTimeout   BLOCK 策略的最长等待时间
+     */
+    public RStreamBatchProducer(RedisTemplate<String, Object> redisTemplate, int batchSize, Duration linger,
+                                int bufferLimit, long maxLen, OverflowPolicy overflowPolicy, Duration blockTimeout) {
+        Assert.isTrue(batchSize > 0, "batchSize must be positive");
+        Assert.isTrue(bufferLimit >= batchSize, "bufferLimit must not be less than batchSize");
+        Assert.isTrue(!linger.isNegative() && !linger.isZero(), "linger must be positive");
+        this.redisTemplate = redisTemplate;
+        this.batchSize = batchSize;
+        this.addOptions = maxLen > 0
+                ? RedisStreamCommands.XAddOptions.maxlen(maxLen).approximateTrimming(true)
+                : RedisStreamCommands.XAddOptions.none();
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeout = blockTimeout;
+        this.bufferLimit = bufferLimit;
+        this.permits = new Semaphore(bufferLimit);
+        this.lingerScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("rstream-producer-linger").daemon(true).factory());
+        long lingerNanos = linger.toNanos();
+        this.lingerScheduler.scheduleWithFixedDelay(this::flushExpired, lingerNanos, lingerNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 异步发布消息
+     *
+     * @param name 名称
+     * @param key  消息key
+     * @param data 数据
+     * @return {@link RecordId} future，DROP 策略下被丢弃的消息返回 null
+     */
+    public CompletableFuture<RecordId> send(String name, String key, byte[] data) {
+        return this.send(name, Collections.singletonMap(key, data));
+    }
+
+    /**
+     * 异步发布消息
+     *
+     * @param name   名称
+     * @param key    消息key
+     * @param data   数据
+     * @param mapper 映射器
+     * @return {@link RecordId} future
+     */
+    public <T> CompletableFuture<RecordId> send(String name, String key, T data, Function<T, byte[]> mapper) {
+        return this.send(name, key, mapper.apply(data));
+    }
+
+    /**
+     * 异步发布多字段消息
+     *
+     * @param name 名称
+     * @param data 字段 -&gt; 数据
+     * @return {@link RecordId} future
+     */
+    public CompletableFuture<RecordId> send(String name, Map<String, byte[]> data) {
+        if (closed) {
+            throw new IllegalStateException("RStreamBatchProducer is closed");
+        }
+        if (!acquire()) {
+            dropped.increment();
+            return CompletableFuture.completedFuture(null);
+        }
+        PendingRecord record = new PendingRecord(toBytes(data), new CompletableFuture<>());
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                permits.release();
+                throw new IllegalStateException("RStreamBatchProducer is closed");
+            }
+            StreamBuffer buffer = buffers.computeIfAbsent(name, StreamBuffer::new);
+            if (buffer.add(record) >= batchSize) {
+                submitFlush(buffer);
+            }
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        return record.future();
+    }
+
+    /**
+     * 立即发送所有缓冲的消息并等待完成
+     */
+    public void flush() {
+        buffers.values().forEach(StreamBuffer::flush);
+    }
+
+    /**
+     * 当前缓冲的消息数
+     *
+     * @return int
+     */
+    public int getBufferedCount() {
+        return bufferLimit - permits.availablePermits();
+    }
+
+    public long getSentCount() {
+        return sent.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        lingerScheduler.shutdownNow();
+        flush();
+        flushExecutor.close();
+    }
+
+    private boolean acquire() {
+        switch (overflowPolicy) {
+            case DROP:
+                return permits.tryAcquire();
+            case FAIL:
+                if (!permits.tryAcquire()) {
+                    throw new RejectedExecutionException("RStreamBatchProducer buffer is full, limit: " + bufferLimit);
+                }
+                return true;
+            default:
+                try {
+                    if (!permits.tryAcquire(blockTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                        throw new RejectedExecutionException("RStreamBatchProducer buffer is full after waiting " + blockTimeout);
+                    }
+                    return true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RejectedExecutionException("Interrupted while waiting for RStreamBatchProducer buffer", e);
+                }
+        }
+    }
+
+    private void submitFlush(StreamBuffer buffer) {
+        try {
+            flushExecutor.execute(buffer::flush);
+        } catch (RejectedExecutionException e) {
+            buffer.flush();
+        }
+    }
+
+    private void flushExpired() {
+        try {
+            buffers.values().forEach(buffer -> {
+                if (buffer.hasPending()) {
+                    submitFlush(buffer);
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Flush redis stream producer buffers failed", e);
+        }
+    }
+
+    private static Map<byte[], byte[]> toBytes(Map<String, byte[]> data) {
+        Map<byte[], byte[]> fields = new LinkedHashMap<>(data.size());
+        data.forEach((key, value) -> fields.put(key.getBytes(StandardCharsets.UTF_8), value));
+        return fields;
+    }
+
+    /**
+     * 缓冲已满时的处理策略
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * 阻塞等待，超过 blockTimeout 后抛出 {@link RejectedExecutionException}
+         */
+        BLOCK,
+
+        /**
+         * 丢弃消息，返回值为 null 的 future
+         */
+        DROP,
+
+        /**
+         * 立即抛出 {@link RejectedExecutionException}
+         */
+        FAIL
+    }
+
+    private record PendingRecord(Map<byte[], byte[]> fields, CompletableFuture<RecordId> future) {
+    }
+
+    /**
+     * 单个 stream 的缓冲区
+     */
+    private final class StreamBuffer {
+
+        private final byte[] streamKey;
+
+        private final String stream;
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * 保证同一 stream 的批次按顺序写入
+         */
+        private final ReentrantLock flushLock = new ReentrantLock();
+
+        private List<PendingRecord> records = new ArrayList<>();
+
+        StreamBuffer(String stream) {
+            this.stream = stream;
+            this.streamKey = stream.getBytes(StandardCharsets.UTF_8);
+        }
+
+        int add(PendingRecord record) {
+            lock.lock();
+            try {
+                records.add(record);
+                return records.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean hasPending() {
+            lock.lock();
+            try {
+                return !records.isEmpty();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void flush() {
+            flushLock.lock();
+            try {
+                List<PendingRecord> batch;
+                while (!(batch = drain()).isEmpty()) {
+                    write(batch);
+                }
+            } finally {
+                flushLock.unlock();
+            }
+        }
+
+        private List<PendingRecord> drain() {
+            lock.lock();
+            try {
+                if (records.isEmpty()) {
+                    return Collections.emptyList();
+                }
+                List<PendingRecord> batch;
+                if (records.size() <= batchSize) {
+                    batch = records;
+                    records = new ArrayList<>();
+                } else {
+                    List<PendingRecord> head = records.subList(0, batchSize);
+                    batch = new ArrayList<>(head);
+                    head.clear();
+                }
+                return batch;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void write(List<PendingRecord> batch) {
+            try {
+                List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    RedisStreamCommands streamCommands = connection.streamCommands();
+                    for (PendingRecord record : batch) {
+                        streamCommands.xAdd(MapRecord.create(streamKey, record.fields()), addOptions);
+                    }
+                    return null;
+                }, null);
+                complete(batch, results);
+            } catch (RedisPipelineException e) {
+                // 部分命令失败，其余命令已写入，按各自的结果完成
+                log.error("Pipelined XADD partially failed, stream: {}, size: {}", stream, batch.size(), e);
+                complete(batch, e.getPipelineResult());
+            } catch (Exception e) {
+                log.error("Pipelined XADD failed, stream: {}, size: {}", stream, batch.size(), e);
+                failed.add(batch.size());
+                batch.forEach(record -> record.future().completeExceptionally(e));
+            } finally {
+                permits.release(batch.size());
+            }
+        }
+
+        private void complete(List<PendingRecord> batch, List<Object> results) {
+            for (int i = 0; i < batch.size(); i++) {
+                CompletableFuture<RecordId> future = batch.get(i).future();
+                Object result = i < results.size() ? results.get(i) : null;
+                if (result instanceof RecordId recordId) {
+                    sent.increment();
+                    future.complete(recordId);
+                } else if (result instanceof Throwable throwable) {
+                    failed.increment();
+                    future.completeExceptionally(throwable);
+                } else {
+                    sent.increment();
+                    future.complete(result == null ? null : RecordId.of(result.toString()));
+                }
+            }
+        }
+    }
+
+}
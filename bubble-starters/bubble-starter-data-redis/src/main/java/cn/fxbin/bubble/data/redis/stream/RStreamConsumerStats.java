@@ -0,0 +1,68 @@
+package cn.fxbin.bubble.data.redis.stream;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * RStreamConsumerStats 消费组待处理消息统计信息
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/28 16:00
+ */
+@Getter
+@Builder
+@ToString
+public class RStreamConsumerStats {
+
+    /**
+     * stream 名称
+     */
+    private final String stream;
+
+    /**
+     * 消费组
+     */
+    private final String group;
+
+    /**
+     * 消费组尚未读取的消息数（XINFO GROUPS lag，Redis 7+，不可用时为 -1）
+     */
+    private final long lag;
+
+    /**
+     * 已投递未确认的消息数
+     */
+    private final long pending;
+
+    /**
+     * 扫描次数
+     */
+    private final long sweeps;
+
+    /**
+     * 重新认领并再次处理的消息数
+     */
+    private final long reclaimed;
+
+    /**
+     * 转入死信 stream 的消息数
+     */
+    private final long deadLettered;
+
+    /**
+     * 统计开始至今的秒数
+     */
+    private final long uptimeSeconds;
+
+    /**
+     * 每分钟重新投递数
+     *
+     * @return double
+     */
+    public double getRedeliveryRate() {
+        return uptimeSeconds == 0 ? 0 : reclaimed * 60D / uptimeSeconds;
+    }
+
+}
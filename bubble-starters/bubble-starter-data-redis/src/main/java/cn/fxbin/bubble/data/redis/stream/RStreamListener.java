@@ -63,4 +63,35 @@ public @interface RStreamListener {
      */
     boolean readRawBytes() default false;
 
+    /**
+     * 批量拉取大小，大于 0 或方法参数为 {@link java.util.List} 时使用批量消费，默认使用 stream.poll-batch-size
+     *
+     * <p>
+     * 批量消费时，参数为 List 的方法一次接收一批消息，成功的消息在整批处理完成后统一 ack。
+     * </p>
+     *
+     * @return int
+     */
+    int batchSize() default 0;
+
+    /**
+     * 单个 stream 的并行处理通道数，仅集群模式生效，默认：1
+     *
+     * @return int
+     */
+    int concurrency() default 1;
+
+    /**
+     * 分区字段，并行处理时该字段值相同的消息进入同一通道并保持顺序，为空时按消息 key 分区
+     *
+     * <p>
+     * 设置后（手动 ack 时）顺序跨批次保证：某条消息处理失败后，之后拉取到的同一字段值的消息不处理、不 ack，
+     * 留在 PEL 中与失败的消息一起经待处理消息回收按 ID 顺序重新投递，因此要求开启 bubble.data.redis.stream.reclaim.enabled。
+     * 未设置时同一分区键的顺序只在单个批次内保证，失败消息之后批次中的消息照常处理。
+     * </p>
+     *
+     * @return String
+     */
+    String partitionField() default "";
+
 }
@@ -4,9 +4,11 @@ import cn.fxbin.bubble.core.util.ClassUtils;
 import cn.fxbin.bubble.core.util.ReflectUtils;
 import cn.fxbin.bubble.core.util.StringUtils;
 import cn.fxbin.bubble.data.redis.RStreamOperations;
+import cn.fxbin.bubble.data.redis.autoconfigure.BubbleRedisProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.core.annotation.AnnotationUtils;
@@ -15,12 +17,24 @@ import org.springframework.data.redis.connection.stream.*;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StreamOperations;
 import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ReflectionUtils;
 
 import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * RStreamListenerDetector
@@ -31,7 +45,11 @@ import java.util.Map;
  */
 @Slf4j
 @RequiredArgsConstructor
-public class RStreamListenerDetector implements BeanPostProcessor, InitializingBean {
+public class RStreamListenerDetector implements BeanPostProcessor, InitializingBean, DisposableBean {
+
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private static final Duration DEFAULT_POLL_TIMEOUT = Duration.ofSeconds(2);
 
     private final StreamMessageListenerContainer<String, MapRecord<String, String, byte[]>> streamMessageListenerContainer;
 
@@ -41,6 +59,37 @@ public class RStreamListenerDetector implements BeanPostProcessor, InitializingB
 
     private final String consumerName;
 
+    /**
+     * 批量消费工作线程池
+     */
+    private final Executor workerExecutor;
+
+    /**
+     * 默认批量拉取大小，为 null 时使用 {@link #DEFAULT_BATCH_SIZE}
+     */
+    @Nullable
+    private final Integer pollBatchSize;
+
+    /**
+     * 拉取阻塞时间，为 null 时使用 {@link #DEFAULT_POLL_TIMEOUT}
+     */
+    @Nullable
+    private final Duration pollTimeout;
+
+    /**
+     * 待处理消息回收配置，为 null 时不回收
+     */
+    @Nullable
+    private final BubbleRedisProperties.Reclaim reclaim;
+
+    private final RStreamOperations streamOperations;
+
+    private final List<RStreamBatchConsumer> batchConsumers = new CopyOnWriteArrayList<>();
+
+    private final List<RStreamPendingReclaimer> reclaimers = new CopyOnWriteArrayList<>();
+
+    private volatile ScheduledExecutorService reclaimScheduler;
+
     @Override
     public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
         Class<?> userClass = ClassUtils.getUserClass(bean);
@@ -60,14 +109,23 @@ public class RStreamListenerDetector implements BeanPostProcessor, InitializingB
                 StreamOffset<String> streamOffset = StreamOffset.create(streamKey, readOffset);
                 // 消费模式
                 MessageType messageType = listener.messageType();
+                boolean batch = isBatchMethod(method) || listener.batchSize() > 0 || listener.concurrency() > 1;
                 if (MessageType.broadcast == messageType) {
+                    if (batch) {
+                        throw new IllegalArgumentException("@RStreamListener on method " + method + " batch consumption requires cluster message type.");
+                    }
                     broadCast(streamOffset, bean, method, listener.readRawBytes());
                 } else {
                     String groupId = StringUtils.isNotBlank(listener.group()) ? listener.group() : consumerGroup;
                     Consumer consumer = Consumer.from(groupId, consumerName);
                     // 如果需要，创建 group
                     createGroupIfNeed(redisTemplate, streamKey, readOffset, groupId);
-                    cluster(consumer, streamOffset, listener, bean, method);
+                    if (batch) {
+                        batchCluster(consumer, listener, bean, method);
+                    } else {
+                        cluster(consumer, streamOffset, listener, bean, method);
+                    }
+                    scheduleReclaim(consumer, streamKey, batchHandler(bean, method, listener.readRawBytes(), listener.partitionField()));
                 }
             }
         }, ReflectionUtils.USER_DECLARED_METHODS);
@@ -95,6 +153,90 @@ public class RStreamListenerDetector implements BeanPostProcessor, InitializingB
         });
     }
 
+    private void batchCluster(Consumer consumer, RStreamListener listener, Object bean, Method method) {
+        if (StringUtils.isNotBlank(listener.partitionField()) && !listener.autoAcknowledge()
+                && (reclaim == null || !reclaim.isEnabled())) {
+            throw new IllegalArgumentException("@RStreamListener on method " + method
+                    + " partitionField requires pending reclaim, set " + BubbleRedisProperties.Stream.PREFIX + ".reclaim.enabled=true.");
+        }
+        int batchSize = listener.batchSize() > 0 ? listener.batchSize()
+                : pollBatchSize != null && pollBatchSize > 0 ? pollBatchSize : DEFAULT_BATCH_SIZE;
+        Duration timeout = pollTimeout != null && !pollTimeout.isNegative() ? pollTimeout : DEFAULT_POLL_TIMEOUT;
+        RStreamBatchConsumer batchConsumer = new RStreamBatchConsumer(redisTemplate, listener.name(), consumer,
+                batchSize, timeout, listener.concurrency(), listener.partitionField(), listener.autoAcknowledge(),
+                workerExecutor, batchHandler(bean, method, listener.readRawBytes(), listener.partitionField()));
+        batchConsumers.add(batchConsumer);
+        batchConsumer.start();
+    }
+
+    private void scheduleReclaim(Consumer consumer, String streamKey, RStreamBatchConsumer.BatchHandler handler) {
+        if (reclaim == null || !reclaim.isEnabled()) {
+            return;
+        }
+        RStreamPendingReclaimer reclaimer = new RStreamPendingReclaimer(redisTemplate, streamOperations, streamKey,
+                consumer.getGroup(), consumer.getName(), reclaim.getMinIdle(), reclaim.getMaxDeliveries(),
+                reclaim.getBatchSize(), streamKey + reclaim.getDeadLetterSuffix(), reclaim.getDeadLetterMaxLen(), handler);
+        reclaimers.add(reclaimer);
+        long interval = reclaim.getInterval().toMillis();
+        getReclaimScheduler().scheduleWithFixedDelay(reclaimer, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Schedule redis stream pending reclaim, stream: {}, group: {}, interval: {}", streamKey, consumer.getGroup(), reclaim.getInterval());
+    }
+
+    private synchronized ScheduledExecutorService getReclaimScheduler() {
+        if (reclaimScheduler == null) {
+            reclaimScheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("rstream-reclaimer").daemon(true).factory());
+        }
+        return reclaimScheduler;
+    }
+
+    /**
+     * 获取各消费组的待处理消息统计信息（需开启回收）
+     *
+     * @return {@link RStreamConsumerStats}
+     */
+    public List<RStreamConsumerStats> getStatistics() {
+        return reclaimers.stream().map(RStreamPendingReclaimer::getStats).collect(Collectors.toList());
+    }
+
+    private RStreamBatchConsumer.BatchHandler batchHandler(Object bean, Method method, boolean isReadRawBytes, String partitionField) {
+        if (isBatchMethod(method)) {
+            return records -> {
+                List<Object> values = isReadRawBytes ? new ArrayList<>(records)
+                        : records.stream().map(this::getRecordValue).collect(Collectors.toList());
+                try {
+                    ReflectUtils.invokeMethod(method, bean, values);
+                } catch (RuntimeException e) {
+                    log.error("@RStreamListener method {} handle batch failed, size: {}", method, records.size(), e);
+                    return Collections.emptyList();
+                }
+                return records.stream().map(MapRecord::getId).collect(Collectors.toList());
+            };
+        }
+        return records -> {
+            List<RecordId> processed = new ArrayList<>(records.size());
+            // 处理失败的分区键，其后续消息跳过且不确认，避免越过失败的消息
+            Set<Object> failedKeys = new HashSet<>();
+            for (MapRecord<String, String, byte[]> record : records) {
+                Object partitionKey = RStreamBatchConsumer.partitionKey(record, partitionField);
+                if (failedKeys.contains(partitionKey)) {
+                    continue;
+                }
+                try {
+                    invokeMethod(bean, method, record, isReadRawBytes);
+                    processed.add(record.getId());
+                } catch (RuntimeException e) {
+                    failedKeys.add(partitionKey);
+                    log.error("@RStreamListener method {} handle record {} failed", method, record.getId(), e);
+                }
+            }
+            return processed;
+        };
+    }
+
+    private static boolean isBatchMethod(Method method) {
+        return method.getParameterCount() == 1 && List.class.isAssignableFrom(method.getParameterTypes()[0]);
+    }
+
     private static void createGroupIfNeed(RedisTemplate<String, Object> redisTemplate, String streamKey, ReadOffset readOffset, String group) {
         StreamOperations<String, Object, Object> opsForStream = redisTemplate.opsForStream();
         try {
@@ -140,4 +282,12 @@ public class RStreamListenerDetector implements BeanPostProcessor, InitializingB
     public void afterPropertiesSet() throws Exception {
         streamMessageListenerContainer.start();
     }
+
+    @Override
+    public void destroy() throws Exception {
+        batchConsumers.forEach(RStreamBatchConsumer::stop);
+        if (reclaimScheduler != null) {
+            reclaimScheduler.shutdownNow();
+        }
+    }
 }
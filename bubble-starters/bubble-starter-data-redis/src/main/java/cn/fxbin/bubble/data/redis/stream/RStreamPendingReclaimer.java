@@ -0,0 +1,213 @@
+package cn.fxbin.bubble.data.redis.stream;
+
+import cn.fxbin.bubble.data.redis.RStreamOperations;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamInfo;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RStreamPendingReclaimer 待处理消息回收
+ *
+ * <p>
+ *     定期扫描消费组的 PEL（XPENDING），将空闲超过 minIdle 的消息认领（XCLAIM）到当前消费者并重新交给监听方法处理；
+ *     投递次数达到 maxDeliveries 的消息转入死信 stream 并确认，避免无法处理的消息无限重试。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/28 16:10
+ */
+@Slf4j
+public class RStreamPendingReclaimer implements Runnable {
+
+    /**
+     * 死信消息附加字段：原消息 ID
+     */
+    public static final String DEAD_LETTER_ORIGIN_ID = "@origin-id";
+
+    /**
+     * 死信消息附加字段：投递次数
+     */
+    public static final String DEAD_LETTER_DELIVERY_COUNT = "@delivery-count";
+
+    /**
+     * 死信消息附加字段：消费组
+     */
+    public static final String DEAD_LETTER_GROUP = "@group";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final RStreamOperations streamOperations;
+
+    private final String stream;
+
+    private final String group;
+
+    private final String consumerName;
+
+    private final Duration minIdle;
+
+    private final long maxDeliveries;
+
+    private final int batchSize;
+
+    private final String deadLetterStream;
+
+    private final long deadLetterMaxLen;
+
+    private final RStreamBatchConsumer.BatchHandler handler;
+
+    private final long startTime = System.currentTimeMillis();
+
+    private final LongAdder sweeps = new LongAdder();
+
+    private final LongAdder reclaimed = new LongAdder();
+
+    private final LongAdder deadLettered = new LongAdder();
+
+    public RStreamPendingReclaimer(RedisTemplate<String, Object> redisTemplate, RStreamOperations streamOperations,
+                                   String stream, String group, String consumerName, Duration minIdle,
+                                   long maxDeliveries, int batchSize, String deadLetterStream, long deadLetterMaxLen,
+                                   RStreamBatchConsumer.BatchHandler handler) {
+        this.redisTemplate = redisTemplate;
+        this.streamOperations = streamOperations;
+        this.stream = stream;
+        this.group = group;
+        this.consumerName = consumerName;
+        this.minIdle = minIdle;
+        this.maxDeliveries = maxDeliveries;
+        this.batchSize = batchSize;
+        this.deadLetterStream = deadLetterStream;
+        this.deadLetterMaxLen = deadLetterMaxLen;
+        this.handler = handler;
+    }
+
+    @Override
+    public void run() {
+        try {
+            sweep();
+        } catch (Exception e) {
+            log.warn("Reclaim redis stream pending messages failed, stream: {}, group: {}", stream, group, e);
+        }
+    }
+
+    /**
+     * 执行一次扫描
+     */
+    public void sweep() {
+        sweeps.increment();
+        PendingMessages pendingMessages = redisTemplate.opsForStream().pending(stream, group, Range.unbounded(), batchSize);
+        List<RecordId> idle = new ArrayList<>();
+        Map<RecordId, Long> exhausted = new LinkedHashMap<>();
+        for (PendingMessage message : pendingMessages) {
+            if (message.getElapsedTimeSinceLastDelivery().compareTo(minIdle) < 0) {
+                continue;
+            }
+            idle.add(message.getId());
+            if (message.getTotalDeliveryCount() >= maxDeliveries) {
+                exhausted.put(message.getId(), message.getTotalDeliveryCount());
+            }
+        }
+        if (idle.isEmpty()) {
+            return;
+        }
+        // 认领后其他消费者的 sweep 不会再拿到这些消息（XCLAIM 会重置空闲时间）
+        byte[] streamKey = stream.getBytes(StandardCharsets.UTF_8);
+        RedisStreamCommands.XClaimOptions options = RedisStreamCommands.XClaimOptions.minIdle(minIdle)
+                .ids(idle.toArray(new RecordId[0]));
+        List<ByteRecord> claimed = redisTemplate.execute((RedisCallback<List<ByteRecord>>) connection ->
+                connection.streamCommands().xClaim(streamKey, group, consumerName, options));
+        if (claimed == null || claimed.isEmpty()) {
+            return;
+        }
+        List<MapRecord<String, String, byte[]>> retries = new ArrayList<>(claimed.size());
+        List<RecordId> acknowledged = new ArrayList<>(claimed.size());
+        for (ByteRecord record : claimed) {
+            MapRecord<String, String, byte[]> mapRecord = record.deserialize(StringRedisSerializer.UTF_8,
+                    StringRedisSerializer.UTF_8, RedisSerializer.byteArray());
+            Long deliveryCount = exhausted.get(mapRecord.getId());
+            if (deliveryCount != null) {
+                deadLetter(mapRecord, deliveryCount);
+                acknowledged.add(mapRecord.getId());
+            } else {
+                retries.add(mapRecord);
+            }
+        }
+        if (!retries.isEmpty()) {
+            reclaimed.add(retries.size());
+            acknowledged.addAll(handler.handle(retries));
+        }
+        if (!acknowledged.isEmpty()) {
+            streamOperations.acknowledge(stream, group, acknowledged.toArray(new RecordId[0]));
+        }
+        log.info("Reclaim redis stream pending messages, stream: {}, group: {}, retried: {}, deadLettered: {}",
+                stream, group, retries.size(), claimed.size() - retries.size());
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return {@link RStreamConsumerStats}
+     */
+    public RStreamConsumerStats getStats() {
+        long pending = -1;
+        long lag = -1;
+        try {
+            StreamInfo.XInfoGroup info = redisTemplate.opsForStream().groups(stream).stream()
+                    .filter(x -> group.equals(x.groupName()))
+                    .findFirst()
+                    .orElse(null);
+            if (info != null) {
+                pending = info.pendingCount();
+                if (info.getRaw().get("lag") instanceof Number number) {
+                    lag = number.longValue();
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Query redis stream group info failed, stream: {}, group: {}", stream, group, e);
+        }
+        return RStreamConsumerStats.builder()
+                .stream(stream)
+                .group(group)
+                .lag(lag)
+                .pending(pending)
+                .sweeps(sweeps.sum())
+                .reclaimed(reclaimed.sum())
+                .deadLettered(deadLettered.sum())
+                .uptimeSeconds((System.currentTimeMillis() - startTime) / 1000)
+                .build();
+    }
+
+    private void deadLetter(MapRecord<String, String, byte[]> record, long deliveryCount) {
+        Map<String, byte[]> fields = new LinkedHashMap<>(record.getValue());
+        fields.put(DEAD_LETTER_ORIGIN_ID, record.getId().getValue().getBytes(StandardCharsets.UTF_8));
+        fields.put(DEAD_LETTER_DELIVERY_COUNT, String.valueOf(deliveryCount).getBytes(StandardCharsets.UTF_8));
+        fields.put(DEAD_LETTER_GROUP, group.getBytes(StandardCharsets.UTF_8));
+        RedisStreamCommands.XAddOptions options = deadLetterMaxLen > 0
+                ? RedisStreamCommands.XAddOptions.maxlen(deadLetterMaxLen).approximateTrimming(true)
+                : RedisStreamCommands.XAddOptions.none();
+        streamOperations.sendBytes(deadLetterStream, fields, options);
+        deadLettered.increment();
+        log.warn("Move redis stream message to dead letter, stream: {}, group: {}, id: {}, deliveryCount: {}",
+                stream, group, record.getId(), deliveryCount);
+    }
+
+}
@@ -0,0 +1,62 @@
+package cn.fxbin.bubble.data.redis.serializer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryRedisSerializerTest {
+
+    private final BinaryRedisSerializer serializer = new BinaryRedisSerializer(Compression.DEFLATE, 0);
+
+    @Test
+    void shouldRoundTripCompressedValue() {
+        Map<String, Object> value = new HashMap<>();
+        value.put("name", "bubble".repeat(100));
+        value.put("count", 42L);
+
+        byte[] bytes = serializer.serialize(value);
+
+        assertThat(BinaryRedisSerializer.isBinary(bytes)).isTrue();
+        assertThat(bytes[2]).isEqualTo((byte) Compression.DEFLATE.getId());
+        assertThat(serializer.deserialize(bytes)).isEqualTo(value);
+    }
+
+    @Test
+    void shouldRejectNegativeOriginalLength() {
+        byte[] bytes = compressed();
+        writeOriginalLength(bytes, -1);
+
+        assertThatThrownBy(() -> serializer.deserialize(bytes))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("invalid original length");
+    }
+
+    @Test
+    void shouldRejectOriginalLengthAboveLimit() {
+        byte[] bytes = compressed();
+        writeOriginalLength(bytes, BinaryRedisSerializer.MAX_ORIGINAL_LENGTH + 1);
+
+        assertThatThrownBy(() -> serializer.deserialize(bytes))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("invalid original length");
+    }
+
+    private byte[] compressed() {
+        byte[] bytes = serializer.serialize(Map.of("name", "bubble".repeat(100)));
+        assertThat(bytes[2]).isEqualTo((byte) Compression.DEFLATE.getId());
+        return bytes;
+    }
+
+    private static void writeOriginalLength(byte[] bytes, int length) {
+        bytes[3] = (byte) (length >>> 24);
+        bytes[4] = (byte) (length >>> 16);
+        bytes[5] = (byte) (length >>> 8);
+        bytes[6] = (byte) length;
+    }
+
+}
@@ -0,0 +1,79 @@
+package cn.fxbin.bubble.data.redis.serializer;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SerializerBenchmark 序列化基准测试
+ *
+ * <p>
+ *     使用业务中的真实样本对比各序列化器的体积与耗时，用于选择序列化方式与压缩阈值。先预热再计时，结果为单次平均值。
+ * </p>
+ *
+ * <pre>
+ * SerializerBenchmark.run(Map.of(
+ *         "json", new GenericJackson2JsonRedisSerializer(),
+ *         "smile", new BinaryRedisSerializer(),
+ *         "smile+lz4", new BinaryRedisSerializer(Compression.LZ4, 1024)), sample, 10000)
+ *     .forEach(System.out::println);
+ * </pre>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/28 11:10
+ */
+@UtilityClass
+public class SerializerBenchmark {
+
+    /**
+     * 执行基准测试
+     *
+     * @param serializers 名称 -&gt; 序列化器
+     * @param sample      样本
+     * @param iterations  计时迭代次数，预热次数与之相同
+     * @return 各序列化器的测试结果
+     */
+    public List<SerializerBenchmarkResult> run(Map<String, RedisSerializer<Object>> serializers, Object sample, int iterations) {
+        Assert.notNull(sample, "sample must not be null");
+        Assert.isTrue(iterations > 0, "iterations must be positive");
+        List<SerializerBenchmarkResult> results = new ArrayList<>(serializers.size());
+        serializers.forEach((name, serializer) -> results.add(run(name, serializer, sample, iterations)));
+        return results;
+    }
+
+    private SerializerBenchmarkResult run(String name, RedisSerializer<Object> serializer, Object sample, int iterations) {
+        byte[] bytes = serializer.serialize(sample);
+        Assert.notNull(bytes, () -> name + " serialize sample to null");
+        // 预热，并保留结果防止被 JIT 消除
+        long blackhole = 0;
+        for (int i = 0; i < iterations; i++) {
+            blackhole += serializer.serialize(sample).length;
+            blackhole += serializer.deserialize(bytes) == null ? 0 : 1;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            blackhole += serializer.serialize(sample).length;
+        }
+        long serializeNanos = (System.nanoTime() - start) / iterations;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            blackhole += serializer.deserialize(bytes) == null ? 0 : 1;
+        }
+        long deserializeNanos = (System.nanoTime() - start) / iterations;
+        if (blackhole == Long.MIN_VALUE) {
+            throw new IllegalStateException();
+        }
+        return SerializerBenchmarkResult.builder()
+                .name(name)
+                .size(bytes.length)
+                .serializeNanos(serializeNanos)
+                .deserializeNanos(deserializeNanos)
+                .build();
+    }
+
+}
@@ -0,0 +1,39 @@
+package cn.fxbin.bubble.data.redis.serializer;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * SerializerBenchmarkResult 序列化基准测试结果
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/28 11:00
+ */
+@Getter
+@Builder
+@ToString
+public class SerializerBenchmarkResult {
+
+    /**
+     * 序列化器名称
+     */
+    private final String name;
+
+    /**
+     * 序列化后字节数
+     */
+    private final int size;
+
+    /**
+     * 平均序列化耗时（纳秒）
+     */
+    private final long serializeNanos;
+
+    /**
+     * 平均反序列化耗时（纳秒）
+     */
+    private final long deserializeNanos;
+
+}
@@ -0,0 +1,75 @@
+package cn.fxbin.bubble.data.redis.serializer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JSON 与 Smile（含各压缩算法）序列化体积与耗时对比
+ *
+ * @author fxbin
+ * @since 2025/12/28
+ */
+@Slf4j
+public class SerializerBenchmarkTest {
+
+    // 配置参数
+    private static final int ENTRIES = 200;
+    private static final int ITERATIONS = 2000;
+    private static final int COMPRESSION_THRESHOLD = 1024;
+
+    @Test
+    void benchmarkSerializers() {
+        Map<String, RedisSerializer<Object>> serializers = new LinkedHashMap<>();
+        serializers.put("json", new GenericJackson2JsonRedisSerializer());
+        serializers.put("smile", new BinaryRedisSerializer());
+        for (Compression compression : Compression.values()) {
+            if (compression != Compression.NONE && compression.isAvailable()) {
+                serializers.put("smile+" + compression.name().toLowerCase(),
+                        new BinaryRedisSerializer(compression, COMPRESSION_THRESHOLD));
+            }
+        }
+
+        List<SerializerBenchmarkResult> results = SerializerBenchmark.run(serializers, sample(), ITERATIONS);
+
+        results.forEach(result -> log.info("序列化器：{}，体积：{} bytes，序列化：{} ns/op，反序列化：{} ns/op",
+                result.getName(), result.getSize(), result.getSerializeNanos(), result.getDeserializeNanos()));
+        assertThat(results).extracting(SerializerBenchmarkResult::getName)
+                .containsExactlyElementsOf(serializers.keySet());
+        int jsonSize = results.getFirst().getSize();
+        assertThat(results).filteredOn(result -> result.getName().startsWith("smile"))
+                .allSatisfy(result -> assertThat(result.getSize()).isLessThan(jsonSize));
+    }
+
+    /**
+     * 模拟的缓存对象：数字、字符串、列表与嵌套对象混合
+     */
+    private static Map<String, Object> sample() {
+        Map<String, Object> sample = new HashMap<>(ENTRIES);
+        for (int i = 0; i < ENTRIES; i++) {
+            switch (i % 4) {
+                case 0 -> sample.put("count_" + i, (long) i * 1_000);
+                case 1 -> sample.put("name_" + i, "cached text value " + i);
+                case 2 -> {
+                    List<Object> items = new ArrayList<>();
+                    for (int k = 0; k < 5; k++) {
+                        items.add("item_" + k);
+                    }
+                    sample.put("items_" + i, items);
+                }
+                default -> sample.put("result_" + i, Map.of("status", "SUCCESS", "score", i / 10.0));
+            }
+        }
+        return sample;
+    }
+
+}
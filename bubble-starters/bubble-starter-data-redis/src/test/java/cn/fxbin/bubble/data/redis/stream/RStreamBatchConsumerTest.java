@@ -0,0 +1,71 @@
+package cn.fxbin.bubble.data.redis.stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RStreamBatchConsumerTest {
+
+    @Test
+    void shouldHoldRecordsBehindFailedOneAcrossBatches() {
+        RStreamBatchConsumer consumer = consumer("orderId", false);
+        MapRecord<String, String, byte[]> a1 = record("1-0", "a");
+        MapRecord<String, String, byte[]> b1 = record("2-0", "b");
+        MapRecord<String, String, byte[]> a2 = record("3-0", "a");
+        // a1 处理失败，同批次的 a2 被跳过
+        consumer.blockFailed(List.of(a1, b1, a2), List.of(b1.getId()));
+        assertThat(consumer.blockedKeyCount()).isEqualTo(1);
+
+        MapRecord<String, String, byte[]> a3 = record("4-0", "a");
+        MapRecord<String, String, byte[]> b2 = record("5-0", "b");
+        assertThat(consumer.holdBlocked(List.of(a3, b2))).containsExactly(b2);
+
+        // a1 重新投递成功后，a2、a3 仍未确认，分区键保持阻塞
+        consumer.releaseBlocked(Set.of(a2.getId(), a3.getId()));
+        assertThat(consumer.holdBlocked(List.of(record("6-0", "a")))).isEmpty();
+
+        consumer.releaseBlocked(Set.of());
+        assertThat(consumer.blockedKeyCount()).isZero();
+        MapRecord<String, String, byte[]> a4 = record("7-0", "a");
+        assertThat(consumer.holdBlocked(List.of(a4))).containsExactly(a4);
+    }
+
+    @Test
+    void shouldNotBlockWithoutPartitionField() {
+        RStreamBatchConsumer consumer = consumer("", false);
+        MapRecord<String, String, byte[]> a1 = record("1-0", "a");
+
+        consumer.blockFailed(List.of(a1), List.of());
+
+        assertThat(consumer.blockedKeyCount()).isZero();
+    }
+
+    @Test
+    void shouldNotBlockWithAutoAcknowledge() {
+        RStreamBatchConsumer consumer = consumer("orderId", true);
+        MapRecord<String, String, byte[]> a1 = record("1-0", "a");
+
+        consumer.blockFailed(List.of(a1), List.of());
+
+        assertThat(consumer.blockedKeyCount()).isZero();
+    }
+
+    private static RStreamBatchConsumer consumer(String partitionField, boolean autoAcknowledge) {
+        return new RStreamBatchConsumer(null, "orders", Consumer.from("group", "consumer"), 10, Duration.ofSeconds(1),
+                2, partitionField, autoAcknowledge, Runnable::run, records -> List.of());
+    }
+
+    private static MapRecord<String, String, byte[]> record(String id, String orderId) {
+        return MapRecord.create("orders", Map.of("orderId", orderId.getBytes(StandardCharsets.UTF_8)))
+                .withId(RecordId.of(id));
+    }
+}
@@ -10,63 +10,131 @@ import java.util.*;
  * 依赖关系图
  * 用于管理工作流节点间的依赖关系，支持依赖分析和循环依赖检测
  *
+ * <p>
+ *     内部以整数编号存储节点，邻接关系压缩为数组（CSR）。首次查询时计算传递闭包位图（每个节点的全部可达节点），
+ *     {@link #hasDependency(String, String)} 为常数时间；图发生修改后索引重新计算。
+ *     闭包占用 n&sup2;/8 字节，10000 个节点约 12MB。
+ * </p>
+ *
  * @author fxbin
  * @version v1.0
  * @since 2025/4/17 11:22
  */
 public class DependencyGraph {
 
+    private static final int[] EMPTY = new int[0];
+
+    /**
+     * 节点ID -&gt; 节点编号
+     */
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    /**
+     * 节点编号 -&gt; 节点ID
+     */
+    private final List<String> nodeIds = new ArrayList<>();
+
     /**
-     * 邻接表，存储节点的直接后继节点
-     * key: 当前节点ID
-     * value: 当前节点的所有直接后继节点ID集合
+     * 边的源节点编号
      */
-    private final Map<String, Set<String>> adjacencyList = new HashMap<>();
+    private int[] edgeSources = new int[16];
 
     /**
-     * 反向邻接表，存储节点的直接前驱节点
-     * key: 当前节点ID
-     * value: 当前节点的所有直接前驱节点ID集合
+     * 边的目标节点编号
      */
-    private final Map<String, Set<String>> reverseAdjacencyList = new HashMap<>();
+    private int[] edgeTargets = new int[16];
+
+    private int edgeCount;
+
+    /**
+     * 查询索引，图修改后置空
+     */
+    private Index index;
 
     /**
      * 添加节点到依赖图中
-     * 为正向和反向邻接表初始化空的依赖集合
      *
      * @param nodeId 待添加的节点ID
      */
     public void addNode(String nodeId) {
-        adjacencyList.putIfAbsent(nodeId, new HashSet<>());
-        reverseAdjacencyList.putIfAbsent(nodeId, new HashSet<>());
+        if (indexes.putIfAbsent(nodeId, nodeIds.size()) == null) {
+            nodeIds.add(nodeId);
+            index = null;
+        }
     }
 
     /**
      * 添加节点间的依赖关系
-     * 同时更新正向和反向邻接表
      *
      * @param source 源节点ID（依赖方）
      * @param target 目标节点ID（被依赖方）
      */
     public void addEdge(String source, String target) {
-        adjacencyList.get(source).add(target);
-        reverseAdjacencyList.get(target).add(source);
+        int sourceIndex = indexOf(source);
+        int targetIndex = indexOf(target);
+        if (edgeCount == edgeSources.length) {
+            edgeSources = Arrays.copyOf(edgeSources, edgeCount << 1);
+            edgeTargets = Arrays.copyOf(edgeTargets, edgeCount << 1);
+        }
+        edgeSources[edgeCount] = sourceIndex;
+        edgeTargets[edgeCount] = targetIndex;
+        edgeCount++;
+        index = null;
+    }
+
+    /**
+     * 节点数
+     *
+     * @return int
+     */
+    public int size() {
+        return nodeIds.size();
+    }
+
+    /**
+     * 获取指定节点的直接前驱节点
+     *
+     * @param nodeId 目标节点ID
+     * @return 直接前驱节点ID列表
+     */
+    public List<String> getPredecessors(String nodeId) {
+        int[] predecessors = index().predecessors[indexOf(nodeId)];
+        List<String> result = new ArrayList<>(predecessors.length);
+        for (int predecessor : predecessors) {
+            result.add(nodeIds.get(predecessor));
+        }
+        return result;
     }
 
     /**
      * 获取指定节点的所有祖先节点（所有上游依赖节点）
-     * 使用广度优先搜索遍历反向邻接表获取所有前驱节点
+     * 使用广度优先搜索遍历反向邻接数组获取所有前驱节点
      *
      * @param nodeId 目标节点ID
      * @return 包含所有祖先节点ID的集合
      */
     public Set<String> getAllAncestors(String nodeId) {
+        Index idx = index();
+        int n = nodeIds.size();
+        boolean[] visited = new boolean[n];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
         Set<String> ancestors = new HashSet<>();
-        Queue<String> queue = new LinkedList<>(reverseAdjacencyList.get(nodeId));
-        while (!queue.isEmpty()) {
-            String current = queue.poll();
-            if (ancestors.add(current)) {
-                queue.addAll(reverseAdjacencyList.get(current));
+        for (int predecessor : idx.predecessors[indexOf(nodeId)]) {
+            if (!visited[predecessor]) {
+                visited[predecessor] = true;
+                queue[tail++] = predecessor;
+            }
+        }
+        while (head < tail) {
+            int current = queue[head++];
+            ancestors.add(nodeIds.get(current));
+            for (int predecessor : idx.predecessors[current]) {
+                if (!visited[predecessor]) {
+                    visited[predecessor] = true;
+                    queue[tail++] = predecessor;
+                }
             }
         }
         return ancestors;
@@ -74,21 +142,32 @@ public class DependencyGraph {
 
     /**
      * 检查两个节点之间是否存在依赖关系
-     * 通过分析两个节点的祖先节点集合来判断是否存在直接或间接依赖
+     * 通过传递闭包位图判断是否存在直接或间接依赖
      *
      * @param nodeA 第一个节点ID
      * @param nodeB 第二个节点ID
      * @return 如果存在依赖关系返回true，否则返回false
      */
     public boolean hasDependency(String nodeA, String nodeB) {
-        Set<String> ancestorsA = getAllAncestors(nodeA);
-        Set<String> ancestorsB = getAllAncestors(nodeB);
-        return ancestorsA.contains(nodeB) || ancestorsB.contains(nodeA);
+        return hasDependency(indexOf(nodeA), indexOf(nodeB));
     }
 
     /**
-     * 从指定节点出发进行拓扑排序（Kahn算法）
+     * 检查 nodeA 是否可达 nodeB（nodeB 直接或间接依赖 nodeA）
+     *
+     * @param nodeA 上游节点ID
+     * @param nodeB 下游节点ID
+     * @return boolean
      */
+    public boolean reaches(String nodeA, String nodeB) {
+        return index().reaches(indexOf(nodeA), indexOf(nodeB));
+    }
+
+    private boolean hasDependency(int a, int b) {
+        Index idx = index();
+        return idx.reaches(a, b) || idx.reaches(b, a);
+    }
+
     /**
      * 从指定节点出发进行拓扑排序（Kahn算法）
      * ```mermaid
@@ -115,42 +194,234 @@ public class DependencyGraph {
      * @throws CycleDetectedException 当检测到循环依赖时抛出
      */
     public List<String> topologicalSortFromNode(String startNode) {
-        Map<String, Integer> inDegree = new HashMap<>();
-        Queue<String> queue = new LinkedList<>();
-        List<String> result = new ArrayList<>();
-
-        // 初始化入度
-        adjacencyList.keySet().forEach(node -> inDegree.put(node, 0));
-        adjacencyList.values().forEach(targets ->
-                targets.forEach(target ->
-                        inDegree.put(target, inDegree.getOrDefault(target, 0) + 1)
-                )
-        );
-
+        Index idx = index();
+        Integer start = indexes.get(startNode);
         // 仅从 startNode 开始处理（确保其入度为0）
-        if (inDegree.getOrDefault(startNode, -1) != 0) {
+        if (start == null || idx.predecessors[start].length != 0) {
             throw new IllegalArgumentException("起始节点必须无依赖");
         }
-        queue.add(startNode);
+
+        int n = nodeIds.size();
+        int[] inDegree = new int[n];
+        for (int i = 0; i < n; i++) {
+            inDegree[i] = idx.predecessors[i].length;
+        }
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
 
         // BFS遍历
-        while (!queue.isEmpty()) {
-            String node = queue.poll();
-            result.add(node);
-            for (String neighbor : adjacencyList.get(node)) {
-                inDegree.put(neighbor, inDegree.get(neighbor) - 1);
-                if (inDegree.get(neighbor) == 0) {
-                    queue.add(neighbor);
+        while (head < tail) {
+            int node = queue[head++];
+            for (int neighbor : idx.successors[node]) {
+                if (--inDegree[neighbor] == 0) {
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+
+        if (tail != n) {
+            throw new CycleDetectedException("流程存在循环依赖");
+        }
+        List<String> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            result.add(nodeIds.get(queue[i]));
+        }
+        return result;
+    }
+
+    /**
+     * 从所有无依赖的节点出发进行拓扑排序（Kahn算法），用于存在多个源节点的图
+     *
+     * @return 全部节点的拓扑排序结果
+     * @throws CycleDetectedException 当检测到循环依赖时抛出
+     */
+    public List<String> topologicalSort() {
+        Index idx = index();
+        int n = nodeIds.size();
+        int[] inDegree = new int[n];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < n; i++) {
+            inDegree[i] = idx.predecessors[i].length;
+            if (inDegree[i] == 0) {
+                queue[tail++] = i;
+            }
+        }
+        while (head < tail) {
+            int node = queue[head++];
+            for (int neighbor : idx.successors[node]) {
+                if (--inDegree[neighbor] == 0) {
+                    queue[tail++] = neighbor;
                 }
             }
         }
 
-        if (result.size() != adjacencyList.size()) {
+        if (tail != n) {
             throw new CycleDetectedException("流程存在循环依赖");
         }
+        List<String> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            result.add(nodeIds.get(queue[i]));
+        }
         return result;
     }
 
+    private int indexOf(String nodeId) {
+        Integer i = indexes.get(nodeId);
+        if (i == null) {
+            throw new IllegalArgumentException("节点不存在: " + nodeId);
+        }
+        return i;
+    }
+
+    private Index index() {
+        Index idx = index;
+        if (idx == null) {
+            idx = new Index(nodeIds.size(), edgeSources, edgeTargets, edgeCount);
+            index = idx;
+        }
+        return idx;
+    }
+
+    /**
+     * 查询索引：正反向邻接数组与传递闭包位图
+     */
+    private static final class Index {
+
+        private final int[][] successors;
+
+        private final int[][] predecessors;
+
+        /**
+         * 每个节点一行，第 b 位表示可达节点 b
+         */
+        private final long[] closure;
+
+        private final int words;
+
+        Index(int n, int[] sources, int[] targets, int edgeCount) {
+            this.successors = adjacency(n, sources, targets, edgeCount);
+            this.predecessors = adjacency(n, targets, sources, edgeCount);
+            this.words = (n + 63) >>> 6;
+            this.closure = new long[n * words];
+            buildClosure(n);
+        }
+
+        boolean reaches(int a, int b) {
+            return (closure[a * words + (b >>> 6)] & (1L << b)) != 0;
+        }
+
+        /**
+         * 按拓扑逆序合并后继节点的可达集合；环上及其上游的节点无法排序，逐个遍历计算
+         */
+        private void buildClosure(int n) {
+            int[] outDegree = new int[n];
+            int[] queue = new int[n];
+            int tail = 0;
+            for (int i = 0; i < n; i++) {
+                outDegree[i] = successors[i].length;
+                if (outDegree[i] == 0) {
+                    queue[tail++] = i;
+                }
+            }
+            boolean[] done = new boolean[n];
+            for (int head = 0; head < tail; head++) {
+                int node = queue[head];
+                for (int successor : successors[node]) {
+                    merge(node, successor);
+                }
+                done[node] = true;
+                for (int predecessor : predecessors[node]) {
+                    if (--outDegree[predecessor] == 0) {
+                        queue[tail++] = predecessor;
+                    }
+                }
+            }
+            if (tail == n) {
+                return;
+            }
+            boolean[] visited = new boolean[n];
+            int[] stack = new int[n];
+            for (int node = 0; node < n; node++) {
+                if (done[node]) {
+                    continue;
+                }
+                Arrays.fill(visited, false);
+                int top = 0;
+                stack[top++] = node;
+                while (top > 0) {
+                    int current = stack[--top];
+                    for (int successor : successors[current]) {
+                        if (visited[successor]) {
+                            continue;
+                        }
+                        visited[successor] = true;
+                        set(node, successor);
+                        if (done[successor]) {
+                            or(node, successor);
+                        } else {
+                            stack[top++] = successor;
+                        }
+                    }
+                }
+            }
+        }
+
+        private void merge(int node, int successor) {
+            set(node, successor);
+            or(node, successor);
+        }
+
+        private void set(int node, int target) {
+            closure[node * words + (target >>> 6)] |= 1L << target;
+        }
+
+        private void or(int node, int other) {
+            int to = node * words;
+            int from = other * words;
+            for (int w = 0; w < words; w++) {
+                closure[to + w] |= closure[from + w];
+            }
+        }
+
+        private static int[][] adjacency(int n, int[] from, int[] to, int edgeCount) {
+            int[] degree = new int[n];
+            for (int e = 0; e < edgeCount; e++) {
+                degree[from[e]]++;
+            }
+            int[][] adjacency = new int[n][];
+            for (int i = 0; i < n; i++) {
+                adjacency[i] = degree[i] == 0 ? EMPTY : new int[degree[i]];
+                degree[i] = 0;
+            }
+            for (int e = 0; e < edgeCount; e++) {
+                int f = from[e];
+                int t = to[e];
+                int[] row = adjacency[f];
+                // 忽略重复边
+                boolean duplicate = false;
+                for (int k = 0; k < degree[f]; k++) {
+                    if (row[k] == t) {
+                        duplicate = true;
+                        break;
+                    }
+                }
+                if (!duplicate) {
+                    row[degree[f]++] = t;
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                if (degree[i] != adjacency[i].length) {
+                    adjacency[i] = Arrays.copyOf(adjacency[i], degree[i]);
+                }
+            }
+            return adjacency;
+        }
+    }
+
     /**
      * 拓扑排序
      * 控制流图
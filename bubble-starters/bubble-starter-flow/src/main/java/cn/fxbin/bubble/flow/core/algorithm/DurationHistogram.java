@@ -0,0 +1,163 @@
+package cn.fxbin.bubble.flow.core.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * DurationHistogram 耗时直方图
+ *
+ * <p>
+ *     对数分桶的可合并直方图：小于 4ms 每毫秒一个桶，之后每个 2 的幂区间等分为 4 个桶，桶宽不超过下界的 25%。
+ *     同一分桶方式的直方图按桶相加即可合并，用于在汇总数据上估算分位数。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/31 14:00
+ */
+public final class DurationHistogram {
+
+    private static final int SUB_BUCKETS = 4;
+
+    private static final int SUB_BUCKET_BITS = 2;
+
+    private long[] counts;
+
+    private long totalCount;
+
+    public DurationHistogram() {
+        this.counts = new long[0];
+    }
+
+    /**
+     * 从桶计数恢复直方图
+     *
+     * @param counts 桶计数，可为 null
+     * @return {@link DurationHistogram}
+     */
+    public static DurationHistogram of(List<Long> counts) {
+        DurationHistogram histogram = new DurationHistogram();
+        if (counts != null) {
+            histogram.counts = new long[counts.size()];
+            for (int i = 0; i < counts.size(); i++) {
+                long count = counts.get(i) == null ? 0 : counts.get(i);
+                histogram.counts[i] = count;
+                histogram.totalCount += count;
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * 记录一次耗时
+     *
+     * @param durationMs 耗时（毫秒），负数按 0 记录
+     */
+    public void record(long durationMs) {
+        int index = indexOf(Math.max(0, durationMs));
+        ensureCapacity(index + 1);
+        counts[index]++;
+        totalCount++;
+    }
+
+    /**
+     * 合并另一个直方图
+     *
+     * @param other 直方图
+     * @return this
+     */
+    public DurationHistogram merge(DurationHistogram other) {
+        ensureCapacity(other.counts.length);
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        return this;
+    }
+
+    /**
+     * 估算分位数（最近秩法），返回所在桶的中点
+     *
+     * @param quantile 分位，0 ~ 1
+     * @param minMs    实际最小耗时，用于约束估算值，未知时传 null
+     * @param maxMs    实际最大耗时，用于约束估算值，未知时传 null
+     * @return 耗时（毫秒），无数据时返回 null
+     */
+    public Long percentile(double quantile, Long minMs, Long maxMs) {
+        if (totalCount == 0) {
+            return null;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                long estimate = (lowerBound(i) + upperBound(i) - 1) / 2;
+                if (minMs != null) {
+                    estimate = Math.max(estimate, minMs);
+                }
+                if (maxMs != null) {
+                    estimate = Math.min(estimate, maxMs);
+                }
+                return estimate;
+            }
+        }
+        return maxMs;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * 获取桶计数（去除末尾的空桶）
+     *
+     * @return 桶计数
+     */
+    public List<Long> toList() {
+        int length = counts.length;
+        while (length > 0 && counts[length - 1] == 0) {
+            length--;
+        }
+        List<Long> list = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            list.add(counts[i]);
+        }
+        return list;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int octave = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (octave - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (octave - SUB_BUCKET_BITS) * SUB_BUCKETS + sub;
+    }
+
+    static long lowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int octave = (index - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+        int sub = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << (octave - SUB_BUCKET_BITS);
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index + 1L;
+        }
+        int octave = (index - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+        int sub = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub + 1) << (octave - SUB_BUCKET_BITS);
+    }
+
+    private void ensureCapacity(int length) {
+        if (counts.length < length) {
+            counts = Arrays.copyOf(counts, length);
+        }
+    }
+
+}
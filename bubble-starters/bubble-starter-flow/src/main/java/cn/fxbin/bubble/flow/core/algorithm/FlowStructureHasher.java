@@ -0,0 +1,140 @@
+package cn.fxbin.bubble.flow.core.algorithm;
+
+import cn.fxbin.bubble.flow.core.model.FlowChain;
+import cn.fxbin.bubble.flow.core.model.FlowStructureHash;
+import cn.fxbin.bubble.flow.core.model.entity.FlowEdge;
+import cn.fxbin.bubble.flow.core.model.entity.FlowNode;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * FlowStructureHasher 流程快照结构哈希计算
+ *
+ * <p>
+ *     节点哈希覆盖名称、类型、配置与画布位置，边哈希覆盖起止节点，与版本对比判断节点 / 边是否修改的字段一致；
+ *     集合哈希按 ID 排序后对 (ID, 哈希) 计算，与列表顺序无关。哈希取 SHA-256 的前 128 位。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2026/1/6 10:00
+ */
+public final class FlowStructureHasher {
+
+    /**
+     * 当前哈希算法版本
+     */
+    public static final int ALGORITHM_VERSION = 1;
+
+    private static final int HASH_BYTES = 16;
+
+    private FlowStructureHasher() {
+    }
+
+    /**
+     * 计算快照的结构哈希，ID 为空的节点与边不参与计算
+     *
+     * @param snapshot 流程快照，可为 null
+     * @return {@link FlowStructureHash}
+     */
+    public static FlowStructureHash hash(FlowChain snapshot) {
+        Map<String, String> nodes = new TreeMap<>();
+        Map<Long, String> edges = new TreeMap<>();
+        if (snapshot != null) {
+            nullToEmpty(snapshot.getNodes()).stream()
+                    .filter(node -> node != null && node.getId() != null)
+                    .forEach(node -> nodes.put(node.getId(), nodeHash(node)));
+            nullToEmpty(snapshot.getEdges()).stream()
+                    .filter(edge -> edge != null && edge.getId() != null)
+                    .forEach(edge -> edges.put(edge.getId(), edgeHash(edge)));
+        }
+        String nodesRoot = rootHash(nodes);
+        String edgesRoot = rootHash(edges);
+        return new FlowStructureHash(ALGORITHM_VERSION, digest(nodesRoot, edgesRoot), nodesRoot, edgesRoot, nodes, edges);
+    }
+
+    /**
+     * 结构哈希是否可用（存在且为当前算法版本）
+     *
+     * @param structureHash 结构哈希，可为 null
+     * @return boolean
+     */
+    public static boolean isCurrent(FlowStructureHash structureHash) {
+        return structureHash != null
+                && Objects.equals(structureHash.getAlgorithmVersion(), ALGORITHM_VERSION)
+                && structureHash.getRoot() != null
+                && structureHash.getNodes() != null
+                && structureHash.getEdges() != null;
+    }
+
+    /**
+     * 计算节点哈希
+     *
+     * @param node 节点
+     * @return 节点哈希
+     */
+    public static String nodeHash(FlowNode node) {
+        return digest(node.getName(),
+                node.getNodeType() != null ? node.getNodeType().name() : null,
+                node.getConfig(),
+                node.getPosition());
+    }
+
+    /**
+     * 计算边哈希
+     *
+     * @param edge 边
+     * @return 边哈希
+     */
+    public static String edgeHash(FlowEdge edge) {
+        return digest(edge.getSourceNodeId(), edge.getTargetNodeId());
+    }
+
+    private static String rootHash(Map<?, String> children) {
+        String[] parts = new String[children.size() * 2];
+        int i = 0;
+        for (Map.Entry<?, String> child : children.entrySet()) {
+            parts[i++] = String.valueOf(child.getKey());
+            parts[i++] = child.getValue();
+        }
+        return digest(parts);
+    }
+
+    /**
+     * 各部分按 长度:内容 拼接后计算哈希，null 记为长度 -1，保证不同的字段组合不会拼出相同的输入
+     */
+    private static String digest(String... parts) {
+        MessageDigest digest = newDigest();
+        StringBuilder buffer = new StringBuilder();
+        for (String part : parts) {
+            if (part == null) {
+                buffer.append("-1:");
+            } else {
+                buffer.append(part.length()).append(':').append(part);
+            }
+        }
+        byte[] hash = digest.digest(buffer.toString().getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(Arrays.copyOf(hash, HASH_BYTES));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+}
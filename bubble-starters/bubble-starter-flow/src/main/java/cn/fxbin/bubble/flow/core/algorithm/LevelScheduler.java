@@ -0,0 +1,101 @@
+package cn.fxbin.bubble.flow.core.algorithm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LevelScheduler 层级调度
+ *
+ * <p>
+ *     按最长前驱路径为节点分层（ASAP），同一层级的节点构成反链，可全部并行执行，层级之间顺序执行。
+ *     所有无依赖的节点都从第 0 层开始，不同源节点出发的独立分支在同一层级中并行。
+ *     结合节点的历史耗时计算关键路径与预估总耗时。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/29 17:00
+ */
+public class LevelScheduler {
+
+    /**
+     * 生成层级调度计划
+     *
+     * @param graph          依赖图
+     * @param startNode      开始节点ID，必须无依赖
+     * @param durations      节点ID -&gt; 历史平均耗时（毫秒）
+     * @param defaultDuration 无历史耗时节点的默认耗时（毫秒）
+     * @return {@link SchedulePlan}，不包含 EL
+     */
+    public SchedulePlan schedule(DependencyGraph graph, String startNode, Map<String, Long> durations, long defaultDuration) {
+        if (!graph.getPredecessors(startNode).isEmpty()) {
+            throw new IllegalArgumentException("起始节点必须无依赖");
+        }
+        // 从所有源节点拓扑排序，同时校验循环依赖
+        List<String> sortedNodeIds = graph.topologicalSort();
+
+        Map<String, Integer> levelOf = new HashMap<>(sortedNodeIds.size());
+        Map<String, Long> finishAt = new HashMap<>(sortedNodeIds.size());
+        Map<String, String> criticalPredecessor = new HashMap<>(sortedNodeIds.size());
+        List<List<String>> levels = new ArrayList<>();
+        List<Long> levelDurations = new ArrayList<>();
+        long serial = 0;
+        int estimated = 0;
+        String criticalEnd = null;
+
+        for (String nodeId : sortedNodeIds) {
+            Long history = durations.get(nodeId);
+            if (history == null) {
+                estimated++;
+            }
+            long duration = history == null ? defaultDuration : history;
+            serial += duration;
+
+            int level = 0;
+            long start = 0;
+            String predecessorOnPath = null;
+            for (String predecessor : graph.getPredecessors(nodeId)) {
+                level = Math.max(level, levelOf.get(predecessor) + 1);
+                long predecessorFinish = finishAt.get(predecessor);
+                if (predecessorOnPath == null || predecessorFinish > start) {
+                    start = predecessorFinish;
+                    predecessorOnPath = predecessor;
+                }
+            }
+            levelOf.put(nodeId, level);
+            finishAt.put(nodeId, start + duration);
+            if (predecessorOnPath != null) {
+                criticalPredecessor.put(nodeId, predecessorOnPath);
+            }
+            if (criticalEnd == null || start + duration > finishAt.get(criticalEnd)) {
+                criticalEnd = nodeId;
+            }
+
+            if (level == levels.size()) {
+                levels.add(new ArrayList<>());
+                levelDurations.add(0L);
+            }
+            levels.get(level).add(nodeId);
+            levelDurations.set(level, Math.max(levelDurations.get(level), duration));
+        }
+
+        List<String> criticalPath = new ArrayList<>();
+        for (String nodeId = criticalEnd; nodeId != null; nodeId = criticalPredecessor.get(nodeId)) {
+            criticalPath.add(nodeId);
+        }
+        Collections.reverse(criticalPath);
+
+        return SchedulePlan.builder()
+                .levels(levels)
+                .criticalPath(criticalPath)
+                .criticalPathMs(criticalEnd == null ? 0 : finishAt.get(criticalEnd))
+                .estimatedMakespanMs(levelDurations.stream().mapToLong(Long::longValue).sum())
+                .serialDurationMs(serial)
+                .estimatedNodeCount(estimated)
+                .build();
+    }
+
+}
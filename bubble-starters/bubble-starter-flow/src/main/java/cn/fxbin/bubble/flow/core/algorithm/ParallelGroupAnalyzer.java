@@ -5,7 +5,6 @@ import cn.fxbin.bubble.flow.core.model.entity.FlowEdge;
 import cn.fxbin.bubble.flow.core.model.entity.FlowNode;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -27,7 +26,16 @@ public class ParallelGroupAnalyzer {
         DependencyGraph graph = new DependencyGraph();
         nodes.forEach(node -> graph.addNode(node.getId()));
         edges.forEach(edge -> graph.addEdge(edge.getSourceNodeId(), edge.getTargetNodeId()));
+        analyzeAndAssignGroups(edges, graph);
+    }
 
+    /**
+     * 基于已构建的依赖图识别可并行边并分配组ID
+     *
+     * @param edges 边列表
+     * @param graph 依赖图
+     */
+    public void analyzeAndAssignGroups(List<FlowEdge> edges, DependencyGraph graph) {
         // 按源节点分组
         Map<String, List<FlowEdge>> edgesBySource = edges.stream()
                 .collect(Collectors.groupingBy(FlowEdge::getSourceNodeId));
@@ -49,21 +57,24 @@ public class ParallelGroupAnalyzer {
 
     /**
      * 找出同一源节点下无互相依赖的边
+     * 依次选取未被排除的边，并排除与其存在依赖关系的后续边
      */
     private List<FlowEdge> findParallelEdges(List<FlowEdge> edges, DependencyGraph graph) {
-        List<FlowEdge> candidates = new ArrayList<>(edges);
+        int size = edges.size();
+        boolean[] excluded = new boolean[size];
         List<FlowEdge> parallelEdges = new ArrayList<>();
 
-        while (!candidates.isEmpty()) {
-            FlowEdge current = candidates.remove(0);
+        for (int i = 0; i < size; i++) {
+            if (excluded[i]) {
+                continue;
+            }
+            FlowEdge current = edges.get(i);
             parallelEdges.add(current);
 
-            // 使用 graph.hasDependency 判断依赖关系
-            Iterator<FlowEdge> iterator = candidates.iterator();
-            while (iterator.hasNext()) {
-                FlowEdge other = iterator.next();
-                if (graph.hasDependency(current.getTargetNodeId(), other.getTargetNodeId())) {
-                    iterator.remove();
+            // 使用 graph.hasDependency 判断依赖关系（传递闭包，常数时间）
+            for (int j = i + 1; j < size; j++) {
+                if (!excluded[j] && graph.hasDependency(current.getTargetNodeId(), edges.get(j).getTargetNodeId())) {
+                    excluded[j] = true;
                 }
             }
         }
@@ -0,0 +1,65 @@
+package cn.fxbin.bubble.flow.core.algorithm;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * SchedulePlan 层级调度计划
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/29 17:00
+ */
+@Getter
+@Builder(toBuilder = true)
+@ToString
+public class SchedulePlan {
+
+    /**
+     * 按层级分组的节点ID，同一层级内的节点互不依赖
+     */
+    private final List<List<String>> levels;
+
+    /**
+     * 关键路径（按执行顺序的节点ID）
+     */
+    private final List<String> criticalPath;
+
+    /**
+     * 关键路径预估耗时（毫秒），即理想并行下的耗时下限
+     */
+    private final long criticalPathMs;
+
+    /**
+     * 按层级执行的预估耗时（毫秒），各层级最长节点耗时之和
+     */
+    private final long estimatedMakespanMs;
+
+    /**
+     * 全部节点串行执行的预估耗时（毫秒）
+     */
+    private final long serialDurationMs;
+
+    /**
+     * 缺少历史耗时、使用默认值估算的节点数
+     */
+    private final int estimatedNodeCount;
+
+    /**
+     * 生成的 EL 表达式
+     */
+    private final String el;
+
+    /**
+     * 相对串行执行的预估加速比
+     *
+     * @return double
+     */
+    public double getSpeedup() {
+        return estimatedMakespanMs == 0 ? 1 : (double) serialDurationMs / estimatedMakespanMs;
+    }
+
+}
@@ -2,9 +2,14 @@ package cn.fxbin.bubble.flow.core.builder;
 
 import cn.fxbin.bubble.core.exception.ServiceException;
 import cn.fxbin.bubble.flow.core.algorithm.DependencyGraph;
+import cn.fxbin.bubble.flow.core.algorithm.LevelScheduler;
 import cn.fxbin.bubble.flow.core.algorithm.ParallelGroupAnalyzer;
+import cn.fxbin.bubble.flow.core.algorithm.SchedulePlan;
+import cn.fxbin.bubble.flow.core.config.FlowProperties;
+import cn.fxbin.bubble.flow.core.enums.FlowScheduleMode;
 import cn.fxbin.bubble.flow.core.enums.PluginType;
 import cn.fxbin.bubble.flow.core.mapper.FlowEdgeMapper;
+import cn.fxbin.bubble.flow.core.mapper.FlowNodeExecutionLogMapper;
 import cn.fxbin.bubble.flow.core.mapper.FlowNodeMapper;
 import cn.fxbin.bubble.flow.core.model.entity.FlowEdge;
 import cn.fxbin.bubble.flow.core.model.entity.FlowNode;
@@ -16,6 +21,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -33,11 +39,14 @@ public class FlowExpressionBuilder {
 
     private final FlowNodeMapper flowNodeMapper;
     private final FlowEdgeMapper flowEdgeMapper;
+    private final FlowNodeExecutionLogMapper flowNodeExecutionLogMapper;
+    private final FlowProperties flowProperties;
 
     private final ParallelGroupAnalyzer parallelGroupAnalyzer = new ParallelGroupAnalyzer();
+    private final LevelScheduler levelScheduler = new LevelScheduler();
 
     /**
-     * 根据流程ID构建流程表达式
+     * 根据流程ID构建流程表达式，按 bubble.flow.schedule.mode 选择生成方式
      *
      * @param flowId 流程ID
      * @return 流程表达式
@@ -45,9 +54,56 @@ public class FlowExpressionBuilder {
     public String buildExpression(Long flowId) {
         List<FlowNode> nodes = flowNodeMapper.selectList(FlowNode::getFlowId, flowId);
         List<FlowEdge> edges = flowEdgeMapper.selectList(FlowEdge::getFlowId, flowId);
+        if (FlowScheduleMode.LEVEL == flowProperties.getSchedule().getMode()) {
+            return buildLevelPlan(nodes, edges, loadNodeDurations(flowId)).getEl();
+        }
         return buildExpression(nodes, edges);
     }
 
+    /**
+     * 分析流程的层级调度计划
+     * <p>基于历史节点耗时估算关键路径与总耗时，可在发布前评估并行化收益</p>
+     *
+     * @param flowId 流程ID
+     * @return 层级调度计划
+     */
+    public SchedulePlan analyzeSchedule(Long flowId) {
+        List<FlowNode> nodes = flowNodeMapper.selectList(FlowNode::getFlowId, flowId);
+        List<FlowEdge> edges = flowEdgeMapper.selectList(FlowEdge::getFlowId, flowId);
+        return buildLevelPlan(nodes, edges, loadNodeDurations(flowId));
+    }
+
+    /**
+     * 按 DAG 层级生成最大并行的调度计划与表达式
+     * <p>同一层级的节点互不依赖，使用 WHEN 并行；层级之间使用 THEN 顺序执行。
+     * 层级内有节点被后续节点依赖时不忽略错误，失败后不再执行其下游；只有末端节点组成的层级忽略错误</p>
+     *
+     * @param nodes     节点列表
+     * @param edges     边列表
+     * @param durations 节点ID -> 历史平均耗时（毫秒）
+     * @return 层级调度计划
+     */
+    public SchedulePlan buildLevelPlan(List<FlowNode> nodes, List<FlowEdge> edges, Map<String, Long> durations) {
+        DependencyGraph graph = buildDependencyGraph(nodes, edges);
+        FlowNode startNode = findStartNode(nodes);
+        SchedulePlan plan = levelScheduler.schedule(graph, startNode.getId(), durations,
+                flowProperties.getSchedule().getDefaultNodeDuration().toMillis());
+
+        Map<String, FlowNode> nodeMap = nodes.stream()
+                .collect(Collectors.toMap(FlowNode::getId, node -> node));
+        Set<String> upstreamNodeIds = edges.stream()
+                .map(FlowEdge::getSourceNodeId)
+                .collect(Collectors.toSet());
+        List<List<String>> levels = plan.getLevels();
+        ThenELWrapper el = ELBus.then(buildLevel(levels.get(0), nodeMap, upstreamNodeIds));
+        for (int i = 1; i < levels.size(); i++) {
+            el.then(buildLevel(levels.get(i), nodeMap, upstreamNodeIds));
+        }
+        log.debug("生成的层级流程表达式: {}, 预估耗时: {}ms, 关键路径耗时: {}ms",
+                el.toEL(), plan.getEstimatedMakespanMs(), plan.getCriticalPathMs());
+        return plan.toBuilder().el(el.toEL()).build();
+    }
+
 
     /**
      * 根据节点和边列表构建流程表达式
@@ -61,13 +117,10 @@ public class FlowExpressionBuilder {
         DependencyGraph graph = buildDependencyGraph(nodes, edges);
 
         // 2. 智能分析并行组
-        parallelGroupAnalyzer.analyzeAndAssignGroups(edges, nodes);
+        parallelGroupAnalyzer.analyzeAndAssignGroups(edges, graph);
 
         // 3. 从开始节点进行拓扑排序
-        FlowNode startNode = nodes.stream()
-                .filter(n -> PluginType.START_NODE == n.getNodeType())
-                .findFirst()
-                .orElseThrow(() -> new ServiceException("流程缺少开始节点"));
+        FlowNode startNode = findStartNode(nodes);
         List<String> sortedNodeIds = graph.topologicalSortFromNode(startNode.getId());
 
         // 4. 使用 LiteFlow EL Builder 生成表达式
@@ -152,10 +205,10 @@ public class FlowExpressionBuilder {
                                 .map(nodeMap::get)
                                 .collect(Collectors.toList());
 
-                        nextSteps.add(ELBus.when(buildNode(parallelNodes)).maxWaitSeconds(900).ignoreError(true));
+                        nextSteps.add(ELBus.when(buildNode(parallelNodes)).maxWaitSeconds(maxWaitSeconds()).ignoreError(true));
                     } else {
                         // 如果只有一个未处理的节点，直接添加
-                        nextSteps.add(ELBus.then(buildNode(nodeMap.get(unprocessedEdges.get(0).getTargetNodeId()))).maxWaitSeconds(900));
+                        nextSteps.add(ELBus.then(buildNode(nodeMap.get(unprocessedEdges.get(0).getTargetNodeId()))).maxWaitSeconds(maxWaitSeconds()));
                     }
                 }
             });
@@ -166,7 +219,7 @@ public class FlowExpressionBuilder {
                 // 检查目标节点是否已处理，避免重复添加
                 if (!processedTargetNodes.contains(targetNodeId)) {
                     processedTargetNodes.add(targetNodeId);
-                    nextSteps.add(ELBus.then(buildNode(nodeMap.get(targetNodeId))).maxWaitSeconds(900));
+                    nextSteps.add(ELBus.then(buildNode(nodeMap.get(targetNodeId))).maxWaitSeconds(maxWaitSeconds()));
                 }
             }
 
@@ -177,7 +230,7 @@ public class FlowExpressionBuilder {
             } else if (nextSteps.size() > 1) {
                 // 如果有多个下一步，使用WHEN
                 Object[] nextStepObjects = nextSteps.toArray();
-                el.then(ELBus.when(nextStepObjects).maxWaitSeconds(900).ignoreError(true));
+                el.then(ELBus.when(nextStepObjects).maxWaitSeconds(maxWaitSeconds()).ignoreError(true));
             }
         }
         
@@ -207,6 +260,53 @@ public class FlowExpressionBuilder {
     }
 
 
+    private FlowNode findStartNode(List<FlowNode> nodes) {
+        return nodes.stream()
+                .filter(n -> PluginType.START_NODE == n.getNodeType())
+                .findFirst()
+                .orElseThrow(() -> new ServiceException("流程缺少开始节点"));
+    }
+
+    /**
+     * 加载节点历史平均耗时，查询失败时按无历史处理
+     */
+    private Map<String, Long> loadNodeDurations(Long flowId) {
+        LocalDateTime since = LocalDateTime.now().minus(flowProperties.getSchedule().getHistoryWindow());
+        try {
+            Map<String, Long> durations = new HashMap<>();
+            for (Map<String, Object> row : flowNodeExecutionLogMapper.selectAvgNodeDurations(flowId, since)) {
+                if (row.get("nodeId") != null && row.get("avgDurationMs") instanceof Number avg) {
+                    durations.put(String.valueOf(row.get("nodeId")), avg.longValue());
+                }
+            }
+            return durations;
+        } catch (Exception e) {
+            log.warn("加载节点历史耗时失败, flowId: {}", flowId, e);
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * 构建一个层级，多个节点时使用 WHEN 并行
+     *
+     * @param nodeIds         层级内的节点ID
+     * @param nodeMap         节点ID -> 节点
+     * @param upstreamNodeIds 被其他节点依赖的节点ID
+     * @return 层级表达式
+     */
+    private ELWrapper buildLevel(List<String> nodeIds, Map<String, FlowNode> nodeMap, Set<String> upstreamNodeIds) {
+        if (nodeIds.size() == 1) {
+            return buildNode(nodeMap.get(nodeIds.get(0)));
+        }
+        List<FlowNode> levelNodes = nodeIds.stream().map(nodeMap::get).toList();
+        boolean terminal = nodeIds.stream().noneMatch(upstreamNodeIds::contains);
+        return ELBus.when(buildNode(levelNodes)).maxWaitSeconds(maxWaitSeconds()).ignoreError(terminal);
+    }
+
+    private int maxWaitSeconds() {
+        return flowProperties.getSchedule().getMaxWaitSeconds();
+    }
+
     private NodeELWrapper [] buildNode(List<FlowNode> flowNodeList) {
         return flowNodeList.stream().map(this::buildNode).toArray(NodeELWrapper[]::new);
     }
@@ -0,0 +1,131 @@
+package cn.fxbin.bubble.flow.core.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
+
+/**
+ * FlowCacheInvalidator 流程本地缓存失效广播
+ *
+ * <p>
+ *     流程保存、发布、删除时先使本节点的本地缓存失效，事务提交后再次失效并通过 Redis pub/sub 通知其他节点，
+ *     避免提交前被并发请求以旧数据重新填充。
+ *     Redis 等跨节点共享的缓存只由发起失效的节点清除一次，其他节点收到通知后只清除本地缓存，
+ *     避免各节点重复删除已被重新填充的共享缓存。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/29 14:00
+ */
+@Slf4j
+@Component
+public class FlowCacheInvalidator implements MessageListener {
+
+    /**
+     * 失效广播频道
+     */
+    public static final String CHANNEL = "bubble:flow:cache:invalidation";
+
+    private static final char SEPARATOR = ':';
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 节点标识，用于忽略本节点发出的广播
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final List<LongConsumer> listeners = new CopyOnWriteArrayList<>();
+
+    private final List<LongConsumer> sharedListeners = new CopyOnWriteArrayList<>();
+
+    public FlowCacheInvalidator(RedisConnectionFactory redisConnectionFactory) {
+        // 使用默认 String 序列化，避免容器中的 StringRedisTemplate 对消息做 JSON 编码
+        this.stringRedisTemplate = new StringRedisTemplate(redisConnectionFactory);
+    }
+
+    /**
+     * 注册本地缓存失效回调
+     *
+     * @param listener 参数为流程ID
+     */
+    public void register(LongConsumer listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 注册共享缓存失效回调，仅在发起失效的节点执行，先于本地缓存失效回调
+     *
+     * @param listener 参数为流程ID
+     */
+    public void registerShared(LongConsumer listener) {
+        sharedListeners.add(listener);
+    }
+
+    /**
+     * 使指定流程的缓存失效
+     *
+     * @param flowId 流程ID
+     */
+    public void invalidate(Long flowId) {
+        invalidateShared(flowId);
+        invalidateLocal(flowId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateShared(flowId);
+                    invalidateLocal(flowId);
+                    publish(flowId);
+                }
+            });
+        } else {
+            publish(flowId);
+        }
+    }
+
+    @Override
+    public void onMessage(@NonNull Message message, @Nullable byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int index = body.lastIndexOf(SEPARATOR);
+        if (index < 0 || nodeId.equals(body.substring(0, index))) {
+            return;
+        }
+        try {
+            invalidateLocal(Long.valueOf(body.substring(index + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("Ignore malformed flow cache invalidation message: {}", body);
+        }
+    }
+
+    private void invalidateShared(Long flowId) {
+        sharedListeners.forEach(listener -> listener.accept(flowId));
+    }
+
+    private void invalidateLocal(Long flowId) {
+        listeners.forEach(listener -> listener.accept(flowId));
+    }
+
+    private void publish(Long flowId) {
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, nodeId + SEPARATOR + flowId);
+        } catch (Exception e) {
+            log.warn("Publish flow cache invalidation failed, flowId: {}", flowId, e);
+        }
+    }
+
+}
@@ -4,23 +4,36 @@ import cn.fxbin.bubble.core.util.ApplicationContextHolder;
 import cn.fxbin.bubble.core.util.ObjectUtils;
 import cn.fxbin.bubble.core.util.StringUtils;
 import cn.fxbin.bubble.data.redis.RedisOperations;
+import cn.fxbin.bubble.flow.core.enums.PluginType;
 import cn.fxbin.bubble.flow.core.model.FlowChain;
 import cn.fxbin.bubble.flow.core.model.dto.FlowDefinitionDTO;
 import cn.fxbin.bubble.flow.core.model.entity.FlowEdge;
 import cn.fxbin.bubble.flow.core.model.entity.FlowNode;
 import cn.fxbin.bubble.flow.core.provider.FlowDefinitionProvider;
-import com.google.common.collect.Lists;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 /**
  * FlowNodeCache
  *
+ * <p>
+ *     本地缓存每个流程当前版本的 {@link FlowTopology} 快照，节点与前置节点查询在内存中完成；
+ *     Redis 仅作为跨节点共享的加载源，流程保存、发布、删除时经 {@link FlowCacheInvalidator} 广播失效。
+ *     本地快照写入后 {@link #LOCAL_EXPIRE} 过期，作为遗漏失效通知时的兜底。
+ * </p>
+ *
  * @author fxbin
  * @version v1.0
  * @since 2025/5/7 15:21
@@ -33,51 +46,90 @@ public class FlowNodeCache {
 
     private final FlowDefinitionProvider flowDefinitionProvider = ApplicationContextHolder.getBean(FlowDefinitionProvider.class);
 
+    private final FlowCacheInvalidator flowCacheInvalidator = ApplicationContextHolder.getBean(FlowCacheInvalidator.class);
+
     private final Long CACHE_EXPIRE_SECONDS = 3600L;
 
+    /**
+     * 本地快照过期时间
+     */
+    private final Duration LOCAL_EXPIRE = Duration.ofMinutes(10);
+
+    private final long LOCAL_MAXIMUM_SIZE = 1000L;
+
+    /**
+     * 本地拓扑快照：flowId -> 快照
+     */
+    private final Cache<Long, FlowTopology> TOPOLOGIES = Caffeine.newBuilder()
+            .maximumSize(LOCAL_MAXIMUM_SIZE)
+            .expireAfterWrite(LOCAL_EXPIRE)
+            .build();
+
+    /**
+     * 各流程的失效计数，加载期间该流程发生失效时不缓存加载结果
+     */
+    private final ConcurrentMap<Long, Long> INVALIDATIONS = new ConcurrentHashMap<>();
+
+    static {
+        flowCacheInvalidator.registerShared(FlowNodeCache::evictShared);
+        flowCacheInvalidator.register(FlowNodeCache::evictLocal);
+    }
+
 
     interface FlowNodeCacheKey {
         String FLOW_NODE_CACHE_KEY = "flow:{}:nodes";
         String FLOW_NODE_EDGE_CACHE_KEY = "flow:{}:edges";
+        String FLOW_VERSION_CACHE_KEY = "flow:{}:version";
     }
 
 
+    /**
+     * 重新加载流程拓扑：经 {@link FlowCacheInvalidator} 失效各节点的缓存后从数据库加载并回填 Redis
+     *
+     * @param flowId 流程ID
+     */
     public void loadAllNodeByFlowId(Long flowId) {
-
-        FlowDefinitionDTO flowDetail = flowDefinitionProvider.getFlowDetail(flowId);
-        FlowChain schema = flowDetail.getSchema();
-        List<FlowNode> nodes = schema.getNodes();
-        Map<String, FlowNode> nodeMap = nodes.stream().collect(Collectors.toMap(FlowNode::getId, node -> node));
-
-        String nodeCacheKey = getFlowNodeCacheKey(flowId);
-        String edgeCacheKey = getFlowNodeEdgeCacheKey(flowId);
-
-        redisOperations.hmset(nodeCacheKey, nodeMap, CACHE_EXPIRE_SECONDS);
-        redisOperations.set(edgeCacheKey, schema.getEdges(), CACHE_EXPIRE_SECONDS);
-
+        flowCacheInvalidator.invalidate(flowId);
+        getTopology(flowId);
     }
 
-    public List<FlowNode> getAllNodes(Long flowId) {
-        String nodeCacheKey = getFlowNodeCacheKey(flowId);
-        Map<String, FlowNode> flowNodeMap = (Map<String, FlowNode>) redisOperations.hmget(nodeCacheKey);
-        if (ObjectUtils.isNotEmpty(flowNodeMap)) {
-            return flowNodeMap.values().stream().toList();
+    /**
+     * 获取流程拓扑快照，本地不存在时从 Redis 加载，Redis 不存在时从数据库加载并回填 Redis
+     *
+     * @param flowId 流程ID
+     * @return {@link FlowTopology}
+     */
+    public FlowTopology getTopology(Long flowId) {
+        FlowTopology topology = TOPOLOGIES.getIfPresent(flowId);
+        if (topology != null) {
+            return topology;
         }
-        FlowDefinitionDTO flowDetail = flowDefinitionProvider.getFlowDetail(flowId);
-        if (flowDetail != null && flowDetail.getSchema() != null) {
-            List<FlowNode> nodes = flowDetail.getSchema().getNodes();
-            if (nodes != null) {
-                // 重新缓存
-                Map<String, FlowNode> nodeMap = nodes.stream().collect(Collectors.toMap(FlowNode::getId, node -> node));
-                redisOperations.hmset(nodeCacheKey, nodeMap, CACHE_EXPIRE_SECONDS);
-                return nodes;
-            }
+        Long invalidations = INVALIDATIONS.get(flowId);
+        topology = loadTopology(flowId);
+        if (!Objects.equals(INVALIDATIONS.get(flowId), invalidations)) {
+            return topology;
         }
-        return Lists.newArrayList();
+        FlowTopology existing = TOPOLOGIES.asMap().putIfAbsent(flowId, topology);
+        return existing != null ? existing : topology;
+    }
+
+    public List<FlowNode> getAllNodes(Long flowId) {
+        return getTopology(flowId).getAllNodes();
     }
 
     public FlowNode getNode(Long flowId, String nodeId) {
-        return (FlowNode) redisOperations.hget(getFlowNodeCacheKey(flowId), nodeId);
+        return getTopology(flowId).getNode(nodeId);
+    }
+
+    /**
+     * 按节点类型获取节点
+     *
+     * @param flowId     流程ID
+     * @param pluginType 节点类型
+     * @return 节点列表
+     */
+    public List<FlowNode> getNodesByType(Long flowId, PluginType pluginType) {
+        return getTopology(flowId).getNodesByType(pluginType);
     }
 
     /**
@@ -87,29 +139,70 @@ public class FlowNodeCache {
      * @return 流程边列表
      * @author fxbin
      */
-    @SuppressWarnings("unchecked")
     public List<FlowEdge> getAllEdges(Long flowId) {
+        return getTopology(flowId).getAllEdges();
+    }
+
+    /**
+     * 移除流程的本地快照，由 {@link FlowCacheInvalidator} 在各节点回调
+     *
+     * @param flowId 流程ID
+     */
+    public void evictLocal(long flowId) {
+        INVALIDATIONS.merge(flowId, 1L, Long::sum);
+        FlowTopology topology = TOPOLOGIES.asMap().remove(flowId);
+        if (topology != null) {
+            log.debug("Evict flow topology, flowId: {}, version: {}", flowId, topology.getVersion());
+        }
+    }
+
+    /**
+     * 移除流程的 Redis 缓存，仅由发起失效的节点回调
+     *
+     * @param flowId 流程ID
+     */
+    public void evictShared(long flowId) {
+        try {
+            redisOperations.delete(List.of(getFlowNodeCacheKey(flowId), getFlowNodeEdgeCacheKey(flowId),
+                    getFlowVersionCacheKey(flowId)));
+        } catch (Exception e) {
+            log.warn("Delete flow node cache failed, flowId: {}", flowId, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private FlowTopology loadTopology(Long flowId) {
+        String nodeCacheKey = getFlowNodeCacheKey(flowId);
         String edgeCacheKey = getFlowNodeEdgeCacheKey(flowId);
+        String versionCacheKey = getFlowVersionCacheKey(flowId);
+
+        Map<String, FlowNode> flowNodeMap = (Map<String, FlowNode>) redisOperations.hmget(nodeCacheKey);
         Object cachedEdges = redisOperations.get(edgeCacheKey);
-        if (cachedEdges instanceof List) {
-            return (List<FlowEdge>) cachedEdges;
+        if (ObjectUtils.isNotEmpty(flowNodeMap) && cachedEdges instanceof List) {
+            Object version = redisOperations.get(versionCacheKey);
+            return new FlowTopology(flowId, version instanceof Integer v ? v : null,
+                    new ArrayList<>(flowNodeMap.values()), (List<FlowEdge>) cachedEdges);
         }
 
-        // 如果类型不匹配或为null，可以考虑从 flowDefinitionProvider 重新加载
-        log.warn("Edges for flowId {} not found in cache or incorrect type.", flowId);
         FlowDefinitionDTO flowDetail = flowDefinitionProvider.getFlowDetail(flowId);
-        if (flowDetail != null && flowDetail.getSchema() != null) {
-             List<FlowEdge> edges = flowDetail.getSchema().getEdges();
-             if (edges != null) {
-                 // 重新缓存
-                 redisOperations.set(edgeCacheKey, edges, CACHE_EXPIRE_SECONDS);
-                 return edges;
-             }
+        FlowChain schema = flowDetail.getSchema();
+        List<FlowNode> nodes = schema != null && schema.getNodes() != null ? schema.getNodes() : Collections.emptyList();
+        List<FlowEdge> edges = schema != null && schema.getEdges() != null ? schema.getEdges() : Collections.emptyList();
+
+        // 重新缓存
+        if (!nodes.isEmpty()) {
+            Map<String, FlowNode> nodeMap = nodes.stream().collect(Collectors.toMap(FlowNode::getId, node -> node));
+            redisOperations.hmset(nodeCacheKey, nodeMap, CACHE_EXPIRE_SECONDS);
+            redisOperations.set(edgeCacheKey, edges, CACHE_EXPIRE_SECONDS);
+            if (flowDetail.getVersion() != null) {
+                redisOperations.set(versionCacheKey, flowDetail.getVersion(), CACHE_EXPIRE_SECONDS);
+            }
         }
-        return Collections.emptyList();
+        log.debug("Load flow topology, flowId: {}, version: {}, nodes: {}, edges: {}",
+                flowId, flowDetail.getVersion(), nodes.size(), edges.size());
+        return new FlowTopology(flowId, flowDetail.getVersion(), nodes, edges);
     }
 
-
     private String getFlowNodeCacheKey(Long flowId) {
         return StringUtils.format(FlowNodeCacheKey.FLOW_NODE_CACHE_KEY, flowId);
     }
@@ -118,5 +211,9 @@ public class FlowNodeCache {
         return StringUtils.format(FlowNodeCacheKey.FLOW_NODE_EDGE_CACHE_KEY, flowId);
     }
 
+    private String getFlowVersionCacheKey(Long flowId) {
+        return StringUtils.format(FlowNodeCacheKey.FLOW_VERSION_CACHE_KEY, flowId);
+    }
+
 
 }
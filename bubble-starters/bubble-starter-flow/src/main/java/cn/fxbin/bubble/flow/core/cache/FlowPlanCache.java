@@ -0,0 +1,115 @@
+package cn.fxbin.bubble.flow.core.cache;
+
+import cn.fxbin.bubble.core.util.StringUtils;
+import cn.fxbin.bubble.flow.core.builder.FlowExpressionBuilder;
+import cn.fxbin.bubble.flow.core.enums.FlowPublishStatus;
+import cn.fxbin.bubble.flow.core.exception.FlowNotFoundException;
+import cn.fxbin.bubble.flow.core.mapper.FlowDefinitionMapper;
+import cn.fxbin.bubble.flow.core.model.entity.FlowDefinition;
+import com.yomahub.liteflow.builder.el.LiteFlowChainELBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * FlowPlanCache 流程编译计划缓存
+ *
+ * <p>
+ *     按 flowId 缓存生成的 EL 表达式（每个流程只保留当前版本的编译计划，计划中记录编译时的版本），
+ *     执行时无需再查询节点、边与重新生成 EL。
+ *     LiteFlow 执行链时会在条件与节点上写入当前链ID等状态，因此不在执行链之间共享已解析的条件，
+ *     每次执行仍以执行ID为 chainId 从 EL 解析一条独立的链。
+ *     流程保存、发布、删除时通过 {@link FlowCacheInvalidator} 失效。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/29 14:20
+ */
+@Slf4j
+@Component
+public class FlowPlanCache {
+
+    private final FlowExpressionBuilder expressionBuilder;
+
+    private final FlowDefinitionMapper flowDefinitionMapper;
+
+    private final ConcurrentMap<Long, CompiledPlan> plans = new ConcurrentHashMap<>();
+
+    public FlowPlanCache(FlowExpressionBuilder expressionBuilder, FlowDefinitionMapper flowDefinitionMapper,
+                         FlowCacheInvalidator flowCacheInvalidator) {
+        this.expressionBuilder = expressionBuilder;
+        this.flowDefinitionMapper = flowDefinitionMapper;
+        flowCacheInvalidator.register(this::evict);
+    }
+
+    /**
+     * 获取编译计划，不存在时编译
+     *
+     * @param flowId 流程ID
+     * @return {@link CompiledPlan}
+     */
+    public CompiledPlan getOrCompile(Long flowId) {
+        return plans.computeIfAbsent(flowId, this::compile);
+    }
+
+    /**
+     * 以编译计划注册执行链，每个执行ID解析一条独立的链
+     *
+     * @param plan    编译计划
+     * @param chainId 执行链ID
+     */
+    public void registerChain(CompiledPlan plan, String chainId) {
+        LiteFlowChainELBuilder.createChain()
+                .setChainId(chainId)
+                .setEL(plan.el())
+                .build();
+    }
+
+    /**
+     * 标记编译计划对应的流程定义已发布，之后注册时不再更新流程定义
+     *
+     * @param plan 编译计划
+     */
+    public void markPublished(CompiledPlan plan) {
+        if (!plan.published()) {
+            plans.replace(plan.flowId(), plan, new CompiledPlan(plan.flowId(), plan.version(), plan.el(), true));
+        }
+    }
+
+    /**
+     * 移除本地缓存的编译计划
+     *
+     * @param flowId 流程ID
+     */
+    public void evict(long flowId) {
+        CompiledPlan plan = plans.remove(flowId);
+        if (plan != null) {
+            log.info("Evict compiled flow plan, flowId: {}, version: {}", flowId, plan.version());
+        }
+    }
+
+    private CompiledPlan compile(Long flowId) {
+        FlowDefinition flow = flowDefinitionMapper.findById(flowId)
+                .orElseThrow(() -> new FlowNotFoundException(StringUtils.utf8Str(flowId)));
+        String el = expressionBuilder.buildExpression(flowId);
+        boolean published = FlowPublishStatus.PUBLISHED == flow.getStatus() && Objects.equals(el, flow.getEl());
+        log.info("Compile flow plan, flowId: {}, version: {}, el: {}", flowId, flow.getVersion(), el);
+        return new CompiledPlan(flowId, flow.getVersion(), el, published);
+    }
+
+    /**
+     * 编译计划
+     *
+     * @param flowId    流程ID
+     * @param version   流程版本
+     * @param el        EL 表达式
+     * @param published 流程定义是否已是发布状态且保存了该表达式
+     */
+    public record CompiledPlan(Long flowId, Integer version, String el, boolean published) {
+    }
+
+}
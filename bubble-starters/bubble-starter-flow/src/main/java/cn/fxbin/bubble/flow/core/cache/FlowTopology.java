@@ -0,0 +1,188 @@
+package cn.fxbin.bubble.flow.core.cache;
+
+import cn.fxbin.bubble.flow.core.enums.PluginType;
+import cn.fxbin.bubble.flow.core.model.entity.FlowEdge;
+import cn.fxbin.bubble.flow.core.model.entity.FlowNode;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * FlowTopology 流程拓扑快照
+ *
+ * <p>
+ *     某个流程版本的节点与边的不可变内存快照，包含节点索引、正反向邻接表与按节点类型的分组，
+ *     前置/后继节点查询无需访问 Redis。快照创建后不再修改，可在线程间共享。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/30 10:00
+ */
+public final class FlowTopology {
+
+    /**
+     * 流程ID
+     */
+    @Getter
+    private final Long flowId;
+
+    /**
+     * 流程版本
+     */
+    @Getter
+    private final Integer version;
+
+    private final Map<String, FlowNode> nodes;
+
+    private final List<FlowNode> nodeList;
+
+    private final List<FlowEdge> edges;
+
+    private final Map<String, List<String>> successors;
+
+    private final Map<String, List<String>> predecessors;
+
+    private final Map<PluginType, List<FlowNode>> nodesByType;
+
+    public FlowTopology(Long flowId, Integer version, List<FlowNode> nodes, List<FlowEdge> edges) {
+        this.flowId = flowId;
+        this.version = version;
+
+        Map<String, FlowNode> nodeMap = new LinkedHashMap<>(nodes.size());
+        Map<PluginType, List<FlowNode>> typeMap = new EnumMap<>(PluginType.class);
+        for (FlowNode node : nodes) {
+            if (node == null) {
+                continue;
+            }
+            nodeMap.put(node.getId(), node);
+            if (node.getNodeType() != null) {
+                typeMap.computeIfAbsent(node.getNodeType(), k -> new ArrayList<>()).add(node);
+            }
+        }
+
+        Map<String, List<String>> forward = new LinkedHashMap<>();
+        Map<String, List<String>> reverse = new LinkedHashMap<>();
+        for (FlowEdge edge : edges) {
+            addDistinct(forward, edge.getSourceNodeId(), edge.getTargetNodeId());
+            addDistinct(reverse, edge.getTargetNodeId(), edge.getSourceNodeId());
+        }
+
+        this.nodes = Collections.unmodifiableMap(nodeMap);
+        this.nodeList = List.copyOf(nodeMap.values());
+        this.edges = List.copyOf(edges);
+        this.successors = freeze(forward);
+        this.predecessors = freeze(reverse);
+        typeMap.replaceAll((type, list) -> List.copyOf(list));
+        this.nodesByType = Collections.unmodifiableMap(typeMap);
+    }
+
+    /**
+     * 获取节点
+     *
+     * @param nodeId 节点ID
+     * @return 节点，不存在时返回 null
+     */
+    public FlowNode getNode(String nodeId) {
+        return nodes.get(nodeId);
+    }
+
+    /**
+     * 获取全部节点
+     *
+     * @return 不可变节点列表
+     */
+    public List<FlowNode> getAllNodes() {
+        return nodeList;
+    }
+
+    /**
+     * 获取全部边
+     *
+     * @return 不可变边列表
+     */
+    public List<FlowEdge> getAllEdges() {
+        return edges;
+    }
+
+    /**
+     * 按节点类型获取节点
+     *
+     * @param pluginType 节点类型
+     * @return 不可变节点列表
+     */
+    public List<FlowNode> getNodesByType(PluginType pluginType) {
+        return nodesByType.getOrDefault(pluginType, Collections.emptyList());
+    }
+
+    /**
+     * 获取直接后继节点ID
+     *
+     * @param nodeId 节点ID
+     * @return 不可变节点ID列表
+     */
+    public List<String> getSuccessorIds(String nodeId) {
+        return successors.getOrDefault(nodeId, Collections.emptyList());
+    }
+
+    /**
+     * 获取直接前置节点ID
+     *
+     * @param nodeId 节点ID
+     * @return 不可变节点ID列表
+     */
+    public List<String> getPredecessorIds(String nodeId) {
+        return predecessors.getOrDefault(nodeId, Collections.emptyList());
+    }
+
+    /**
+     * 获取前置节点
+     *
+     * @param nodeId     当前节点ID
+     * @param recursive  是否递归查找所有前置节点
+     * @param filterType 要筛选的节点类型，为 null 时不筛选
+     * @return 前置节点列表（深度优先顺序，已去重）
+     */
+    public List<FlowNode> getPreviousNodes(String nodeId, boolean recursive, PluginType filterType) {
+        List<FlowNode> result = new ArrayList<>();
+        Set<String> visited = new HashSet<>();
+        collectPrevious(nodeId, recursive, filterType, visited, result);
+        return result;
+    }
+
+    private void collectPrevious(String nodeId, boolean recursive, PluginType filterType,
+                                 Set<String> visited, List<FlowNode> result) {
+        for (String previousId : getPredecessorIds(nodeId)) {
+            FlowNode previous = nodes.get(previousId);
+            if (previous == null || !visited.add(previousId)) {
+                continue;
+            }
+            if (filterType == null || previous.getNodeType() == filterType) {
+                result.add(previous);
+            }
+            if (recursive) {
+                collectPrevious(previousId, true, filterType, visited, result);
+            }
+        }
+    }
+
+    private static void addDistinct(Map<String, List<String>> adjacency, String from, String to) {
+        List<String> list = adjacency.computeIfAbsent(from, k -> new ArrayList<>());
+        if (!list.contains(to)) {
+            list.add(to);
+        }
+    }
+
+    private static Map<String, List<String>> freeze(Map<String, List<String>> adjacency) {
+        adjacency.replaceAll((key, list) -> List.copyOf(list));
+        return Collections.unmodifiableMap(adjacency);
+    }
+
+}
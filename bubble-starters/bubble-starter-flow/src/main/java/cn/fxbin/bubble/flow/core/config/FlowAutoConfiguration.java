@@ -1,11 +1,32 @@
 package cn.fxbin.bubble.flow.core.config;
 
+import cn.fxbin.bubble.flow.core.cache.FlowCacheInvalidator;
+import cn.fxbin.bubble.flow.core.enums.FlowStateFormat;
+import cn.fxbin.bubble.flow.core.progress.FlowExecutionProgressEmitter;
+import cn.fxbin.bubble.flow.core.progress.FlowExecutionProgressStore;
+import cn.fxbin.bubble.flow.core.provider.FlowExecutionLogProvider;
+import cn.fxbin.bubble.flow.core.state.FlowStateStore;
+import cn.fxbin.bubble.flow.core.state.cache.CaffeineFlowStateCache;
+import cn.fxbin.bubble.flow.core.state.cache.RedisFlowStateCache;
+import cn.fxbin.bubble.flow.core.state.serializer.BinaryFlowStateSerializer;
+import cn.fxbin.bubble.flow.core.state.serializer.FlowStateSerializer;
+import cn.fxbin.bubble.flow.core.state.serializer.JsonFlowStateSerializer;
+import lombok.extern.slf4j.Slf4j;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 /**
  * FlowAutoConfiguration
@@ -13,6 +34,7 @@ import org.springframework.context.annotation.Import;
  * @author fxbin
  * @since 2025/12/16
  */
+@Slf4j
 @AutoConfiguration
 @EnableConfigurationProperties(FlowProperties.class)
 @ConditionalOnProperty(prefix = "bubble.flow", name = "enabled", havingValue = "true", matchIfMissing = true)
@@ -20,5 +42,96 @@ import org.springframework.context.annotation.Import;
 @MapperScan("cn.fxbin.bubble.flow.core.mapper")
 @Import(LiteFlowConfig.class)
 public class FlowAutoConfiguration {
-    
+
+    /**
+     * 流程缓存失效广播与执行进度通知监听容器
+     *
+     * @param redisConnectionFactory     redis 连接工厂
+     * @param flowCacheInvalidator       流程缓存失效广播
+     * @param flowExecutionProgressStore 流程执行实时进度存储
+     * @return {@link RedisMessageListenerContainer}
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "flowCacheListenerContainer")
+    public RedisMessageListenerContainer flowCacheListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                    FlowCacheInvalidator flowCacheInvalidator,
+                                                                    FlowExecutionProgressStore flowExecutionProgressStore,
+                                                                    FlowProperties flowProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(flowCacheInvalidator, new ChannelTopic(FlowCacheInvalidator.CHANNEL));
+        if (flowProperties.getProgress().isReplicate()) {
+            container.addMessageListener(flowExecutionProgressStore, new ChannelTopic(FlowExecutionProgressStore.CHANNEL));
+        }
+        return container;
+    }
+
+    /**
+     * 流程上下文状态存储，配置来自 bubble.flow.state
+     *
+     * @param redisConnectionFactory redis 连接工厂
+     * @param flowProperties         流程配置
+     * @return {@link FlowStateStore}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public FlowStateStore flowStateStore(RedisConnectionFactory redisConnectionFactory, FlowProperties flowProperties) {
+        FlowProperties.State config = flowProperties.getState();
+        // 状态以原始字节读写，不经过容器中 RedisTemplate 的值序列化
+        RedisTemplate<String, byte[]> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(redisConnectionFactory);
+        redisTemplate.setKeySerializer(RedisSerializer.string());
+        redisTemplate.setHashKeySerializer(RedisSerializer.string());
+        redisTemplate.setValueSerializer(RedisSerializer.byteArray());
+        redisTemplate.setHashValueSerializer(RedisSerializer.byteArray());
+        redisTemplate.afterPropertiesSet();
+
+        FlowStateSerializer serializer = FlowStateFormat.BINARY == config.getFormat()
+                ? new BinaryFlowStateSerializer(config.getCompression(),
+                        (int) Math.min(Integer.MAX_VALUE, config.getCompressionThreshold().toBytes()))
+                : new JsonFlowStateSerializer();
+        log.info("Flow state store initialized with format: {}, compression: {}", config.getFormat(), config.getCompression());
+        return new FlowStateStore(
+                localStateCache(config),
+                new RedisFlowStateCache(redisTemplate, config.getRemoteExpire()),
+                serializer,
+                config.getCompactInterval());
+    }
+
+    @SuppressWarnings("deprecation")
+    private static CaffeineFlowStateCache localStateCache(FlowProperties.State config) {
+        Long maximumSize = config.getLocalMaximumSize();
+        if (maximumSize == null) {
+            return new CaffeineFlowStateCache(config.getLocalExpire(), config.getLocalMemoryBudget());
+        }
+        log.warn("bubble.flow.state.local-maximum-size is deprecated, use bubble.flow.state.local-memory-budget instead. "
+                + "Local state cache is bounded by {} entries.", maximumSize);
+        return new CaffeineFlowStateCache(config.getLocalExpire(), maximumSize);
+    }
+
+    /**
+     * 流程执行进度 SSE 推送，仅在 Spring MVC 可用时注册
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.web.servlet.mvc.method.annotation.SseEmitter")
+    static class FlowProgressSseConfiguration {
+
+        /**
+         * 流程执行进度 SSE 推送
+         *
+         * @param flowExecutionProgressStore 流程执行实时进度存储
+         * @param flowExecutionLogProvider   流程执行日志服务
+         * @param flowProperties             流程配置
+         * @return {@link FlowExecutionProgressEmitter}
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public FlowExecutionProgressEmitter flowExecutionProgressEmitter(FlowExecutionProgressStore flowExecutionProgressStore,
+                                                                         FlowExecutionLogProvider flowExecutionLogProvider,
+                                                                         FlowProperties flowProperties) {
+            return new FlowExecutionProgressEmitter(flowExecutionProgressStore, flowExecutionLogProvider,
+                    flowProperties.getProgress().getSseTimeout(), flowProperties.getProgress().getSsePollInterval());
+        }
+    }
+
 }
@@ -1,7 +1,15 @@
 package cn.fxbin.bubble.flow.core.config;
 
+import cn.fxbin.bubble.data.redis.serializer.Compression;
+import cn.fxbin.bubble.flow.core.enums.FlowScheduleMode;
+import cn.fxbin.bubble.flow.core.enums.FlowStateFormat;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.DeprecatedConfigurationProperty;
+
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
 
 /**
  * FlowProperties
@@ -23,6 +31,41 @@ public class FlowProperties {
      */
     private Tenant tenant = new Tenant();
 
+    /**
+     * EL generation / scheduling configuration.
+     */
+    private Schedule schedule = new Schedule();
+
+    /**
+     * Execution state (context) storage configuration.
+     */
+    private State state = new State();
+
+    /**
+     * Flow / node execution log writing configuration.
+     */
+    private ExecutionLog executionLog = new ExecutionLog();
+
+    /**
+     * Execution rollup (pre-aggregated analytics) configuration.
+     */
+    private Rollup rollup = new Rollup();
+
+    /**
+     * Version archive (execution log mover) configuration.
+     */
+    private Archive archive = new Archive();
+
+    /**
+     * Version history configuration.
+     */
+    private Version version = new Version();
+
+    /**
+     * Live execution progress configuration.
+     */
+    private Progress progress = new Progress();
+
     @Data
     public static class Tenant {
         /**
@@ -41,4 +84,211 @@ public class FlowProperties {
         private String[] ignoreTables = new String[]{};
     }
 
+    @Data
+    public static class Schedule {
+        /**
+         * How nodes are grouped when generating EL.
+         */
+        private FlowScheduleMode mode = FlowScheduleMode.SEQUENTIAL;
+
+        /**
+         * Max wait seconds of every generated WHEN.
+         */
+        private int maxWaitSeconds = 900;
+
+        /**
+         * Look-back window of node execution logs used to estimate node durations.
+         */
+        private Duration historyWindow = Duration.ofDays(7);
+
+        /**
+         * Estimated duration of nodes without execution history.
+         */
+        private Duration defaultNodeDuration = Duration.ofMillis(100);
+    }
+
+    @Data
+    public static class State {
+        /**
+         * Serialization format of saved states. States written in the other format can still be loaded.
+         */
+        private FlowStateFormat format = FlowStateFormat.JSON;
+
+        /**
+         * Compression of binary states, LZ4 and ZSTD require their codec library on the classpath.
+         */
+        private Compression compression = Compression.NONE;
+
+        /**
+         * Binary states not smaller than this size are compressed.
+         */
+        private DataSize compressionThreshold = DataSize.ofKilobytes(1);
+
+        /**
+         * Expiry of the local (Caffeine) state cache.
+         */
+        private Duration localExpire = Duration.ofHours(1);
+
+        /**
+         * Memory budget of the local (Caffeine) state cache, entries are weighed by their serialized size.
+         */
+        private DataSize localMemoryBudget = DataSize.ofMegabytes(128);
+
+        /**
+         * Maximum entries of the local (Caffeine) state cache. When set, it bounds the cache by entry count
+         * instead of local-memory-budget.
+         */
+        private Long localMaximumSize;
+
+        /**
+         * Expiry of the remote (Redis) state cache.
+         */
+        private Duration remoteExpire = Duration.ofHours(2);
+
+        /**
+         * Max delta checkpoints between two full snapshots.
+         */
+        private long compactInterval = 20;
+
+        @Deprecated
+        @DeprecatedConfigurationProperty(replacement = "bubble.flow.state.local-memory-budget",
+                reason = "The local state cache is bounded by the serialized size of its entries.")
+        public Long getLocalMaximumSize() {
+            return localMaximumSize;
+        }
+    }
+
+    @Data
+    public static class ExecutionLog {
+        /**
+         * Whether to write execution logs asynchronously in batches, otherwise every change is written immediately.
+         * When enabled, a log saved by the writer is visible to database queries only after the next flush.
+         */
+        private boolean async = false;
+
+        /**
+         * Max pending (coalesced) logs, further logs are handled by the overflow policy.
+         */
+        private int queueCapacity = 10000;
+
+        /**
+         * Max rows of one multi-row insert / update.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Interval between two periodic flushes.
+         */
+        private Duration flushInterval = Duration.ofMillis(500);
+
+        /**
+         * Whether to drop logs when the queue is full, otherwise they are written by the calling thread.
+         */
+        private boolean dropOnOverflow = false;
+    }
+
+    @Data
+    public static class Rollup {
+        /**
+         * Whether to maintain execution rollups and serve version analytics from them.
+         * Requires the flow_execution_rollup and flow_rollup_checkpoint tables.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Interval between two rollup runs.
+         */
+        private Duration interval = Duration.ofMinutes(1);
+
+        /**
+         * Executions ended within this lag are rolled up in a later run, allowing for delayed log writes.
+         */
+        private Duration lag = Duration.ofMinutes(1);
+
+        /**
+         * Execution logs read per batch (and per transaction).
+         */
+        private int batchSize = 5000;
+
+        /**
+         * Max execution logs rolled up in one run, the rest are caught up in following runs.
+         */
+        private int maxRowsPerRun = 100000;
+
+        /**
+         * Retention of per-minute buckets.
+         */
+        private Duration minuteRetention = Duration.ofDays(2);
+
+        /**
+         * Retention of per-hour buckets.
+         */
+        private Duration hourRetention = Duration.ofDays(400);
+    }
+
+    @Data
+    public static class Archive {
+        /**
+         * Execution logs copied and deleted per chunk (and per transaction).
+         */
+        private int chunkSize = 1000;
+
+        /**
+         * Max execution logs moved per second, 0 for unlimited.
+         */
+        private int maxRowsPerSecond = 0;
+    }
+
+    @Data
+    public static class Version {
+        /**
+         * Whether to store the snapshot structure hash on publish and compare versions by it.
+         * Requires the structure_hash column on flow_version_history and flow_version_history_backup,
+         * otherwise the hash is computed from the snapshots on every comparison.
+         */
+        private boolean structureHash = false;
+    }
+
+    @Data
+    public static class Progress {
+        /**
+         * Whether to answer progress queries of running executions from an in-memory store fed by log writes.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Whether to replicate live progress to Redis (one hash per execution plus a pub/sub notification),
+         * so that every node can answer progress queries and push updates. Enable for multi-node setups,
+         * otherwise subscribers on other nodes fall back to polling the database every sse-poll-interval.
+         */
+        private boolean replicate = false;
+
+        /**
+         * Running executions without any update for this long are dropped from the store.
+         */
+        private Duration liveExpire = Duration.ofHours(1);
+
+        /**
+         * Finished executions are kept this long before queries fall back to the database,
+         * covering the asynchronous log write delay.
+         */
+        private Duration completedRetention = Duration.ofMinutes(1);
+
+        /**
+         * Max executions kept in memory.
+         */
+        private long maximumSize = 10000;
+
+        /**
+         * Timeout of server-sent event subscriptions.
+         */
+        private Duration sseTimeout = Duration.ofMinutes(30);
+
+        /**
+         * Database polling interval of server-sent event subscriptions whose execution runs on another node
+         * without replicate (or with live progress disabled), as such changes are never pushed to this node.
+         */
+        private Duration ssePollInterval = Duration.ofSeconds(2);
+    }
+
 }
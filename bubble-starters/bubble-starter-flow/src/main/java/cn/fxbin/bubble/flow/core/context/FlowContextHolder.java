@@ -2,15 +2,13 @@ package cn.fxbin.bubble.flow.core.context;
 
 import cn.hutool.core.date.SystemClock;
 import cn.fxbin.bubble.core.exception.ServiceException;
+import cn.fxbin.bubble.core.util.ApplicationContextHolder;
 import cn.fxbin.bubble.flow.core.cache.FlowNodeCache;
 import cn.fxbin.bubble.flow.core.enums.PluginType;
-import cn.fxbin.bubble.flow.core.model.entity.FlowEdge;
 import cn.fxbin.bubble.flow.core.model.entity.FlowNode;
-import cn.fxbin.bubble.flow.core.state.cache.CaffeineFlowStateCache;
+import cn.fxbin.bubble.flow.core.state.FlowStateStore;
 import cn.fxbin.bubble.flow.core.state.cache.FlowStateCache;
-import cn.fxbin.bubble.flow.core.state.cache.RedisFlowStateCache;
 import cn.fxbin.bubble.flow.core.state.serializer.FlowStateSerializer;
-import cn.fxbin.bubble.flow.core.state.serializer.JsonFlowStateSerializer;
 import cn.fxbin.bubble.flow.core.state.serializer.SerializationException;
 import cn.fxbin.bubble.flow.core.util.FlowUtils;
 import com.google.common.collect.Maps;
@@ -21,7 +19,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.io.Serializable;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * FlowContextHolder
@@ -36,30 +34,19 @@ import java.util.stream.Collectors;
 public class FlowContextHolder implements Serializable {
 
 
-    private static final int VERSION = 1;
-    private static final long DEFAULT_CACHE_EXPIRE_HOURS = 1;
-    private static final long DEFAULT_MAX_CACHE_SIZE = 1000;
-    private static final long DEFAULT_REDIS_EXPIRE_HOURS = 2;
+    private static final int VERSION = 2;
 
-    // L1 Cache (Caffeine)
-    private static final FlowStateCache L1_CACHE;
-    // L2 Cache (Redis)
-    private static final FlowStateCache L2_CACHE;
-    // Serializer
-    private static final FlowStateSerializer STATE_SERIALIZER;
+    /**
+     * 增量字段：检查点序号 / 变量值 / 删除标记
+     */
+    private static final String DELTA_CHECKPOINT = "v";
+    private static final String DELTA_VALUE = "value";
+    private static final String DELTA_REMOVED = "removed";
 
-    static {
-        L1_CACHE = new CaffeineFlowStateCache(DEFAULT_CACHE_EXPIRE_HOURS, DEFAULT_MAX_CACHE_SIZE);
-        try {
-            L2_CACHE = new RedisFlowStateCache(DEFAULT_REDIS_EXPIRE_HOURS);
-        } catch (IllegalStateException e) {
-            log.warn("Failed to initialize RedisFlowStateCache. L2 cache will be unavailable.", e);
-            // L2_CACHE = new NoOpFlowStateCache(); // Or some other fallback if needed
-            // Or handle as appropriate for your application
-            throw e;
-        }
-        STATE_SERIALIZER = new JsonFlowStateSerializer();
-    }
+    /**
+     * 状态存储（L1/L2 缓存与序列化器）
+     */
+    private final transient FlowStateStore stateStore;
 
     /**
      * 流程ID
@@ -90,14 +77,12 @@ public class FlowContextHolder implements Serializable {
     /**
      * 用户ID
      */
-    @Setter
     @Getter
     private String userId;
 
     /**
      * 租户ID
      */
-    @Setter
     @Getter
     private String tenantId;
 
@@ -111,15 +96,47 @@ public class FlowContextHolder implements Serializable {
      */
     private VersionExecutionContext versionContext;
 
+    /**
+     * 上次保存后被修改或删除的变量
+     */
+    private final Set<String> dirtyKeys = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 最近一次检查点序号（快照或增量）
+     */
+    private long checkpoint;
 
     /**
-     * 创建新的上下文
+     * 最近一次完整快照的检查点序号，-1 表示尚未保存过快照
+     */
+    private long snapshotCheckpoint = -1;
+
+    /**
+     * 下次保存是否必须写入完整快照（元数据变化或增量写入失败）
+     */
+    private volatile boolean snapshotRequired;
+
+
+    /**
+     * 创建新的上下文，使用容器中的 {@link FlowStateStore}
      *
      * @param flowId 流程ID
      * @return 上下文实例
      */
     public static FlowContextHolder create(Long flowId) {
+        return create(stateStore(), flowId);
+    }
+
+    /**
+     * 创建新的上下文
+     *
+     * @param stateStore 状态存储
+     * @param flowId 流程ID
+     * @return 上下文实例
+     */
+    public static FlowContextHolder create(FlowStateStore stateStore, Long flowId) {
         return new FlowContextHolder(
+                stateStore,
                 flowId,
                 SystemClock.now(),
                 FlowUtils.generateExecutionId(flowId),
@@ -151,6 +168,47 @@ public class FlowContextHolder implements Serializable {
      */
     public void setVariable(String key, Object value) {
         variables.put(key, value);
+        dirtyKeys.add(key);
+    }
+
+    /**
+     * 删除变量
+     *
+     * @param key 变量名
+     */
+    public void removeVariable(String key) {
+        variables.remove(key);
+        dirtyKeys.add(key);
+    }
+
+    /**
+     * 标记变量已修改
+     * <p>原地修改了变量值（如向 List 中追加元素）后调用，使其在下次保存时写入增量</p>
+     *
+     * @param key 变量名
+     */
+    public void markDirty(String key) {
+        dirtyKeys.add(key);
+    }
+
+    /**
+     * 设置用户ID
+     *
+     * @param userId 用户ID
+     */
+    public void setUserId(String userId) {
+        this.userId = userId;
+        this.snapshotRequired = true;
+    }
+
+    /**
+     * 设置租户ID
+     *
+     * @param tenantId 租户ID
+     */
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+        this.snapshotRequired = true;
     }
 
     /**
@@ -195,13 +253,7 @@ public class FlowContextHolder implements Serializable {
      * @author fxbin
      */
     public List<FlowNode> getNodesByType(Long flowId, PluginType pluginType) {
-        Collection<FlowNode> allNodes = FlowNodeCache.getAllNodes(flowId);
-        if (allNodes == null || allNodes.isEmpty()) {
-            return Collections.emptyList();
-        }
-        return allNodes.stream()
-                .filter(node -> node != null && node.getNodeType() == pluginType)
-                .collect(Collectors.toList());
+        return FlowNodeCache.getNodesByType(flowId, pluginType);
     }
 
     /**
@@ -216,11 +268,12 @@ public class FlowContextHolder implements Serializable {
 
     /**
      * 获取所有变量
+     * <p>返回可修改的实时视图，通过视图写入或删除的变量会记录到下次保存的增量中；原地修改变量值后需调用 {@link #markDirty(String)}</p>
      *
      * @return 变量映射
      */
     public Map<String, Object> getAllVariables() {
-        return variables;
+        return new TrackedVariables();
     }
 
     /**
@@ -283,109 +336,28 @@ public class FlowContextHolder implements Serializable {
      * @author fxbin
      */
     public List<FlowNode> getPreviousNodes(Long flowId, String currentNodeId, boolean recursive, PluginType filterType) {
-        List<FlowEdge> allEdges = FlowNodeCache.getAllEdges(flowId);
-        if (allEdges == null || allEdges.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        Set<String> visitedNodeIds = new HashSet<>();
-        List<FlowNode> previousNodes = new ArrayList<>();
-
-        if (recursive) {
-            findPreviousNodesRecursive(flowId, currentNodeId, allEdges, previousNodes, visitedNodeIds, filterType);
-        } else {
-            for (FlowEdge edge : allEdges) {
-                if (edge.getTargetNodeId().equals(currentNodeId)) {
-                    FlowNode prevNode = FlowNodeCache.getNode(flowId, edge.getSourceNodeId());
-                    if (prevNode != null && visitedNodeIds.add(prevNode.getId())) {
-                        if (filterType == null || prevNode.getNodeType() == filterType) {
-                            previousNodes.add(prevNode);
-                        }
-                    }
-                }
-            }
-        }
-        return previousNodes;
-    }
-
-    /**
-     * 递归查找前置节点。
-     *
-     * @param flowId          流程ID
-     * @param currentNodeId   当前节点ID
-     * @param allEdges        流程的所有边
-     * @param previousNodes   用于收集前置节点的列表
-     * @param visitedNodeIds  用于防止循环引用的已访问节点ID集合
-     * @param filterType      要筛选的插件类型，如果为 null，则不进行类型筛选
-     * @author fxbin
-     */
-    private void findPreviousNodesRecursive(Long flowId, String currentNodeId, List<FlowEdge> allEdges, List<FlowNode> previousNodes, Set<String> visitedNodeIds, PluginType filterType) {
-        if (!visitedNodeIds.add(currentNodeId)) {
-            // 如果已经访问过此节点（在当前递归路径上），则停止以防止循环
-            // 注意：对于查找所有前置节点，一个节点可能通过不同路径被多次访问作为"当前节点"，
-            // 但我们只关心它作为"前置节点"被添加一次。
-            // visitedNodeIds 在这里主要用于防止因环路导致的无限递归。
-            // 实际添加到 previousNodes 列表的控制在外部调用处或收集结果时处理重复。
-        }
-
-        List<FlowEdge> directPreviousEdges = allEdges.stream()
-                .filter(edge -> edge.getTargetNodeId().equals(currentNodeId))
-                .collect(Collectors.toList());
-
-        for (FlowEdge edge : directPreviousEdges) {
-            String prevNodeId = edge.getSourceNodeId();
-            // 检查是否已经作为前置节点添加过，避免重复添加同一个前置节点
-            boolean alreadyAdded = previousNodes.stream().anyMatch(node -> node.getId().equals(prevNodeId));
-            if (!alreadyAdded) {
-                FlowNode prevNode = FlowNodeCache.getNode(flowId, prevNodeId);
-                if (prevNode != null) {
-                    if (filterType == null || prevNode.getNodeType() == filterType) {
-                        previousNodes.add(prevNode);
-                    }
-                    // 继续递归查找这个前置节点的前置节点
-                    findPreviousNodesRecursive(flowId, prevNodeId, allEdges, previousNodes, visitedNodeIds, filterType);
-                }
-            }
-        }
+        // 基于内存拓扑快照的反向邻接表查询，递归查找时已访问的节点不再重复遍历
+        return FlowNodeCache.getTopology(flowId).getPreviousNodes(currentNodeId, recursive, filterType);
     }
 
     /**
      * 保存状态
      * 将当前上下文状态持久化到存储
+     * <p>
+     * 仅写入上次保存后修改过的变量（增量检查点），每个变量作为一个带检查点序号的字段；
+     * 首次保存、元数据变化、增量写入失败或距上次快照达到 bubble.flow.state.compact-interval 个检查点时写入完整快照并清空增量。
+     * </p>
      * @throws ServiceException 当持久化失败时抛出
      */
-    public void saveState() {
+    public synchronized void saveState() {
         try {
-            log.info("Saving state for flow: {}, execution: {}", flowId, executionId);
-
-            Map<String, Object> contextData = Map.of(
-                    "variables", variables,
-                    "startTime", startTime,
-                    "version", VERSION,
-                    "userId", userId,
-                    "tenantId", tenantId
-            );
-
-            String serializedContext = STATE_SERIALIZER.serialize(contextData);
-
-            // 1. 使用 L1 Cache (Caffeine)
-            String l1CacheKey = L1_CACHE.generateCacheKey(flowId, executionId);
-            L1_CACHE.put(l1CacheKey, serializedContext);
-            log.debug("State for flow: {}, execution: {} saved to L1 Cache (Caffeine).", flowId, executionId);
-
-            // 2. 将状态写入 L2 Cache (Redis)
-            // TODO: 考虑将 Redis 操作异步化以提高性能，例如使用 @Async 或消息队列
-            try {
-                if (L2_CACHE != null) {
-                    String l2CacheKey = L2_CACHE.generateCacheKey(flowId, executionId);
-                    // L2_CACHE.put(l2CacheKey, serializedContext, DEFAULT_REDIS_EXPIRE_HOURS * 3600); // Assuming put supports TTL in seconds
-                    // Implementations handle their default TTL or specific TTL methods
-                    L2_CACHE.put(l2CacheKey, serializedContext);
-                    log.info("State for flow: {}, execution: {} also saved to L2 Cache (Redis).", flowId, executionId);
-                }
-            } catch (Exception redisEx) {
-                // Redis 写入失败通常不应阻塞主流程，记录错误即可
-                log.error("Failed to save flow state to L2 Cache (Redis) for flow: {}, execution: {}. Error: {}", flowId, executionId, redisEx.getMessage(), redisEx);
+            long next = checkpoint + 1;
+            if (snapshotRequired || snapshotCheckpoint < 0 || next - snapshotCheckpoint >= stateStore.getCompactInterval()) {
+                saveSnapshot(next);
+            } else if (!dirtyKeys.isEmpty()) {
+                saveDelta(next);
+            } else {
+                log.debug("No state changes for flow: {}, execution: {}, skip saving.", flowId, executionId);
             }
         } catch (SerializationException se) {
             log.error("Serialization failed for flow: {}, execution: {}. Error: {}", flowId, executionId, se.getMessage(), se);
@@ -397,8 +369,95 @@ public class FlowContextHolder implements Serializable {
     }
 
     /**
-     * 加载状态
-     * 从存储中加载指定流程ID的上下文状态
+     * 写入完整快照并清空增量
+     */
+    private void saveSnapshot(long next) {
+        log.info("Saving state snapshot for flow: {}, execution: {}, checkpoint: {}", flowId, executionId, next);
+        // 先清除脏标记，序列化期间的并发修改会保留到下一次保存
+        dirtyKeys.clear();
+        snapshotRequired = false;
+
+        Map<String, Object> contextData = new HashMap<>();
+        contextData.put("variables", variables);
+        contextData.put("startTime", startTime);
+        contextData.put("version", VERSION);
+        contextData.put("checkpoint", next);
+        contextData.put("userId", userId);
+        contextData.put("tenantId", tenantId);
+
+        byte[] serializedContext = stateStore.getSerializer().serialize(contextData);
+
+        // 1. 使用 L1 Cache (Caffeine)
+        FlowStateCache localCache = stateStore.getLocalCache();
+        String l1CacheKey = localCache.generateCacheKey(flowId, executionId);
+        localCache.put(l1CacheKey, serializedContext);
+        localCache.resetFields(l1CacheKey);
+        log.debug("State for flow: {}, execution: {} saved to L1 Cache (Caffeine).", flowId, executionId);
+
+        // 2. 将状态写入 L2 Cache (Redis)
+        // 快照写入失败时保留已有增量并在下一次保存时重写快照；增量的检查点序号不大于快照时会在加载时被忽略，清空增量失败不影响正确性
+        try {
+            FlowStateCache remoteCache = stateStore.getRemoteCache();
+            String l2CacheKey = remoteCache.generateCacheKey(flowId, executionId);
+            if (remoteCache.put(l2CacheKey, serializedContext)) {
+                remoteCache.resetFields(l2CacheKey);
+                log.info("State for flow: {}, execution: {} also saved to L2 Cache (Redis).", flowId, executionId);
+            } else {
+                log.warn("Failed to save flow state to L2 Cache (Redis) for flow: {}, execution: {}, will retry with the next snapshot.", flowId, executionId);
+                snapshotRequired = true;
+            }
+        } catch (Exception redisEx) {
+            // Redis 写入失败通常不应阻塞主流程，记录错误即可
+            log.error("Failed to save flow state to L2 Cache (Redis) for flow: {}, execution: {}. Error: {}", flowId, executionId, redisEx.getMessage(), redisEx);
+            snapshotRequired = true;
+        }
+        checkpoint = next;
+        snapshotCheckpoint = next;
+    }
+
+    /**
+     * 仅写入修改过的变量
+     */
+    private void saveDelta(long next) {
+        FlowStateSerializer serializer = stateStore.getSerializer();
+        Map<String, byte[]> fields = new HashMap<>(dirtyKeys.size());
+        for (String key : dirtyKeys) {
+            // 先移除脏标记再读取值，之后的并发修改会重新标记
+            dirtyKeys.remove(key);
+            Map<String, Object> field = new HashMap<>(4);
+            field.put(DELTA_CHECKPOINT, next);
+            Object value = variables.get(key);
+            if (value == null) {
+                field.put(DELTA_REMOVED, true);
+            } else {
+                field.put(DELTA_VALUE, value);
+            }
+            fields.put(key, serializer.serialize(field));
+        }
+        log.info("Saving state delta for flow: {}, execution: {}, checkpoint: {}, variables: {}", flowId, executionId, next, fields.keySet());
+
+        // 1. L1 Cache 的增量不完整时移除其快照，下次加载回退到 L2
+        FlowStateCache localCache = stateStore.getLocalCache();
+        String l1CacheKey = localCache.generateCacheKey(flowId, executionId);
+        if (!localCache.putFields(l1CacheKey, fields)) {
+            localCache.evict(l1CacheKey);
+        }
+
+        // 2. L2 Cache 写入失败时下次保存写入完整快照
+        try {
+            FlowStateCache remoteCache = stateStore.getRemoteCache();
+            if (!remoteCache.putFields(remoteCache.generateCacheKey(flowId, executionId), fields)) {
+                snapshotRequired = true;
+            }
+        } catch (Exception redisEx) {
+            log.error("Failed to save flow state delta to L2 Cache (Redis) for flow: {}, execution: {}. Error: {}", flowId, executionId, redisEx.getMessage(), redisEx);
+            snapshotRequired = true;
+        }
+        checkpoint = next;
+    }
+
+    /**
+     * 加载状态，使用容器中的 {@link FlowStateStore}
      *
      * @param flowId 流程ID
      * @param executionId 执行ID（可选）
@@ -406,34 +465,63 @@ public class FlowContextHolder implements Serializable {
      * @throws ServiceException 当加载失败或数据损坏时抛出
      */
     public static FlowContextHolder loadState(Long flowId, String executionId) {
+        return loadState(stateStore(), flowId, executionId);
+    }
+
+    /**
+     * 加载状态
+     * 从存储中加载指定流程ID的上下文状态，由完整快照与其后的增量重建
+     *
+     * @param stateStore 状态存储
+     * @param flowId 流程ID
+     * @param executionId 执行ID（可选）
+     * @return 上下文实例
+     * @throws ServiceException 当加载失败或数据损坏时抛出
+     */
+    public static FlowContextHolder loadState(FlowStateStore stateStore, Long flowId, String executionId) {
+        FlowStateCache localCache = stateStore.getLocalCache();
+        FlowStateCache remoteCache = stateStore.getRemoteCache();
         try {
             log.info("Loading state for flow: {}, execution: {}", flowId, executionId);
 
-            String l1CacheKey = L1_CACHE.generateCacheKey(flowId, executionId);
-            String serializedContext = L1_CACHE.get(l1CacheKey).orElse(null);
+            String l1CacheKey = localCache.generateCacheKey(flowId, executionId);
+            byte[] serializedContext = localCache.get(l1CacheKey).orElse(null);
+            Map<String, byte[]> deltas = null;
 
             if (serializedContext != null) {
-                log.info("Loaded state from L1 Cache (Caffeine) for flow: {}, execution: {}", flowId, executionId);
+                deltas = localCache.getFields(l1CacheKey).orElse(null);
+                if (deltas == null) {
+                    log.info("Delta fields missing in L1 Cache (Caffeine) for flow: {}, execution: {}. Trying L2 Cache (Redis).", flowId, executionId);
+                    serializedContext = null;
+                } else {
+                    log.info("Loaded state from L1 Cache (Caffeine) for flow: {}, execution: {}", flowId, executionId);
+                }
             } else {
                 log.info("State not found in L1 Cache (Caffeine) for flow: {}, execution: {}. Trying L2 Cache (Redis).", flowId, executionId);
-                if (L2_CACHE != null) {
-                    try {
-                        String l2CacheKey = L2_CACHE.generateCacheKey(flowId, executionId);
-                        serializedContext = L2_CACHE.get(l2CacheKey).orElse(null);
-
-                        if (serializedContext != null) {
-                            log.info("Loaded state from L2 Cache (Redis) for flow: {}, execution: {}. Caching to L1 Cache (Caffeine).", flowId, executionId);
-                            // 回填到 L1 Cache
-                            L1_CACHE.put(l1CacheKey, serializedContext);
-                        } else {
-                            log.warn("State not found in L2 Cache (Redis) for flow: {}, execution: {}", flowId, executionId);
-                            // Fall through to throw ServiceException if not found in any cache
-                        }
-                    } catch (Exception l2Ex) {
-                        log.error("Failed to load flow state from L2 Cache (Redis) for flow: {}, execution: {}. Error: {}", flowId, executionId, l2Ex.getMessage(), l2Ex);
-                        // 根据策略决定是否抛出异常或尝试其他恢复机制
-                        // 此处不立即抛出，允许后续检查 serializedContext 是否为 null
+            }
+
+            if (serializedContext == null) {
+                try {
+                    String l2CacheKey = remoteCache.generateCacheKey(flowId, executionId);
+                    serializedContext = remoteCache.get(l2CacheKey).orElse(null);
+
+                    if (serializedContext != null) {
+                        deltas = remoteCache.getFields(l2CacheKey)
+                                .orElseThrow(() -> new ServiceException("Failed to load state deltas from L2 Cache (Redis)"));
+                        log.info("Loaded state from L2 Cache (Redis) for flow: {}, execution: {}. Caching to L1 Cache (Caffeine).", flowId, executionId);
+                        // 回填到 L1 Cache
+                        localCache.put(l1CacheKey, serializedContext);
+                        localCache.resetFields(l1CacheKey);
+                        localCache.putFields(l1CacheKey, deltas);
+                    } else {
+                        log.warn("State not found in L2 Cache (Redis) for flow: {}, execution: {}", flowId, executionId);
+                        // Fall through to throw ServiceException if not found in any cache
                     }
+                } catch (Exception l2Ex) {
+                    log.error("Failed to load flow state from L2 Cache (Redis) for flow: {}, execution: {}. Error: {}", flowId, executionId, l2Ex.getMessage(), l2Ex);
+                    // 根据策略决定是否抛出异常或尝试其他恢复机制
+                    // 此处不立即抛出，允许后续检查 serializedContext 是否为 null
+                    serializedContext = null;
                 }
             }
 
@@ -441,15 +529,19 @@ public class FlowContextHolder implements Serializable {
                 throw new ServiceException("No saved state found for flow: " + flowId + " and execution: " + executionId + " in any cache (L1/L2).");
             }
 
-            Map<String, Object> contextData = STATE_SERIALIZER.deserialize(serializedContext);
+            Map<String, Object> contextData = stateStore.getSerializer().deserialize(serializedContext);
             if (contextData == null) {
                  throw new ServiceException("Deserialized context data is null for flow: " + flowId + " and execution: " + executionId + ". Serialized data might be corrupt or empty.");
             }
 
-            FlowContextHolder holder = new FlowContextHolder(flowId, (long) contextData.getOrDefault("startTime", SystemClock.now()), executionId, Maps.newConcurrentMap());
+            FlowContextHolder holder = new FlowContextHolder(stateStore, flowId, ((Number) contextData.getOrDefault("startTime", SystemClock.now())).longValue(), executionId, Maps.newConcurrentMap());
             Object variablesMap = contextData.get("variables");
             if (variablesMap instanceof Map) {
-                holder.variables.putAll((Map<String, Object>) variablesMap);
+                ((Map<String, Object>) variablesMap).forEach((key, value) -> {
+                    if (value != null) {
+                        holder.variables.put(key, value);
+                    }
+                });
             } else if (variablesMap != null) {
                 log.warn("Variables in deserialized context is not a Map for flow: {}, execution: {}. Variables: {}", flowId, executionId, variablesMap);
             }
@@ -464,6 +556,11 @@ public class FlowContextHolder implements Serializable {
                 log.warn("Loading context with newer version: {} (current version: {}) for flow: {}, execution: {}", version, VERSION, flowId, executionId);
             }
 
+            // 应用快照之后的增量
+            holder.snapshotCheckpoint = ((Number) contextData.getOrDefault("checkpoint", 0)).longValue();
+            holder.checkpoint = holder.snapshotCheckpoint;
+            holder.applyDeltas(deltas);
+
             return holder;
         } catch (SerializationException se) {
             log.error("Deserialization failed for flow: {}, execution: {}. Error: {}", flowId, executionId, se.getMessage(), se);
@@ -473,4 +570,119 @@ public class FlowContextHolder implements Serializable {
             throw new ServiceException("Failed to load flow state", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 容器中的状态存储，未注册时抛出异常
+     */
+    private static FlowStateStore stateStore() {
+        return ApplicationContextHolder.getBean(FlowStateStore.class);
+    }
+
+    /**
+     * 应用检查点序号大于快照的增量字段
+     */
+    private void applyDeltas(Map<String, byte[]> deltas) {
+        if (deltas == null || deltas.isEmpty()) {
+            return;
+        }
+        FlowStateSerializer serializer = stateStore.getSerializer();
+        deltas.forEach((key, serializedField) -> {
+            Map<String, Object> field = serializer.deserialize(serializedField);
+            if (field == null || !(field.get(DELTA_CHECKPOINT) instanceof Number number)) {
+                log.warn("Ignore malformed state delta [{}] for flow: {}, execution: {}", key, flowId, executionId);
+                return;
+            }
+            long fieldCheckpoint = number.longValue();
+            if (fieldCheckpoint <= snapshotCheckpoint) {
+                return;
+            }
+            Object value = field.get(DELTA_VALUE);
+            if (Boolean.TRUE.equals(field.get(DELTA_REMOVED)) || value == null) {
+                variables.remove(key);
+            } else {
+                variables.put(key, value);
+            }
+            checkpoint = Math.max(checkpoint, fieldCheckpoint);
+        });
+    }
+
+    /**
+     * 变量视图，写入、删除时记录脏标记
+     */
+    private final class TrackedVariables extends AbstractMap<String, Object> {
+
+        @Override
+        public int size() {
+            return variables.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return variables.containsKey(key);
+        }
+
+        @Override
+        public Object get(Object key) {
+            return variables.get(key);
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            Object previous = variables.put(key, value);
+            dirtyKeys.add(key);
+            return previous;
+        }
+
+        @Override
+        public Object remove(Object key) {
+            Object previous = variables.remove(key);
+            if (key instanceof String name) {
+                dirtyKeys.add(name);
+            }
+            return previous;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    Iterator<Entry<String, Object>> iterator = variables.entrySet().iterator();
+                    return new Iterator<>() {
+                        private String currentKey;
+
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            Entry<String, Object> entry = iterator.next();
+                            currentKey = entry.getKey();
+                            return new SimpleEntry<>(entry) {
+                                @Override
+                                public Object setValue(Object value) {
+                                    variables.put(getKey(), value);
+                                    dirtyKeys.add(getKey());
+                                    return super.setValue(value);
+                                }
+                            };
+                        }
+
+                        @Override
+                        public void remove() {
+                            iterator.remove();
+                            dirtyKeys.add(currentKey);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return variables.size();
+                }
+            };
+        }
+    }
+}
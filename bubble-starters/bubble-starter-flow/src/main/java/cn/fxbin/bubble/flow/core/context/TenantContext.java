@@ -49,4 +49,28 @@ public class TenantContext {
     public static Optional<String> getTenantIdSafe() {
         return Optional.ofNullable(getTenantId());
     }
+
+    /**
+     * Run the action with the given tenant id, restoring the previous tenant id afterwards.
+     *
+     * @param tenantId tenant id, null to run without tenant
+     * @param action   action
+     */
+    public static void runWith(String tenantId, Runnable action) {
+        String previous = getTenantId();
+        setOrClear(tenantId);
+        try {
+            action.run();
+        } finally {
+            setOrClear(previous);
+        }
+    }
+
+    private static void setOrClear(String tenantId) {
+        if (tenantId == null) {
+            clear();
+        } else {
+            setTenantId(tenantId);
+        }
+    }
 }
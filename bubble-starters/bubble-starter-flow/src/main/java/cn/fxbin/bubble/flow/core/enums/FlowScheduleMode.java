@@ -0,0 +1,20 @@
+package cn.fxbin.bubble.flow.core.enums;
+
+/**
+ * 流程调度模式（EL 生成方式）
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/29 17:00
+ */
+public enum FlowScheduleMode {
+    /**
+     * 按拓扑顺序串行，仅并行同一源节点下无依赖的后继节点
+     */
+    SEQUENTIAL,
+
+    /**
+     * 按 DAG 层级分组，同一层级的节点全部并行
+     */
+    LEVEL
+}
@@ -0,0 +1,20 @@
+package cn.fxbin.bubble.flow.core.enums;
+
+/**
+ * 流程状态序列化格式
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/30 11:00
+ */
+public enum FlowStateFormat {
+    /**
+     * JSON，可读性好，不保留变量类型
+     */
+    JSON,
+
+    /**
+     * Smile 二进制，保留变量类型，可选压缩
+     */
+    BINARY
+}
@@ -0,0 +1,47 @@
+package cn.fxbin.bubble.flow.core.enums;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 执行汇总粒度
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/31 14:00
+ */
+public enum RollupGranularity {
+    /**
+     * 按分钟汇总
+     */
+    MINUTE,
+
+    /**
+     * 按小时汇总
+     */
+    HOUR,
+
+    /**
+     * 全量汇总，每个流程版本、状态仅一个桶
+     */
+    TOTAL;
+
+    /**
+     * 全量汇总桶的时间
+     */
+    public static final LocalDateTime TOTAL_BUCKET = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /**
+     * 获取时间所属的桶
+     *
+     * @param time 时间
+     * @return 桶的起始时间
+     */
+    public LocalDateTime bucketOf(LocalDateTime time) {
+        return switch (this) {
+            case MINUTE -> time.truncatedTo(ChronoUnit.MINUTES);
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case TOTAL -> TOTAL_BUCKET;
+        };
+    }
+}
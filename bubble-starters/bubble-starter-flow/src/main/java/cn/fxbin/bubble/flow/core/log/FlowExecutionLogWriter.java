@@ -0,0 +1,480 @@
+package cn.fxbin.bubble.flow.core.log;
+
+import cn.fxbin.bubble.flow.core.config.FlowProperties;
+import cn.fxbin.bubble.flow.core.context.TenantContext;
+import cn.fxbin.bubble.flow.core.mapper.FlowExecutionLogMapper;
+import cn.fxbin.bubble.flow.core.mapper.FlowNodeExecutionLogMapper;
+import cn.fxbin.bubble.flow.core.model.entity.FlowExecutionLog;
+import cn.fxbin.bubble.flow.core.model.entity.FlowNodeExecutionLog;
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.bean.copier.CopyOptions;
+import com.baomidou.mybatisplus.core.toolkit.IdWorker;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * FlowExecutionLogWriter 执行日志异步批量写入
+ *
+ * <p>
+ *     流程 / 节点执行日志先进入有界缓冲区，同一条日志的多次更新合并为一次写入（后写入的非空字段覆盖先写入的），
+ *     由后台线程按 flushInterval 或缓冲数达到 batchSize 时以多行 insert / update 批量刷写，应用关闭时刷写剩余日志。
+ *     缓冲区已满时由调用线程同步刷写，或在 dropOnOverflow 开启时丢弃。
+ * </p>
+ * <p>
+ *     异步写入需通过 bubble.flow.execution-log.async 开启，未开启时每次保存立即写入数据库，写入后即可查询。
+ * </p>
+ * <p>
+ *     流程日志的 ID 在提交时即分配，调用方可立即使用；节点日志的自增 ID 在刷写后记录，
+ *     同一 (flowExecutionLogId, nodeId) 的后续保存即使未携带 ID 也会作为更新处理。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/31 10:00
+ */
+@Slf4j
+@Component
+public class FlowExecutionLogWriter implements InitializingBean, DisposableBean {
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final CopyOptions MERGE_OPTIONS = CopyOptions.create().ignoreNullValue();
+
+    private final FlowExecutionLogMapper flowExecutionLogMapper;
+
+    private final FlowNodeExecutionLogMapper flowNodeExecutionLogMapper;
+
+    private final TransactionOperations transactionOperations;
+
+    private final FlowProperties.ExecutionLog config;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * 保证批次按提交顺序写入
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private Map<Object, Pending<FlowExecutionLog>> flowLogs = new LinkedHashMap<>();
+
+    private Map<Object, Pending<FlowNodeExecutionLog>> nodeLogs = new LinkedHashMap<>();
+
+    /**
+     * 已写入的节点日志ID：(flowExecutionLogId, nodeId) -> id
+     */
+    private final Cache<NodeLogKey, Long> nodeLogIds = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final LongAdder submitted = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LongAdder written = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder callerRuns = new LongAdder();
+
+    private final LongAdder flushCount = new LongAdder();
+
+    private final AtomicLong lastFlushMillis = new AtomicLong();
+
+    private final AtomicLong maxFlushMillis = new AtomicLong();
+
+    private final LongAdder totalFlushMillis = new LongAdder();
+
+    private ScheduledExecutorService scheduler;
+
+    private volatile boolean closed;
+
+    public FlowExecutionLogWriter(FlowExecutionLogMapper flowExecutionLogMapper,
+                                  FlowNodeExecutionLogMapper flowNodeExecutionLogMapper,
+                                  ObjectProvider<TransactionOperations> transactionOperations,
+                                  FlowProperties flowProperties) {
+        this.flowExecutionLogMapper = flowExecutionLogMapper;
+        this.flowNodeExecutionLogMapper = flowNodeExecutionLogMapper;
+        this.transactionOperations = transactionOperations.getIfUnique(TransactionOperations::withoutTransaction);
+        this.config = flowProperties.getExecutionLog();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!config.isAsync()) {
+            return;
+        }
+        long intervalNanos = config.getFlushInterval().toNanos();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("flow-log-writer").daemon(true).factory());
+        this.scheduler.scheduleWithFixedDelay(this::flushQuietly, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        log.info("FlowExecutionLogWriter initialized with queueCapacity: {}, batchSize: {}, flushInterval: {}",
+                config.getQueueCapacity(), config.getBatchSize(), config.getFlushInterval());
+    }
+
+    /**
+     * 保存或更新流程执行日志，新日志在返回前分配 ID
+     *
+     * @param flowLog 流程执行日志
+     */
+    public void write(FlowExecutionLog flowLog) {
+        boolean insert = flowLog.getId() == null;
+        if (insert) {
+            flowLog.setId(IdWorker.getId(flowLog));
+        }
+        if (!isAsync()) {
+            if (insert) {
+                flowExecutionLogMapper.insert(flowLog);
+            } else {
+                flowExecutionLogMapper.updateById(flowLog);
+            }
+            return;
+        }
+        FlowExecutionLog copy = BeanUtil.copyProperties(flowLog, FlowExecutionLog.class);
+        enqueue(true, flowLog.getId(), new Pending<>(copy, insert, TenantContext.getTenantId()));
+    }
+
+    /**
+     * 保存或更新节点执行日志
+     *
+     * @param nodeLog 节点执行日志
+     */
+    public void write(FlowNodeExecutionLog nodeLog) {
+        if (!isAsync()) {
+            if (nodeLog.getId() == null) {
+                flowNodeExecutionLogMapper.insert(nodeLog);
+            } else {
+                flowNodeExecutionLogMapper.updateById(nodeLog);
+            }
+            return;
+        }
+        NodeLogKey key = NodeLogKey.of(nodeLog);
+        if (nodeLog.getId() == null && key != null) {
+            Long id = nodeLogIds.getIfPresent(key);
+            if (id != null) {
+                nodeLog.setId(id);
+            }
+        }
+        boolean insert = nodeLog.getId() == null;
+        Object pendingKey = key != null ? key : insert ? new Object() : nodeLog.getId();
+        FlowNodeExecutionLog copy = BeanUtil.copyProperties(nodeLog, FlowNodeExecutionLog.class);
+        enqueue(false, pendingKey, new Pending<>(copy, insert, TenantContext.getTenantId()));
+    }
+
+    /**
+     * 将尚未刷写的节点日志变更合并到查询结果
+     *
+     * @param flowExecutionLogId 流程执行日志ID
+     * @param nodeId             节点ID
+     * @param stored             数据库中的节点日志，可为 null
+     * @return 合并后的节点日志
+     */
+    public FlowNodeExecutionLog applyPending(Long flowExecutionLogId, String nodeId, FlowNodeExecutionLog stored) {
+        if (!isAsync()) {
+            return stored;
+        }
+        lock.lock();
+        try {
+            Pending<FlowNodeExecutionLog> pending = nodeLogs.get(new NodeLogKey(flowExecutionLogId, nodeId));
+            if (pending == null) {
+                return stored;
+            }
+            if (stored == null) {
+                return BeanUtil.copyProperties(pending.entity, FlowNodeExecutionLog.class);
+            }
+            BeanUtil.copyProperties(pending.entity, stored, MERGE_OPTIONS);
+            return stored;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 立即刷写所有待写入的日志
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<Object, Pending<FlowExecutionLog>> flows;
+            Map<Object, Pending<FlowNodeExecutionLog>> nodes;
+            lock.lock();
+            try {
+                if (flowLogs.isEmpty() && nodeLogs.isEmpty()) {
+                    return;
+                }
+                flows = flowLogs;
+                nodes = nodeLogs;
+                flowLogs = new LinkedHashMap<>();
+                nodeLogs = new LinkedHashMap<>();
+            } finally {
+                lock.unlock();
+            }
+            long start = System.nanoTime();
+            // 先写流程日志，再写引用它的节点日志
+            writeFlowLogs(flows.values());
+            writeNodeLogs(nodes.values());
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            flushCount.increment();
+            totalFlushMillis.add(elapsed);
+            lastFlushMillis.set(elapsed);
+            maxFlushMillis.accumulateAndGet(elapsed, Math::max);
+            log.debug("Flushed execution logs, flow: {}, node: {}, cost: {}ms", flows.size(), nodes.size(), elapsed);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 获取写入统计信息
+     *
+     * @return {@link FlowExecutionLogWriterStats}
+     */
+    public FlowExecutionLogWriterStats getStats() {
+        return FlowExecutionLogWriterStats.builder()
+                .queueDepth(getQueueDepth())
+                .queueCapacity(config.getQueueCapacity())
+                .submittedCount(submitted.sum())
+                .coalescedCount(coalesced.sum())
+                .writtenCount(written.sum())
+                .droppedCount(dropped.sum())
+                .callerRunsCount(callerRuns.sum())
+                .flushCount(flushCount.sum())
+                .lastFlushMillis(lastFlushMillis.get())
+                .maxFlushMillis(maxFlushMillis.get())
+                .totalFlushMillis(totalFlushMillis.sum())
+                .build();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        closed = true;
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        if (!scheduler.awaitTermination(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("FlowExecutionLogWriter did not terminate in {}", SHUTDOWN_TIMEOUT);
+        }
+        flush();
+        log.info("FlowExecutionLogWriter closed, {}", getStats());
+    }
+
+    private boolean isAsync() {
+        return config.isAsync() && !closed;
+    }
+
+    private int getQueueDepth() {
+        lock.lock();
+        try {
+            return flowLogs.size() + nodeLogs.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void enqueue(boolean flowLog, Object key, Pending<T> pending) {
+        submitted.increment();
+        while (true) {
+            int depth;
+            lock.lock();
+            try {
+                Map<Object, Pending<T>> buffer = (Map<Object, Pending<T>>) (Map<Object, ?>) (flowLog ? flowLogs : nodeLogs);
+                Pending<T> existing = buffer.get(key);
+                if (existing != null) {
+                    BeanUtil.copyProperties(pending.entity, existing.entity, MERGE_OPTIONS);
+                    coalesced.increment();
+                    return;
+                }
+                depth = flowLogs.size() + nodeLogs.size();
+                if (depth < config.getQueueCapacity()) {
+                    buffer.put(key, pending);
+                    depth++;
+                } else {
+                    depth = -1;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (depth >= 0) {
+                if (depth >= config.getBatchSize()) {
+                    requestFlush();
+                }
+                return;
+            }
+            if (config.isDropOnOverflow()) {
+                dropped.increment();
+                log.warn("Execution log queue is full, capacity: {}, dropped: {}", config.getQueueCapacity(), pending.entity);
+                return;
+            }
+            // 队列已满，由调用线程刷写后重新放入
+            callerRuns.increment();
+            flush();
+        }
+    }
+
+    private void requestFlush() {
+        if (!flushRequested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduler.execute(() -> {
+                flushRequested.set(false);
+                flushQuietly();
+            });
+        } catch (Exception e) {
+            flushRequested.set(false);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Flush execution logs failed", e);
+        }
+    }
+
+    private void writeFlowLogs(Collection<Pending<FlowExecutionLog>> pendings) {
+        groupByTenant(pendings).forEach((tenantId, group) -> TenantContext.runWith(tenantId, () -> {
+            writeBatch(group.inserts,
+                    batch -> flowExecutionLogMapper.insert(batch, config.getBatchSize()),
+                    flowExecutionLogMapper::insert, "insert flow execution log");
+            writeBatch(group.updates,
+                    batch -> flowExecutionLogMapper.updateById(batch, config.getBatchSize()),
+                    flowExecutionLogMapper::updateById, "update flow execution log");
+        }));
+    }
+
+    private void writeNodeLogs(Collection<Pending<FlowNodeExecutionLog>> pendings) {
+        groupByTenant(pendings).forEach((tenantId, group) -> TenantContext.runWith(tenantId, () -> {
+            List<FlowNodeExecutionLog> inserts = new ArrayList<>(group.inserts.size());
+            for (FlowNodeExecutionLog nodeLog : group.inserts) {
+                // 前一批次已写入同一节点日志时改为更新
+                NodeLogKey key = NodeLogKey.of(nodeLog);
+                Long id = key != null ? nodeLogIds.getIfPresent(key) : null;
+                if (id != null) {
+                    group.updates.add(nodeLog.setId(id));
+                } else {
+                    inserts.add(nodeLog);
+                }
+            }
+            writeBatch(inserts,
+                    batch -> flowNodeExecutionLogMapper.insert(batch, config.getBatchSize()),
+                    flowNodeExecutionLogMapper::insert, "insert node execution log");
+            for (FlowNodeExecutionLog nodeLog : inserts) {
+                NodeLogKey key = NodeLogKey.of(nodeLog);
+                if (key != null && nodeLog.getId() != null) {
+                    nodeLogIds.put(key, nodeLog.getId());
+                }
+            }
+            writeBatch(group.updates,
+                    batch -> flowNodeExecutionLogMapper.updateById(batch, config.getBatchSize()),
+                    flowNodeExecutionLogMapper::updateById, "update node execution log");
+        }));
+    }
+
+    /**
+     * 批量写入，失败时回滚并逐条重试，仍失败的日志计入丢弃
+     */
+    private <T> void writeBatch(List<T> entities, Consumer<List<T>> batchWriter, Consumer<T> rowWriter, String operation) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        if (entities.size() == 1) {
+            writeRow(entities.getFirst(), rowWriter, operation);
+            return;
+        }
+        try {
+            transactionOperations.executeWithoutResult(status -> batchWriter.accept(entities));
+            written.add(entities.size());
+        } catch (Exception e) {
+            log.warn("Batch {} failed, size: {}, retrying one by one", operation, entities.size(), e);
+            entities.forEach(entity -> writeRow(entity, rowWriter, operation));
+        }
+    }
+
+    private <T> void writeRow(T entity, Consumer<T> rowWriter, String operation) {
+        try {
+            rowWriter.accept(entity);
+            written.increment();
+        } catch (Exception e) {
+            dropped.increment();
+            log.error("Failed to {}: {}", operation, entity, e);
+        }
+    }
+
+    /**
+     * 按提交日志时的租户分组，保证租户插件生成的条件与同步写入一致
+     */
+    private static <T> Map<String, Group<T>> groupByTenant(Collection<Pending<T>> pendings) {
+        Map<String, Group<T>> groups = new LinkedHashMap<>();
+        for (Pending<T> pending : pendings) {
+            Group<T> group = groups.computeIfAbsent(pending.tenantId, k -> new Group<>());
+            (pending.insert ? group.inserts : group.updates).add(pending.entity);
+        }
+        return groups;
+    }
+
+    /**
+     * 待写入的日志
+     */
+    private static final class Pending<T> {
+
+        private final T entity;
+
+        private final boolean insert;
+
+        private final String tenantId;
+
+        Pending(T entity, boolean insert, String tenantId) {
+            this.entity = entity;
+            this.insert = insert;
+            this.tenantId = tenantId;
+        }
+    }
+
+    private static final class Group<T> {
+
+        private final List<T> inserts = new ArrayList<>();
+
+        private final List<T> updates = new ArrayList<>();
+    }
+
+    /**
+     * 节点日志的业务键
+     */
+    private record NodeLogKey(Long flowExecutionLogId, String nodeId) {
+
+        static NodeLogKey of(FlowNodeExecutionLog nodeLog) {
+            if (nodeLog.getFlowExecutionLogId() == null || nodeLog.getNodeId() == null) {
+                return null;
+            }
+            return new NodeLogKey(nodeLog.getFlowExecutionLogId(), nodeLog.getNodeId());
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package cn.fxbin.bubble.flow.core.log;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Statistics of {@link FlowExecutionLogWriter}.
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/31 10:00
+ */
+@Getter
+@Builder
+@ToString
+public class FlowExecutionLogWriterStats {
+
+    /**
+     * 当前待写入的日志数（合并后）
+     */
+    private final int queueDepth;
+
+    /**
+     * 队列容量
+     */
+    private final int queueCapacity;
+
+    /**
+     * 提交的写入次数
+     */
+    private final long submittedCount;
+
+    /**
+     * 被合并到已有待写入日志的次数
+     */
+    private final long coalescedCount;
+
+    /**
+     * 写入数据库的行数
+     */
+    private final long writtenCount;
+
+    /**
+     * 丢弃的日志数（队列已满或写入失败）
+     */
+    private final long droppedCount;
+
+    /**
+     * 队列已满时由调用线程直接写入的次数
+     */
+    private final long callerRunsCount;
+
+    /**
+     * 刷写次数
+     */
+    private final long flushCount;
+
+    /**
+     * 最近一次刷写耗时（毫秒）
+     */
+    private final long lastFlushMillis;
+
+    /**
+     * 最大刷写耗时（毫秒）
+     */
+    private final long maxFlushMillis;
+
+    /**
+     * 累计刷写耗时（毫秒）
+     */
+    private final long totalFlushMillis;
+
+    /**
+     * 平均刷写耗时（毫秒）
+     *
+     * @return double
+     */
+    public double getAvgFlushMillis() {
+        return flushCount == 0 ? 0 : (double) totalFlushMillis / flushCount;
+    }
+
+}
@@ -3,6 +3,7 @@ package cn.fxbin.bubble.flow.core.mapper;
 import cn.fxbin.bubble.data.mybatisplus.mapper.BaseMapperX;
 import cn.fxbin.bubble.flow.core.model.entity.FlowArchiveRecord;
 import cn.fxbin.bubble.flow.core.model.entity.FlowExecutionLog;
+import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
@@ -87,5 +88,99 @@ public interface FlowArchiveMapper extends BaseMapperX<FlowArchiveRecord> {
            "#{version}" +
            "</foreach>" +
            "</script>")
-    void backupVersionHistories(@Param("flowId") Long flowId, @Param("versions") List<Integer> versions);
+    int backupVersionHistories(@Param("flowId") Long flowId, @Param("versions") List<Integer> versions);
+
+    /**
+     * 按 id 顺序查询下一批执行日志的最大ID，作为分块搬运的区间上界
+     * <p>需要 (flow_id, flow_version, id) 索引，见 {@link cn.fxbin.bubble.flow.core.model.entity.FlowArchiveOperationLog}</p>
+     *
+     * @param flowId 流程ID
+     * @param version 版本号
+     * @param lastId 上一分块的区间上界（不含）
+     * @param limit 分块大小
+     * @return 区间上界（含），没有剩余记录时返回 null
+     */
+    @Select("SELECT MAX(id) FROM (" +
+           "SELECT id FROM flow_execution_log " +
+           "WHERE flow_id = #{flowId} AND flow_version = #{version} AND id > #{lastId} " +
+           "ORDER BY id ASC " +
+           "LIMIT #{limit}" +
+           ") t")
+    Long selectExecutionLogChunkEnd(@Param("flowId") Long flowId,
+                                    @Param("version") Integer version,
+                                    @Param("lastId") Long lastId,
+                                    @Param("limit") Integer limit);
+
+    /**
+     * 复制 id 区间内的执行日志到归档表，已存在的记录保持不变，便于中断后重做；其他写入错误照常抛出
+     *
+     * @param flowId 流程ID
+     * @param version 版本号
+     * @param fromId 区间下界（不含）
+     * @param toId 区间上界（含）
+     * @return 影响的行数
+     */
+    @Insert("INSERT INTO flow_execution_log_archive " +
+           "SELECT * FROM flow_execution_log " +
+           "WHERE flow_id = #{flowId} AND flow_version = #{version} " +
+           "AND id > #{fromId} AND id <= #{toId} " +
+           "ON DUPLICATE KEY UPDATE id = id")
+    int copyExecutionLogsToArchive(@Param("flowId") Long flowId,
+                                   @Param("version") Integer version,
+                                   @Param("fromId") Long fromId,
+                                   @Param("toId") Long toId);
+
+    /**
+     * 复制 id 区间内的执行日志到备份表，已存在的记录保持不变，便于中断后重做；其他写入错误照常抛出
+     *
+     * @param flowId 流程ID
+     * @param version 版本号
+     * @param fromId 区间下界（不含）
+     * @param toId 区间上界（含）
+     * @return 影响的行数
+     */
+    @Insert("INSERT INTO flow_execution_log_backup " +
+           "SELECT * FROM flow_execution_log " +
+           "WHERE flow_id = #{flowId} AND flow_version = #{version} " +
+           "AND id > #{fromId} AND id <= #{toId} " +
+           "ON DUPLICATE KEY UPDATE id = id")
+    int copyExecutionLogsToBackup(@Param("flowId") Long flowId,
+                                  @Param("version") Integer version,
+                                  @Param("fromId") Long fromId,
+                                  @Param("toId") Long toId);
+
+    /**
+     * 统计 id 区间内尚未复制到归档表的执行日志数，删除前校验用
+     *
+     * @param flowId 流程ID
+     * @param version 版本号
+     * @param fromId 区间下界（不含）
+     * @param toId 区间上界（含）
+     * @return 未归档的记录数
+     */
+    @Select("SELECT COUNT(*) FROM flow_execution_log l " +
+           "WHERE l.flow_id = #{flowId} AND l.flow_version = #{version} " +
+           "AND l.id > #{fromId} AND l.id <= #{toId} " +
+           "AND NOT EXISTS (SELECT 1 FROM flow_execution_log_archive a WHERE a.id = l.id)")
+    long countUnarchivedExecutionLogs(@Param("flowId") Long flowId,
+                                      @Param("version") Integer version,
+                                      @Param("fromId") Long fromId,
+                                      @Param("toId") Long toId);
+
+    /**
+     * 删除 id 区间内的执行日志
+     *
+     * @param flowId 流程ID
+     * @param version 版本号
+     * @param fromId 区间下界（不含）
+     * @param toId 区间上界（含）
+     * @return 删除的记录数
+     */
+    @Delete("DELETE FROM flow_execution_log " +
+           "WHERE flow_id = #{flowId} AND flow_version = #{version} " +
+           "AND id > #{fromId} AND id <= #{toId}")
+    int deleteExecutionLogs(@Param("flowId") Long flowId,
+                            @Param("version") Integer version,
+                            @Param("fromId") Long fromId,
+                            @Param("toId") Long toId);
 }
\ No newline at end of file
@@ -2,10 +2,12 @@ package cn.fxbin.bubble.flow.core.mapper;
 
 import cn.fxbin.bubble.data.mybatisplus.mapper.BaseMapperX;
 import cn.fxbin.bubble.flow.core.model.entity.FlowExecutionLog;
+import com.baomidou.mybatisplus.annotation.InterceptorIgnore;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -38,6 +40,43 @@ public interface FlowExecutionLogMapper extends BaseMapperX<FlowExecutionLog> {
             "ORDER BY flow_version DESC")
     List<Map<String, Object>> selectVersionExecutionStats(@Param("flowId") Long flowId);
 
+    /**
+     * 查询流程各版本的执行与耗时统计
+     * <p>在一次分组查询中完成次数、成功率、耗时最小/最大/平均值、P50/P95/P99（最近秩法）与首末执行时间的统计，
+     * 耗时与首末执行时间仅统计已结束的执行；分位数依赖窗口函数（MySQL 8.0+）</p>
+     *
+     * @param flowId 流程ID
+     * @return 版本统计列表，包含版本号、执行次数、成功次数、失败次数、平均耗时（秒）、
+     *         耗时最小/最大/分位值（毫秒）、首次与最后执行时间
+     */
+    @Select("SELECT flow_version AS version, " +
+            "COUNT(*) AS totalCount, " +
+            "SUM(CASE WHEN status = 'SUCCESS' THEN 1 ELSE 0 END) AS successCount, " +
+            "SUM(CASE WHEN status = 'FAILED' THEN 1 ELSE 0 END) AS failedCount, " +
+            "AVG(duration_seconds) AS avgDurationSeconds, " +
+            "MIN(duration_ms) AS minDurationMs, " +
+            "MAX(duration_ms) AS maxDurationMs, " +
+            "MIN(CASE WHEN rn >= CEIL(completed * 0.50) THEN duration_ms END) AS p50DurationMs, " +
+            "MIN(CASE WHEN rn >= CEIL(completed * 0.95) THEN duration_ms END) AS p95DurationMs, " +
+            "MIN(CASE WHEN rn >= CEIL(completed * 0.99) THEN duration_ms END) AS p99DurationMs, " +
+            "MIN(CASE WHEN duration_ms IS NOT NULL THEN start_time END) AS firstExecutionTime, " +
+            "MAX(CASE WHEN duration_ms IS NOT NULL THEN start_time END) AS lastExecutionTime " +
+            "FROM (" +
+            "  SELECT flow_version, status, start_time, duration_seconds, duration_ms, " +
+            "  ROW_NUMBER() OVER (PARTITION BY flow_version ORDER BY duration_ms IS NULL, duration_ms) AS rn, " +
+            "  COUNT(duration_ms) OVER (PARTITION BY flow_version) AS completed " +
+            "  FROM (" +
+            "    SELECT flow_version, `status`, start_time, " +
+            "    TIMESTAMPDIFF(SECOND, start_time, end_time) AS duration_seconds, " +
+            "    TIMESTAMPDIFF(MICROSECOND, start_time, end_time) / 1000 AS duration_ms " +
+            "    FROM flow_execution_log " +
+            "    WHERE flow_id = #{flowId} AND flow_version IS NOT NULL" +
+            "  ) d" +
+            ") r " +
+            "GROUP BY flow_version " +
+            "ORDER BY flow_version DESC")
+    List<Map<String, Object>> selectVersionPerformanceStats(@Param("flowId") Long flowId);
+
     /**
      * 查询指定版本的最近执行记录
      * <p>用于版本性能分析和问题排查</p>
@@ -73,4 +112,30 @@ public interface FlowExecutionLogMapper extends BaseMapperX<FlowExecutionLog> {
                                                      @Param("beforeDays") Integer beforeDays, 
                                                      @Param("limit") Integer limit);
 
-}
\ No newline at end of file
+    /**
+     * 按 (end_time, id) 顺序查询高水位之后已结束的执行记录（所有租户）
+     * <p>用于执行汇总，仅返回汇总所需的列，需要 (end_time, id) 索引</p>
+     *
+     * @param lastEndTime 高水位结束时间，为 null 时从头开始
+     * @param lastId      高水位记录ID
+     * @param upperBound  结束时间上限（含）
+     * @param limit       限制条数
+     * @return 执行记录列表
+     */
+    @InterceptorIgnore(tenantLine = "true")
+    @Select("<script>" +
+            "SELECT id, tenant_id, flow_id, flow_version, `status`, start_time, end_time " +
+            "FROM flow_execution_log " +
+            "WHERE end_time IS NOT NULL AND end_time &lt;= #{upperBound} " +
+            "<if test='lastEndTime != null'>" +
+            "AND (end_time &gt; #{lastEndTime} OR (end_time = #{lastEndTime} AND id &gt; #{lastId})) " +
+            "</if>" +
+            "ORDER BY end_time ASC, id ASC " +
+            "LIMIT #{limit}" +
+            "</script>")
+    List<FlowExecutionLog> selectCompletedAfter(@Param("lastEndTime") LocalDateTime lastEndTime,
+                                                @Param("lastId") Long lastId,
+                                                @Param("upperBound") LocalDateTime upperBound,
+                                                @Param("limit") Integer limit);
+
+}
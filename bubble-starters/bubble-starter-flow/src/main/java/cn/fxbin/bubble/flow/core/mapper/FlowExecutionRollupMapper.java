@@ -0,0 +1,72 @@
+package cn.fxbin.bubble.flow.core.mapper;
+
+import cn.fxbin.bubble.data.mybatisplus.mapper.BaseMapperX;
+import cn.fxbin.bubble.flow.core.enums.RollupGranularity;
+import cn.fxbin.bubble.flow.core.model.entity.FlowExecutionRollup;
+import com.baomidou.mybatisplus.annotation.InterceptorIgnore;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 流程执行汇总 Mapper 接口
+ * <p>提供对流程执行汇总表 (flow_execution_rollup) 的基本 CRUD 操作。</p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/31 14:00
+ */
+@Mapper
+public interface FlowExecutionRollupMapper extends BaseMapperX<FlowExecutionRollup> {
+
+    /**
+     * 批量写入汇总桶，桶已存在时以传入的值覆盖
+     * <p>租户ID由调用方显式给出，为 null 时写入空字符串</p>
+     *
+     * @param rollups 汇总桶
+     * @return 影响行数
+     */
+    @InterceptorIgnore(tenantLine = "true")
+    @Insert("<script>" +
+            "INSERT INTO flow_execution_rollup (id, tenant_id, flow_id, flow_version, `status`, granularity, bucket_time, " +
+            "execution_count, duration_sum_ms, duration_min_ms, duration_max_ms, duration_histogram, " +
+            "first_start_time, last_start_time, create_time, update_time) VALUES " +
+            "<foreach collection='rollups' item='r' separator=','>" +
+            "(#{r.id}, IFNULL(#{r.tenantId}, ''), #{r.flowId}, #{r.flowVersion}, #{r.status}, #{r.granularity}, #{r.bucketTime}, " +
+            "#{r.executionCount}, #{r.durationSumMs}, #{r.durationMinMs}, #{r.durationMaxMs}, " +
+            "#{r.durationHistogram,typeHandler=com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler}, " +
+            "#{r.firstStartTime}, #{r.lastStartTime}, NOW(), NOW())" +
+            "</foreach>" +
+            " ON DUPLICATE KEY UPDATE " +
+            "execution_count = VALUES(execution_count), " +
+            "duration_sum_ms = VALUES(duration_sum_ms), " +
+            "duration_min_ms = VALUES(duration_min_ms), " +
+            "duration_max_ms = VALUES(duration_max_ms), " +
+            "duration_histogram = VALUES(duration_histogram), " +
+            "first_start_time = VALUES(first_start_time), " +
+            "last_start_time = VALUES(last_start_time), " +
+            "update_time = VALUES(update_time)" +
+            "</script>")
+    int upsertBatch(@Param("rollups") List<FlowExecutionRollup> rollups);
+
+    /**
+     * 删除过期的汇总桶（所有租户）
+     *
+     * @param granularity 汇总粒度
+     * @param before      早于该时间的桶将被删除
+     * @param limit       单次删除的最大行数
+     * @return 删除行数
+     */
+    @InterceptorIgnore(tenantLine = "true")
+    @Delete("DELETE FROM flow_execution_rollup " +
+            "WHERE granularity = #{granularity} AND bucket_time < #{before} " +
+            "LIMIT #{limit}")
+    int deleteBucketsBefore(@Param("granularity") RollupGranularity granularity,
+                            @Param("before") LocalDateTime before,
+                            @Param("limit") int limit);
+
+}
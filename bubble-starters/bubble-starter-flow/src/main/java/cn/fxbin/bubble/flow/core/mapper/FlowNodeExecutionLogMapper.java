@@ -3,6 +3,12 @@ package cn.fxbin.bubble.flow.core.mapper;
 import cn.fxbin.bubble.data.mybatisplus.mapper.BaseMapperX;
 import cn.fxbin.bubble.flow.core.model.entity.FlowNodeExecutionLog;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 节点执行日志 Mapper 接口
@@ -15,6 +21,22 @@ import org.apache.ibatis.annotations.Mapper;
 @Mapper
 public interface FlowNodeExecutionLogMapper extends BaseMapperX<FlowNodeExecutionLog> {
 
-    // 可以在此添加自定义的 Mapper 方法
+    /**
+     * 查询流程各节点的平均执行耗时
+     * <p>仅统计指定时间之后执行成功的记录，用于调度计划的耗时估算</p>
+     *
+     * @param flowId 流程ID
+     * @param since  起始时间
+     * @return 节点耗时统计列表，包含节点ID、平均耗时、样本数
+     */
+    @Select("SELECT nl.node_id AS nodeId, " +
+            "AVG(nl.duration_ms) AS avgDurationMs, " +
+            "COUNT(*) AS sampleCount " +
+            "FROM flow_node_execution_log nl " +
+            "JOIN flow_execution_log fl ON fl.id = nl.flow_execution_log_id " +
+            "WHERE fl.flow_id = #{flowId} AND nl.status = 'SUCCESS' " +
+            "AND nl.duration_ms IS NOT NULL AND nl.start_time >= #{since} " +
+            "GROUP BY nl.node_id")
+    List<Map<String, Object>> selectAvgNodeDurations(@Param("flowId") Long flowId, @Param("since") LocalDateTime since);
 
 }
\ No newline at end of file
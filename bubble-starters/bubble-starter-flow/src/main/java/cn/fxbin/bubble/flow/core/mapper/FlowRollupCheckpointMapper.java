@@ -0,0 +1,30 @@
+package cn.fxbin.bubble.flow.core.mapper;
+
+import cn.fxbin.bubble.data.mybatisplus.mapper.BaseMapperX;
+import cn.fxbin.bubble.flow.core.model.entity.FlowRollupCheckpoint;
+import com.baomidou.mybatisplus.annotation.InterceptorIgnore;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+/**
+ * 汇总任务高水位 Mapper 接口
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/31 14:00
+ */
+@Mapper
+@InterceptorIgnore(tenantLine = "true")
+public interface FlowRollupCheckpointMapper extends BaseMapperX<FlowRollupCheckpoint> {
+
+    /**
+     * 查询并锁定高水位，需在事务中调用
+     *
+     * @param name 任务名称
+     * @return 高水位，不存在时返回 null
+     */
+    @Select("SELECT * FROM flow_rollup_checkpoint WHERE name = #{name} FOR UPDATE")
+    FlowRollupCheckpoint selectForUpdate(@Param("name") String name);
+
+}
@@ -3,6 +3,9 @@ package cn.fxbin.bubble.flow.core.mapper;
 import cn.fxbin.bubble.data.mybatisplus.mapper.BaseMapperX;
 import cn.fxbin.bubble.flow.core.model.entity.FlowVersionHistory;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
 /**
  * FlowVersionHistoryMapper
@@ -13,4 +16,23 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface FlowVersionHistoryMapper extends BaseMapperX<FlowVersionHistory> {
-}
\ No newline at end of file
+
+    /**
+     * 写入快照结构哈希，需要 structure_hash 列
+     *
+     * @param id            历史版本ID
+     * @param structureHash 结构哈希 JSON
+     * @return 更新行数
+     */
+    @Update("UPDATE flow_version_history SET structure_hash = #{structureHash} WHERE id = #{id}")
+    int updateStructureHash(@Param("id") Long id, @Param("structureHash") String structureHash);
+
+    /**
+     * 读取快照结构哈希，需要 structure_hash 列
+     *
+     * @param id 历史版本ID
+     * @return 结构哈希 JSON，未保存时为 null
+     */
+    @Select("SELECT structure_hash FROM flow_version_history WHERE id = #{id}")
+    String selectStructureHash(@Param("id") Long id);
+}
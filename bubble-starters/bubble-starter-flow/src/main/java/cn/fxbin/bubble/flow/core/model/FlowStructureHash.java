@@ -0,0 +1,58 @@
+package cn.fxbin.bubble.flow.core.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * FlowStructureHash 流程快照结构哈希
+ *
+ * <p>
+ *     按 节点 / 边 -> 节点集合 / 边集合 -> 快照 逐层计算的 Merkle 式哈希，随版本快照一起保存，
+ *     版本对比时根哈希相同即结构相同，集合哈希相同即跳过整组节点或边，只对哈希不同的节点与边做字段对比。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2026/1/6 10:00
+ * @see cn.fxbin.bubble.flow.core.algorithm.FlowStructureHasher
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlowStructureHash implements Serializable {
+
+    /**
+     * 哈希算法版本，参与哈希的字段变化时递增，旧版本的哈希需重新计算
+     */
+    private Integer algorithmVersion;
+
+    /**
+     * 快照根哈希
+     */
+    private String root;
+
+    /**
+     * 节点集合哈希
+     */
+    private String nodesRoot;
+
+    /**
+     * 边集合哈希
+     */
+    private String edgesRoot;
+
+    /**
+     * 节点ID -> 节点哈希
+     */
+    private Map<String, String> nodes;
+
+    /**
+     * 边ID -> 边哈希
+     */
+    private Map<Long, String> edges;
+
+}
@@ -15,6 +15,16 @@ import java.time.LocalDateTime;
 
 /**
  * 归档操作日志实体
+ * <p>
+ *     执行日志按 id 区间分块搬运，检查点记录在 total_rows / last_archived_id 列中，分块边界查询依赖执行日志的
+ *     (flow_id, flow_version, id) 索引。升级已有库时执行：
+ * </p>
+ * <pre>
+ * ALTER TABLE `flow_archive_operation_log`
+ *   ADD COLUMN `total_rows` bigint NULL COMMENT '待搬运的执行日志总数',
+ *   ADD COLUMN `last_archived_id` bigint NULL COMMENT '已搬运的最后一条执行日志ID';
+ * ALTER TABLE `flow_execution_log` ADD INDEX `idx_flow_version_id` (`flow_id`, `flow_version`, `id`);
+ * </pre>
  * 
  * @author fxbin
  * @since 2025-09-05 17:58
@@ -110,6 +120,18 @@ public class FlowArchiveOperationLog extends BizEntity implements Serializable {
     @Schema(description = "备份快照")
     private String backupSnapshot;
 
+    /**
+     * 待搬运的执行日志总数（开始时统计）
+     */
+    @Schema(description = "待搬运的执行日志总数")
+    private Long totalRows;
+
+    /**
+     * 搬运检查点：已搬运的最后一条执行日志ID，中断后从该位置继续
+     */
+    @Schema(description = "已搬运的最后一条执行日志ID")
+    private Long lastArchivedId;
+
     /**
      * 记录操作开始
      */
@@ -123,6 +145,14 @@ public class FlowArchiveOperationLog extends BizEntity implements Serializable {
         this.operationStatus = "PROCESSING";
     }
 
+    /**
+     * 记录分块进度
+     */
+    public void advanceCheckpoint(Long lastArchivedId, int movedRows) {
+        this.lastArchivedId = lastArchivedId;
+        this.affectedRows = (this.affectedRows == null ? 0 : this.affectedRows) + movedRows;
+    }
+
     /**
      * 记录操作成功
      */
@@ -0,0 +1,149 @@
+package cn.fxbin.bubble.flow.core.model.entity;
+
+import cn.fxbin.bubble.flow.core.enums.FlowExecStatus;
+import cn.fxbin.bubble.flow.core.enums.RollupGranularity;
+import com.baomidou.mybatisplus.annotation.*;
+import com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 流程执行汇总实体
+ * <p>按 (流程, 版本, 状态, 粒度, 时间桶) 预聚合已结束的执行记录，供版本分析查询使用，避免扫描 flow_execution_log。</p>
+ * <pre>
+ * CREATE TABLE `flow_execution_rollup` (
+ *   `id` bigint NOT NULL,
+ *   `env_id` varchar(64) NULL,
+ *   `tenant_id` varchar(64) NOT NULL DEFAULT '',
+ *   `flow_id` bigint NOT NULL,
+ *   `flow_version` int NOT NULL,
+ *   `status` varchar(32) NOT NULL,
+ *   `granularity` varchar(16) NOT NULL,
+ *   `bucket_time` datetime NOT NULL,
+ *   `execution_count` bigint NOT NULL,
+ *   `duration_sum_ms` bigint NOT NULL,
+ *   `duration_min_ms` bigint NULL,
+ *   `duration_max_ms` bigint NULL,
+ *   `duration_histogram` json NULL,
+ *   `first_start_time` datetime NULL,
+ *   `last_start_time` datetime NULL,
+ *   `create_time` datetime NULL,
+ *   `update_time` datetime NULL,
+ *   PRIMARY KEY (`id`),
+ *   UNIQUE KEY `uk_rollup_bucket` (`flow_id`, `granularity`, `bucket_time`, `flow_version`, `status`, `tenant_id`)
+ * ) COMMENT '流程执行汇总';
+ * </pre>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/31 14:00
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@Accessors(chain = true)
+@TableName(value = "flow_execution_rollup", autoResultMap = true)
+public class FlowExecutionRollup extends BizEntity implements Serializable {
+
+    /**
+     * 主键ID
+     */
+    @TableId(value = "id", type = IdType.ASSIGN_ID)
+    @Schema(description = "主键ID")
+    private Long id;
+
+    /**
+     * 流程ID
+     */
+    @Schema(description = "流程ID")
+    private Long flowId;
+
+    /**
+     * 流程版本号
+     */
+    @Schema(description = "流程版本号")
+    private Integer flowVersion;
+
+    /**
+     * 执行状态
+     */
+    @Schema(description = "执行状态")
+    @TableField(value = "`status`")
+    private FlowExecStatus status;
+
+    /**
+     * 汇总粒度
+     */
+    @Schema(description = "汇总粒度")
+    private RollupGranularity granularity;
+
+    /**
+     * 时间桶起始时间（按执行开始时间分桶）
+     */
+    @Schema(description = "时间桶起始时间")
+    private LocalDateTime bucketTime;
+
+    /**
+     * 执行次数
+     */
+    @Schema(description = "执行次数")
+    private Long executionCount;
+
+    /**
+     * 耗时总和（毫秒）
+     */
+    @Schema(description = "耗时总和（毫秒）")
+    private Long durationSumMs;
+
+    /**
+     * 最小耗时（毫秒）
+     */
+    @Schema(description = "最小耗时（毫秒）")
+    private Long durationMinMs;
+
+    /**
+     * 最大耗时（毫秒）
+     */
+    @Schema(description = "最大耗时（毫秒）")
+    private Long durationMaxMs;
+
+    /**
+     * 耗时直方图桶计数
+     * @see cn.fxbin.bubble.flow.core.algorithm.DurationHistogram
+     */
+    @TableField(typeHandler = JacksonTypeHandler.class)
+    @Schema(description = "耗时直方图")
+    private List<Long> durationHistogram;
+
+    /**
+     * 桶内最早的执行开始时间
+     */
+    @Schema(description = "最早执行开始时间")
+    private LocalDateTime firstStartTime;
+
+    /**
+     * 桶内最晚的执行开始时间
+     */
+    @Schema(description = "最晚执行开始时间")
+    private LocalDateTime lastStartTime;
+
+    /**
+     * 创建时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+
+    /**
+     * 更新时间
+     */
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+
+}
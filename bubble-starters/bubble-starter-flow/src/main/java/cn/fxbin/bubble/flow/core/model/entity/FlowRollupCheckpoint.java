@@ -0,0 +1,55 @@
+package cn.fxbin.bubble.flow.core.model.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 汇总任务高水位
+ * <p>记录已汇总的最后一条执行记录 (end_time, id)，汇总时对该行加锁，保证多节点下每条记录只汇总一次。</p>
+ * <pre>
+ * CREATE TABLE `flow_rollup_checkpoint` (
+ *   `name` varchar(64) NOT NULL,
+ *   `last_end_time` datetime NULL,
+ *   `last_log_id` bigint NOT NULL DEFAULT 0,
+ *   `update_time` datetime NULL,
+ *   PRIMARY KEY (`name`)
+ * ) COMMENT '汇总任务高水位';
+ * </pre>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/31 14:00
+ */
+@Data
+@Accessors(chain = true)
+@TableName("flow_rollup_checkpoint")
+public class FlowRollupCheckpoint implements Serializable {
+
+    /**
+     * 任务名称
+     */
+    @TableId(value = "name", type = IdType.INPUT)
+    private String name;
+
+    /**
+     * 已汇总的最后一条记录的结束时间
+     */
+    private LocalDateTime lastEndTime;
+
+    /**
+     * 已汇总的最后一条记录的ID
+     */
+    private Long lastLogId;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updateTime;
+
+}
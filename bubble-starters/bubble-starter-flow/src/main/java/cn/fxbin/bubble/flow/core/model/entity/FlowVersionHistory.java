@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableName;
 import com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler;
 import cn.fxbin.bubble.flow.core.model.FlowChain;
+import cn.fxbin.bubble.flow.core.model.FlowStructureHash;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -13,6 +14,14 @@ import java.io.Serializable;
 
 /**
  * FlowVersionHistory
+ * <p>
+ *     结构哈希保存在可选的 structure_hash 列中，开启 {@code bubble.flow.version.structure-hash} 前需先为版本历史表与其备份表添加该列
+ *     （备份表按 {@code SELECT *} 复制，两张表的列需保持一致）：
+ * </p>
+ * <pre>
+ * ALTER TABLE `flow_version_history` ADD COLUMN `structure_hash` json NULL COMMENT '快照结构哈希';
+ * ALTER TABLE `flow_version_history_backup` ADD COLUMN `structure_hash` json NULL COMMENT '快照结构哈希';
+ * </pre>
  *
  * @author fxbin
  * @version v1.0
@@ -42,6 +51,13 @@ public class FlowVersionHistory extends BizEntity implements Serializable {
     @TableField(typeHandler = JacksonTypeHandler.class)
     private FlowChain snapshot;
 
+    /**
+     * 快照结构哈希（可选列 structure_hash），不参与实体的增删改查，经 {@link cn.fxbin.bubble.flow.core.mapper.FlowVersionHistoryMapper} 单独读写
+     */
+    @Schema(description = "快照结构哈希")
+    @TableField(exist = false)
+    private FlowStructureHash structureHash;
+
     @Schema(description = "是否激活（非归档）")
     private Boolean active;
 
@@ -0,0 +1,145 @@
+package cn.fxbin.bubble.flow.core.progress;
+
+import cn.fxbin.bubble.flow.core.model.dto.FlowExecutionProgressDTO;
+import cn.fxbin.bubble.flow.core.provider.FlowExecutionLogProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 流程执行进度 SSE 推送
+ *
+ * <p>
+ *     订阅后先推送当前进度，之后每次进度变更推送一次完整快照（事件名 progress），执行结束后推送最终进度并关闭连接，
+ *     用于替代轮询 {@link FlowExecutionLogProvider#getFlowExecutionProgress(String, Long)}。
+ *     仅在 Spring MVC 可用时注册，由应用的 Controller 返回 {@link #subscribe(String)} 的结果。
+ * </p>
+ * <p>
+ *     本节点收不到进度变更时（执行在其他节点运行且未开启 replicate，或未启用实时进度），
+ *     按 pollInterval 查询数据库推送进度，直到执行结束或连接关闭。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2026/1/5 10:00
+ */
+@Slf4j
+public class FlowExecutionProgressEmitter implements DisposableBean {
+
+    /**
+     * SSE 事件名
+     */
+    public static final String EVENT_NAME = "progress";
+
+    private final FlowExecutionProgressStore flowExecutionProgressStore;
+
+    private final FlowExecutionLogProvider flowExecutionLogProvider;
+
+    private final Duration timeout;
+
+    private final Duration pollInterval;
+
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("flow-progress-poller").daemon(true).factory());
+
+    public FlowExecutionProgressEmitter(FlowExecutionProgressStore flowExecutionProgressStore,
+                                        FlowExecutionLogProvider flowExecutionLogProvider,
+                                        Duration timeout, Duration pollInterval) {
+        this.flowExecutionProgressStore = flowExecutionProgressStore;
+        this.flowExecutionLogProvider = flowExecutionLogProvider;
+        this.timeout = timeout;
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * 订阅流程执行进度
+     *
+     * @param executionId 执行ID
+     * @return {@link SseEmitter}
+     */
+    public SseEmitter subscribe(String executionId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        AtomicReference<FlowExecutionProgressStore.Subscription> holder = new AtomicReference<>();
+        FlowExecutionProgressStore.Subscription subscription = flowExecutionProgressStore.subscribe(executionId,
+                progress -> send(emitter, executionId, progress, holder));
+        holder.set(subscription);
+        AtomicReference<ScheduledFuture<?>> polling = new AtomicReference<>();
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            released.set(true);
+            subscription.close();
+            ScheduledFuture<?> future = polling.get();
+            if (future != null) {
+                future.cancel(false);
+            }
+        };
+        emitter.onCompletion(release);
+        emitter.onTimeout(release);
+        emitter.onError(e -> release.run());
+
+        // 先订阅再查询当前进度，避免遗漏查询期间的变更
+        FlowExecutionProgressDTO current = flowExecutionLogProvider.getFlowExecutionProgress(executionId, null);
+        if (current != null) {
+            subscription.offer(current);
+        }
+        if ((current == null || !FlowExecutionProgressStore.isFinished(current))
+                && !flowExecutionProgressStore.isPushed(executionId)) {
+            long interval = pollInterval.toMillis();
+            polling.set(poller.scheduleWithFixedDelay(() -> poll(executionId, subscription),
+                    interval, interval, TimeUnit.MILLISECONDS));
+            // 连接在调度前已结束
+            if (released.get()) {
+                polling.get().cancel(false);
+            }
+        }
+        return emitter;
+    }
+
+    @Override
+    public void destroy() {
+        poller.shutdownNow();
+    }
+
+    private void poll(String executionId, FlowExecutionProgressStore.Subscription subscription) {
+        try {
+            FlowExecutionProgressDTO progress = flowExecutionLogProvider.getFlowExecutionProgress(executionId, null);
+            if (progress != null) {
+                subscription.offer(progress);
+            }
+        } catch (Exception e) {
+            log.warn("Poll flow progress failed, executionId: {}", executionId, e);
+        }
+    }
+
+    private void send(SseEmitter emitter, String executionId, FlowExecutionProgressDTO progress,
+                      AtomicReference<FlowExecutionProgressStore.Subscription> holder) {
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_NAME).data(progress));
+            if (FlowExecutionProgressStore.isFinished(progress)) {
+                close(holder);
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // 客户端断开或连接已结束，由容器回调 onError / onCompletion
+            log.debug("Send flow progress failed, executionId: {}", executionId, e);
+            close(holder);
+        }
+    }
+
+    private void close(AtomicReference<FlowExecutionProgressStore.Subscription> holder) {
+        FlowExecutionProgressStore.Subscription subscription = holder.get();
+        if (subscription != null) {
+            subscription.close();
+        }
+    }
+
+}
@@ -0,0 +1,529 @@
+package cn.fxbin.bubble.flow.core.progress;
+
+import cn.fxbin.bubble.data.redis.RedisOperations;
+import cn.fxbin.bubble.flow.core.cache.FlowNodeCache;
+import cn.fxbin.bubble.flow.core.config.FlowProperties;
+import cn.fxbin.bubble.flow.core.enums.FlowExecStatus;
+import cn.fxbin.bubble.flow.core.model.dto.FlowExecutionProgressDTO;
+import cn.fxbin.bubble.flow.core.model.dto.NodeExecutionProgressDTO;
+import cn.fxbin.bubble.flow.core.model.entity.FlowExecutionLog;
+import cn.fxbin.bubble.flow.core.model.entity.FlowNode;
+import cn.fxbin.bubble.flow.core.model.entity.FlowNodeExecutionLog;
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.bean.copier.CopyOptions;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * 流程执行实时进度存储
+ *
+ * <p>
+ *     由流程 / 节点执行日志的写入驱动，按执行ID在内存中维护执行进度，执行期间的进度查询不访问数据库；
+ *     执行结束后保留 completedRetention（覆盖异步日志写入的延迟），之后查询回落到数据库。
+ * </p>
+ * <p>
+ *     开启 replicate 时，每次变更同时写入 Redis Hash（每个执行一个 Hash，流程信息与各节点各占一个字段）
+ *     并通过 pub/sub 通知其他节点，未执行该流程的节点从 Redis 读取进度并向本节点的订阅者推送。
+ *     未开启时，其他节点的查询回落到数据库，仅按流程ID查询时以本节点最近开始的执行为准，
+ *     其他节点的订阅者收不到推送，由 {@link FlowExecutionProgressEmitter} 定期查询数据库。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2026/1/5 10:00
+ */
+@Slf4j
+@Component
+public class FlowExecutionProgressStore implements MessageListener, DisposableBean {
+
+    /**
+     * 进度变更通知频道
+     */
+    public static final String CHANNEL = "bubble:flow:progress";
+
+    private static final String KEY_PREFIX = "bubble:flow:progress:execution:";
+
+    private static final String LATEST_KEY_PREFIX = "bubble:flow:progress:latest:";
+
+    private static final String FLOW_FIELD = "flow";
+
+    private static final String NODE_FIELD_PREFIX = "node:";
+
+    private static final char SEPARATOR = ':';
+
+    private static final CopyOptions MERGE_OPTIONS = CopyOptions.create().ignoreNullValue();
+
+    private static final Comparator<NodeExecutionProgressDTO> NODE_ORDER = Comparator.comparing(
+            NodeExecutionProgressDTO::getStartTime, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final FlowProperties.Progress config;
+
+    private final RedisOperations redisOperations;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 节点标识，用于忽略本节点发出的通知
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * 执行ID -> 实时进度
+     */
+    private final Cache<String, LiveExecution> executions;
+
+    /**
+     * 流程执行日志ID -> 执行ID，节点日志只携带流程执行日志ID
+     */
+    private final Cache<Long, String> executionIds;
+
+    /**
+     * 流程ID -> 本节点最近开始的执行ID
+     */
+    private final Cache<Long, String> latestExecutions;
+
+    private final ConcurrentMap<String, List<Subscription>> subscriptions = new ConcurrentHashMap<>();
+
+    private final ExecutorService notifier = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("flow-progress-", 0).factory());
+
+    public FlowExecutionProgressStore(FlowProperties flowProperties,
+                                      RedisOperations redisOperations,
+                                      RedisConnectionFactory redisConnectionFactory) {
+        this.config = flowProperties.getProgress();
+        this.redisOperations = redisOperations;
+        // 使用默认 String 序列化，避免容器中的 StringRedisTemplate 对消息做 JSON 编码
+        this.stringRedisTemplate = new StringRedisTemplate(redisConnectionFactory);
+        this.executions = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfter(new LiveExecutionExpiry(config.getLiveExpire(), config.getCompletedRetention()))
+                .build();
+        this.executionIds = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterAccess(config.getLiveExpire())
+                .build();
+        this.latestExecutions = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getLiveExpire())
+                .build();
+    }
+
+    /**
+     * 是否启用实时进度
+     *
+     * @return boolean
+     */
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * 本节点能否推送该执行的进度变更：执行在本节点运行，或开启 replicate 时经 pub/sub 获知其他节点的变更
+     *
+     * @param executionId 执行ID
+     * @return boolean
+     */
+    public boolean isPushed(String executionId) {
+        return config.isEnabled() && (config.isReplicate() || executions.getIfPresent(executionId) != null);
+    }
+
+    /**
+     * 记录流程执行日志变更
+     * <p>新执行的日志需携带执行ID（flowInstanceId），更新只对存储中已有的执行生效</p>
+     *
+     * @param flowLog 流程执行日志（已分配ID），更新时可只包含变更字段
+     * @param started 是否为新执行的首条日志
+     */
+    public void onFlowLog(FlowExecutionLog flowLog, boolean started) {
+        if (!config.isEnabled() || flowLog.getId() == null) {
+            return;
+        }
+        String executionId = started ? flowLog.getFlowInstanceId() : executionIds.getIfPresent(flowLog.getId());
+        if (executionId == null) {
+            return;
+        }
+        LiveExecution live = started
+                ? executions.get(executionId, key -> new LiveExecution()) : executions.getIfPresent(executionId);
+        if (live == null) {
+            return;
+        }
+        live.apply(flowLog);
+        executionIds.put(flowLog.getId(), executionId);
+        // 重新写入以按执行状态刷新过期时间
+        executions.put(executionId, live);
+
+        Long flowId = live.header().getFlowId();
+        if (started && flowId != null) {
+            latestExecutions.put(flowId, executionId);
+        }
+        if (config.isReplicate()) {
+            replicate(executionId, FLOW_FIELD, live.header(), live.isFinished());
+            if (started && flowId != null) {
+                redisOperations.set(LATEST_KEY_PREFIX + flowId, executionId, config.getLiveExpire().toSeconds());
+            }
+        }
+        notifySubscribers(executionId, live);
+    }
+
+    /**
+     * 记录节点执行日志变更，所属执行不在存储中时忽略
+     *
+     * @param nodeLog 节点执行日志，可只包含变更字段
+     */
+    public void onNodeLog(FlowNodeExecutionLog nodeLog) {
+        if (!config.isEnabled() || nodeLog.getFlowExecutionLogId() == null || nodeLog.getNodeId() == null) {
+            return;
+        }
+        String executionId = executionIds.getIfPresent(nodeLog.getFlowExecutionLogId());
+        LiveExecution live = executionId != null ? executions.getIfPresent(executionId) : null;
+        if (live == null) {
+            return;
+        }
+        NodeExecutionProgressDTO node = live.apply(nodeLog);
+        if (config.isReplicate()) {
+            replicate(executionId, NODE_FIELD_PREFIX + nodeLog.getNodeId(), node, live.isFinished());
+        }
+        notifySubscribers(executionId, live);
+    }
+
+    /**
+     * 查询实时进度
+     *
+     * @param executionId 执行ID（可选）
+     * @param flowId      流程ID，executionId 为空时查询该流程最近开始的执行
+     * @return 执行进度，不在存储中时返回 null，由调用方回落到数据库
+     */
+    public FlowExecutionProgressDTO get(String executionId, Long flowId) {
+        if (!config.isEnabled()) {
+            return null;
+        }
+        if (executionId == null) {
+            if (flowId == null) {
+                return null;
+            }
+            executionId = config.isReplicate() ? loadLatestReplica(flowId) : latestExecutions.getIfPresent(flowId);
+            if (executionId == null) {
+                return null;
+            }
+        }
+        LiveExecution live = executions.getIfPresent(executionId);
+        if (live != null) {
+            return live.snapshot();
+        }
+        return config.isReplicate() ? loadReplica(executionId) : null;
+    }
+
+    /**
+     * 订阅执行进度变更
+     * <p>每个订阅按最新值合并推送，推送在虚拟线程中进行，不阻塞流程执行；订阅者自行决定何时关闭</p>
+     *
+     * @param executionId 执行ID
+     * @param listener    进度回调，参数为完整的进度快照
+     * @return {@link Subscription}
+     */
+    public Subscription subscribe(String executionId, Consumer<FlowExecutionProgressDTO> listener) {
+        Subscription subscription = new Subscription(executionId, listener);
+        subscriptions.compute(executionId, (key, list) -> {
+            List<Subscription> value = list != null ? list : new CopyOnWriteArrayList<>();
+            value.add(subscription);
+            return value;
+        });
+        return subscription;
+    }
+
+    /**
+     * 执行是否已结束
+     *
+     * @param progress 执行进度
+     * @return boolean
+     */
+    public static boolean isFinished(FlowExecutionProgressDTO progress) {
+        FlowExecStatus status = progress.getStatus();
+        return progress.getEndTime() != null
+                || (status != null && status != FlowExecStatus.RUNNING && status != FlowExecStatus.PENDING);
+    }
+
+    @Override
+    public void onMessage(@NonNull Message message, @Nullable byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int index = body.indexOf(SEPARATOR);
+        if (index < 0 || nodeId.equals(body.substring(0, index))) {
+            return;
+        }
+        String executionId = body.substring(index + 1);
+        List<Subscription> list = subscriptions.get(executionId);
+        if (list == null || list.isEmpty()) {
+            return;
+        }
+        FlowExecutionProgressDTO progress = loadReplica(executionId);
+        if (progress != null) {
+            list.forEach(subscription -> subscription.offer(progress));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        notifier.shutdownNow();
+    }
+
+    private void notifySubscribers(String executionId, LiveExecution live) {
+        List<Subscription> list = subscriptions.get(executionId);
+        if (list == null || list.isEmpty()) {
+            return;
+        }
+        FlowExecutionProgressDTO progress = live.snapshot();
+        if (progress != null) {
+            list.forEach(subscription -> subscription.offer(progress));
+        }
+    }
+
+    private void replicate(String executionId, String field, Object value, boolean finished) {
+        Duration ttl = finished ? config.getCompletedRetention() : config.getLiveExpire();
+        if (redisOperations.hmset(KEY_PREFIX + executionId, Map.of(field, value), Math.max(1, ttl.toSeconds()))) {
+            try {
+                stringRedisTemplate.convertAndSend(CHANNEL, nodeId + SEPARATOR + executionId);
+            } catch (Exception e) {
+                log.warn("Publish flow progress notification failed, executionId: {}", executionId, e);
+            }
+        }
+    }
+
+    private String loadLatestReplica(Long flowId) {
+        try {
+            return (String) redisOperations.get(LATEST_KEY_PREFIX + flowId);
+        } catch (Exception e) {
+            log.warn("Load replicated latest execution failed, flowId: {}", flowId, e);
+            return null;
+        }
+    }
+
+    private FlowExecutionProgressDTO loadReplica(String executionId) {
+        try {
+            Map<?, ?> entries = redisOperations.hmget(KEY_PREFIX + executionId);
+            if (entries == null || !(entries.get(FLOW_FIELD) instanceof FlowExecutionProgressDTO header)) {
+                return null;
+            }
+            List<NodeExecutionProgressDTO> nodes = new ArrayList<>();
+            entries.forEach((field, value) -> {
+                if (field.toString().startsWith(NODE_FIELD_PREFIX) && value instanceof NodeExecutionProgressDTO node) {
+                    nodes.add(node);
+                }
+            });
+            return assemble(header, nodes);
+        } catch (Exception e) {
+            log.warn("Load replicated flow progress failed, executionId: {}", executionId, e);
+            return null;
+        }
+    }
+
+    /**
+     * 组装进度快照，执行中时补充尚未执行的节点（PENDING）
+     */
+    private static FlowExecutionProgressDTO assemble(FlowExecutionProgressDTO header, List<NodeExecutionProgressDTO> nodes) {
+        FlowExecutionProgressDTO progress = BeanUtil.copyProperties(header, FlowExecutionProgressDTO.class);
+        List<NodeExecutionProgressDTO> nodeProgressList = new ArrayList<>(nodes);
+        nodeProgressList.sort(NODE_ORDER);
+
+        if (FlowExecStatus.RUNNING == progress.getStatus() && progress.getEndTime() == null && progress.getFlowId() != null) {
+            List<FlowNode> allNodes = FlowNodeCache.getAllNodes(progress.getFlowId());
+            if (allNodes != null && !allNodes.isEmpty()) {
+                Set<String> executedNodeIds = new HashSet<>();
+                nodes.forEach(node -> executedNodeIds.add(node.getNodeId()));
+                for (FlowNode node : allNodes) {
+                    if (!executedNodeIds.contains(node.getId())) {
+                        nodeProgressList.add(NodeExecutionProgressDTO.builder()
+                                .nodeId(node.getId())
+                                .nodeName(node.getName())
+                                .nodeType(node.getNodeType().name())
+                                .status(FlowExecStatus.PENDING)
+                                .build());
+                    }
+                }
+            }
+        }
+        progress.setNodeProgressList(nodeProgressList);
+        return progress;
+    }
+
+    /**
+     * 进度订阅
+     * <p>只保留尚未推送的最新快照，推送慢的订阅者跳过中间状态，不影响其他订阅者</p>
+     */
+    public final class Subscription implements AutoCloseable {
+
+        private final String executionId;
+
+        private final Consumer<FlowExecutionProgressDTO> listener;
+
+        private final AtomicReference<FlowExecutionProgressDTO> latest = new AtomicReference<>();
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Subscription(String executionId, Consumer<FlowExecutionProgressDTO> listener) {
+            this.executionId = executionId;
+            this.listener = listener;
+        }
+
+        /**
+         * 提交进度快照，后提交的快照覆盖尚未推送的快照
+         *
+         * @param progress 进度快照
+         */
+        public void offer(FlowExecutionProgressDTO progress) {
+            latest.set(progress);
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    notifier.execute(this::drain);
+                } catch (Exception e) {
+                    scheduled.set(false);
+                    log.debug("Flow progress notifier rejected, executionId: {}", executionId);
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            subscriptions.computeIfPresent(executionId, (key, list) -> {
+                list.remove(this);
+                return list.isEmpty() ? null : list;
+            });
+        }
+
+        private void drain() {
+            while (true) {
+                FlowExecutionProgressDTO progress = latest.getAndSet(null);
+                if (progress == null) {
+                    scheduled.set(false);
+                    // 释放标记后仍有新快照时继续推送
+                    if (latest.get() == null || !scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                try {
+                    listener.accept(progress);
+                } catch (Exception e) {
+                    log.warn("Flow progress listener failed, executionId: {}", executionId, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 单个执行的实时进度
+     */
+    private static final class LiveExecution {
+
+        private final ConcurrentMap<String, NodeExecutionProgressDTO> nodes = new ConcurrentHashMap<>();
+
+        /**
+         * 流程信息（不含节点列表），每次变更替换为新对象
+         */
+        private volatile FlowExecutionProgressDTO header;
+
+        /**
+         * 合并流程日志变更
+         */
+        private synchronized void apply(FlowExecutionLog flowLog) {
+            FlowExecutionProgressDTO next = header == null
+                    ? new FlowExecutionProgressDTO() : BeanUtil.copyProperties(header, FlowExecutionProgressDTO.class);
+            BeanUtil.copyProperties(flowLog, next, MERGE_OPTIONS);
+            next.setFlowExecutionLogId(flowLog.getId());
+            if (flowLog.getFlowDefinitionId() != null) {
+                next.setFlowName(flowLog.getFlowDefinitionId());
+            }
+            next.setNodeProgressList(null);
+            this.header = next;
+        }
+
+        /**
+         * 合并节点日志变更
+         *
+         * @return 合并后的节点进度
+         */
+        private NodeExecutionProgressDTO apply(FlowNodeExecutionLog nodeLog) {
+            return nodes.compute(nodeLog.getNodeId(), (key, current) -> {
+                NodeExecutionProgressDTO next = current == null
+                        ? new NodeExecutionProgressDTO() : BeanUtil.copyProperties(current, NodeExecutionProgressDTO.class);
+                BeanUtil.copyProperties(nodeLog, next, MERGE_OPTIONS);
+                if (nodeLog.getId() != null) {
+                    next.setNodeExecutionLogId(nodeLog.getId());
+                }
+                return next;
+            });
+        }
+
+        private FlowExecutionProgressDTO header() {
+            return header;
+        }
+
+        private boolean isFinished() {
+            FlowExecutionProgressDTO current = header;
+            return current != null && FlowExecutionProgressStore.isFinished(current);
+        }
+
+        private FlowExecutionProgressDTO snapshot() {
+            FlowExecutionProgressDTO current = header;
+            return current != null ? assemble(current, List.copyOf(nodes.values())) : null;
+        }
+    }
+
+    /**
+     * 执行中的进度在最后一次变更后 liveExpire 过期，已结束的在 completedRetention 后过期
+     */
+    private static final class LiveExecutionExpiry implements Expiry<String, LiveExecution> {
+
+        private final long liveNanos;
+
+        private final long completedNanos;
+
+        private LiveExecutionExpiry(Duration liveExpire, Duration completedRetention) {
+            this.liveNanos = liveExpire.toNanos();
+            this.completedNanos = completedRetention.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(@NonNull String key, @NonNull LiveExecution live, long currentTime) {
+            return live.isFinished() ? completedNanos : liveNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(@NonNull String key, @NonNull LiveExecution live, long currentTime, long currentDuration) {
+            return live.isFinished() ? completedNanos : liveNanos;
+        }
+
+        @Override
+        public long expireAfterRead(@NonNull String key, @NonNull LiveExecution live, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+}
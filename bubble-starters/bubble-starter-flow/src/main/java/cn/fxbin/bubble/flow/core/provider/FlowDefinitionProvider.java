@@ -2,9 +2,14 @@ package cn.fxbin.bubble.flow.core.provider;
 
 import cn.fxbin.bubble.core.dataobject.PageResult;
 import cn.fxbin.bubble.core.exception.ServiceException;
+import cn.fxbin.bubble.core.util.JsonUtils;
 import cn.fxbin.bubble.core.util.ObjectUtils;
 import cn.fxbin.bubble.data.mybatisplus.util.PageUtils;
+import cn.fxbin.bubble.flow.core.algorithm.FlowStructureHasher;
+import cn.fxbin.bubble.flow.core.algorithm.SchedulePlan;
 import cn.fxbin.bubble.flow.core.builder.FlowExpressionBuilder;
+import cn.fxbin.bubble.flow.core.cache.FlowCacheInvalidator;
+import cn.fxbin.bubble.flow.core.config.FlowProperties;
 import cn.fxbin.bubble.flow.core.enums.FlowPublishStatus;
 import cn.fxbin.bubble.flow.core.enums.FlowType;
 import cn.fxbin.bubble.flow.core.enums.PluginType;
@@ -55,6 +60,10 @@ public class FlowDefinitionProvider {
 
     private final FlowNodeExecutionLogMapper flowNodeExecutionLogMapper;
 
+    private final FlowCacheInvalidator flowCacheInvalidator;
+
+    private final FlowProperties flowProperties;
+
     /**
      * 保存流程定义
      *
@@ -178,6 +187,7 @@ public class FlowDefinitionProvider {
                 }
             }
         }
+        flowCacheInvalidator.invalidate(flowDefinition.getId());
         return flowDefinition.getId();
     }
 
@@ -367,9 +377,24 @@ public class FlowDefinitionProvider {
                .in(FlowNodeExecutionLog::getFlowExecutionLogId, executionLogIdList)
         );
 
+        flowCacheInvalidator.invalidate(flowId);
         log.info("Successfully deleted flow with id: {}", flowId);
     }
 
+    /**
+     * 预览流程的层级调度计划
+     * <p>基于历史节点耗时给出关键路径与预估耗时，用于发布前评估并行化收益</p>
+     *
+     * @param flowId 流程ID
+     * @return 层级调度计划
+     */
+    public SchedulePlan previewSchedule(Long flowId) {
+        if (flowDefinitionMapper.selectById(flowId) == null) {
+            throw new FlowNotFoundException("Flow not found with id: " + flowId);
+        }
+        return flowExpressionBuilder.analyzeSchedule(flowId);
+    }
+
     /**
      * 发布流程
      * 
@@ -420,11 +445,16 @@ public class FlowDefinitionProvider {
         history.setCreateBy(TokenUtils.getCurrentUserId());
         history.setUpdateBy(TokenUtils.getCurrentUserId());
         flowVersioHistoryMapper.insert(history);
+        if (flowProperties.getVersion().isStructureHash()) {
+            flowVersioHistoryMapper.updateStructureHash(history.getId(),
+                    JsonUtils.toJson(FlowStructureHasher.hash(completeSnapshot)));
+        }
         
         // 6. 更新流程状态为已发布
         flowDefinition.setStatus(FlowPublishStatus.PUBLISHED);
         flowDefinition.setVersion(newVersion);
         flowDefinitionMapper.updateById(flowDefinition);
+        flowCacheInvalidator.invalidate(flowId);
         
         log.info("Successfully published flow {} with version {}", flowId, newVersion);
     }
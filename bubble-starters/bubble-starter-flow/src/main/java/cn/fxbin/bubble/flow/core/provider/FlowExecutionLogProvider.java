@@ -6,8 +6,10 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import cn.fxbin.bubble.core.dataobject.PageRequest;
 import cn.fxbin.bubble.core.dataobject.PageResult;
+import cn.fxbin.bubble.flow.core.cache.FlowCacheInvalidator;
 import cn.fxbin.bubble.flow.core.cache.FlowNodeCache;
 import cn.fxbin.bubble.flow.core.enums.FlowExecStatus;
+import cn.fxbin.bubble.flow.core.log.FlowExecutionLogWriter;
 import cn.fxbin.bubble.flow.core.mapper.FlowDefinitionMapper;
 import cn.fxbin.bubble.flow.core.mapper.FlowExecutionLogMapper;
 import cn.fxbin.bubble.flow.core.mapper.FlowNodeExecutionLogMapper;
@@ -18,12 +20,17 @@ import cn.fxbin.bubble.flow.core.model.entity.FlowDefinition;
 import cn.fxbin.bubble.flow.core.model.entity.FlowExecutionLog;
 import cn.fxbin.bubble.flow.core.model.entity.FlowNode;
 import cn.fxbin.bubble.flow.core.model.entity.FlowNodeExecutionLog;
+import cn.fxbin.bubble.flow.core.progress.FlowExecutionProgressStore;
 import cn.fxbin.bubble.flow.core.util.FlowUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.collect.Lists;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
@@ -39,7 +46,7 @@ import java.util.stream.Collectors;
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class FlowExecutionLogProvider {
+public class FlowExecutionLogProvider implements InitializingBean {
 
     private final FlowExecutionLogMapper flowExecutionLogMapper;
 
@@ -47,11 +54,30 @@ public class FlowExecutionLogProvider {
 
     private final FlowDefinitionMapper flowDefinitionMapper;
 
+    private final FlowExecutionLogWriter flowExecutionLogWriter;
+
+    private final FlowCacheInvalidator flowCacheInvalidator;
+
+    private final FlowExecutionProgressStore flowExecutionProgressStore;
+
+    /**
+     * 流程当前版本缓存，流程发布时经 {@link FlowCacheInvalidator} 失效
+     */
+    private final Cache<Long, Integer> currentVersions = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(5))
+            .build();
+
     private final List<String> sortedFields = Lists.newArrayList("create_time", "update_time");
 
+    @Override
+    public void afterPropertiesSet() {
+        flowCacheInvalidator.register(currentVersions::invalidate);
+    }
+
     /**
      * 保存或更新工作流执行日志
-     * <p>自动关联当前流程版本，确保执行记录与版本的关联性</p>
+     * <p>自动关联当前流程版本，确保执行记录与版本的关联性；异步写入时新记录的 ID 在返回前分配；同时更新实时进度</p>
      *
      * @param flowExecutionLog 工作流执行日志实体
      * @author fxbin
@@ -67,11 +93,9 @@ public class FlowExecutionLogProvider {
             }
         }
         
-        if (flowExecutionLog.getId() == null) {
-            flowExecutionLogMapper.insert(flowExecutionLog);
-        } else {
-            flowExecutionLogMapper.updateById(flowExecutionLog);
-        }
+        boolean started = flowExecutionLog.getId() == null;
+        flowExecutionLogWriter.write(flowExecutionLog);
+        flowExecutionProgressStore.onFlowLog(flowExecutionLog, started);
     }
 
     /**
@@ -91,16 +115,14 @@ public class FlowExecutionLogProvider {
 
     /**
      * 保存节点执行日志
+     * <p>异步写入时同一节点日志的多次状态变更合并写入；同时更新实时进度</p>
      *
      * @param nodeExecutionLog 节点执行日志实体
      * @author fxbin
      */
     public void saveOrUpdateNodeExecutionLog(FlowNodeExecutionLog nodeExecutionLog) {
-        if (nodeExecutionLog.getId() == null) {
-            flowNodeExecutionLogMapper.insert(nodeExecutionLog);
-        } else {
-            flowNodeExecutionLogMapper.updateById(nodeExecutionLog);
-        }
+        flowExecutionLogWriter.write(nodeExecutionLog);
+        flowExecutionProgressStore.onNodeLog(nodeExecutionLog);
     }
 
     /**
@@ -109,6 +131,8 @@ public class FlowExecutionLogProvider {
      * 如果提供了 executionId，则按执行ID查询。
      * 如果只提供了 flowId，则查询该流程最新一次的执行进度。
      * 如果流程正在执行，则会包含定义中存在但尚未执行的节点，其状态为 PENDING。
+     * 执行中（及结束后短时间内）的进度由 {@link FlowExecutionProgressStore} 在内存中返回，不访问数据库；
+     * 需要持续获取进度时可使用 {@link cn.fxbin.bubble.flow.core.progress.FlowExecutionProgressEmitter} 订阅推送。
      * </p>
      *
      * @param executionId 执行ID (可选)
@@ -117,6 +141,11 @@ public class FlowExecutionLogProvider {
      * @author fxbin
      */
     public FlowExecutionProgressDTO getFlowExecutionProgress(String executionId, Long flowId) {
+        FlowExecutionProgressDTO live = flowExecutionProgressStore.get(executionId, flowId);
+        if (live != null) {
+            return live;
+        }
+
         FlowExecutionLog flowLog;
         if (executionId != null) {
             flowLog = flowExecutionLogMapper.selectOne(
@@ -260,17 +289,32 @@ public class FlowExecutionLogProvider {
                 .eq(FlowNodeExecutionLog::getFlowExecutionLogId, flowExecutionLogId)
                 .eq(FlowNodeExecutionLog::getNodeId, nodeId);
 
-        return flowNodeExecutionLogMapper.selectOne(queryWrapper);
+        return flowExecutionLogWriter.applyPending(flowExecutionLogId, nodeId,
+                flowNodeExecutionLogMapper.selectOne(queryWrapper));
     }
 
     /**
      * 获取流程当前版本号
-     * <p>用于自动关联执行记录与版本</p>
+     * <p>用于自动关联执行记录与版本，结果按流程缓存</p>
      *
      * @param flowId 流程ID
      * @return 当前版本号，如果流程不存在则返回null
      */
     private Integer getCurrentFlowVersion(Long flowId) {
+        if (flowId == null) {
+            return null;
+        }
+        Integer version = currentVersions.getIfPresent(flowId);
+        if (version == null) {
+            version = loadCurrentFlowVersion(flowId);
+            if (version != null) {
+                currentVersions.put(flowId, version);
+            }
+        }
+        return version;
+    }
+
+    private Integer loadCurrentFlowVersion(Long flowId) {
         try {
             // 查询流程定义获取当前版本
             FlowDefinition flowDefinition = flowDefinitionMapper.selectById(flowId);
@@ -0,0 +1,464 @@
+package cn.fxbin.bubble.flow.core.provider;
+
+import cn.fxbin.bubble.flow.core.algorithm.DurationHistogram;
+import cn.fxbin.bubble.flow.core.config.FlowProperties;
+import cn.fxbin.bubble.flow.core.context.TenantContext;
+import cn.fxbin.bubble.flow.core.enums.FlowExecStatus;
+import cn.fxbin.bubble.flow.core.enums.RollupGranularity;
+import cn.fxbin.bubble.flow.core.mapper.FlowExecutionLogMapper;
+import cn.fxbin.bubble.flow.core.mapper.FlowExecutionRollupMapper;
+import cn.fxbin.bubble.flow.core.mapper.FlowRollupCheckpointMapper;
+import cn.fxbin.bubble.flow.core.model.entity.FlowExecutionLog;
+import cn.fxbin.bubble.flow.core.model.entity.FlowExecutionRollup;
+import cn.fxbin.bubble.flow.core.model.entity.FlowRollupCheckpoint;
+import com.baomidou.mybatisplus.core.toolkit.IdWorker;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.google.common.collect.Lists;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 流程执行汇总服务
+ *
+ * <p>
+ *     定时按 (end_time, id) 高水位增量读取已结束的执行记录，按 (租户, 流程, 版本, 状态) 汇总到分钟、小时与全量桶，
+ *     桶内保存次数、耗时总和 / 最小 / 最大值与 {@link DurationHistogram}。每批次在一个事务中锁定高水位、合并汇总并推进高水位，
+ *     多节点部署时同一记录只会被汇总一次。版本分析查询读取汇总数据，耗时与历史数据量无关。
+ * </p>
+ * <p>
+ *     仅汇总已结束的执行，结束后超过 lag 才写入的执行记录不会被汇总。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2025/12/31 14:00
+ */
+@Slf4j
+@Component
+public class FlowExecutionRollupProvider implements InitializingBean, DisposableBean {
+
+    private static final String CHECKPOINT_NAME = "flow_execution_rollup";
+
+    private static final int UPSERT_BATCH_SIZE = 500;
+
+    private static final int PRUNE_BATCH_SIZE = 10000;
+
+    private final FlowExecutionLogMapper flowExecutionLogMapper;
+
+    private final FlowExecutionRollupMapper flowExecutionRollupMapper;
+
+    private final FlowRollupCheckpointMapper flowRollupCheckpointMapper;
+
+    private final TransactionOperations transactionOperations;
+
+    private final FlowProperties.Rollup config;
+
+    private ScheduledExecutorService scheduler;
+
+    public FlowExecutionRollupProvider(FlowExecutionLogMapper flowExecutionLogMapper,
+                                       FlowExecutionRollupMapper flowExecutionRollupMapper,
+                                       FlowRollupCheckpointMapper flowRollupCheckpointMapper,
+                                       ObjectProvider<TransactionOperations> transactionOperations,
+                                       FlowProperties flowProperties) {
+        this.flowExecutionLogMapper = flowExecutionLogMapper;
+        this.flowExecutionRollupMapper = flowExecutionRollupMapper;
+        this.flowRollupCheckpointMapper = flowRollupCheckpointMapper;
+        this.transactionOperations = transactionOperations.getIfUnique(TransactionOperations::withoutTransaction);
+        this.config = flowProperties.getRollup();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        long intervalNanos = config.getInterval().toNanos();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("flow-rollup").daemon(true).factory());
+        this.scheduler.scheduleWithFixedDelay(this::rollupQuietly, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        log.info("FlowExecutionRollupProvider initialized with interval: {}, lag: {}, batchSize: {}",
+                config.getInterval(), config.getLag(), config.getBatchSize());
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 是否启用执行汇总
+     *
+     * @return boolean
+     */
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * 执行一次增量汇总，并清理过期的分钟 / 小时桶
+     *
+     * @return 本次汇总的执行记录数
+     */
+    public int rollup() {
+        LocalDateTime upperBound = LocalDateTime.now().minus(config.getLag());
+        int total = 0;
+        while (total < config.getMaxRowsPerRun()) {
+            Integer rolled = transactionOperations.execute(status -> rollupBatch(upperBound));
+            if (rolled == null || rolled == 0) {
+                break;
+            }
+            total += rolled;
+            if (rolled < config.getBatchSize()) {
+                break;
+            }
+        }
+        prune(RollupGranularity.MINUTE, config.getMinuteRetention());
+        prune(RollupGranularity.HOUR, config.getHourRetention());
+        if (total > 0) {
+            log.debug("Rolled up {} flow executions until {}", total, upperBound);
+        }
+        return total;
+    }
+
+    /**
+     * 按版本汇总流程的全部执行
+     *
+     * @param flowId 流程ID
+     * @return 版本号 -> 汇总，按版本号降序
+     */
+    public Map<Integer, VersionRollup> summarizeByVersion(Long flowId) {
+        return summarize(selectBuckets(flowId, RollupGranularity.TOTAL, null, null));
+    }
+
+    /**
+     * 按版本汇总流程在指定时间之后开始的执行
+     * <p>起始时间所在小时的剩余部分读取分钟桶，之后读取小时桶</p>
+     *
+     * @param flowId 流程ID
+     * @param since  起始时间
+     * @return 版本号 -> 汇总，按版本号降序
+     */
+    public Map<Integer, VersionRollup> summarizeByVersion(Long flowId, LocalDateTime since) {
+        LocalDateTime firstFullHour = since.truncatedTo(ChronoUnit.HOURS);
+        List<FlowExecutionRollup> buckets = new ArrayList<>();
+        if (firstFullHour.isBefore(since)) {
+            firstFullHour = firstFullHour.plusHours(1);
+            buckets.addAll(selectBuckets(flowId, RollupGranularity.MINUTE, since.truncatedTo(ChronoUnit.MINUTES), firstFullHour));
+        }
+        buckets.addAll(selectBuckets(flowId, RollupGranularity.HOUR, firstFullHour, null));
+        return summarize(buckets);
+    }
+
+    private List<FlowExecutionRollup> selectBuckets(Long flowId, RollupGranularity granularity,
+                                                    LocalDateTime from, LocalDateTime to) {
+        return flowExecutionRollupMapper.selectList(Wrappers.<FlowExecutionRollup>lambdaQuery()
+                .eq(FlowExecutionRollup::getFlowId, flowId)
+                .eq(FlowExecutionRollup::getGranularity, granularity)
+                .ge(from != null, FlowExecutionRollup::getBucketTime, from)
+                .lt(to != null, FlowExecutionRollup::getBucketTime, to));
+    }
+
+    private Map<Integer, VersionRollup> summarize(List<FlowExecutionRollup> buckets) {
+        Map<Integer, VersionRollup> versions = new TreeMap<>((a, b) -> Integer.compare(b, a));
+        for (FlowExecutionRollup bucket : buckets) {
+            versions.computeIfAbsent(bucket.getFlowVersion(), VersionRollup::new).add(bucket);
+        }
+        return versions;
+    }
+
+    private void rollupQuietly() {
+        try {
+            rollup();
+        } catch (Exception e) {
+            log.error("Roll up flow executions failed", e);
+        }
+    }
+
+    private int rollupBatch(LocalDateTime upperBound) {
+        FlowRollupCheckpoint checkpoint = lockCheckpoint();
+        List<FlowExecutionLog> logs = flowExecutionLogMapper.selectCompletedAfter(
+                checkpoint.getLastEndTime(), checkpoint.getLastLogId(), upperBound, config.getBatchSize());
+        if (logs.isEmpty()) {
+            return 0;
+        }
+        aggregate(logs).forEach((tenantId, buckets) -> TenantContext.runWith(tenantId.isEmpty() ? null : tenantId,
+                () -> merge(tenantId, buckets)));
+
+        FlowExecutionLog last = logs.getLast();
+        flowRollupCheckpointMapper.updateById(checkpoint
+                .setLastEndTime(last.getEndTime())
+                .setLastLogId(last.getId())
+                .setUpdateTime(LocalDateTime.now()));
+        return logs.size();
+    }
+
+    private FlowRollupCheckpoint lockCheckpoint() {
+        FlowRollupCheckpoint checkpoint = flowRollupCheckpointMapper.selectForUpdate(CHECKPOINT_NAME);
+        if (checkpoint != null) {
+            return checkpoint;
+        }
+        try {
+            flowRollupCheckpointMapper.insert(new FlowRollupCheckpoint()
+                    .setName(CHECKPOINT_NAME)
+                    .setLastLogId(0L)
+                    .setUpdateTime(LocalDateTime.now()));
+        } catch (DuplicateKeyException e) {
+            log.debug("Rollup checkpoint created by another node");
+        }
+        return flowRollupCheckpointMapper.selectForUpdate(CHECKPOINT_NAME);
+    }
+
+    /**
+     * 按租户汇总到各粒度的桶
+     */
+    private Map<String, Map<BucketKey, Bucket>> aggregate(List<FlowExecutionLog> logs) {
+        Map<String, Map<BucketKey, Bucket>> tenants = new LinkedHashMap<>();
+        for (FlowExecutionLog executionLog : logs) {
+            if (executionLog.getFlowId() == null || executionLog.getFlowVersion() == null
+                    || executionLog.getStatus() == null || executionLog.getStartTime() == null) {
+                continue;
+            }
+            long durationMs = Math.max(0, Duration.between(executionLog.getStartTime(), executionLog.getEndTime()).toMillis());
+            Map<BucketKey, Bucket> buckets = tenants.computeIfAbsent(tenantOf(executionLog.getTenantId()), k -> new HashMap<>());
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                BucketKey key = new BucketKey(executionLog.getFlowId(), executionLog.getFlowVersion(), executionLog.getStatus(),
+                        granularity, granularity.bucketOf(executionLog.getStartTime()));
+                buckets.computeIfAbsent(key, Bucket::new).record(durationMs, executionLog.getStartTime());
+            }
+        }
+        return tenants;
+    }
+
+    /**
+     * 将新汇总的桶合并到已有的桶并写回
+     */
+    private void merge(String tenantId, Map<BucketKey, Bucket> buckets) {
+        Map<RollupGranularity, List<BucketKey>> keysByGranularity = buckets.keySet().stream()
+                .collect(Collectors.groupingBy(BucketKey::granularity, () -> new EnumMap<>(RollupGranularity.class), Collectors.toList()));
+
+        List<FlowExecutionRollup> rollups = new ArrayList<>(buckets.size());
+        keysByGranularity.forEach((granularity, keys) -> {
+            Set<Long> flowIds = keys.stream().map(BucketKey::flowId).collect(Collectors.toSet());
+            LocalDateTime from = keys.stream().map(BucketKey::bucketTime).min(LocalDateTime::compareTo).orElseThrow();
+            LocalDateTime to = keys.stream().map(BucketKey::bucketTime).max(LocalDateTime::compareTo).orElseThrow();
+            Map<BucketKey, FlowExecutionRollup> existing = flowExecutionRollupMapper.selectList(
+                            Wrappers.<FlowExecutionRollup>lambdaQuery()
+                                    .eq(FlowExecutionRollup::getGranularity, granularity)
+                                    .in(FlowExecutionRollup::getFlowId, flowIds)
+                                    .between(FlowExecutionRollup::getBucketTime, from, to))
+                    .stream()
+                    .filter(rollup -> tenantOf(rollup.getTenantId()).equals(tenantId))
+                    .collect(Collectors.toMap(BucketKey::of, rollup -> rollup, (a, b) -> a));
+            for (BucketKey key : keys) {
+                rollups.add(buckets.get(key).mergeInto(existing.get(key), tenantId));
+            }
+        });
+        Lists.partition(rollups, UPSERT_BATCH_SIZE).forEach(flowExecutionRollupMapper::upsertBatch);
+    }
+
+    private void prune(RollupGranularity granularity, Duration retention) {
+        if (retention == null) {
+            return;
+        }
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        int deleted;
+        do {
+            deleted = flowExecutionRollupMapper.deleteBucketsBefore(granularity, before, PRUNE_BATCH_SIZE);
+        } while (deleted >= PRUNE_BATCH_SIZE);
+    }
+
+    private static String tenantOf(String tenantId) {
+        return tenantId == null ? "" : tenantId;
+    }
+
+    /**
+     * 汇总桶的业务键（租户之外）
+     */
+    private record BucketKey(Long flowId, Integer flowVersion, FlowExecStatus status,
+                             RollupGranularity granularity, LocalDateTime bucketTime) {
+
+        static BucketKey of(FlowExecutionRollup rollup) {
+            return new BucketKey(rollup.getFlowId(), rollup.getFlowVersion(), rollup.getStatus(),
+                    rollup.getGranularity(), rollup.getBucketTime());
+        }
+    }
+
+    /**
+     * 一个批次内新汇总的桶
+     */
+    private static final class Bucket {
+
+        private final BucketKey key;
+
+        private final DurationHistogram histogram = new DurationHistogram();
+
+        private long count;
+
+        private long sumMs;
+
+        private long minMs = Long.MAX_VALUE;
+
+        private long maxMs = Long.MIN_VALUE;
+
+        private LocalDateTime firstStartTime;
+
+        private LocalDateTime lastStartTime;
+
+        Bucket(BucketKey key) {
+            this.key = key;
+        }
+
+        void record(long durationMs, LocalDateTime startTime) {
+            count++;
+            sumMs += durationMs;
+            minMs = Math.min(minMs, durationMs);
+            maxMs = Math.max(maxMs, durationMs);
+            histogram.record(durationMs);
+            if (firstStartTime == null || startTime.isBefore(firstStartTime)) {
+                firstStartTime = startTime;
+            }
+            if (lastStartTime == null || startTime.isAfter(lastStartTime)) {
+                lastStartTime = startTime;
+            }
+        }
+
+        FlowExecutionRollup mergeInto(FlowExecutionRollup existing, String tenantId) {
+            if (existing == null) {
+                FlowExecutionRollup rollup = new FlowExecutionRollup()
+                        .setId(IdWorker.getId())
+                        .setFlowId(key.flowId())
+                        .setFlowVersion(key.flowVersion())
+                        .setStatus(key.status())
+                        .setGranularity(key.granularity())
+                        .setBucketTime(key.bucketTime())
+                        .setExecutionCount(count)
+                        .setDurationSumMs(sumMs)
+                        .setDurationMinMs(minMs)
+                        .setDurationMaxMs(maxMs)
+                        .setDurationHistogram(histogram.toList())
+                        .setFirstStartTime(firstStartTime)
+                        .setLastStartTime(lastStartTime);
+                rollup.setTenantId(tenantId);
+                return rollup;
+            }
+            existing.setExecutionCount(valueOf(existing.getExecutionCount()) + count)
+                    .setDurationSumMs(valueOf(existing.getDurationSumMs()) + sumMs)
+                    .setDurationMinMs(existing.getDurationMinMs() == null ? minMs : Math.min(existing.getDurationMinMs(), minMs))
+                    .setDurationMaxMs(existing.getDurationMaxMs() == null ? maxMs : Math.max(existing.getDurationMaxMs(), maxMs))
+                    .setDurationHistogram(DurationHistogram.of(existing.getDurationHistogram()).merge(histogram).toList())
+                    .setFirstStartTime(existing.getFirstStartTime() == null || firstStartTime.isBefore(existing.getFirstStartTime())
+                            ? firstStartTime : existing.getFirstStartTime())
+                    .setLastStartTime(existing.getLastStartTime() == null || lastStartTime.isAfter(existing.getLastStartTime())
+                            ? lastStartTime : existing.getLastStartTime());
+            existing.setTenantId(tenantId);
+            return existing;
+        }
+
+        private static long valueOf(Long value) {
+            return value == null ? 0 : value;
+        }
+    }
+
+    /**
+     * 版本执行汇总
+     */
+    @Getter
+    public static class VersionRollup {
+
+        private final Integer version;
+
+        private final Map<FlowExecStatus, Long> countByStatus = new EnumMap<>(FlowExecStatus.class);
+
+        private final DurationHistogram histogram = new DurationHistogram();
+
+        private long totalCount;
+
+        private long durationSumMs;
+
+        private Long durationMinMs;
+
+        private Long durationMaxMs;
+
+        private LocalDateTime firstStartTime;
+
+        private LocalDateTime lastStartTime;
+
+        VersionRollup(Integer version) {
+            this.version = version;
+        }
+
+        void add(FlowExecutionRollup bucket) {
+            long count = bucket.getExecutionCount() == null ? 0 : bucket.getExecutionCount();
+            totalCount += count;
+            countByStatus.merge(bucket.getStatus(), count, Long::sum);
+            durationSumMs += bucket.getDurationSumMs() == null ? 0 : bucket.getDurationSumMs();
+            if (bucket.getDurationMinMs() != null && (durationMinMs == null || bucket.getDurationMinMs() < durationMinMs)) {
+                durationMinMs = bucket.getDurationMinMs();
+            }
+            if (bucket.getDurationMaxMs() != null && (durationMaxMs == null || bucket.getDurationMaxMs() > durationMaxMs)) {
+                durationMaxMs = bucket.getDurationMaxMs();
+            }
+            histogram.merge(DurationHistogram.of(bucket.getDurationHistogram()));
+            if (bucket.getFirstStartTime() != null && (firstStartTime == null || bucket.getFirstStartTime().isBefore(firstStartTime))) {
+                firstStartTime = bucket.getFirstStartTime();
+            }
+            if (bucket.getLastStartTime() != null && (lastStartTime == null || bucket.getLastStartTime().isAfter(lastStartTime))) {
+                lastStartTime = bucket.getLastStartTime();
+            }
+        }
+
+        /**
+         * 指定状态的执行次数
+         *
+         * @param status 执行状态
+         * @return 执行次数
+         */
+        public long getCount(FlowExecStatus status) {
+            return countByStatus.getOrDefault(status, 0L);
+        }
+
+        /**
+         * 平均耗时（毫秒）
+         *
+         * @return 平均耗时，无数据时返回 null
+         */
+        public Double getAvgDurationMs() {
+            return totalCount == 0 ? null : (double) durationSumMs / totalCount;
+        }
+
+        /**
+         * 估算耗时分位数（毫秒）
+         *
+         * @param quantile 分位，0 ~ 1
+         * @return 耗时，无数据时返回 null
+         */
+        public Long getDurationPercentile(double quantile) {
+            return histogram.percentile(quantile, durationMinMs, durationMaxMs);
+        }
+    }
+
+}
@@ -2,18 +2,20 @@
 package cn.fxbin.bubble.flow.core.provider;
 
 import cn.fxbin.bubble.core.util.StringUtils;
-import cn.fxbin.bubble.flow.core.builder.FlowExpressionBuilder;
+import cn.fxbin.bubble.flow.core.cache.FlowPlanCache;
 import cn.fxbin.bubble.flow.core.enums.FlowPublishStatus;
 import cn.fxbin.bubble.flow.core.exception.FlowNotFoundException;
 import cn.fxbin.bubble.flow.core.mapper.FlowDefinitionMapper;
 import cn.fxbin.bubble.flow.core.model.entity.FlowDefinition;
 import cn.fxbin.bubble.flow.core.util.FlowUtils;
-import com.yomahub.liteflow.builder.el.LiteFlowChainELBuilder;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.yomahub.liteflow.flow.FlowBus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * FlowRegistryProvider
@@ -27,7 +29,7 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class FlowRegistryProvider {
 
-    private final FlowExpressionBuilder expressionBuilder;
+    private final FlowPlanCache flowPlanCache;
 
     private final FlowDefinitionMapper flowDefinitionMapper;
 
@@ -43,29 +45,30 @@ public class FlowRegistryProvider {
     @Transactional(rollbackFor = {FlowNotFoundException.class, Exception.class})
     public String registry(Long flowId, String executeId) {
         try {
-            FlowDefinition flow = flowDefinitionMapper.findById(flowId)
-                    .orElseThrow(() -> new FlowNotFoundException(StringUtils.utf8Str(flowId)));
-
             String chainId = StringUtils.isNotEmpty(executeId) ? executeId : FlowUtils.generateExecutionId(flowId);
 
             // 1. 删除旧流程
             FlowBus.removeChain(chainId);
 
-            // 2. 生成新表达式
-            String expr = expressionBuilder.buildExpression(flowId);
-            log.info("发布流程: {}, 表达式: {}", flowId, expr);
-
-            // 3. 动态注册
-            LiteFlowChainELBuilder.createChain()
-                    .setChainId(chainId)
-                    .setEL(expr)
-                    .build();
-
-            // 4. 更新状态
-            flow.setStatus(FlowPublishStatus.PUBLISHED);
-            // 5. 更新表达式
-            flow.setEl(expr);
-            flowDefinitionMapper.saveOrUpdate(flow);
+            // 2. 获取编译计划（按流程版本缓存，保存/发布时失效）
+            FlowPlanCache.CompiledPlan plan = flowPlanCache.getOrCompile(flowId);
+            log.debug("注册流程: {}, 版本: {}, 执行ID: {}", flowId, plan.version(), chainId);
+
+            // 3. 动态注册，复用缓存的表达式
+            flowPlanCache.registerChain(plan, chainId);
+
+            // 4. 首次编译后只更新状态与表达式，版本已变化时不覆盖；更新提交后才标记计划已发布
+            if (!plan.published()) {
+                log.info("发布流程: {}, 表达式: {}", flowId, plan.el());
+                int updated = flowDefinitionMapper.update(Wrappers.<FlowDefinition>lambdaUpdate()
+                        .set(FlowDefinition::getStatus, FlowPublishStatus.PUBLISHED)
+                        .set(FlowDefinition::getEl, plan.el())
+                        .eq(FlowDefinition::getId, flowId)
+                        .eq(FlowDefinition::getVersion, plan.version()));
+                if (updated == 1) {
+                    markPublishedAfterCommit(plan);
+                }
+            }
 
             return chainId;
         } catch (FlowNotFoundException e) {
@@ -80,6 +83,22 @@ public class FlowRegistryProvider {
     }
 
 
+    /**
+     * 事务提交后标记编译计划已发布，回滚时下次注册仍会更新流程定义
+     */
+    private void markPublishedAfterCommit(FlowPlanCache.CompiledPlan plan) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    flowPlanCache.markPublished(plan);
+                }
+            });
+        } else {
+            flowPlanCache.markPublished(plan);
+        }
+    }
+
     public void unRegistry(String chainId) {
         FlowBus.removeChain(chainId);
         log.info("取消注册流程: {}", chainId);
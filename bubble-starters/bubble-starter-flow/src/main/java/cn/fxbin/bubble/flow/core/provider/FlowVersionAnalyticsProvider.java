@@ -11,6 +11,7 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -31,6 +32,8 @@ public class FlowVersionAnalyticsProvider {
 
     private final FlowExecutionLogMapper flowExecutionLogMapper;
 
+    private final FlowExecutionRollupProvider flowExecutionRollupProvider;
+
     /**
      * 版本性能统计
      */
@@ -45,6 +48,9 @@ public class FlowVersionAnalyticsProvider {
         private Double avgDurationSeconds;
         private Double minDurationSeconds;
         private Double maxDurationSeconds;
+        private Double p50DurationSeconds;
+        private Double p95DurationSeconds;
+        private Double p99DurationSeconds;
         private LocalDateTime firstExecutionTime;
         private LocalDateTime lastExecutionTime;
         private String healthStatus;
@@ -78,8 +84,12 @@ public class FlowVersionAnalyticsProvider {
     public List<VersionPerformanceStats> getVersionPerformanceStats(Long flowId) {
         log.info("Analyzing version performance for flow: {}", flowId);
 
-        // 1. 获取版本执行统计数据
-        List<Map<String, Object>> rawStats = flowExecutionLogMapper.selectVersionExecutionStats(flowId);
+        if (flowExecutionRollupProvider.isEnabled()) {
+            return getVersionPerformanceStatsFromRollup(flowId);
+        }
+
+        // 1. 获取版本执行与耗时统计数据（数据库端聚合）
+        List<Map<String, Object>> rawStats = flowExecutionLogMapper.selectVersionPerformanceStats(flowId);
         
         List<VersionPerformanceStats> stats = new ArrayList<>();
         
@@ -106,8 +116,14 @@ public class FlowVersionAnalyticsProvider {
                 stat.setAvgDurationSeconds(((Number) avgDuration).doubleValue());
             }
             
-            // 2. 获取详细执行时间信息
-            enrichWithDetailedStats(flowId, stat);
+            // 2. 耗时分布与执行时间
+            stat.setMinDurationSeconds(toSeconds(rawStat.get("minDurationMs")));
+            stat.setMaxDurationSeconds(toSeconds(rawStat.get("maxDurationMs")));
+            stat.setP50DurationSeconds(toSeconds(rawStat.get("p50DurationMs")));
+            stat.setP95DurationSeconds(toSeconds(rawStat.get("p95DurationMs")));
+            stat.setP99DurationSeconds(toSeconds(rawStat.get("p99DurationMs")));
+            stat.setFirstExecutionTime(toLocalDateTime(rawStat.get("firstExecutionTime")));
+            stat.setLastExecutionTime(toLocalDateTime(rawStat.get("lastExecutionTime")));
             
             // 3. 评估健康状态
             stat.setHealthStatus(evaluateVersionHealth(stat));
@@ -123,42 +139,69 @@ public class FlowVersionAnalyticsProvider {
     }
 
     /**
-     * 丰富版本统计的详细信息
+     * 基于执行汇总获取版本性能统计
+     * <p>仅包含已结束的执行，平均、最小、最大耗时为精确值，分位数为直方图估算值</p>
      */
-    private void enrichWithDetailedStats(Long flowId, VersionPerformanceStats stat) {
-        LambdaQueryWrapper<FlowExecutionLog> wrapper = new LambdaQueryWrapper<FlowExecutionLog>()
-                .eq(FlowExecutionLog::getFlowId, flowId)
-                .eq(FlowExecutionLog::getFlowVersion, stat.getVersion())
-                .isNotNull(FlowExecutionLog::getStartTime)
-                .isNotNull(FlowExecutionLog::getEndTime)
-                .orderByAsc(FlowExecutionLog::getStartTime);
-
-        List<FlowExecutionLog> executions = flowExecutionLogMapper.selectList(wrapper);
-        
-        if (!executions.isEmpty()) {
-            // 计算执行时间统计
-            List<Double> durations = executions.stream()
-                    .filter(log -> log.getStartTime() != null && log.getEndTime() != null)
-                    .map(log -> {
-                        long durationMillis = java.time.Duration.between(log.getStartTime(), log.getEndTime()).toMillis();
-                        return durationMillis / 1000.0; // 转换为秒
-                    })
-                    .toList();
+    private List<VersionPerformanceStats> getVersionPerformanceStatsFromRollup(Long flowId) {
+        List<VersionPerformanceStats> stats = new ArrayList<>();
+        for (FlowExecutionRollupProvider.VersionRollup rollup : flowExecutionRollupProvider.summarizeByVersion(flowId).values()) {
+            VersionPerformanceStats stat = new VersionPerformanceStats();
+            stat.setVersion(rollup.getVersion());
+            stat.setTotalExecutions(rollup.getTotalCount());
+            stat.setSuccessExecutions(rollup.getCount(FlowExecStatus.SUCCESS));
+            stat.setFailedExecutions(rollup.getCount(FlowExecStatus.FAILED));
+            stat.setSuccessRate(calculateSuccessRate(stat.getSuccessExecutions(), stat.getTotalExecutions()));
 
-            if (!durations.isEmpty()) {
-                stat.setMinDurationSeconds(durations.stream().min(Double::compare).orElse(0.0));
-                stat.setMaxDurationSeconds(durations.stream().max(Double::compare).orElse(0.0));
-                
-                if (stat.getAvgDurationSeconds() == null) {
-                    double avgDuration = durations.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-                    stat.setAvgDurationSeconds(BigDecimal.valueOf(avgDuration).setScale(2, RoundingMode.HALF_UP).doubleValue());
-                }
+            Double avgDurationMs = rollup.getAvgDurationMs();
+            if (avgDurationMs != null) {
+                stat.setAvgDurationSeconds(BigDecimal.valueOf(avgDurationMs / 1000.0).setScale(2, RoundingMode.HALF_UP).doubleValue());
             }
-            
-            // 设置首次和最后执行时间
-            stat.setFirstExecutionTime(executions.get(0).getStartTime());
-            stat.setLastExecutionTime(executions.get(executions.size() - 1).getStartTime());
+            stat.setMinDurationSeconds(toSeconds(rollup.getDurationMinMs()));
+            stat.setMaxDurationSeconds(toSeconds(rollup.getDurationMaxMs()));
+            stat.setP50DurationSeconds(toSeconds(rollup.getDurationPercentile(0.50)));
+            stat.setP95DurationSeconds(toSeconds(rollup.getDurationPercentile(0.95)));
+            stat.setP99DurationSeconds(toSeconds(rollup.getDurationPercentile(0.99)));
+            stat.setFirstExecutionTime(rollup.getFirstStartTime());
+            stat.setLastExecutionTime(rollup.getLastStartTime());
+            stat.setHealthStatus(evaluateVersionHealth(stat));
+            stats.add(stat);
         }
+        log.info("Analyzed {} versions for flow from rollups: {}", stats.size(), flowId);
+        return stats;
+    }
+
+    /**
+     * 计算成功率（百分比，保留两位小数）
+     */
+    private double calculateSuccessRate(long successCount, long totalCount) {
+        if (totalCount <= 0) {
+            return 0.0;
+        }
+        double successRate = (double) successCount / totalCount * 100;
+        return BigDecimal.valueOf(successRate).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    /**
+     * 毫秒转换为秒
+     */
+    private Double toSeconds(Object durationMs) {
+        if (durationMs == null) {
+            return null;
+        }
+        return ((Number) durationMs).longValue() / 1000.0;
+    }
+
+    /**
+     * 兼容不同驱动返回的时间类型
+     */
+    private LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime;
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return null;
     }
 
     /**
@@ -464,6 +507,10 @@ public class FlowVersionAnalyticsProvider {
         
         Map<String, Object> summary = new HashMap<>();
         LocalDateTime startTime = LocalDateTime.now().minusDays(days);
+
+        if (flowExecutionRollupProvider.isEnabled()) {
+            return getVersionExecutionSummaryFromRollup(flowId, days, startTime, summary);
+        }
         
         // 查询指定时间范围内的执行记录
         LambdaQueryWrapper<FlowExecutionLog> wrapper = new LambdaQueryWrapper<FlowExecutionLog>()
@@ -523,4 +570,41 @@ public class FlowVersionAnalyticsProvider {
         log.info("Version execution summary completed for flow: {}", flowId);
         return summary;
     }
-}
\ No newline at end of file
+
+    /**
+     * 基于执行汇总获取版本执行历史摘要，仅包含已结束的执行
+     */
+    private Map<String, Object> getVersionExecutionSummaryFromRollup(Long flowId, int days, LocalDateTime startTime,
+                                                                    Map<String, Object> summary) {
+        Map<Integer, FlowExecutionRollupProvider.VersionRollup> rollups =
+                flowExecutionRollupProvider.summarizeByVersion(flowId, startTime);
+        if (rollups.isEmpty()) {
+            summary.put("status", "NO_RECENT_DATA");
+            summary.put("message", "最近" + days + "天内无执行记录");
+            return summary;
+        }
+
+        List<Map<String, Object>> versionSummaries = new ArrayList<>();
+        long totalExecutions = 0;
+        for (FlowExecutionRollupProvider.VersionRollup rollup : rollups.values()) {
+            Map<String, Object> versionSummary = new HashMap<>();
+            versionSummary.put("version", rollup.getVersion());
+            versionSummary.put("executionCount", rollup.getTotalCount());
+            versionSummary.put("successRate", calculateSuccessRate(rollup.getCount(FlowExecStatus.SUCCESS), rollup.getTotalCount()));
+            if (rollup.getLastStartTime() != null) {
+                versionSummary.put("latestExecution", rollup.getLastStartTime());
+            }
+            versionSummaries.add(versionSummary);
+            totalExecutions += rollup.getTotalCount();
+        }
+
+        summary.put("timeRange", days + " days");
+        summary.put("totalExecutions", totalExecutions);
+        summary.put("activeVersions", rollups.size());
+        summary.put("versionSummaries", versionSummaries);
+        summary.put("queryTime", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+
+        log.info("Version execution summary completed for flow from rollups: {}", flowId);
+        return summary;
+    }
+}
@@ -2,6 +2,8 @@ package cn.fxbin.bubble.flow.core.provider;
 
 import cn.hutool.core.date.SystemClock;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import cn.fxbin.bubble.flow.core.config.FlowProperties;
+import cn.fxbin.bubble.flow.core.enums.ArchiveStrategy;
 import cn.fxbin.bubble.flow.core.enums.FlowExecStatus;
 import cn.fxbin.bubble.flow.core.mapper.FlowArchiveMapper;
 import cn.fxbin.bubble.flow.core.mapper.FlowArchiveOperationLogMapper;
@@ -13,19 +15,25 @@ import cn.fxbin.bubble.flow.core.model.entity.FlowArchiveOperationLog;
 import cn.fxbin.bubble.flow.core.model.entity.FlowArchiveRecord;
 import cn.fxbin.bubble.flow.core.model.entity.FlowExecutionLog;
 import cn.fxbin.bubble.flow.core.model.entity.FlowVersionHistory;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
  * 流程版本归档服务
  * <p>提供版本归档、清理、备份等功能，支持版本生命周期管理</p>
+ * <p>
+ *     执行日志按 id 区间分块搬运，每个分块在一个短事务中完成复制、删除与检查点推进，检查点记录在
+ *     {@link FlowArchiveOperationLog} 中，进程中断后再次归档同一版本会从检查点继续；搬运速度受
+ *     bubble.flow.archive.max-rows-per-second 限制，进度可通过 {@link #getArchiveProgress(Long)} 查询。
+ * </p>
  *
  * @author fxbin
  * @version v1.0
@@ -33,23 +41,43 @@ import java.util.stream.Collectors;
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class FlowVersionArchiveProvider {
 
+    private static final String OPERATION_ARCHIVE = "ARCHIVE";
+
+    private static final String STATUS_PROCESSING = "PROCESSING";
+
+    private static final String STATUS_SUCCESS = "SUCCESS";
+
     private final FlowExecutionLogMapper flowExecutionLogMapper;
     private final FlowVersionHistoryMapper flowVersionHistoryMapper;
     private final FlowArchiveMapper flowArchiveMapper;
     private final FlowArchiveOperationLogMapper flowArchiveOperationLogMapper;
+    private final TransactionOperations transactionOperations;
+    private final FlowProperties.Archive config;
+
+    public FlowVersionArchiveProvider(FlowExecutionLogMapper flowExecutionLogMapper,
+                                      FlowVersionHistoryMapper flowVersionHistoryMapper,
+                                      FlowArchiveMapper flowArchiveMapper,
+                                      FlowArchiveOperationLogMapper flowArchiveOperationLogMapper,
+                                      ObjectProvider<TransactionOperations> transactionOperations,
+                                      FlowProperties flowProperties) {
+        this.flowExecutionLogMapper = flowExecutionLogMapper;
+        this.flowVersionHistoryMapper = flowVersionHistoryMapper;
+        this.flowArchiveMapper = flowArchiveMapper;
+        this.flowArchiveOperationLogMapper = flowArchiveOperationLogMapper;
+        this.transactionOperations = transactionOperations.getIfUnique(TransactionOperations::withoutTransaction);
+        this.config = flowProperties.getArchive();
+    }
 
     /**
      * 执行版本归档
-     * <p>根据指定策略归档流程版本</p>
+     * <p>根据指定策略归档流程版本；各版本的执行日志分块在独立事务中搬运，不在外层事务中执行</p>
      *
      * @param flowId 流程ID
      * @param config 归档配置
      * @return 归档结果
      */
-    @Transactional(rollbackFor = Exception.class)
     public FlowArchiveResultDTO archiveVersions(Long flowId, FlowArchiveConfigDTO config) {
         log.info("Starting version archive for flow: {}, strategy: {}", flowId, config.getStrategy());
         
@@ -84,10 +112,10 @@ public class FlowVersionArchiveProvider {
             }
             
             // 5. 执行实际归档
-            performActualArchive(flowId, candidateVersions, result);
+            long archivedExecutionLogs = performActualArchive(flowId, candidateVersions, result);
             
             // 6. 生成统计信息
-            generateArchiveStatistics(flowId, result);
+            generateArchiveStatistics(result, archivedExecutionLogs);
             
             result.setSuccess(true);
             result.setMessage("归档完成，共归档" + result.getArchivedVersions().size() + "个版本");
@@ -292,12 +320,7 @@ public class FlowVersionArchiveProvider {
         }
         
         try {
-            flowArchiveMapper.backupVersionHistories(flowId, versions);
-            // 查询备份的记录数
-            LambdaQueryWrapper<FlowVersionHistory> wrapper = new LambdaQueryWrapper<FlowVersionHistory>()
-                    .eq(FlowVersionHistory::getFlowId, flowId)
-                    .in(FlowVersionHistory::getVersion, versions);
-            return flowVersionHistoryMapper.selectList(wrapper).size();
+            return flowArchiveMapper.backupVersionHistories(flowId, versions);
         } catch (Exception e) {
             log.warn("Failed to backup version histories for flow: {}, versions: {}", flowId, versions, e);
             return 0;
@@ -306,6 +329,7 @@ public class FlowVersionArchiveProvider {
     
     /**
      * 备份执行日志
+     * <p>按 id 区间分块复制，返回本次新备份的记录数（此前已备份的记录会被忽略）</p>
      */
     private int backupExecutionLogs(Long flowId, List<Integer> versions) {
         if (versions.isEmpty()) {
@@ -313,12 +337,18 @@ public class FlowVersionArchiveProvider {
         }
         
         try {
-            flowArchiveMapper.backupExecutionLogs(flowId, versions);
-            // 查询备份的记录数
-            LambdaQueryWrapper<FlowExecutionLog> wrapper = new LambdaQueryWrapper<FlowExecutionLog>()
-                    .eq(FlowExecutionLog::getFlowId, flowId)
-                    .in(FlowExecutionLog::getFlowVersion, versions);
-            return flowExecutionLogMapper.selectList(wrapper).size();
+            long startNanos = System.nanoTime();
+            int backupCount = 0;
+            for (Integer version : versions) {
+                long lastId = 0L;
+                Long toId;
+                while ((toId = flowArchiveMapper.selectExecutionLogChunkEnd(flowId, version, lastId, config.getChunkSize())) != null) {
+                    backupCount += flowArchiveMapper.copyExecutionLogsToBackup(flowId, version, lastId, toId);
+                    lastId = toId;
+                    throttle(startNanos, backupCount);
+                }
+            }
+            return backupCount;
         } catch (Exception e) {
             log.warn("Failed to backup execution logs for flow: {}, versions: {}", flowId, versions, e);
             return 0;
@@ -327,25 +357,23 @@ public class FlowVersionArchiveProvider {
 
     /**
      * 执行实际归档
+     *
+     * @return 已搬运的执行日志数
      */
-    private void performActualArchive(Long flowId, List<Integer> candidateVersions, FlowArchiveResultDTO result) {
+    private long performActualArchive(Long flowId, List<Integer> candidateVersions, FlowArchiveResultDTO result) {
         log.info("Performing actual archive for flow: {}, versions: {}, strategy: {}", 
                 flowId, candidateVersions, result.getStrategy());
         
         List<Integer> successfullyArchived = new ArrayList<>();
         List<Integer> skipped = new ArrayList<>();
+        long archivedExecutionLogs = 0;
         
         String archiveStrategy = result.getStrategy().name();
         String archiveReason = String.format("基于[%s]策略自动归档", result.getStrategy().getDescription());
         
         for (Integer version : candidateVersions) {
             try {
-                // 1. 归档版本历史记录
-                archiveVersionHistory(flowId, version, archiveStrategy, archiveReason);
-                
-                // 2. 归档相关的执行日志
-                archiveVersionExecutionLogs(flowId, version);
-                
+                archivedExecutionLogs += archiveVersion(flowId, version, result.getStrategy(), archiveStrategy, archiveReason);
                 successfullyArchived.add(version);
                 log.debug("Successfully archived version {} for flow: {}", version, flowId);
                 
@@ -358,6 +386,75 @@ public class FlowVersionArchiveProvider {
         
         result.setArchivedVersions(successfullyArchived);
         result.setSkippedVersions(skipped);
+        return archivedExecutionLogs;
+    }
+
+    /**
+     * 归档单个版本
+     * <p>先分块搬运执行日志，全部搬运完成后在同一事务中归档版本历史记录并标记操作成功，
+     * 因此中断后重新归档时只会重做未完成的分块</p>
+     *
+     * @return 该版本已搬运的执行日志数（包含此前中断时已搬运的部分）
+     */
+    private long archiveVersion(Long flowId, Integer version, ArchiveStrategy strategy,
+                                String archiveStrategy, String archiveReason) {
+        FlowArchiveOperationLog operation = startOrResumeOperation(flowId, version, strategy);
+        try {
+            // 1. 分块搬运执行日志
+            archiveVersionExecutionLogs(operation);
+
+            // 2. 归档版本历史记录并完成操作
+            transactionOperations.executeWithoutResult(status -> {
+                archiveVersionHistory(flowId, version, archiveStrategy, archiveReason);
+                operation.completeOperation(operation.getAffectedRows());
+                flowArchiveOperationLogMapper.updateById(operation);
+            });
+            return operation.getAffectedRows();
+        } catch (Exception e) {
+            // 以数据库中的检查点为准，内存中的检查点可能已随失败的事务回滚
+            FlowArchiveOperationLog persisted = flowArchiveOperationLogMapper.selectById(operation.getId());
+            if (persisted != null) {
+                persisted.failOperation(e.getMessage());
+                flowArchiveOperationLogMapper.updateById(persisted);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 开始或继续归档操作
+     * <p>同一版本存在未成功且带检查点的归档操作时从其检查点继续，否则新建操作</p>
+     */
+    private FlowArchiveOperationLog startOrResumeOperation(Long flowId, Integer version, ArchiveStrategy strategy) {
+        LambdaQueryWrapper<FlowArchiveOperationLog> wrapper = new LambdaQueryWrapper<FlowArchiveOperationLog>()
+                .eq(FlowArchiveOperationLog::getFlowId, flowId)
+                .eq(FlowArchiveOperationLog::getVersion, version)
+                .eq(FlowArchiveOperationLog::getOperationType, OPERATION_ARCHIVE)
+                .ne(FlowArchiveOperationLog::getOperationStatus, STATUS_SUCCESS)
+                .isNotNull(FlowArchiveOperationLog::getLastArchivedId)
+                .orderByDesc(FlowArchiveOperationLog::getStartTime)
+                .last("LIMIT 1");
+
+        FlowArchiveOperationLog operation = flowArchiveOperationLogMapper.selectOne(wrapper);
+        if (operation != null) {
+            operation.setOperationStatus(STATUS_PROCESSING);
+            flowArchiveOperationLogMapper.updateById(operation);
+            log.info("Resuming archive for flow: {}, version: {}, from id: {}, moved: {}/{}",
+                    flowId, version, operation.getLastArchivedId(), operation.getAffectedRows(), operation.getTotalRows());
+            return operation;
+        }
+
+        LambdaQueryWrapper<FlowExecutionLog> countWrapper = new LambdaQueryWrapper<FlowExecutionLog>()
+                .eq(FlowExecutionLog::getFlowId, flowId)
+                .eq(FlowExecutionLog::getFlowVersion, version);
+
+        operation = new FlowArchiveOperationLog();
+        operation.startOperation(UUID.randomUUID().toString(), flowId, version, OPERATION_ARCHIVE, strategy);
+        operation.setTotalRows(flowExecutionLogMapper.selectCount(countWrapper));
+        operation.setLastArchivedId(0L);
+        operation.setAffectedRows(0);
+        flowArchiveOperationLogMapper.insert(operation);
+        return operation;
     }
 
     /**
@@ -394,64 +491,83 @@ public class FlowVersionArchiveProvider {
 
     /**
      * 归档版本执行日志
+     * <p>从检查点开始按 id 区间分块搬运，每个分块一个事务，直到没有剩余记录</p>
      */
-    private void archiveVersionExecutionLogs(Long flowId, Integer version) {
-        // 获取该版本的执行日志
-        LambdaQueryWrapper<FlowExecutionLog> wrapper = new LambdaQueryWrapper<FlowExecutionLog>()
-                .eq(FlowExecutionLog::getFlowId, flowId)
-                .eq(FlowExecutionLog::getFlowVersion, version);
-        
-        List<FlowExecutionLog> executionLogs = flowExecutionLogMapper.selectList(wrapper);
-        if (executionLogs.isEmpty()) {
-            log.debug("未找到执行日志: flowId={}, version={}", flowId, version);
+    private void archiveVersionExecutionLogs(FlowArchiveOperationLog operation) {
+        long startNanos = System.nanoTime();
+        long movedThisRun = 0;
+        Integer moved;
+        while ((moved = transactionOperations.execute(status -> moveExecutionLogChunk(operation))) != null) {
+            movedThisRun += moved;
+            log.debug("Archive progress for flow: {}, version: {}, moved: {}/{}, checkpoint: {}",
+                    operation.getFlowId(), operation.getVersion(), operation.getAffectedRows(),
+                    operation.getTotalRows(), operation.getLastArchivedId());
+            throttle(startNanos, movedThisRun);
+        }
+        log.debug("成功归档执行日志: flowId={}, version={}, count={}",
+                operation.getFlowId(), operation.getVersion(), operation.getAffectedRows());
+    }
+
+    /**
+     * 搬运检查点之后的一个分块：复制到归档表、删除主表记录并推进检查点
+     * <p>删除前校验区间内的每条记录都已在归档表中，否则抛出异常回滚整个分块，不删除任何记录</p>
+     *
+     * @return 删除的记录数，没有剩余记录时返回 null
+     */
+    private Integer moveExecutionLogChunk(FlowArchiveOperationLog operation) {
+        Long flowId = operation.getFlowId();
+        Integer version = operation.getVersion();
+        Long fromId = operation.getLastArchivedId();
+        Long toId = flowArchiveMapper.selectExecutionLogChunkEnd(flowId, version, fromId, config.getChunkSize());
+        if (toId == null) {
+            return null;
+        }
+        int copied = flowArchiveMapper.copyExecutionLogsToArchive(flowId, version, fromId, toId);
+        long unarchived = flowArchiveMapper.countUnarchivedExecutionLogs(flowId, version, fromId, toId);
+        if (unarchived > 0) {
+            throw new IllegalStateException(String.format(
+                    "执行日志未完整复制到归档表，回滚分块: flowId=%d, version=%d, range=(%d, %d], copied=%d, missing=%d",
+                    flowId, version, fromId, toId, copied, unarchived));
+        }
+        int deleted = flowArchiveMapper.deleteExecutionLogs(flowId, version, fromId, toId);
+        operation.advanceCheckpoint(toId, deleted);
+        flowArchiveOperationLogMapper.updateById(operation);
+        return deleted;
+    }
+
+    /**
+     * 按 bubble.flow.archive.max-rows-per-second 限速
+     *
+     * @param startNanos 开始时间
+     * @param rows 开始以来已处理的记录数
+     */
+    private void throttle(long startNanos, long rows) {
+        int maxRowsPerSecond = config.getMaxRowsPerSecond();
+        if (maxRowsPerSecond <= 0) {
+            return;
+        }
+        long sleepNanos = TimeUnit.SECONDS.toNanos(rows) / maxRowsPerSecond - (System.nanoTime() - startNanos);
+        if (sleepNanos <= 0) {
             return;
         }
-        
         try {
-            // 1. 批量移动到归档表
-            flowArchiveMapper.batchInsertExecutionLogArchives(executionLogs);
-
-            // 2. 批量删除主表记录
-            List<Long> logIds = executionLogs.stream()
-                .map(FlowExecutionLog::getId)
-                .collect(Collectors.toList());
-            
-            if (!logIds.isEmpty()) {
-                flowExecutionLogMapper.deleteByIds(logIds);
-            }
-            
-            log.debug("成功归档执行日志: flowId={}, version={}, count={}", 
-                     flowId, version, executionLogs.size());
-        } catch (Exception e) {
-            log.error("归档执行日志失败: flowId={}, version={}", flowId, version, e);
-            throw new RuntimeException("归档执行日志失败", e);
+            TimeUnit.NANOSECONDS.sleep(sleepNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("归档被中断", e);
         }
     }
 
     /**
      * 生成归档统计信息
      */
-    private void generateArchiveStatistics(Long flowId, FlowArchiveResultDTO result) {
+    private void generateArchiveStatistics(FlowArchiveResultDTO result, long archivedExecutionLogs) {
         Map<String, Object> stats = result.getStatistics();
         
         stats.put("totalCandidates", result.getCandidateVersions().size());
         stats.put("successfullyArchived", result.getArchivedVersions().size());
         stats.put("skipped", result.getSkippedVersions().size());
         stats.put("warningCount", result.getWarnings().size());
-        
-        // 计算归档后的存储节省
-        // 优化：直接使用已归档版本列表来计算，避免重复查询数据库
-        long archivedExecutionLogs = 0;
-        
-        // 如果需要精确计算，可以查询已归档的执行日志数量
-        // 这里使用一个估算值，避免大量数据库查询
-        for (Integer version : result.getArchivedVersions()) {
-            LambdaQueryWrapper<FlowExecutionLog> wrapper = new LambdaQueryWrapper<FlowExecutionLog>()
-                    .eq(FlowExecutionLog::getFlowId, flowId)
-                    .eq(FlowExecutionLog::getFlowVersion, version);
-            archivedExecutionLogs += flowExecutionLogMapper.selectCount(wrapper);
-        }
-        
         stats.put("archivedExecutionLogs", archivedExecutionLogs);
         stats.put("estimatedStorageSaved", calculateStorageSaved(result.getArchivedVersions().size(), archivedExecutionLogs));
     }
@@ -556,6 +672,40 @@ public class FlowVersionArchiveProvider {
         return recommendations;
     }
 
+    /**
+     * 获取归档进度
+     * <p>查询流程进行中或中断（可继续）的归档操作及其搬运进度</p>
+     *
+     * @param flowId 流程ID
+     * @return 归档进度列表
+     */
+    public List<Map<String, Object>> getArchiveProgress(Long flowId) {
+        LambdaQueryWrapper<FlowArchiveOperationLog> wrapper = new LambdaQueryWrapper<FlowArchiveOperationLog>()
+                .eq(FlowArchiveOperationLog::getFlowId, flowId)
+                .eq(FlowArchiveOperationLog::getOperationType, OPERATION_ARCHIVE)
+                .ne(FlowArchiveOperationLog::getOperationStatus, STATUS_SUCCESS)
+                .isNotNull(FlowArchiveOperationLog::getLastArchivedId)
+                .orderByDesc(FlowArchiveOperationLog::getStartTime);
+
+        return flowArchiveOperationLogMapper.selectList(wrapper).stream()
+                .map(operation -> {
+                    long movedRows = operation.getAffectedRows() == null ? 0 : operation.getAffectedRows();
+                    long totalRows = operation.getTotalRows() == null ? 0 : operation.getTotalRows();
+                    Map<String, Object> progress = new HashMap<>();
+                    progress.put("operationId", operation.getOperationId());
+                    progress.put("version", operation.getVersion());
+                    progress.put("operationStatus", operation.getOperationStatus());
+                    progress.put("startTime", operation.getStartTime());
+                    progress.put("movedRows", movedRows);
+                    progress.put("totalRows", totalRows);
+                    progress.put("progress", totalRows > 0 ? Math.min(100.0, movedRows * 100.0 / totalRows) : 0.0);
+                    progress.put("checkpoint", operation.getLastArchivedId());
+                    progress.put("errorMessage", operation.getErrorMessage());
+                    return progress;
+                })
+                .collect(Collectors.toList());
+    }
+
     /**
      * 获取归档历史
      * <p>查询流程的归档操作历史</p>
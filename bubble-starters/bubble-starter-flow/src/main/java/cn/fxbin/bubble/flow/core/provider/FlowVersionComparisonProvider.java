@@ -2,14 +2,23 @@ package cn.fxbin.bubble.flow.core.provider;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import cn.fxbin.bubble.core.exception.ServiceException;
+import cn.fxbin.bubble.core.util.JsonUtils;
+import cn.fxbin.bubble.core.util.StringUtils;
+import cn.fxbin.bubble.flow.core.algorithm.FlowStructureHasher;
+import cn.fxbin.bubble.flow.core.cache.FlowCacheInvalidator;
+import cn.fxbin.bubble.flow.core.config.FlowProperties;
 import cn.fxbin.bubble.flow.core.mapper.FlowVersionHistoryMapper;
 import cn.fxbin.bubble.flow.core.model.FlowChain;
+import cn.fxbin.bubble.flow.core.model.FlowStructureHash;
 import cn.fxbin.bubble.flow.core.model.entity.FlowEdge;
 import cn.fxbin.bubble.flow.core.model.entity.FlowNode;
 import cn.fxbin.bubble.flow.core.model.entity.FlowVersionHistory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -18,6 +27,12 @@ import java.util.stream.Collectors;
 /**
  * 流程版本对比服务
  * <p>提供版本间的差异分析、对比报告生成等功能</p>
+ * <p>
+ *     版本对比基于发布时保存的 {@link FlowStructureHash}：根哈希相同时不加载快照，节点 / 边集合哈希相同时跳过整组对比，
+ *     只对哈希不同的节点做属性分析；哈希仅在开启 {@code bubble.flow.version.structure-hash} 时读写 structure_hash 列，
+ *     未开启或未保存哈希的历史版本在对比时按快照计算。对比结果按 (流程, 源版本, 目标版本) 缓存，
+ *     流程变更时经 {@link FlowCacheInvalidator} 失效。
+ * </p>
  *
  * @author fxbin
  * @version v1.0
@@ -26,10 +41,32 @@ import java.util.stream.Collectors;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class FlowVersionComparisonProvider {
+public class FlowVersionComparisonProvider implements InitializingBean {
 
     private final FlowVersionHistoryMapper flowVersionHistoryMapper;
 
+    private final FlowCacheInvalidator flowCacheInvalidator;
+
+    private final FlowProperties flowProperties;
+
+    /**
+     * 版本对比结果缓存
+     */
+    private final Cache<VersionPair, VersionDifference> differences = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .build();
+
+    @Override
+    public void afterPropertiesSet() {
+        flowCacheInvalidator.register(flowId -> differences.asMap().keySet().removeIf(key -> key.flowId() == flowId));
+    }
+
+    /**
+     * 版本对比缓存键
+     */
+    private record VersionPair(long flowId, Integer fromVersion, Integer toVersion) {
+    }
+
     /**
      * 版本差异对比结果
      */
@@ -104,7 +141,7 @@ public class FlowVersionComparisonProvider {
 
     /**
      * 对比两个版本的差异
-     * <p>分析节点、边和元数据的变化</p>
+     * <p>分析节点、边和元数据的变化，结果会被缓存，调用方不应修改返回的对象</p>
      *
      * @param flowId 流程ID
      * @param fromVersion 源版本号
@@ -113,25 +150,48 @@ public class FlowVersionComparisonProvider {
      * @throws ServiceException 如果版本不存在
      */
     public VersionDifference compareVersions(Long flowId, Integer fromVersion, Integer toVersion) {
+        return differences.get(new VersionPair(flowId, fromVersion, toVersion),
+                key -> doCompareVersions(flowId, fromVersion, toVersion));
+    }
+
+    private VersionDifference doCompareVersions(Long flowId, Integer fromVersion, Integer toVersion) {
         log.info("Comparing flow versions: flowId={}, from={}, to={}", flowId, fromVersion, toVersion);
 
-        // 1. 获取两个版本的快照
+        // 1. 获取两个版本的元数据与结构哈希（不含快照）
         FlowVersionHistory fromHistory = getVersionHistory(flowId, fromVersion);
         FlowVersionHistory toHistory = getVersionHistory(flowId, toVersion);
 
-        FlowChain fromSnapshot = fromHistory.getSnapshot();
-        FlowChain toSnapshot = toHistory.getSnapshot();
-
         // 2. 创建差异对比结果
         VersionDifference difference = new VersionDifference(fromVersion, toVersion);
 
-        // 3. 对比节点差异
-        compareNodes(fromSnapshot.getNodes(), toSnapshot.getNodes(), difference);
+        FlowStructureHash fromHash = fromHistory.getStructureHash();
+        FlowStructureHash toHash = toHistory.getStructureHash();
+        boolean identical = FlowStructureHasher.isCurrent(fromHash) && FlowStructureHasher.isCurrent(toHash)
+                && fromHash.getRoot().equals(toHash.getRoot());
+
+        if (!identical) {
+            // 3. 结构不同时加载快照，缺失哈希的版本按快照计算
+            FlowChain fromSnapshot = getSnapshot(fromHistory);
+            FlowChain toSnapshot = getSnapshot(toHistory);
+            if (!FlowStructureHasher.isCurrent(fromHash)) {
+                fromHash = FlowStructureHasher.hash(fromSnapshot);
+            }
+            if (!FlowStructureHasher.isCurrent(toHash)) {
+                toHash = FlowStructureHasher.hash(toSnapshot);
+            }
+
+            // 4. 对比节点差异
+            if (!Objects.equals(fromHash.getNodesRoot(), toHash.getNodesRoot())) {
+                compareNodes(fromSnapshot.getNodes(), toSnapshot.getNodes(), fromHash.getNodes(), toHash.getNodes(), difference);
+            }
 
-        // 4. 对比边差异
-        compareEdges(fromSnapshot.getEdges(), toSnapshot.getEdges(), difference);
+            // 5. 对比边差异
+            if (!Objects.equals(fromHash.getEdgesRoot(), toHash.getEdgesRoot())) {
+                compareEdges(fromSnapshot.getEdges(), toSnapshot.getEdges(), fromHash.getEdges(), toHash.getEdges(), difference);
+            }
+        }
 
-        // 5. 对比元数据差异
+        // 6. 对比元数据差异
         compareMetadata(fromHistory, toHistory, difference);
 
         log.info("Version comparison completed: {} node differences, {} edge differences", 
@@ -141,11 +201,12 @@ public class FlowVersionComparisonProvider {
     }
 
     /**
-     * 获取版本历史记录
+     * 获取版本历史记录（不含快照），开启结构哈希时一并读取
      */
     private FlowVersionHistory getVersionHistory(Long flowId, Integer version) {
         FlowVersionHistory history = flowVersionHistoryMapper.selectOne(
             new LambdaQueryWrapper<FlowVersionHistory>()
+                .select(FlowVersionHistory.class, field -> !"snapshot".equals(field.getProperty()))
                 .eq(FlowVersionHistory::getFlowId, flowId)
                 .eq(FlowVersionHistory::getVersion, version)
         );
@@ -153,14 +214,38 @@ public class FlowVersionComparisonProvider {
         if (history == null) {
             throw new ServiceException(String.format("Version history not found: flowId=%d, version=%d", flowId, version));
         }
+        if (flowProperties.getVersion().isStructureHash()) {
+            String structureHash = flowVersionHistoryMapper.selectStructureHash(history.getId());
+            if (StringUtils.isNotBlank(structureHash)) {
+                history.setStructureHash(JsonUtils.parse(structureHash, FlowStructureHash.class));
+            }
+        }
         
         return history;
     }
 
+    /**
+     * 获取版本快照
+     */
+    private FlowChain getSnapshot(FlowVersionHistory history) {
+        FlowVersionHistory snapshotHistory = flowVersionHistoryMapper.selectOne(
+            new LambdaQueryWrapper<FlowVersionHistory>()
+                .select(FlowVersionHistory::getId, FlowVersionHistory::getSnapshot)
+                .eq(FlowVersionHistory::getId, history.getId())
+        );
+        FlowChain snapshot = snapshotHistory != null ? snapshotHistory.getSnapshot() : null;
+        return snapshot != null ? snapshot : new FlowChain(List.of(), List.of());
+    }
+
     /**
      * 对比节点差异
+     * <p>以结构哈希判断节点是否修改，只对修改的节点分析属性变化</p>
      */
-    private void compareNodes(List<FlowNode> fromNodes, List<FlowNode> toNodes, VersionDifference difference) {
+    private void compareNodes(List<FlowNode> fromNodes, List<FlowNode> toNodes,
+                              Map<String, String> fromHashes, Map<String, String> toHashes,
+                              VersionDifference difference) {
+        fromNodes = fromNodes != null ? fromNodes : List.of();
+        toNodes = toNodes != null ? toNodes : List.of();
         Map<String, FlowNode> fromNodeMap = fromNodes.stream()
             .collect(Collectors.toMap(FlowNode::getId, node -> node));
         Map<String, FlowNode> toNodeMap = toNodes.stream()
@@ -186,7 +271,7 @@ public class FlowVersionComparisonProvider {
             } else {
                 // 检查节点是否被修改
                 FlowNode toNode = toNodeMap.get(nodeId);
-                if (!nodesEqual(fromNode, toNode)) {
+                if (!Objects.equals(fromHashes.get(nodeId), toHashes.get(nodeId))) {
                     NodeDifference nodeDiff = new NodeDifference(nodeId, DifferenceType.MODIFIED, fromNode, toNode);
                     analyzeNodePropertyChanges(fromNode, toNode, nodeDiff);
                     difference.getNodeDifferences().add(nodeDiff);
@@ -197,8 +282,13 @@ public class FlowVersionComparisonProvider {
 
     /**
      * 对比边差异
+     * <p>以结构哈希判断边是否修改</p>
      */
-    private void compareEdges(List<FlowEdge> fromEdges, List<FlowEdge> toEdges, VersionDifference difference) {
+    private void compareEdges(List<FlowEdge> fromEdges, List<FlowEdge> toEdges,
+                              Map<Long, String> fromHashes, Map<Long, String> toHashes,
+                              VersionDifference difference) {
+        fromEdges = fromEdges != null ? fromEdges : List.of();
+        toEdges = toEdges != null ? toEdges : List.of();
         Map<Long, FlowEdge> fromEdgeMap = fromEdges.stream()
             .collect(Collectors.toMap(FlowEdge::getId, edge -> edge));
         Map<Long, FlowEdge> toEdgeMap = toEdges.stream()
@@ -224,7 +314,7 @@ public class FlowVersionComparisonProvider {
             } else {
                 // 检查边是否被修改
                 FlowEdge toEdge = toEdgeMap.get(edgeId);
-                if (!edgesEqual(fromEdge, toEdge)) {
+                if (!Objects.equals(fromHashes.get(edgeId), toHashes.get(edgeId))) {
                     difference.getEdgeDifferences().add(
                         new EdgeDifference(edgeId, DifferenceType.MODIFIED, fromEdge, toEdge)
                     );
@@ -248,25 +338,6 @@ public class FlowVersionComparisonProvider {
         }
     }
 
-    /**
-     * 检查两个节点是否相等
-     */
-    private boolean nodesEqual(FlowNode node1, FlowNode node2) {
-        return Objects.equals(node1.getName(), node2.getName()) &&
-               Objects.equals(node1.getNodeType(), node2.getNodeType()) &&
-               Objects.equals(node1.getConfig(), node2.getConfig()) &&
-               Objects.equals(node1.getPosition(), node2.getPosition());
-    }
-
-    /**
-     * 检查两个边是否相等
-     */
-    private boolean edgesEqual(FlowEdge edge1, FlowEdge edge2) {
-        return Objects.equals(edge1.getSourceNodeId(), edge2.getSourceNodeId()) &&
-               Objects.equals(edge1.getTargetNodeId(), edge2.getTargetNodeId()); /*&&*/
-//               Objects.equals(edge1.getCondition(), edge2.getCondition());
-    }
-
     /**
      * 分析节点属性变化
      */
@@ -0,0 +1,73 @@
+package cn.fxbin.bubble.flow.core.state;
+
+import cn.fxbin.bubble.flow.core.state.cache.FlowStateCache;
+import cn.fxbin.bubble.flow.core.state.cache.FlowStateCacheStats;
+import cn.fxbin.bubble.flow.core.state.serializer.FlowStateSerializer;
+import lombok.Getter;
+import org.springframework.util.Assert;
+
+/**
+ * FlowStateStore 流程上下文状态存储
+ *
+ * <p>
+ *     持有本地（L1）与远程（L2）状态缓存、状态序列化器与快照压缩间隔，由 FlowAutoConfiguration 按 bubble.flow.state 配置创建，
+ *     供 {@link cn.fxbin.bubble.flow.core.context.FlowContextHolder} 保存与加载状态。
+ * </p>
+ *
+ * @author fxbin
+ * @version v1.0
+ * @since 2026/1/8 10:00
+ */
+@Getter
+public class FlowStateStore {
+
+    /**
+     * 本地（L1）状态缓存
+     */
+    private final FlowStateCache localCache;
+
+    /**
+     * 远程（L2）状态缓存
+     */
+    private final FlowStateCache remoteCache;
+
+    /**
+     * 状态序列化器
+     */
+    private final FlowStateSerializer serializer;
+
+    /**
+     * 两次完整快照之间的最大增量检查点数
+     */
+    private final long compactInterval;
+
+    public FlowStateStore(FlowStateCache localCache, FlowStateCache remoteCache,
+                          FlowStateSerializer serializer, long compactInterval) {
+        Assert.notNull(localCache, "localCache must not be null");
+        Assert.notNull(remoteCache, "remoteCache must not be null");
+        Assert.notNull(serializer, "serializer must not be null");
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.serializer = serializer;
+        this.compactInterval = Math.max(1, compactInterval);
+    }
+
+    /**
+     * 获取本地（L1）状态缓存统计信息
+     *
+     * @return {@link FlowStateCacheStats}
+     */
+    public FlowStateCacheStats getLocalCacheStats() {
+        return localCache.getStats();
+    }
+
+    /**
+     * 获取远程（L2）状态缓存统计信息
+     *
+     * @return {@link FlowStateCacheStats}
+     */
+    public FlowStateCacheStats getRemoteCacheStats() {
+        return remoteCache.getStats();
+    }
+
+}
@@ -3,14 +3,25 @@ package cn.fxbin.bubble.flow.core.state.cache;
 import cn.fxbin.bubble.core.util.StringUtils;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Caffeine-based implementation of {@link cn.fxbin.bubble.flow.core.state.cache.FlowStateCache}.
  *
+ * <p>
+ *     每个条目带有自己的过期时间（{@link Expiry}），未指定时使用默认过期时间；
+ *     条目按键的 UTF-8 字节数与序列化后的字节数计权，快照与增量字段共享同一内存预算，超出预算时按 W-TinyLFU 淘汰。
+ * </p>
+ *
  * @author fxbin
  * @since 2025/4/22
  */
@@ -18,56 +29,100 @@ import java.util.concurrent.TimeUnit;
 public class CaffeineFlowStateCache implements FlowStateCache {
 
     private static final String CAFFEINE_CACHE_PREFIX = "flowctx:caffeine:";
-    private final Cache<String, String> stateCache;
 
     /**
-     * 构造函数，初始化 Caffeine 缓存。
+     * 增量字段的键后缀
+     */
+    private static final String FIELDS_SUFFIX = ":delta";
+
+    /**
+     * 快照与增量字段；增量字段与快照独立淘汰，不存在时说明增量不完整，需由 L2 重新加载
+     */
+    private final Cache<String, Entry> cache;
+
+    private final long defaultTtlNanos;
+
+    private final long maximumWeight;
+
+    /**
+     * 构造函数，初始化 Caffeine 缓存，按条目数限制容量。
      *
      * @param expireAfterWriteHours 写入后过期时间（小时）。
      * @param maximumSize 缓存最大容量。
      */
     public CaffeineFlowStateCache(long expireAfterWriteHours, long maximumSize) {
-        this.stateCache = Caffeine.newBuilder()
-                .expireAfterWrite(expireAfterWriteHours, TimeUnit.HOURS)
-                .maximumSize(maximumSize)
+        this(Duration.ofHours(expireAfterWriteHours), maximumSize, false);
+    }
+
+    /**
+     * 构造函数，初始化 Caffeine 缓存，按条目数限制容量。
+     *
+     * @param expireAfterWrite 默认写入后过期时间。
+     * @param maximumSize 缓存最大容量。
+     */
+    public CaffeineFlowStateCache(Duration expireAfterWrite, long maximumSize) {
+        this(expireAfterWrite, maximumSize, false);
+    }
+
+    /**
+     * 构造函数，初始化 Caffeine 缓存，按序列化后的字节数限制容量。
+     *
+     * @param expireAfterWrite 默认写入后过期时间。
+     * @param memoryBudget 缓存内容的内存预算。
+     */
+    public CaffeineFlowStateCache(Duration expireAfterWrite, DataSize memoryBudget) {
+        this(expireAfterWrite, memoryBudget.toBytes(), true);
+    }
+
+    private CaffeineFlowStateCache(Duration expireAfterWrite, long maximumWeight, boolean weighBytes) {
+        this.defaultTtlNanos = expireAfterWrite.toNanos();
+        this.maximumWeight = maximumWeight;
+        this.cache = Caffeine.newBuilder()
+                .expireAfter(new EntryExpiry())
+                .maximumWeight(maximumWeight)
+                .weigher((String key, Entry entry) -> weighBytes ? entry.weight() : 1)
+                .recordStats()
                 .build();
-        log.info("CaffeineFlowStateCache initialized with expireAfterWriteHours: {} and maximumSize: {}", expireAfterWriteHours, maximumSize);
+        log.info("CaffeineFlowStateCache initialized with expireAfterWrite: {} and maximumWeight: {}{}",
+                expireAfterWrite, maximumWeight, weighBytes ? " bytes" : " entries");
     }
 
     /**
      * 将序列化后的状态放入缓存。
      *
      * @param key 缓存键。
-     * @param serializedState 序列化后的状态字符串。
+     * @param serializedState 序列化后的状态。
      */
     @Override
-    public void put(String key, String serializedState) {
-        stateCache.put(key, serializedState);
-        log.debug("State saved to Caffeine with key: {}", key);
+    public boolean put(String key, byte[] serializedState) {
+        return putEntry(key, serializedState, defaultTtlNanos);
     }
 
     @Override
-    public Optional<String> get(String key) {
-        String state = stateCache.getIfPresent(key);
-        if (state != null) {
+    public Optional<byte[]> get(String key) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null) {
             log.debug("State loaded from Caffeine with key: {}", key);
+            return Optional.of((byte[]) entry.value());
         }
-        return Optional.ofNullable(state);
+        return Optional.empty();
     }
 
     @Override
-    public void put(String key, String serializedState, long ttlSeconds) {
-        // Caffeine's per-entry expiry is more complex to set up after build.
-        // For simplicity, this implementation relies on the global expiry policy.
-        // If per-entry TTL is strictly needed, a different cache setup or a wrapper around Cache might be required.
-        log.warn("Per-entry TTL is not directly supported by this CaffeineFlowStateCache implementation's current setup. Using global expiry for key: {}.", key);
-        // Uses the global expiry
-        put(key, serializedState);
+    public boolean put(String key, byte[] serializedState, long ttlSeconds) {
+        return putEntry(key, serializedState, Duration.ofSeconds(ttlSeconds).toNanos());
+    }
+
+    private boolean putEntry(String key, byte[] serializedState, long ttlNanos) {
+        cache.put(key, new Entry(serializedState, ttlNanos, weigh(key, serializedState)));
+        log.debug("State saved to Caffeine with key: {}", key);
+        return true;
     }
 
     @Override
     public void evict(String key) {
-        stateCache.invalidate(key);
+        cache.invalidate(key);
+        cache.invalidate(key + FIELDS_SUFFIX);
         log.debug("State evicted from Caffeine with key: {}", key);
     }
 
@@ -75,4 +130,117 @@ public class CaffeineFlowStateCache implements FlowStateCache {
     public String generateCacheKey(Object flowId, String executionId) {
         return StringUtils.format("{}{}:{}", CAFFEINE_CACHE_PREFIX, flowId, executionId);
     }
-}
\ No newline at end of file
+
+    /**
+     * 合并增量字段，仅在快照写入后建立的字段表仍存在时生效。
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean putFields(String key, Map<String, byte[]> fields) {
+        String fieldsKey = key + FIELDS_SUFFIX;
+        Entry existing = cache.getIfPresent(fieldsKey);
+        if (existing == null) {
+            log.debug("Delta fields missing in Caffeine with key: {}", key);
+            return false;
+        }
+        Map<String, byte[]> merged = new ConcurrentHashMap<>((Map<String, byte[]>) existing.value());
+        merged.putAll(fields);
+        // 重新放入以更新权重与写入时间，保持与快照一致的过期时间
+        cache.put(fieldsKey, new Entry(merged, existing.ttlNanos(), weigh(fieldsKey, merged)));
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<Map<String, byte[]>> getFields(String key) {
+        return Optional.ofNullable(cache.getIfPresent(key + FIELDS_SUFFIX))
+                .map(entry -> Map.copyOf((Map<String, byte[]>) entry.value()));
+    }
+
+    @Override
+    public boolean resetFields(String key) {
+        Entry snapshot = cache.getIfPresent(key);
+        long ttlNanos = snapshot != null ? snapshot.ttlNanos() : defaultTtlNanos;
+        String fieldsKey = key + FIELDS_SUFFIX;
+        cache.put(fieldsKey, new Entry(Map.of(), ttlNanos, weigh(fieldsKey, Map.of())));
+        return true;
+    }
+
+    @Override
+    public FlowStateCacheStats getStats() {
+        CacheStats stats = cache.stats();
+        long weightedSize = cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(-1L))
+                .orElse(-1L);
+        return FlowStateCacheStats.builder()
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .evictionCount(stats.evictionCount())
+                .evictionWeight(stats.evictionWeight())
+                .estimatedSize(cache.estimatedSize())
+                .weightedSize(weightedSize)
+                .maximumWeight(maximumWeight)
+                .build();
+    }
+
+    private static int weigh(String key, Object value) {
+        long bytes = utf8Length(key);
+        if (value instanceof byte[] state) {
+            bytes += state.length;
+        } else if (value instanceof Map<?, ?> fields) {
+            for (Map.Entry<?, ?> field : fields.entrySet()) {
+                bytes += utf8Length(String.valueOf(field.getKey())) + ((byte[]) field.getValue()).length;
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static long utf8Length(String value) {
+        long length = 0;
+        for (int i = 0, n = value.length(); i < n; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 缓存条目
+     *
+     * @param value    快照或增量字段表
+     * @param ttlNanos 过期时间（纳秒）
+     * @param weight   权重（字节数）
+     */
+    private record Entry(Object value, long ttlNanos, int weight) {
+    }
+
+    /**
+     * 写入（新增或更新）时按条目自身的过期时间计时，读取不延长过期时间
+     */
+    private static final class EntryExpiry implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(@NonNull String key, @NonNull Entry entry, long currentTime) {
+            return entry.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(@NonNull String key, @NonNull Entry entry, long currentTime, long currentDuration) {
+            return entry.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(@NonNull String key, @NonNull Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package cn.fxbin.bubble.flow.core.state.cache;
 
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -14,9 +15,10 @@ public interface FlowStateCache {
      * 将序列化后的状态放入缓存。
      *
      * @param key 缓存键，通常由 flowId 和 executionId 生成。
-     * @param serializedState 要存储的序列化状态字符串。
+     * @param serializedState 要存储的序列化状态。
+     * @return 是否写入成功；返回 false 表示该缓存中的快照可能仍是旧值。
      */
-    void put(String key, String serializedState);
+    boolean put(String key, byte[] serializedState);
 
     /**
      * 从缓存中检索序列化后的状态。
@@ -24,16 +26,17 @@ public interface FlowStateCache {
      * @param key 缓存键。
      * @return 包含序列化状态的 Optional，如果未找到则返回空 Optional。
      */
-    Optional<String> get(String key);
+    Optional<byte[]> get(String key);
 
     /**
      * 将序列化后的状态放入缓存，并指定生存时间 (TTL)。
      *
      * @param key 缓存键。
-     * @param serializedState 要存储的序列化状态字符串。
+     * @param serializedState 要存储的序列化状态。
      * @param ttlSeconds 缓存条目的生存时间（秒）。
+     * @return 是否写入成功；返回 false 表示该缓存中的快照可能仍是旧值。
      */
-    void put(String key, String serializedState, long ttlSeconds);
+    boolean put(String key, byte[] serializedState, long ttlSeconds);
 
     /**
      * 从缓存中移除一个状态。
@@ -52,4 +55,36 @@ public interface FlowStateCache {
      */
     String generateCacheKey(Object flowId, String executionId);
 
+    /**
+     * 写入增量字段，与已有字段合并。
+     *
+     * @param key 缓存键（与快照相同）。
+     * @param fields 字段名 -> 序列化后的字段值。
+     * @return 是否写入成功；返回 false 表示该缓存中的增量已不完整。
+     */
+    boolean putFields(String key, Map<String, byte[]> fields);
+
+    /**
+     * 获取全部增量字段。
+     *
+     * @param key 缓存键（与快照相同）。
+     * @return 增量字段，无法确定增量是否完整时返回空 Optional。
+     */
+    Optional<Map<String, byte[]>> getFields(String key);
+
+    /**
+     * 清空增量字段，写入完整快照后调用。
+     *
+     * @param key 缓存键（与快照相同）。
+     * @return 是否清空成功。
+     */
+    boolean resetFields(String key);
+
+    /**
+     * 获取缓存统计信息（命中、未命中、淘汰等）。
+     *
+     * @return {@link FlowStateCacheStats}
+     */
+    FlowStateCacheStats getStats();
+
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package cn.fxbin.bubble.flow.core.state.cache;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Statistics of a {@link FlowStateCache}.
+ *
+ * @author fxbin
+ * @since 2025/12/30
+ */
+@Getter
+@Builder
+@ToString
+public class FlowStateCacheStats {
+
+    /**
+     * 命中次数
+     */
+    private final long hitCount;
+
+    /**
+     * 未命中次数
+     */
+    private final long missCount;
+
+    /**
+     * 因容量或过期被淘汰的条目数（不支持时为 0）
+     */
+    private final long evictionCount;
+
+    /**
+     * 被淘汰条目的总权重（字节，不支持时为 0）
+     */
+    private final long evictionWeight;
+
+    /**
+     * 当前条目数（近似值，不支持时为 -1）
+     */
+    private final long estimatedSize;
+
+    /**
+     * 当前条目总权重（字节，不支持时为 -1）
+     */
+    private final long weightedSize;
+
+    /**
+     * 权重上限（字节，不支持时为 -1）
+     */
+    private final long maximumWeight;
+
+    /**
+     * 命中率
+     *
+     * @return double
+     */
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1 : (double) hitCount / requests;
+    }
+
+}
@@ -1,16 +1,25 @@
 package cn.fxbin.bubble.flow.core.state.cache;
 
-import cn.fxbin.bubble.core.util.ApplicationContextHolder;
 import cn.fxbin.bubble.core.util.StringUtils;
-import cn.fxbin.bubble.data.redis.RedisOperations;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.util.Assert;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Redis-based implementation of {@link FlowStateCache}.
  *
+ * <p>
+ *     快照与增量字段以原始字节写入 Redis，模板的值与哈希值序列化器需为 {@code RedisSerializer.byteArray()}。
+ * </p>
+ *
  * @author fxbin
  * @since 2025/4/22
  */
@@ -18,56 +27,40 @@ import java.util.Optional;
 public class RedisFlowStateCache implements FlowStateCache {
 
     private static final String REDIS_CACHE_PREFIX = "flowctx:redis:";
-    private final RedisOperations redisOperations;
+    private static final String DELTA_SUFFIX = ":delta";
+    private final RedisTemplate<String, byte[]> redisTemplate;
     private final long defaultExpireSeconds;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
 
     /**
-     * 构造函数，初始化 Redis 操作对象和默认过期时间。
-     *
-     * @param defaultExpireHours 默认过期时间（小时）。
-     */
-    public RedisFlowStateCache(long defaultExpireHours) {
-        this.redisOperations = initializeRedisOperations();
-        this.defaultExpireSeconds = defaultExpireHours * 3600;
-        log.info("RedisFlowStateCache initialized with defaultExpireHours: {}", defaultExpireHours);
-    }
-
-    /**
-     * 初始化 Redis 操作对象。
+     * 构造函数，初始化 Redis 模板和默认过期时间。
      *
-     * @return Redis 操作对象。
-     * @throws IllegalStateException 如果 Redis 操作对象未找到。
+     * @param redisTemplate 值与哈希值按原始字节读写的 Redis 模板。
+     * @param defaultExpire 默认过期时间。
      */
-    private RedisOperations initializeRedisOperations() {
-        try {
-            return ApplicationContextHolder.getBean(RedisOperations.class);
-        } catch (NoSuchBeanDefinitionException e) {
-            log.warn("RedisOperations bean not found. Redis L2 cache will be unavailable.");
-            // Depending on the application's requirements, you might throw an exception
-            // or return a dummy/no-op implementation if Redis is optional.
-            throw new IllegalStateException("RedisOperations bean not found, RedisFlowStateCache cannot operate.", e);
-        }
+    public RedisFlowStateCache(RedisTemplate<String, byte[]> redisTemplate, Duration defaultExpire) {
+        Assert.notNull(redisTemplate, "redisTemplate must not be null");
+        this.redisTemplate = redisTemplate;
+        this.defaultExpireSeconds = defaultExpire.toSeconds();
+        log.info("RedisFlowStateCache initialized with defaultExpire: {}", defaultExpire);
     }
 
     @Override
-    public void put(String key, String serializedState) {
-        try {
-            redisOperations.set(key, serializedState, defaultExpireSeconds);
-            log.debug("State saved to Redis with key: {} and default TTL: {} seconds", key, defaultExpireSeconds);
-        } catch (Exception e) {
-            log.error("Failed to save state to Redis with key: {}. Error: {}", key, e.getMessage(), e);
-            // Handle Redis unavailability or errors as per application's fault tolerance strategy
-        }
+    public boolean put(String key, byte[] serializedState) {
+        return put(key, serializedState, defaultExpireSeconds);
     }
 
     @Override
-    public Optional<String> get(String key) {
+    public Optional<byte[]> get(String key) {
         try {
-            Object state = redisOperations.get(key);
+            byte[] state = redisTemplate.opsForValue().get(key);
             if (state != null) {
+                hits.increment();
                 log.debug("State loaded from Redis with key: {}", key);
-                return Optional.of(String.valueOf(state));
+                return Optional.of(state);
             }
+            misses.increment();
             return Optional.empty();
         } catch (Exception e) {
             log.error("Failed to load state from Redis with key: {}. Error: {}", key, e.getMessage(), e);
@@ -77,19 +70,21 @@ public class RedisFlowStateCache implements FlowStateCache {
     }
 
     @Override
-    public void put(String key, String serializedState, long ttlSeconds) {
+    public boolean put(String key, byte[] serializedState, long ttlSeconds) {
         try {
-            redisOperations.set(key, serializedState, ttlSeconds);
+            redisTemplate.opsForValue().set(key, serializedState, ttlSeconds, TimeUnit.SECONDS);
             log.debug("State saved to Redis with key: {} and TTL: {} seconds", key, ttlSeconds);
+            return true;
         } catch (Exception e) {
             log.error("Failed to save state to Redis with key: {} and TTL: {}. Error: {}", key, ttlSeconds, e.getMessage(), e);
+            return false;
         }
     }
 
     @Override
     public void evict(String key) {
         try {
-            redisOperations.delete(key);
+            redisTemplate.delete(List.of(key, key + DELTA_SUFFIX));
             log.debug("State evicted from Redis with key: {}", key);
         } catch (Exception e) {
             log.error("Failed to evict state from Redis with key: {}. Error: {}", key, e.getMessage(), e);
@@ -100,4 +95,61 @@ public class RedisFlowStateCache implements FlowStateCache {
     public String generateCacheKey(Object flowId, String executionId) {
         return StringUtils.format("{}{}:{}", REDIS_CACHE_PREFIX, flowId, executionId);
     }
-}
\ No newline at end of file
+
+    /**
+     * 增量字段存放在 {key}:delta 哈希中，每次写入同时刷新快照与增量的过期时间。
+     */
+    @Override
+    public boolean putFields(String key, Map<String, byte[]> fields) {
+        String deltaKey = key + DELTA_SUFFIX;
+        try {
+            hashOperations().putAll(deltaKey, fields);
+        } catch (Exception e) {
+            log.error("Failed to save delta fields to Redis with key: {}. Error: {}", deltaKey, e.getMessage(), e);
+            return false;
+        }
+        redisTemplate.expire(deltaKey, defaultExpireSeconds, TimeUnit.SECONDS);
+        redisTemplate.expire(key, defaultExpireSeconds, TimeUnit.SECONDS);
+        log.debug("Delta fields saved to Redis with key: {}, size: {}", deltaKey, fields.size());
+        return true;
+    }
+
+    @Override
+    public Optional<Map<String, byte[]>> getFields(String key) {
+        try {
+            return Optional.of(hashOperations().entries(key + DELTA_SUFFIX));
+        } catch (Exception e) {
+            log.error("Failed to load delta fields from Redis with key: {}. Error: {}", key, e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public boolean resetFields(String key) {
+        try {
+            redisTemplate.delete(key + DELTA_SUFFIX);
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to reset delta fields in Redis with key: {}. Error: {}", key, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Redis 仅统计命中与未命中，淘汰由 Redis 自身的过期与内存策略负责。
+     */
+    @Override
+    public FlowStateCacheStats getStats() {
+        return FlowStateCacheStats.builder()
+                .hitCount(hits.sum())
+                .missCount(misses.sum())
+                .estimatedSize(-1)
+                .weightedSize(-1)
+                .maximumWeight(-1)
+                .build();
+    }
+
+    private HashOperations<String, String, byte[]> hashOperations() {
+        return redisTemplate.opsForHash();
+    }
+}
@@ -0,0 +1,74 @@
+package cn.fxbin.bubble.flow.core.state.serializer;
+
+import cn.fxbin.bubble.data.redis.serializer.BinaryRedisSerializer;
+import cn.fxbin.bubble.data.redis.serializer.Compression;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+
+/**
+ * Binary implementation of {@link FlowStateSerializer}.
+ *
+ * <p>
+ *     使用 {@link BinaryRedisSerializer}（Jackson Smile，带类型信息，超过阈值时压缩，自带版本化头部）编码上下文数据，
+ *     字节数组以二进制保存、集合与对象反序列化后保持原类型。编码结果直接写入状态缓存，不再经过文本转换；
+ *     读取不带二进制头部的值时按 JSON 解析，已有的 JSON 状态可以继续加载。
+ * </p>
+ *
+ * @author fxbin
+ * @since 2025/12/30
+ */
+@Slf4j
+public class BinaryFlowStateSerializer implements FlowStateSerializer {
+
+    private final BinaryRedisSerializer codec;
+
+    private final FlowStateSerializer fallback;
+
+    public BinaryFlowStateSerializer() {
+        this(Compression.NONE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param compression          压缩算法
+     * @param compressionThreshold 压缩阈值（字节）
+     */
+    public BinaryFlowStateSerializer(Compression compression, int compressionThreshold) {
+        this.codec = new BinaryRedisSerializer(compression, compressionThreshold);
+        this.fallback = new JsonFlowStateSerializer();
+    }
+
+    @Override
+    public byte[] serialize(Map<String, Object> contextData) throws SerializationException {
+        try {
+            return codec.serialize(contextData);
+        } catch (Exception e) {
+            log.error("Failed to serialize context data to binary, keys: {}", contextData.keySet(), e);
+            throw new SerializationException("Failed to serialize context data to binary", e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> deserialize(byte[] serializedContext) throws SerializationException {
+        if (!BinaryRedisSerializer.isBinary(serializedContext)) {
+            return fallback.deserialize(serializedContext);
+        }
+        try {
+            Object value = codec.deserialize(serializedContext);
+            if (value instanceof String json) {
+                // 以二进制格式包装的 JSON 文本
+                return json.isBlank() ? null : JsonFlowStateSerializer.parseMap(json);
+            }
+            if (value != null && !(value instanceof Map)) {
+                throw new SerializationException("Binary context data is not a Map: " + value.getClass().getName());
+            }
+            return (Map<String, Object>) value;
+        } catch (SerializationException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to deserialize context data from binary, length: {}", serializedContext.length, e);
+            throw new SerializationException("Failed to deserialize context data from binary", e);
+        }
+    }
+}
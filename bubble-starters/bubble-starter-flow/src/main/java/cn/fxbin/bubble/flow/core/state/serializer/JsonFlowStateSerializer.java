@@ -1,8 +1,10 @@
 package cn.fxbin.bubble.flow.core.state.serializer;
 
 import cn.fxbin.bubble.core.util.JsonUtils;
+import cn.fxbin.bubble.data.redis.serializer.BinaryRedisSerializer;
 import lombok.extern.slf4j.Slf4j;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 /**
@@ -15,16 +17,16 @@ import java.util.Map;
 public class JsonFlowStateSerializer implements FlowStateSerializer {
 
     /**
-     * 将上下文数据序列化为 JSON 字符串。
+     * 将上下文数据序列化为 UTF-8 编码的 JSON。
      *
      * @param contextData 包含上下文数据的 Map（例如变量、开始时间、版本）。
-     * @return 上下文数据的 JSON 字符串表示。
+     * @return 上下文数据的 JSON 字节表示。
      * @throws SerializationException 如果序列化过程中发生错误。
      */
     @Override
-    public String serialize(Map<String, Object> contextData) throws SerializationException {
+    public byte[] serialize(Map<String, Object> contextData) throws SerializationException {
         try {
-            return JsonUtils.toJson(contextData);
+            return JsonUtils.toJsonByte(contextData);
         } catch (Exception e) {
             log.error("Failed to serialize context data to JSON: {}", contextData, e);
             throw new SerializationException("Failed to serialize context data to JSON", e);
@@ -32,24 +34,50 @@ public class JsonFlowStateSerializer implements FlowStateSerializer {
     }
 
     /**
-     * 将 JSON 字符串反序列化为上下文数据 Map。
+     * 将 UTF-8 编码的 JSON 反序列化为上下文数据 Map。
+     * <p>旧版本经 GenericJackson2JsonRedisSerializer 把 JSON 文本作为字符串写入，值是带引号的 JSON 字符串字面量，读取时先解开一层。</p>
      *
-     * @param serializedContext JSON 字符串表示的上下文数据。
+     * @param serializedContext JSON 字节表示的上下文数据。
      * @return 反序列化后的上下文数据 Map。
      * @throws SerializationException 如果反序列化过程中发生错误或数据损坏。
      */
     @Override
-    public Map<String, Object> deserialize(String serializedContext) throws SerializationException {
+    public Map<String, Object> deserialize(byte[] serializedContext) throws SerializationException {
         try {
-            if (serializedContext == null || serializedContext.isEmpty() || "null".equalsIgnoreCase(serializedContext.trim())) {
-                log.warn("Attempted to deserialize null or empty string. Returning null.");
-                // Or throw new SerializationException("Serialized context is null or empty");
+            if (BinaryRedisSerializer.isBinary(serializedContext)) {
+                // 切换回 JSON 前以二进制格式保存的状态
+                return BinaryDecoderHolder.DECODER.deserialize(serializedContext);
+            }
+            String json = serializedContext == null ? null : new String(serializedContext, StandardCharsets.UTF_8);
+            if (json == null || json.isEmpty() || "null".equalsIgnoreCase(json.trim())) {
+                log.warn("Attempted to deserialize null or empty content. Returning null.");
                 return null;
             }
-            return JsonUtils.parse(serializedContext, Map.class);
+            return parseMap(json);
+        } catch (SerializationException e) {
+            throw e;
         } catch (Exception e) {
-            log.error("Failed to deserialize context data from JSON: {}", serializedContext, e);
+            log.error("Failed to deserialize context data from JSON, length: {}", serializedContext.length, e);
             throw new SerializationException("Failed to deserialize context data from JSON", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 解析 JSON 对象，带引号的字符串字面量先还原为其中的 JSON 文本
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> parseMap(String json) {
+        String content = json.strip();
+        if (content.startsWith("\"")) {
+            content = JsonUtils.parse(content, String.class);
+            if (content == null || content.isBlank()) {
+                return null;
+            }
+        }
+        return JsonUtils.parse(content, Map.class);
+    }
+
+    private static final class BinaryDecoderHolder {
+        private static final BinaryFlowStateSerializer DECODER = new BinaryFlowStateSerializer();
+    }
+}
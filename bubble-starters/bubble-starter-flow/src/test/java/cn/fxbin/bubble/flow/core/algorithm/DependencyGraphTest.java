@@ -0,0 +1,149 @@
+package cn.fxbin.bubble.flow.core.algorithm;
+
+import cn.fxbin.bubble.flow.core.exception.CycleDetectedException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DependencyGraphTest {
+
+    @Test
+    void shouldIndexReachabilityOfDag() {
+        // a -> b -> c, a -> d
+        DependencyGraph graph = graph("a", "b", "c", "d");
+        graph.addEdge("a", "b");
+        graph.addEdge("b", "c");
+        graph.addEdge("a", "d");
+
+        assertThat(graph.reaches("a", "c")).isTrue();
+        assertThat(graph.reaches("c", "a")).isFalse();
+        assertThat(graph.reaches("a", "a")).isFalse();
+        assertThat(graph.hasDependency("c", "a")).isTrue();
+        assertThat(graph.hasDependency("c", "d")).isFalse();
+        assertThat(graph.getAllAncestors("c")).containsExactlyInAnyOrder("a", "b");
+        assertThat(graph.topologicalSortFromNode("a")).startsWith("a").hasSize(4);
+    }
+
+    @Test
+    void shouldReachEveryNodeOfCycleIncludingItself() {
+        // a -> b -> c -> a
+        DependencyGraph graph = graph("a", "b", "c");
+        graph.addEdge("a", "b");
+        graph.addEdge("b", "c");
+        graph.addEdge("c", "a");
+
+        for (String from : List.of("a", "b", "c")) {
+            for (String to : List.of("a", "b", "c")) {
+                assertThat(graph.reaches(from, to)).as("%s -> %s", from, to).isTrue();
+            }
+        }
+    }
+
+    @Test
+    void shouldIndexNodesAboveAndBelowCycle() {
+        // s -> x -> a <-> b -> t
+        DependencyGraph graph = graph("s", "x", "a", "b", "t");
+        graph.addEdge("s", "x");
+        graph.addEdge("x", "a");
+        graph.addEdge("a", "b");
+        graph.addEdge("b", "a");
+        graph.addEdge("b", "t");
+
+        assertThat(graph.reaches("s", "a")).isTrue();
+        assertThat(graph.reaches("s", "b")).isTrue();
+        assertThat(graph.reaches("s", "t")).isTrue();
+        assertThat(graph.reaches("x", "t")).isTrue();
+        assertThat(graph.reaches("s", "s")).isFalse();
+        assertThat(graph.reaches("x", "x")).isFalse();
+        assertThat(graph.reaches("a", "a")).isTrue();
+        assertThat(graph.reaches("a", "s")).isFalse();
+        assertThat(graph.reaches("t", "a")).isFalse();
+        assertThatThrownBy(() -> graph.topologicalSortFromNode("s")).isInstanceOf(CycleDetectedException.class);
+    }
+
+    @Test
+    void shouldIgnoreDuplicateEdges() {
+        DependencyGraph graph = graph("a", "b", "c");
+        graph.addEdge("a", "b");
+        graph.addEdge("a", "b");
+        graph.addEdge("b", "c");
+        graph.addEdge("b", "c");
+
+        assertThat(graph.getPredecessors("b")).containsExactly("a");
+        assertThat(graph.getPredecessors("c")).containsExactly("b");
+        assertThat(graph.reaches("a", "c")).isTrue();
+        assertThat(graph.topologicalSortFromNode("a")).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    void shouldRebuildIndexAfterModification() {
+        DependencyGraph graph = graph("a", "b", "c");
+        graph.addEdge("a", "b");
+        assertThat(graph.hasDependency("a", "c")).isFalse();
+
+        graph.addEdge("b", "c");
+        assertThat(graph.hasDependency("a", "c")).isTrue();
+
+        graph.addNode("d");
+        assertThat(graph.hasDependency("a", "d")).isFalse();
+    }
+
+    @Test
+    void shouldMatchTraversalOnRandomGraphWithCycles() {
+        int n = 200;
+        SplittableRandom random = new SplittableRandom(20260101L);
+        DependencyGraph graph = new DependencyGraph();
+        List<List<Integer>> successors = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            graph.addNode(id(i));
+            successors.add(new ArrayList<>());
+        }
+        for (int e = 0; e < n * 2; e++) {
+            int from = random.nextInt(n);
+            int to = random.nextInt(n);
+            graph.addEdge(id(from), id(to));
+            successors.get(from).add(to);
+        }
+
+        for (int from = 0; from < n; from++) {
+            boolean[] reachable = traverse(successors, from);
+            for (int to = 0; to < n; to++) {
+                assertThat(graph.reaches(id(from), id(to))).as("%s -> %s", from, to).isEqualTo(reachable[to]);
+            }
+        }
+    }
+
+    private static DependencyGraph graph(String... nodeIds) {
+        DependencyGraph graph = new DependencyGraph();
+        for (String nodeId : nodeIds) {
+            graph.addNode(nodeId);
+        }
+        return graph;
+    }
+
+    private static String id(int i) {
+        return "node_" + i;
+    }
+
+    /**
+     * 深度优先遍历，返回 from 经至少一条边可达的节点
+     */
+    private static boolean[] traverse(List<List<Integer>> successors, int from) {
+        boolean[] visited = new boolean[successors.size()];
+        List<Integer> stack = new ArrayList<>(successors.get(from));
+        while (!stack.isEmpty()) {
+            int current = stack.removeLast();
+            if (!visited[current]) {
+                visited[current] = true;
+                stack.addAll(successors.get(current));
+            }
+        }
+        return visited;
+    }
+
+}
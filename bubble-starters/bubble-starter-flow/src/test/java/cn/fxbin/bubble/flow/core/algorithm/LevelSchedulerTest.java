@@ -0,0 +1,65 @@
+package cn.fxbin.bubble.flow.core.algorithm;
+
+import cn.fxbin.bubble.flow.core.exception.CycleDetectedException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LevelSchedulerTest {
+
+    private final LevelScheduler scheduler = new LevelScheduler();
+
+    @Test
+    void shouldRunBranchesFromDifferentSourcesInSameLevel() {
+        // start -> a -> end, source -> b -> end
+        DependencyGraph graph = new DependencyGraph();
+        for (String nodeId : List.of("start", "source", "a", "b", "end")) {
+            graph.addNode(nodeId);
+        }
+        graph.addEdge("start", "a");
+        graph.addEdge("a", "end");
+        graph.addEdge("source", "b");
+        graph.addEdge("b", "end");
+
+        SchedulePlan plan = scheduler.schedule(graph, "start",
+                Map.of("start", 10L, "source", 10L, "a", 100L, "b", 50L, "end", 10L), 0);
+
+        assertThat(plan.getLevels()).hasSize(3);
+        assertThat(plan.getLevels().get(0)).containsExactlyInAnyOrder("start", "source");
+        assertThat(plan.getLevels().get(1)).containsExactlyInAnyOrder("a", "b");
+        assertThat(plan.getLevels().get(2)).containsExactly("end");
+        assertThat(plan.getCriticalPath()).containsExactly("start", "a", "end");
+        assertThat(plan.getCriticalPathMs()).isEqualTo(120L);
+        assertThat(plan.getEstimatedMakespanMs()).isEqualTo(120L);
+        assertThat(plan.getSerialDurationMs()).isEqualTo(180L);
+    }
+
+    @Test
+    void shouldRejectStartNodeWithDependencies() {
+        DependencyGraph graph = new DependencyGraph();
+        graph.addNode("a");
+        graph.addNode("start");
+        graph.addEdge("a", "start");
+
+        assertThatThrownBy(() -> scheduler.schedule(graph, "start", Map.of(), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRejectCycleBehindAnotherSource() {
+        DependencyGraph graph = new DependencyGraph();
+        for (String nodeId : List.of("start", "a", "b")) {
+            graph.addNode(nodeId);
+        }
+        graph.addEdge("a", "b");
+        graph.addEdge("b", "a");
+
+        assertThatThrownBy(() -> scheduler.schedule(graph, "start", Map.of(), 0))
+                .isInstanceOf(CycleDetectedException.class);
+    }
+
+}
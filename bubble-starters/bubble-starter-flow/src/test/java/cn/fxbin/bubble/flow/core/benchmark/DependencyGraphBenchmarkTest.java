@@ -0,0 +1,83 @@
+package cn.fxbin.bubble.flow.core.benchmark;
+
+import cn.fxbin.bubble.flow.core.algorithm.DependencyGraph;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 依赖图构建（含传递闭包）与 hasDependency 查询性能
+ *
+ * <p>
+ *     在随机生成的 DAG 上测量，每个节点从之前的节点中随机选取 FAN_IN 个前驱，保证无环；先预热再计时。
+ * </p>
+ *
+ * @author fxbin
+ * @since 2025/12/29
+ */
+@Slf4j
+public class DependencyGraphBenchmarkTest {
+
+    // 配置参数
+    private static final int[] NODE_COUNTS = {100, 1000, 10000};
+    private static final int FAN_IN = 3;
+    private static final int QUERIES = 100_000;
+    private static final long SEED = 20251229L;
+
+    @Test
+    void benchmarkBuildAndQuery() {
+        for (int nodeCount : NODE_COUNTS) {
+            String[] ids = new String[nodeCount];
+            for (int i = 0; i < nodeCount; i++) {
+                ids[i] = "node_" + i;
+            }
+            // 预热构建
+            long blackhole = build(ids).getAllAncestors(ids[nodeCount - 1]).size();
+
+            long start = System.nanoTime();
+            DependencyGraph graph = build(ids);
+            // 首次查询触发索引构建
+            blackhole += graph.hasDependency(ids[0], ids[nodeCount - 1]) ? 1 : 0;
+            long buildNanos = System.nanoTime() - start;
+
+            SplittableRandom random = new SplittableRandom(SEED);
+            int[] pairs = new int[QUERIES << 1];
+            for (int i = 0; i < pairs.length; i++) {
+                pairs[i] = random.nextInt(nodeCount);
+            }
+            long dependent = 0;
+            for (int i = 0; i < pairs.length; i += 2) {
+                dependent += graph.hasDependency(ids[pairs[i]], ids[pairs[i + 1]]) ? 1 : 0;
+            }
+            start = System.nanoTime();
+            for (int i = 0; i < pairs.length; i += 2) {
+                blackhole += graph.hasDependency(ids[pairs[i]], ids[pairs[i + 1]]) ? 1 : 0;
+            }
+            long queryNanos = (System.nanoTime() - start) / QUERIES;
+
+            log.info("节点数：{}，构建：{} ms，查询：{} ns/op，存在依赖比例：{}",
+                    nodeCount, buildNanos / 1_000_000, queryNanos, (double) dependent / QUERIES);
+            assertThat(blackhole).isGreaterThanOrEqualTo(dependent);
+            // 最后一个节点至少依赖其直接前驱
+            assertThat(graph.getAllAncestors(ids[nodeCount - 1])).isNotEmpty();
+        }
+    }
+
+    private static DependencyGraph build(String[] ids) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        DependencyGraph graph = new DependencyGraph();
+        for (String id : ids) {
+            graph.addNode(id);
+        }
+        for (int i = 1; i < ids.length; i++) {
+            for (int k = Math.min(FAN_IN, i); k > 0; k--) {
+                graph.addEdge(ids[random.nextInt(i)], ids[i]);
+            }
+        }
+        return graph;
+    }
+
+}
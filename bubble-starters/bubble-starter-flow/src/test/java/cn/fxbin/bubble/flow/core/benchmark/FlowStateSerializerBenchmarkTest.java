@@ -0,0 +1,104 @@
+package cn.fxbin.bubble.flow.core.benchmark;
+
+import cn.fxbin.bubble.data.redis.serializer.Compression;
+import cn.fxbin.bubble.flow.core.state.serializer.BinaryFlowStateSerializer;
+import cn.fxbin.bubble.flow.core.state.serializer.FlowStateSerializer;
+import cn.fxbin.bubble.flow.core.state.serializer.JsonFlowStateSerializer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 流程状态序列化体积与耗时
+ *
+ * <p>
+ *     使用模拟的上下文数据对比各 {@link FlowStateSerializer} 写入状态缓存的字节数与耗时，先预热再计时，结果为单次平均值。
+ * </p>
+ *
+ * @author fxbin
+ * @since 2025/12/30
+ */
+@Slf4j
+public class FlowStateSerializerBenchmarkTest {
+
+    // 配置参数
+    private static final int VARIABLES = 200;
+    private static final int ITERATIONS = 2000;
+    private static final int COMPRESSION_THRESHOLD = 1024;
+
+    @Test
+    void benchmarkSerializers() {
+        Map<String, FlowStateSerializer> serializers = new LinkedHashMap<>();
+        serializers.put("json", new JsonFlowStateSerializer());
+        serializers.put("binary", new BinaryFlowStateSerializer());
+        for (Compression compression : Compression.values()) {
+            if (compression != Compression.NONE && compression.isAvailable()) {
+                serializers.put("binary+" + compression.name().toLowerCase(),
+                        new BinaryFlowStateSerializer(compression, COMPRESSION_THRESHOLD));
+            }
+        }
+        Map<String, Object> contextData = contextData();
+
+        serializers.forEach((name, serializer) -> {
+            byte[] serialized = serializer.serialize(contextData);
+            // 预热，并保留结果防止被 JIT 消除
+            long blackhole = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                blackhole += serializer.serialize(contextData).length;
+                blackhole += serializer.deserialize(serialized).size();
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                blackhole += serializer.serialize(contextData).length;
+            }
+            long serializeNanos = (System.nanoTime() - start) / ITERATIONS;
+            start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                blackhole += serializer.deserialize(serialized).size();
+            }
+            long deserializeNanos = (System.nanoTime() - start) / ITERATIONS;
+
+            log.info("序列化器：{}，体积：{} bytes，序列化：{} ns/op，反序列化：{} ns/op",
+                    name, serialized.length, serializeNanos, deserializeNanos);
+            assertThat(blackhole).isPositive();
+            assertThat(serializer.deserialize(serialized)).containsOnlyKeys(contextData.keySet());
+        });
+    }
+
+    /**
+     * 模拟的上下文数据：数字、字符串、列表与嵌套对象混合的变量
+     */
+    private static Map<String, Object> contextData() {
+        Map<String, Object> variables = new HashMap<>(VARIABLES);
+        for (int i = 0; i < VARIABLES; i++) {
+            switch (i % 4) {
+                case 0 -> variables.put("count_" + i, (long) i * 1_000);
+                case 1 -> variables.put("name_" + i, "node output text " + i);
+                case 2 -> {
+                    List<Object> items = new ArrayList<>();
+                    for (int k = 0; k < 5; k++) {
+                        items.add("item_" + k);
+                    }
+                    variables.put("items_" + i, items);
+                }
+                default -> variables.put("result_" + i, Map.of("status", "SUCCESS", "score", i / 10.0));
+            }
+        }
+        Map<String, Object> contextData = new HashMap<>();
+        contextData.put("variables", variables);
+        contextData.put("startTime", System.currentTimeMillis());
+        contextData.put("version", 2);
+        contextData.put("checkpoint", 1L);
+        contextData.put("userId", "user_1");
+        contextData.put("tenantId", "tenant_1");
+        return contextData;
+    }
+
+}
@@ -0,0 +1,59 @@
+package cn.fxbin.bubble.flow.core.builder;
+
+import cn.fxbin.bubble.flow.core.algorithm.SchedulePlan;
+import cn.fxbin.bubble.flow.core.config.FlowProperties;
+import cn.fxbin.bubble.flow.core.enums.PluginType;
+import cn.fxbin.bubble.flow.core.model.entity.FlowEdge;
+import cn.fxbin.bubble.flow.core.model.entity.FlowNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlowExpressionBuilderTest {
+
+    private final FlowExpressionBuilder builder = new FlowExpressionBuilder(null, null, null, new FlowProperties());
+
+    @Test
+    void shouldNotIgnoreErrorsOfLevelWithDependents() {
+        // start -> a -> end, start -> b -> end：a 或 b 失败时 end 不能执行
+        List<FlowNode> nodes = List.of(node("start", PluginType.START_NODE), node("a", PluginType.CODE_NODE),
+                node("b", PluginType.HTTP_NODE), node("end", PluginType.END_NODE));
+        List<FlowEdge> edges = List.of(edge("start", "a"), edge("start", "b"), edge("a", "end"), edge("b", "end"));
+
+        SchedulePlan plan = builder.buildLevelPlan(nodes, edges, Map.of());
+
+        assertThat(plan.getLevels()).hasSize(3);
+        assertThat(plan.getLevels().get(1)).containsExactlyInAnyOrder("a", "b");
+        assertThat(plan.getEl()).contains("WHEN(").doesNotContain("ignoreError(true)");
+    }
+
+    @Test
+    void shouldIgnoreErrorsOfTerminalLevel() {
+        // start -> a, start -> b：a、b 均无下游
+        List<FlowNode> nodes = List.of(node("start", PluginType.START_NODE), node("a", PluginType.CODE_NODE),
+                node("b", PluginType.HTTP_NODE));
+        List<FlowEdge> edges = List.of(edge("start", "a"), edge("start", "b"));
+
+        SchedulePlan plan = builder.buildLevelPlan(nodes, edges, Map.of());
+
+        assertThat(plan.getLevels()).hasSize(2);
+        assertThat(plan.getEl()).contains("ignoreError(true)");
+    }
+
+    private static FlowNode node(String id, PluginType type) {
+        FlowNode node = new FlowNode();
+        node.setId(id);
+        node.setNodeType(type);
+        return node;
+    }
+
+    private static FlowEdge edge(String source, String target) {
+        FlowEdge edge = new FlowEdge();
+        edge.setSourceNodeId(source);
+        edge.setTargetNodeId(target);
+        return edge;
+    }
+}
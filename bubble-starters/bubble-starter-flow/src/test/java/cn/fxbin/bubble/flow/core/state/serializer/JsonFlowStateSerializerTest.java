@@ -0,0 +1,50 @@
+package cn.fxbin.bubble.flow.core.state.serializer;
+
+import cn.fxbin.bubble.core.util.JsonUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonFlowStateSerializerTest {
+
+    @Test
+    void shouldReadStateWrittenAsQuotedJsonString() {
+        Map<String, Object> state = state();
+        // 旧版本：JSON 文本作为字符串经 GenericJackson2JsonRedisSerializer 写入 Redis
+        byte[] legacy = new GenericJackson2JsonRedisSerializer().serialize(JsonUtils.toJson(state));
+
+        assertThat(legacy[0]).isEqualTo((byte) '"');
+        assertThat(new JsonFlowStateSerializer().deserialize(legacy)).isEqualTo(state);
+        assertThat(new BinaryFlowStateSerializer().deserialize(legacy)).isEqualTo(state);
+    }
+
+    @Test
+    void shouldRoundTripState() {
+        Map<String, Object> state = state();
+        JsonFlowStateSerializer serializer = new JsonFlowStateSerializer();
+
+        assertThat(serializer.deserialize(serializer.serialize(state))).isEqualTo(state);
+    }
+
+    @Test
+    void shouldReturnNullForQuotedNull() {
+        byte[] legacy = new GenericJackson2JsonRedisSerializer().serialize("null");
+
+        assertThat(new JsonFlowStateSerializer().deserialize(legacy)).isNull();
+    }
+
+    private static Map<String, Object> state() {
+        Map<String, Object> variables = new LinkedHashMap<>();
+        variables.put("name", "say \"hi\"");
+        variables.put("items", List.of(1, 2, 3));
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("variables", variables);
+        state.put("version", 3);
+        return state;
+    }
+}